@@ -0,0 +1,65 @@
+package com.benchmarks;
+
+import com.selenium.utils.ConfigurationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigurationBenchmark - Cost of ConfigurationManager lookups
+ * Every lookup checks system properties, then the environment, then the file,
+ * so a value from application.properties pays for two misses first
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConfigurationBenchmark {
+
+    private ConfigurationManager config;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("benchmark.override", "system-value");
+        config = ConfigurationManager.getInstance();
+    }
+
+    @Benchmark
+    public String propertyFromFile() {
+        return config.getProperty("base.url");
+    }
+
+    @Benchmark
+    public String propertyFromSystem() {
+        return config.getProperty("benchmark.override");
+    }
+
+    @Benchmark
+    public String missingPropertyWithDefault() {
+        return config.getProperty("benchmark.missing", "default");
+    }
+
+    @Benchmark
+    public int intProperty() {
+        return config.getImplicitWaitTimeout();
+    }
+
+    @Benchmark
+    public boolean booleanProperty() {
+        return config.isHeadlessMode();
+    }
+}
@@ -0,0 +1,85 @@
+package com.benchmarks;
+
+import com.selenium.utils.DataReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.ITestContext;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataReaderBenchmark - Cost of reading TestNG parameters through DataReader
+ * Uses the parameters of selenium-smoke-tests.xml, with the credentials on the
+ * &lt;test&gt; and the browser settings on the &lt;suite&gt;
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DataReaderBenchmark {
+
+    private ITestContext context;
+
+    @Setup
+    public void setUp() {
+        XmlSuite suite = new XmlSuite();
+        Map<String, String> suiteParameters = new HashMap<>();
+        suiteParameters.put("browser", "chrome");
+        suiteParameters.put("headless", "true");
+        suiteParameters.put("baseUrl", "https://www.saucedemo.com");
+        suite.setParameters(suiteParameters);
+
+        XmlTest test = new XmlTest(suite);
+        Map<String, String> testParameters = new HashMap<>();
+        testParameters.put("username", "standard_user");
+        testParameters.put("password", "secret_sauce");
+        test.setParameters(testParameters);
+
+        // DataReader only needs getCurrentXmlTest(); a proxy avoids implementing all of ITestContext
+        context = (ITestContext) Proxy.newProxyInstance(ITestContext.class.getClassLoader(),
+            new Class<?>[]{ITestContext.class}, (proxy, method, args) -> {
+                if ("getCurrentXmlTest".equals(method.getName())) {
+                    return test;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    @Benchmark
+    public String testParameter() {
+        return DataReader.getParameter(context, "username");
+    }
+
+    @Benchmark
+    public String suiteParameter() {
+        return DataReader.getParameter(context, "browser");
+    }
+
+    @Benchmark
+    public String missingParameterWithDefault() {
+        return DataReader.getParameter(context, "invalidUsername", "invalid_user");
+    }
+
+    @Benchmark
+    public boolean headlessFlag() {
+        return DataReader.isHeadless(context);
+    }
+}
@@ -0,0 +1,101 @@
+package com.benchmarks;
+
+import com.benchmarks.stub.StubWebDriver;
+import com.selenium.logging.ElementDescriptors;
+import com.selenium.logging.LazyLog;
+import com.selenium.utils.ReportManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoggingBenchmark - Cost of framework log calls while DEBUG and reporting are off
+ * The eager variants are what pages and listeners did before: describing a PageFactory
+ * element with toString() (which resolves the proxy against the driver) and concatenating
+ * report messages for a thread without a test. The lazy variants go through LazyLog,
+ * ElementDescriptors and ReportManager.logInfo(Supplier). Run with -prof gc and compare
+ * gc.alloc.rate.norm, the bytes allocated per call
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LoggingBenchmark {
+
+    // Below the WARN level of benchmarks/logback.xml, so DEBUG is disabled
+    private static final Logger logger = LoggerFactory.getLogger("com.selenium.pages.BenchmarkPage");
+
+    /**
+     * Page with a PageFactory element, as the page objects declare them
+     */
+    public static class BenchmarkPage {
+        @FindBy(id = "login-button")
+        private WebElement loginButton;
+    }
+
+    private WebElement element;
+    private Map<Object, String> descriptions;
+    private String threadName;
+
+    @Setup
+    public void setUp() {
+        BenchmarkPage page = new BenchmarkPage();
+        PageFactory.initElements(new StubWebDriver(0), page);
+        element = page.loginButton;
+        descriptions = ElementDescriptors.of(page);
+        threadName = Thread.currentThread().getName();
+    }
+
+    @Benchmark
+    public void elementEager() {
+        logger.debug("Clicked element: {}", eagerDescription(element));
+    }
+
+    @Benchmark
+    public void elementLazy() {
+        LazyLog.debug(logger, "Clicked element: {}", () -> lazyDescription(element));
+    }
+
+    @Benchmark
+    public void reportEager() {
+        ReportManager.logInfo("Thread: " + threadName);
+    }
+
+    @Benchmark
+    public void reportLazy() {
+        ReportManager.logInfo(() -> "Thread: " + threadName);
+    }
+
+    private static String eagerDescription(WebElement element) {
+        try {
+            return element.toString();
+        } catch (Exception e) {
+            return "Unknown element";
+        }
+    }
+
+    private String lazyDescription(WebElement element) {
+        String description = descriptions.get(element);
+        return description != null ? description : eagerDescription(element);
+    }
+}
@@ -0,0 +1,63 @@
+package com.benchmarks;
+
+import com.benchmarks.stub.StubWebDriver;
+import com.selenium.pages.InventoryPage;
+import com.selenium.pages.LoginPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageObjectBenchmark - Cost of constructing page objects
+ * Construction runs PageFactory.initElements, which reflects over the @FindBy fields
+ * and creates a proxy per element; the *AndCheck variants add the first wait and
+ * element lookup a test does right after
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+
+    private WebDriver driver;
+
+    @Setup
+    public void setUp() {
+        driver = new StubWebDriver(0);
+    }
+
+    @Benchmark
+    public LoginPage loginPage() {
+        return new LoginPage(driver);
+    }
+
+    @Benchmark
+    public InventoryPage inventoryPage() {
+        return new InventoryPage(driver);
+    }
+
+    @Benchmark
+    public boolean loginPageAndCheck() {
+        return new LoginPage(driver).isLoginPageDisplayed();
+    }
+
+    @Benchmark
+    public boolean inventoryPageAndCheck() {
+        return new InventoryPage(driver).isInventoryPageDisplayed();
+    }
+}
@@ -0,0 +1,101 @@
+package com.benchmarks;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.selenium.utils.ReportManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportManagerBenchmark - Cost of ReportManager.log* alone and under contention
+ * Each thread logs into its own test, as parallel suites do; the contended runs show
+ * what the shared ExtentReports instance costs when several workers log at once.
+ * Iterations are short and every iteration starts a fresh test, because ExtentReports
+ * keeps every log entry in memory until the report is flushed
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class ReportManagerBenchmark {
+
+    private static final String MESSAGE = "Clicked element: By.id: login-button";
+
+    @State(Scope.Benchmark)
+    public static class Reports {
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            System.setProperty("reporting.output.directory",
+                Files.createTempDirectory("report-benchmark").toString());
+            ReportManager.initializeReports();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CurrentTest {
+
+        @Setup(Level.Iteration)
+        public void createTest(Reports reports) {
+            ReportManager.createTest("benchmark-" + Thread.currentThread().getName(), "ReportManager benchmark");
+        }
+
+        @TearDown(Level.Iteration)
+        public void removeTest() {
+            ExtentTest test = ReportManager.getCurrentTest();
+            ReportManager.getExtentReports().removeTest(test);
+            ReportManager.removeTest();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void logInfoSingleThread(CurrentTest test) {
+        ReportManager.logInfo(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logInfoFourThreads(CurrentTest test) {
+        ReportManager.logInfo(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void logInfoEightThreads(CurrentTest test) {
+        ReportManager.logInfo(MESSAGE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logPassFourThreads(CurrentTest test) {
+        ReportManager.logPass(MESSAGE);
+    }
+
+    /**
+     * Baseline: the cost of a call when no test is active on the thread
+     */
+    @Benchmark
+    @Threads(4)
+    public void logInfoWithoutTest() {
+        ReportManager.logInfo(MESSAGE);
+    }
+}
@@ -0,0 +1,88 @@
+package com.benchmarks;
+
+import com.benchmarks.stub.StubDrivers;
+import com.benchmarks.stub.StubWebDriver;
+import com.selenium.utils.ScreenshotUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * ScreenshotBenchmark - Cost of persisting a screenshot to the reports directory
+ * ScreenshotUtils asks the driver for OutputType.FILE (a temp file) and copies it,
+ * so every screenshot is written twice; directWrite is the single-write baseline.
+ * Runs in single-shot batches so the directory can be emptied between iterations
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 20)
+@Measurement(iterations = 10, batchSize = 20)
+@Fork(2)
+@State(Scope.Thread)
+public class ScreenshotBenchmark {
+
+    @Param({"150000", "500000"})
+    public int screenshotBytes;
+
+    private Path reportsDirectory;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        reportsDirectory = Files.createTempDirectory("screenshot-benchmark");
+        System.setProperty("reporting.output.directory", reportsDirectory.toString());
+        StubDrivers.install(new StubWebDriver(screenshotBytes));
+    }
+
+    @TearDown(Level.Iteration)
+    public void emptyDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(reportsDirectory)) {
+            files.filter(Files::isRegularFile).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        StubDrivers.uninstall();
+        try (Stream<Path> files = Files.walk(reportsDirectory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public String captureScreenshot() {
+        return ScreenshotUtils.captureScreenshot("testLoginWithValidCredentials");
+    }
+
+    @Benchmark
+    public Path directWrite() throws IOException {
+        byte[] png = ScreenshotUtils.captureScreenshotAsBytes();
+        return Files.write(Path.of(ScreenshotUtils.getScreenshotDirectory(), "direct_" + counter++ + ".png"), png);
+    }
+
+    @Benchmark
+    public String captureBase64() {
+        return ScreenshotUtils.captureScreenshotAsBase64();
+    }
+}
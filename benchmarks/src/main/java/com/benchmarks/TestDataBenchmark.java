@@ -0,0 +1,79 @@
+package com.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestDataBenchmark - Cost of loading JSON test data with Jackson
+ * Compares a shared ObjectMapper with one created per load, and parsing from
+ * the classpath with parsing bytes that are already in memory
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TestDataBenchmark {
+
+    private static final String TEST_DATA = "testdata/users.json";
+
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+    private ObjectReader mapReader;
+    private byte[] testData;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapReader = sharedMapper.readerFor(Map.class);
+        try (InputStream in = resource()) {
+            testData = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public JsonNode treeFromClasspathSharedMapper() throws IOException {
+        try (InputStream in = resource()) {
+            return sharedMapper.readTree(in);
+        }
+    }
+
+    @Benchmark
+    public JsonNode treeFromClasspathNewMapper() throws IOException {
+        try (InputStream in = resource()) {
+            return new ObjectMapper().readTree(in);
+        }
+    }
+
+    @Benchmark
+    public JsonNode treeFromMemory() throws IOException {
+        return sharedMapper.readTree(testData);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapFromMemory() throws IOException {
+        return mapReader.readValue(testData);
+    }
+
+    private InputStream resource() {
+        return TestDataBenchmark.class.getClassLoader().getResourceAsStream(TEST_DATA);
+    }
+}
@@ -0,0 +1,48 @@
+package com.benchmarks.stub;
+
+import com.selenium.core.DriverManager;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Field;
+
+/**
+ * StubDrivers - Places a stub driver where the framework utilities look for one
+ * DriverManager only fills its thread-local from createDriver, which launches a
+ * browser, so the stub is set on the thread-local directly
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class StubDrivers {
+
+    private StubDrivers() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Makes DriverManager.getDriver() return the stub on the calling thread
+     *
+     * @param driver Stub driver
+     */
+    public static void install(WebDriver driver) {
+        driverThreadLocal().set(driver);
+    }
+
+    /**
+     * Removes the calling thread's stub driver
+     */
+    public static void uninstall() {
+        driverThreadLocal().remove();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ThreadLocal<WebDriver> driverThreadLocal() {
+        try {
+            Field field = DriverManager.class.getDeclaredField("driverThreadLocal");
+            field.setAccessible(true);
+            return (ThreadLocal<WebDriver>) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("DriverManager has no driverThreadLocal field", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.benchmarks.stub;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * StubWebDriver - In-memory WebDriver for benchmarks
+ * Every element lookup succeeds with a visible, enabled element and screenshots
+ * return a fixed PNG-sized payload, so measurements contain framework code only
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class StubWebDriver implements WebDriver, TakesScreenshot, JavascriptExecutor {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private final byte[] screenshot;
+    private String currentUrl = "https://www.saucedemo.com/";
+
+    /**
+     * @param screenshotBytes Size of the screenshot payload (a 1080p page is 200-600 KB)
+     */
+    public StubWebDriver(int screenshotBytes) {
+        // Random content so the payload does not compress or dedupe better than a real PNG
+        this.screenshot = new byte[Math.max(screenshotBytes, PNG_SIGNATURE.length)];
+        new Random(42).nextBytes(screenshot);
+        System.arraycopy(PNG_SIGNATURE, 0, screenshot, 0, PNG_SIGNATURE.length);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(screenshot);
+    }
+
+    @Override
+    public void get(String url) {
+        this.currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Swag Labs";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.singletonList(new StubWebElement(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return new StubWebElement(by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return "<html><head><title>Swag Labs</title></head><body></body></html>";
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    @Override
+    public void quit() {
+        // Nothing to release
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton("stub-window");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "stub-window";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedOperationException("switchTo is not stubbed");
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException("navigate is not stubbed");
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException("manage is not stubbed");
+    }
+}
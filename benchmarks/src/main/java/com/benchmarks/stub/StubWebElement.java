@@ -0,0 +1,117 @@
+package com.benchmarks.stub;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * StubWebElement - Element returned by {@link StubWebDriver}
+ * Always displayed and enabled, so explicit waits return on their first poll
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class StubWebElement implements WebElement {
+
+    private final By locator;
+
+    public StubWebElement(By locator) {
+        this.locator = locator;
+    }
+
+    @Override
+    public void click() {
+        // No-op
+    }
+
+    @Override
+    public void submit() {
+        // No-op
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        // No-op
+    }
+
+    @Override
+    public void clear() {
+        // No-op
+    }
+
+    @Override
+    public String getTagName() {
+        return "div";
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isSelected() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        return "Products";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.singletonList(new StubWebElement(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return new StubWebElement(by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return new Dimension(100, 20);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        throw new UnsupportedOperationException("Element screenshots are not stubbed");
+    }
+
+    @Override
+    public String toString() {
+        return "StubWebElement -> " + locator;
+    }
+}
@@ -0,0 +1,300 @@
+package com.appium.adb;
+
+import com.appium.core.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * AdbClient - Talks to the ADB server socket directly instead of forking "adb" processes
+ * Keeps a connection pool per device, runs shell commands concurrently, streams output
+ * line by line and enforces a deadline on every command
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AdbClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdbClient.class);
+    private static volatile AdbClient instance;
+
+    private static final String EXIT_MARKER = "__ADB_EXIT__";
+    private static final String DEFAULT_HOST = "127.0.0.1";
+    private static final int DEFAULT_PORT = 5037;
+
+    private final String host;
+    private final int port;
+    private final int maxConnectionsPerDevice;
+    private final int connectTimeoutMillis;
+    private final Duration defaultTimeout;
+    private final ConcurrentHashMap<String, AdbConnectionPool> pools = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public AdbClient(String host, int port, int maxConnectionsPerDevice, Duration defaultTimeout) {
+        this.host = host;
+        this.port = port;
+        this.maxConnectionsPerDevice = Math.max(1, maxConnectionsPerDevice);
+        this.connectTimeoutMillis = (int) Math.min(defaultTimeout.toMillis(), 5000);
+        this.defaultTimeout = defaultTimeout;
+        this.executor = Executors.newCachedThreadPool(new DaemonThreadFactory());
+    }
+
+    /**
+     * Gets the shared client configured from application.properties
+     *
+     * @return AdbClient instance
+     */
+    public static AdbClient getInstance() {
+        if (instance == null) {
+            synchronized (AdbClient.class) {
+                if (instance == null) {
+                    ConfigurationManager config = ConfigurationManager.getInstance();
+                    instance = new AdbClient(
+                        config.getProperty("adb.server.host", DEFAULT_HOST),
+                        config.getIntProperty("adb.server.port", DEFAULT_PORT),
+                        config.getIntProperty("adb.pool.max.connections", 4),
+                        Duration.ofSeconds(config.getIntProperty("adb.command.timeout", 10)));
+                    logger.info("ADB client initialized for server {}:{}", instance.host, instance.port);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ==================== SHELL COMMANDS ====================
+
+    /**
+     * Runs a shell command on the device using the default timeout
+     *
+     * @param serial Device serial (udid), or null for the only connected device
+     * @param command Shell command, e.g. "am force-stop com.example"
+     * @return Collected output and exit code
+     */
+    public AdbShellResult shell(String serial, String command) {
+        return shell(serial, command, defaultTimeout);
+    }
+
+    /**
+     * Runs a shell command on the device and collects its output
+     *
+     * @param serial Device serial (udid), or null for the only connected device
+     * @param command Shell command
+     * @param timeout Deadline for acquiring a connection and completing the command
+     * @return Collected output and exit code
+     * @throws AdbException on protocol errors, unknown devices or timeouts
+     */
+    public AdbShellResult shell(String serial, String command, Duration timeout) {
+        long start = System.nanoTime();
+        StringBuilder output = new StringBuilder();
+        int exitCode = execute(serial, command, timeout, line -> output.append(line).append('\n'));
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new AdbShellResult(serial, command, output.toString(), exitCode, durationMillis);
+    }
+
+    /**
+     * Runs a shell command on a pooled connection without blocking the caller
+     * Several commands for the same device run concurrently up to the pool limit
+     *
+     * @param serial Device serial (udid)
+     * @param command Shell command
+     * @param timeout Command deadline
+     * @return Future completed with the command result
+     */
+    public CompletableFuture<AdbShellResult> shellAsync(String serial, String command, Duration timeout) {
+        return CompletableFuture.supplyAsync(() -> shell(serial, command, timeout), executor);
+    }
+
+    /**
+     * Runs a shell command and hands each output line to the consumer as it arrives
+     *
+     * @param serial Device serial (udid)
+     * @param command Shell command
+     * @param timeout Command deadline
+     * @param lineConsumer Receives output lines without trailing line separators
+     * @return Exit code reported by the device shell, or -1 if unknown
+     */
+    public int shellStreaming(String serial, String command, Duration timeout, Consumer<String> lineConsumer) {
+        return execute(serial, command, timeout, lineConsumer);
+    }
+
+    // ==================== HOST SERVICES ====================
+
+    /**
+     * Lists devices known to the ADB server
+     *
+     * @return Lines of "serial\tstate"
+     */
+    public List<String> listDevices() {
+        try (AdbConnection connection = AdbConnection.open(host, port, null, connectTimeoutMillis)) {
+            connection.setReadTimeout((int) defaultTimeout.toMillis());
+            connection.request("host:devices");
+            List<String> devices = new ArrayList<>();
+            for (String line : connection.readLengthPrefixed().split("\n")) {
+                if (!line.trim().isEmpty()) {
+                    devices.add(line.trim());
+                }
+            }
+            return devices;
+        } catch (IOException e) {
+            throw new AdbException("Failed to list devices from ADB server " + host + ":" + port, e);
+        }
+    }
+
+    /**
+     * Checks whether the ADB server accepts connections
+     *
+     * @return true if the server answered a version request
+     */
+    public boolean isServerAvailable() {
+        try (AdbConnection connection = AdbConnection.open(host, port, null, connectTimeoutMillis)) {
+            connection.setReadTimeout(connectTimeoutMillis);
+            connection.request("host:version");
+            return true;
+        } catch (Exception e) {
+            logger.debug("ADB server not available at {}:{}: {}", host, port, e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    private int execute(String serial, String command, Duration timeout, Consumer<String> lineConsumer) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        AdbConnectionPool pool = poolFor(serial);
+        AdbConnection connection = null;
+
+        try {
+            connection = pool.acquire(deadline);
+            String service = "shell:" + command + "; echo " + EXIT_MARKER + "$?";
+            try {
+                connection.request(service);
+            } catch (IOException stale) {
+                // Warm sockets can be dropped by the server while idle - retry once on a fresh one
+                logger.debug("Pooled ADB connection was stale, reconnecting: {}", stale.getMessage());
+                connection.close();
+                connection = pool.openFresh();
+                connection.request(service);
+            }
+            return readOutput(connection, deadline, lineConsumer, command);
+
+        } catch (AdbException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdbException("Interrupted while running ADB command: " + command, e);
+        } catch (IOException e) {
+            throw new AdbException("ADB command failed: " + command, e);
+        } finally {
+            if (connection != null) {
+                connection.close();
+                pool.release();
+            }
+        }
+    }
+
+    private int readOutput(AdbConnection connection, long deadline, Consumer<String> lineConsumer,
+                           String command) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+        int exitCode = -1;
+
+        while (true) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new AdbException("ADB command timed out: " + command);
+            }
+            connection.setReadTimeout((int) Math.min(remainingMillis, Integer.MAX_VALUE));
+
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (SocketTimeoutException e) {
+                throw new AdbException("ADB command timed out: " + command, e);
+            }
+            if (line == null) {
+                return exitCode;
+            }
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+
+            int markerIndex = line.lastIndexOf(EXIT_MARKER);
+            if (markerIndex >= 0) {
+                if (markerIndex > 0) {
+                    lineConsumer.accept(line.substring(0, markerIndex));
+                }
+                exitCode = parseExitCode(line.substring(markerIndex + EXIT_MARKER.length()));
+            } else {
+                lineConsumer.accept(line);
+            }
+        }
+    }
+
+    private int parseExitCode(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private AdbConnectionPool poolFor(String serial) {
+        String key = serial == null ? "" : serial;
+        return pools.computeIfAbsent(key, k ->
+            new AdbConnectionPool(host, port, k, maxConnectionsPerDevice, connectTimeoutMillis, executor));
+    }
+
+    /**
+     * Gets the number of commands served by pre-warmed connections
+     *
+     * @return Warm connection hits across all devices
+     */
+    public long getWarmConnectionHits() {
+        return pools.values().stream().mapToLong(AdbConnectionPool::getWarmHits).sum();
+    }
+
+    /**
+     * Gets the number of connections opened on demand
+     *
+     * @return Cold connection opens across all devices
+     */
+    public long getColdConnectionOpens() {
+        return pools.values().stream().mapToLong(AdbConnectionPool::getColdOpens).sum();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(AdbConnectionPool::close);
+        pools.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates daemon threads so pending ADB work never keeps the JVM alive
+     */
+    private static class DaemonThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "adb-client-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.appium.adb;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AdbConnection - Single socket to the ADB server speaking the smart-socket protocol
+ * Requests are sent as a 4 digit hex length followed by the payload, and the
+ * server answers with OKAY or FAIL plus a length-prefixed reason
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+class AdbConnection implements Closeable {
+
+    private static final String OKAY = "OKAY";
+    private static final String FAIL = "FAIL";
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final OutputStream output;
+    private final String serial;
+
+    private AdbConnection(Socket socket, String serial) throws IOException {
+        this.socket = socket;
+        this.input = new DataInputStream(socket.getInputStream());
+        this.output = socket.getOutputStream();
+        this.serial = serial;
+    }
+
+    /**
+     * Opens a connection to the ADB server and switches it to the device transport
+     *
+     * @param host ADB server host
+     * @param port ADB server port
+     * @param serial Device serial, or null/empty for any single device
+     * @param connectTimeoutMillis Socket connect timeout
+     * @return Connection ready to open a device service
+     * @throws IOException if the server cannot be reached
+     */
+    static AdbConnection openTransport(String host, int port, String serial, int connectTimeoutMillis) throws IOException {
+        AdbConnection connection = open(host, port, serial, connectTimeoutMillis);
+        try {
+            connection.request(serial == null || serial.isEmpty() ? "host:transport-any" : "host:transport:" + serial);
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a connection to the ADB server without selecting a device
+     */
+    static AdbConnection open(String host, int port, String serial, int connectTimeoutMillis) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            return new AdbConnection(socket, serial);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a request and waits for the OKAY status
+     *
+     * @param payload Request payload, e.g. "host:devices" or "shell:ls"
+     * @throws AdbException if the server answers FAIL
+     * @throws IOException on socket errors
+     */
+    void request(String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        byte[] header = String.format("%04x", bytes.length).getBytes(StandardCharsets.US_ASCII);
+        output.write(header);
+        output.write(bytes);
+        output.flush();
+
+        String status = readFixed(4);
+        if (FAIL.equals(status)) {
+            throw new AdbException("ADB request '" + payload + "' failed: " + readLengthPrefixed());
+        }
+        if (!OKAY.equals(status)) {
+            throw new AdbException("Unexpected ADB response '" + status + "' for request: " + payload);
+        }
+    }
+
+    /**
+     * Reads a hex length-prefixed string as used by host services
+     */
+    String readLengthPrefixed() throws IOException {
+        int length = Integer.parseInt(readFixed(4), 16);
+        return readFixed(length);
+    }
+
+    private String readFixed(int length) throws IOException {
+        byte[] buffer = new byte[length];
+        input.readFully(buffer);
+        return new String(buffer, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the raw stream carrying service output after a successful request
+     */
+    InputStream getInputStream() {
+        return input;
+    }
+
+    /**
+     * Gets the raw stream used to send data to an opened service
+     */
+    OutputStream getOutputStream() {
+        return output;
+    }
+
+    /**
+     * Signals end of input to an opened service (e.g. stdin of an exec: command)
+     */
+    void shutdownOutput() throws IOException {
+        socket.shutdownOutput();
+    }
+
+    void setReadTimeout(int timeoutMillis) throws SocketException {
+        socket.setSoTimeout(Math.max(1, timeoutMillis));
+    }
+
+    String getSerial() {
+        return serial;
+    }
+
+    boolean isOpen() {
+        return !socket.isClosed() && socket.isConnected();
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing useful to do - the connection is being discarded
+        }
+    }
+}
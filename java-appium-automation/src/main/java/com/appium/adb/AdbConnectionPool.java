@@ -0,0 +1,124 @@
+package com.appium.adb;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AdbConnectionPool - Per-device pool of pre-connected ADB transports
+ * ADB consumes a socket once a device service is opened on it, so the pool keeps
+ * warm sockets that already completed the transport handshake and replaces them
+ * in the background, while a semaphore bounds concurrent commands per device
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+class AdbConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdbConnectionPool.class);
+
+    private final String host;
+    private final int port;
+    private final String serial;
+    private final int connectTimeoutMillis;
+    private final int maxWarmConnections;
+    private final Semaphore permits;
+    private final Executor warmupExecutor;
+    private final ConcurrentLinkedDeque<AdbConnection> warmConnections = new ConcurrentLinkedDeque<>();
+    private final AtomicLong warmHits = new AtomicLong();
+    private final AtomicLong coldOpens = new AtomicLong();
+
+    AdbConnectionPool(String host, int port, String serial, int maxConnections,
+                      int connectTimeoutMillis, Executor warmupExecutor) {
+        this.host = host;
+        this.port = port;
+        this.serial = serial;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.maxWarmConnections = Math.max(1, maxConnections / 2);
+        this.permits = new Semaphore(maxConnections, true);
+        this.warmupExecutor = warmupExecutor;
+    }
+
+    /**
+     * Acquires a connection switched to this pool's device
+     *
+     * @param deadlineNanos System.nanoTime() deadline for obtaining a slot
+     * @return Connection ready to open a device service
+     */
+    AdbConnection acquire(long deadlineNanos) throws IOException, InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (!permits.tryAcquire(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+            throw new AdbException("Timed out waiting for a free ADB connection to device: " + describeSerial());
+        }
+
+        try {
+            AdbConnection warm;
+            while ((warm = warmConnections.pollFirst()) != null) {
+                if (warm.isOpen()) {
+                    warmHits.incrementAndGet();
+                    return warm;
+                }
+                warm.close();
+            }
+            coldOpens.incrementAndGet();
+            return AdbConnection.openTransport(host, port, serial, connectTimeoutMillis);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a fresh connection bypassing warm sockets (used when a warm one turned out stale)
+     */
+    AdbConnection openFresh() throws IOException {
+        coldOpens.incrementAndGet();
+        return AdbConnection.openTransport(host, port, serial, connectTimeoutMillis);
+    }
+
+    /**
+     * Returns the slot taken by {@link #acquire(long)} and tops up the warm connections
+     */
+    void release() {
+        permits.release();
+        if (warmConnections.size() < maxWarmConnections) {
+            warmupExecutor.execute(this::warmUp);
+        }
+    }
+
+    private void warmUp() {
+        if (warmConnections.size() >= maxWarmConnections) {
+            return;
+        }
+        try {
+            warmConnections.addLast(AdbConnection.openTransport(host, port, serial, connectTimeoutMillis));
+        } catch (Exception e) {
+            logger.debug("Could not pre-warm ADB connection for device {}: {}", describeSerial(), e.getMessage());
+        }
+    }
+
+    long getWarmHits() {
+        return warmHits.get();
+    }
+
+    long getColdOpens() {
+        return coldOpens.get();
+    }
+
+    void close() {
+        AdbConnection connection;
+        while ((connection = warmConnections.pollFirst()) != null) {
+            connection.close();
+        }
+    }
+
+    private String describeSerial() {
+        return serial == null || serial.isEmpty() ? "<any>" : serial;
+    }
+}
@@ -0,0 +1,19 @@
+package com.appium.adb;
+
+/**
+ * AdbException - Raised when the ADB server rejects a request, the device
+ * transport is unavailable or a command exceeds its deadline
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AdbException extends RuntimeException {
+
+    public AdbException(String message) {
+        super(message);
+    }
+
+    public AdbException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
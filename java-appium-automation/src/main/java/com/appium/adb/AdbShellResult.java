@@ -0,0 +1,59 @@
+package com.appium.adb;
+
+/**
+ * AdbShellResult - Immutable result of a shell command executed through the ADB server
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AdbShellResult {
+
+    private final String serial;
+    private final String command;
+    private final String output;
+    private final int exitCode;
+    private final long durationMillis;
+
+    public AdbShellResult(String serial, String command, String output, int exitCode, long durationMillis) {
+        this.serial = serial;
+        this.command = command;
+        this.output = output;
+        this.exitCode = exitCode;
+        this.durationMillis = durationMillis;
+    }
+
+    public String getSerial() {
+        return serial;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    /**
+     * Gets the exit code reported by the device shell
+     *
+     * @return Exit code, or -1 if the device did not report one
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isSuccess() {
+        return exitCode == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "AdbShellResult{serial=" + serial + ", command=" + command
+            + ", exitCode=" + exitCode + ", durationMillis=" + durationMillis + "}";
+    }
+}
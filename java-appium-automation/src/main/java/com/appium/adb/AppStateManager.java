@@ -0,0 +1,314 @@
+package com.appium.adb;
+
+import com.appium.core.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * AppStateManager - Captures an app once it is past onboarding and restores it before tests
+ * The data directory is archived with tar on the device itself (via run-as, or su on
+ * rooted devices) so nothing is copied over USB; runtime permissions are re-granted
+ * with pm so permission dialogs do not come back. Callers fall back to the UI flow
+ * whenever {@link #restore} returns false
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AppStateManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppStateManager.class);
+    private static volatile AppStateManager instance;
+    private static final ThreadLocal<Boolean> restoredForCurrentTest = ThreadLocal.withInitial(() -> false);
+
+    private static final Pattern GRANTED_PERMISSION = Pattern.compile("^\\s+([\\w.]+): granted=true");
+    // Caches are rebuilt by the app and only slow the archive down
+    private static final String TAR_EXCLUDES = "--exclude=./cache --exclude=./code_cache";
+
+    private final AdbClient adb;
+    private final String deviceDirectory;
+    private final Duration commandTimeout;
+    private final Map<String, AppStateSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final AtomicLong restores = new AtomicLong();
+    private final AtomicLong restoreMillis = new AtomicLong();
+    private final AtomicLong restoreFailures = new AtomicLong();
+
+    public AppStateManager(AdbClient adb, String deviceDirectory, Duration commandTimeout) {
+        this.adb = adb;
+        this.deviceDirectory = deviceDirectory;
+        this.commandTimeout = commandTimeout;
+    }
+
+    /**
+     * Gets the shared manager configured from application.properties
+     *
+     * @return AppStateManager instance
+     */
+    public static AppStateManager getInstance() {
+        if (instance == null) {
+            synchronized (AppStateManager.class) {
+                if (instance == null) {
+                    ConfigurationManager config = ConfigurationManager.getInstance();
+                    instance = new AppStateManager(AdbClient.getInstance(),
+                        config.getProperty("app.state.snapshot.directory", "/data/local/tmp/appstate"),
+                        Duration.ofSeconds(config.getIntProperty("app.state.snapshot.timeout", 60)));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether snapshots are enabled for an app package
+     *
+     * @param appPackage App package
+     * @return true if the package is listed in app.state.snapshot.packages
+     */
+    public static boolean isEnabledFor(String appPackage) {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        if (appPackage == null || appPackage.isEmpty() || !config.getBooleanProperty("app.state.snapshot.enabled", false)) {
+            return false;
+        }
+        return Arrays.stream(config.getProperty("app.state.snapshot.packages", "").split(","))
+            .map(String::trim)
+            .anyMatch(appPackage::equals);
+    }
+
+    /**
+     * Checks whether the current test started from restored app data
+     * Page objects use this to skip onboarding and permission dialogs; a permission-only
+     * snapshot does not count, as the onboarding state lives in the app data
+     *
+     * @return true if the app data was restored for this test
+     */
+    public static boolean isStateRestored() {
+        return restoredForCurrentTest.get();
+    }
+
+    /**
+     * Clears the restored flag at the end of a test
+     */
+    public static void resetTestState() {
+        restoredForCurrentTest.remove();
+    }
+
+    // ==================== CAPTURE ====================
+
+    /**
+     * Checks whether a snapshot exists for the app on the device
+     *
+     * @param serial Device serial
+     * @param appPackage App package
+     * @return true if a snapshot can be restored
+     */
+    public boolean hasSnapshot(String serial, String appPackage) {
+        return snapshots.containsKey(key(serial, appPackage));
+    }
+
+    /**
+     * Captures the app's current state; the app is force-stopped first so its
+     * databases and preferences are flushed
+     *
+     * @param serial Device serial
+     * @param appPackage App package
+     * @return Snapshot, or null if nothing could be captured
+     */
+    public AppStateSnapshot capture(String serial, String appPackage) {
+        long start = System.nanoTime();
+        try {
+            adb.shell(serial, "am force-stop " + appPackage, commandTimeout);
+            List<String> permissions = readGrantedPermissions(serial, appPackage);
+
+            AppStateSnapshot.Strategy strategy = detectStrategy(serial, appPackage);
+            String archive = deviceDirectory + "/" + appPackage + ".tar";
+            if (strategy != AppStateSnapshot.Strategy.PERMISSIONS_ONLY) {
+                AdbShellResult result = adb.shell(serial, archiveCommand(strategy, appPackage, archive), commandTimeout);
+                if (!result.isSuccess()) {
+                    logger.warn("Archiving {} data failed ({}), keeping permissions only: {}",
+                        appPackage, result.getExitCode(), result.getOutput().trim());
+                    strategy = AppStateSnapshot.Strategy.PERMISSIONS_ONLY;
+                }
+            }
+
+            AppStateSnapshot snapshot = new AppStateSnapshot(serial, appPackage, strategy,
+                strategy == AppStateSnapshot.Strategy.PERMISSIONS_ONLY ? null : archive,
+                permissions, Instant.now(), elapsedMillis(start));
+            snapshots.put(key(serial, appPackage), snapshot);
+            logger.info("Captured {} in {}ms", snapshot, snapshot.getCaptureMillis());
+            return snapshot;
+        } catch (AdbException e) {
+            logger.warn("Failed to capture state of {}: {}", appPackage, e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== RESTORE ====================
+
+    /**
+     * Restores the app to its captured state; the app is left stopped so the caller
+     * can (re)launch it
+     *
+     * @param serial Device serial
+     * @param appPackage App package
+     * @return true on success, false if the caller must go through the UI flow
+     */
+    public boolean restore(String serial, String appPackage) {
+        AppStateSnapshot snapshot = snapshots.get(key(serial, appPackage));
+        restoredForCurrentTest.set(false);
+        if (snapshot == null) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            adb.shell(serial, "am force-stop " + appPackage, commandTimeout);
+
+            if (snapshot.getArchivePath() != null) {
+                AdbShellResult result = adb.shell(serial,
+                    extractCommand(snapshot.getStrategy(), appPackage, snapshot.getArchivePath()), commandTimeout);
+                if (!result.isSuccess()) {
+                    return restoreFailed(serial, appPackage, "extract exited with " + result.getExitCode()
+                        + ": " + result.getOutput().trim());
+                }
+            }
+
+            for (String permission : snapshot.getGrantedPermissions()) {
+                AdbShellResult result = adb.shell(serial, "pm grant " + appPackage + " " + permission, commandTimeout);
+                if (!result.isSuccess()) {
+                    // Some permissions (e.g. install-time) cannot be granted; only worth a debug line
+                    logger.debug("pm grant {} failed: {}", permission, result.getOutput().trim());
+                }
+            }
+        } catch (AdbException e) {
+            return restoreFailed(serial, appPackage, e.getMessage());
+        }
+
+        long elapsed = elapsedMillis(start);
+        restores.incrementAndGet();
+        restoreMillis.addAndGet(elapsed);
+        // Without app data the onboarding dialogs come back, so pages must still handle them
+        restoredForCurrentTest.set(snapshot.getArchivePath() != null);
+        logger.info("Restored {} ({}) in {}ms", appPackage, snapshot.getStrategy(), elapsed);
+        return true;
+    }
+
+    /**
+     * Drops a failed snapshot so the next passing test captures a fresh one
+     */
+    private boolean restoreFailed(String serial, String appPackage, String reason) {
+        restoreFailures.incrementAndGet();
+        snapshots.remove(key(serial, appPackage));
+        logger.warn("Restoring {} failed, falling back to the UI flow: {}", appPackage, reason);
+        return false;
+    }
+
+    // ==================== METRICS ====================
+
+    public long getRestoreCount() {
+        return restores.get();
+    }
+
+    public long getRestoreFailureCount() {
+        return restoreFailures.get();
+    }
+
+    public long getAverageRestoreMillis() {
+        long count = restores.get();
+        return count == 0 ? 0 : restoreMillis.get() / count;
+    }
+
+    /**
+     * One-line summary of restore activity
+     *
+     * @return Summary
+     */
+    public String getSummary() {
+        return String.format("app state restores %d (avg %dms), failures %d, snapshots %d",
+            getRestoreCount(), getAverageRestoreMillis(), getRestoreFailureCount(), snapshots.size());
+    }
+
+    // ==================== SHELL HELPERS ====================
+
+    private AppStateSnapshot.Strategy detectStrategy(String serial, String appPackage) {
+        if (adb.shell(serial, "run-as " + appPackage + " id", commandTimeout).isSuccess()) {
+            return AppStateSnapshot.Strategy.RUN_AS;
+        }
+        if (adb.shell(serial, "su 0 id", commandTimeout).isSuccess()) {
+            return AppStateSnapshot.Strategy.ROOT;
+        }
+        return AppStateSnapshot.Strategy.PERMISSIONS_ONLY;
+    }
+
+    /**
+     * The archive is written by the outer (shell user) redirect, so run-as only needs read access
+     */
+    String archiveCommand(AppStateSnapshot.Strategy strategy, String appPackage, String archive) {
+        String prepare = "mkdir -p " + deviceDirectory + " && ";
+        if (strategy == AppStateSnapshot.Strategy.RUN_AS) {
+            return prepare + "run-as " + appPackage + " tar -cf - " + TAR_EXCLUDES + " . > " + archive;
+        }
+        return prepare + "su 0 tar -cf " + archive + " " + TAR_EXCLUDES + " -C /data/data/" + appPackage + " .";
+    }
+
+    /**
+     * Old data is removed first so files created after the capture do not survive
+     */
+    String extractCommand(AppStateSnapshot.Strategy strategy, String appPackage, String archive) {
+        if (strategy == AppStateSnapshot.Strategy.RUN_AS) {
+            return "run-as " + appPackage + " sh -c 'rm -rf databases shared_prefs files no_backup'"
+                + " && cat " + archive + " | run-as " + appPackage + " tar -xf -";
+        }
+        String dataDir = "/data/data/" + appPackage;
+        return "su 0 sh -c 'owner=$(stat -c %u:%g " + dataDir + ")"
+            + " && rm -rf " + dataDir + "/databases " + dataDir + "/shared_prefs " + dataDir + "/files"
+            + " && tar -xf " + archive + " -C " + dataDir
+            + " && chown -R $owner " + dataDir + " && restorecon -R " + dataDir + "'";
+    }
+
+    /**
+     * Reads runtime permissions the app currently holds from dumpsys
+     */
+    List<String> readGrantedPermissions(String serial, String appPackage) {
+        AdbShellResult result = adb.shell(serial, "dumpsys package " + appPackage, commandTimeout);
+        Set<String> permissions = new LinkedHashSet<>();
+        boolean inRuntimeSection = false;
+        for (String line : result.getOutput().split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("runtime permissions:")) {
+                inRuntimeSection = true;
+                continue;
+            }
+            if (inRuntimeSection) {
+                Matcher matcher = GRANTED_PERMISSION.matcher(line);
+                if (matcher.find()) {
+                    permissions.add(matcher.group(1));
+                } else if (!trimmed.contains(": granted=")) {
+                    inRuntimeSection = false;
+                }
+            }
+        }
+        return new ArrayList<>(permissions);
+    }
+
+    private static String key(String serial, String appPackage) {
+        return serial + "/" + appPackage;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
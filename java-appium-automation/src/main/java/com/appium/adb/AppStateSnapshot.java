@@ -0,0 +1,81 @@
+package com.appium.adb;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AppStateSnapshot - Saved post-onboarding state of an app on one device
+ * Holds the granted runtime permissions and, when the app data could be read,
+ * the location of a tar archive of its data directory on the device
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AppStateSnapshot {
+
+    /**
+     * How the app data directory is accessed
+     */
+    public enum Strategy {
+        /** run-as (debuggable builds) */
+        RUN_AS,
+        /** su (rooted devices and emulators) */
+        ROOT,
+        /** Data not accessible, only runtime permissions are restored */
+        PERMISSIONS_ONLY
+    }
+
+    private final String serial;
+    private final String appPackage;
+    private final Strategy strategy;
+    private final String archivePath;
+    private final List<String> grantedPermissions;
+    private final Instant capturedAt;
+    private final long captureMillis;
+
+    public AppStateSnapshot(String serial, String appPackage, Strategy strategy, String archivePath,
+                            List<String> grantedPermissions, Instant capturedAt, long captureMillis) {
+        this.serial = serial;
+        this.appPackage = appPackage;
+        this.strategy = strategy;
+        this.archivePath = archivePath;
+        this.grantedPermissions = Collections.unmodifiableList(grantedPermissions);
+        this.capturedAt = capturedAt;
+        this.captureMillis = captureMillis;
+    }
+
+    public String getSerial() {
+        return serial;
+    }
+
+    public String getAppPackage() {
+        return appPackage;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public String getArchivePath() {
+        return archivePath;
+    }
+
+    public List<String> getGrantedPermissions() {
+        return grantedPermissions;
+    }
+
+    public Instant getCapturedAt() {
+        return capturedAt;
+    }
+
+    public long getCaptureMillis() {
+        return captureMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AppStateSnapshot{" + appPackage + " on " + serial + ", " + strategy
+            + ", " + grantedPermissions.size() + " permissions}";
+    }
+}
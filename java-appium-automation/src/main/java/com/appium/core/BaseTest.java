@@ -1,7 +1,17 @@
 package com.appium.core;
 
+import com.appium.adb.AppStateManager;
+import com.appium.http.SharedHttpClientFactory;
+import com.appium.impact.TestImpactIndex;
+import com.appium.listeners.RetryAnalyzer;
+import com.appium.logging.LogContext;
+import com.appium.metrics.CommandLatency;
+import com.appium.metrics.MetricsServer;
+import com.appium.metrics.SuiteMetrics;
+import com.appium.stub.StubAppiumServer;
 import com.appium.utils.ReportManager;
 import com.appium.utils.ScreenshotUtils;
+import com.appium.video.ScreenRecorder;
 import io.appium.java_client.android.AndroidDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +22,8 @@ import org.testng.annotations.*;
 import java.lang.reflect.Method;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * BaseTest - Foundation class for all test classes
@@ -26,12 +38,16 @@ public abstract class BaseTest {
     private static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
     protected AndroidDriver driver;
     protected ConfigurationManager config;
+    private String currentAppPackage;
     
     @BeforeSuite(alwaysRun = true)
     public void suiteSetup() {
         logger.info("=== Test Suite Setup Started ===");
         config = ConfigurationManager.getInstance();
         ReportManager.initializeReports();
+        
+        // Live counters for Prometheus while the suite runs
+        MetricsServer.start(DriverFactory::getActiveDriverCount);
         logger.info("=== Test Suite Setup Completed ===");
     }
     
@@ -42,9 +58,10 @@ public abstract class BaseTest {
     }
     
     @BeforeMethod(alwaysRun = true)
-    @Parameters({"deviceName", "platformVersion", "appPackage", "appActivity"})
+    @Parameters({"deviceName", "platformVersion", "udid", "appPackage", "appActivity"})
     public void testSetup(@Optional("") String deviceName,
                          @Optional("") String platformVersion,
+                         @Optional("") String udid,
                          @Optional("") String appPackage,
                          @Optional("") String appActivity,
                          Method method) {
@@ -60,27 +77,44 @@ public abstract class BaseTest {
         // Resolve configuration parameters
         deviceName = resolveParameter("device.name", deviceName, "Android_Device");
         platformVersion = resolveParameter("platform.version", platformVersion, "11");
+        // device.name is the ADB serial unless a separate udid is configured
+        udid = resolveParameter("device.udid", udid, deviceName);
         appPackage = resolveParameter("app.package", appPackage, "");
         appActivity = resolveParameter("app.activity", appActivity, "");
         
+        // Tag log lines of this thread with the test
+        LogContext.startTest(getClass().getSimpleName() + "." + testName, deviceName);
         logTestConfiguration(testName, deviceName, platformVersion, appPackage, appActivity);
         
         try {
             // Check Appium server availability first to avoid hard failures on environments without Appium/device
             if (!isAppiumServerAvailable()) {
-                String serverUrl = config.getProperty("appium.server.url", "http://127.0.0.1:4723");
+                String serverUrl = DriverFactory.getAppiumServerUrl();
                 String message = "Appium server is not reachable at " + serverUrl + " — skipping test '" + testName + "'";
                 logger.warn(message);
                 ReportManager.logSkip(message);
                 throw new SkipException(message);
             }
 
+            // Tag driver commands with the test for the latency report
+            CommandLatency.startTest(getClass().getSimpleName() + "." + testName);
+            if (TestImpactIndex.isEnabled()) {
+                TestImpactIndex.startTest(getClass().getName(), testName);
+            }
+
             // Initialize driver
-            driver = DriverFactory.createAndroidDriver(deviceName, platformVersion, appPackage, appActivity);
+            driver = DriverFactory.createAndroidDriver(deviceName, platformVersion, udid, appPackage, appActivity);
+            
+            // Keep the last seconds of video in memory, written only if the test fails
+            ScreenRecorder.start(driver);
             
             // Setup test reporting
             setupTestReporting(method, deviceName, platformVersion);
             
+            // Skip onboarding by restoring the captured app state
+            currentAppPackage = appPackage;
+            restoreAppState(appPackage);
+            
             logger.info("Test setup completed successfully for: {}", testName);
             
         } catch (SkipException se) {
@@ -96,13 +130,26 @@ public abstract class BaseTest {
         String testName = result.getName();
         
         try {
+            // Attempts that are run again count once, with their final result
+            if (!result.wasRetried()) {
+                SuiteMetrics.recordTestResult(result.getStatus());
+            }
             handleTestResult(result);
+            captureAppState(result);
         } catch (Exception e) {
             logger.warn("Error handling test result for: {}", testName, e);
         } finally {
+            AppStateManager.resetTestState();
+            
+            // Video of a test that did not fail is never written
+            ScreenRecorder.discard();
+            
             // Always quit driver
             DriverFactory.quitDriver();
+            CommandLatency.endTest();
+            TestImpactIndex.endTest();
             logger.info("=== Test Teardown Completed: {} ===", testName);
+            LogContext.endTest();
         }
     }
     
@@ -117,15 +164,33 @@ public abstract class BaseTest {
         logger.info("=== Test Suite Teardown Started ===");
         
         try {
-            // Ensure all drivers are quit
-            DriverFactory.quitAllDrivers();
+            // Quit remaining drivers while the report is being flushed
+            CompletableFuture<Void> driverShutdown = DriverFactory.quitAllDriversAsync();
             
+            // Add the command latency table before the report is written
+            CommandLatency.publish();
+            CircuitBreaker.publish();
+            SharedHttpClientFactory.publish();
+            RetryAnalyzer.publish();
+
+            // Store the pages and locators each test touched for impact selection
+            TestImpactIndex.persist();
+
             // Finalize reports
             ReportManager.flushReports();
             
+            // Wait for the per-session deadlines to play out
+            driverShutdown.join();
+            SharedHttpClientFactory.closeAll();
+            
+            // Log command counts of the stub server, if the suite used it
+            StubAppiumServer.shutdown();
+            
             // Log summary
             logSuiteSummary();
             
+            MetricsServer.stop();
+            
         } catch (Exception e) {
             logger.error("Error during suite teardown", e);
         } finally {
@@ -242,6 +307,37 @@ public abstract class BaseTest {
                 logger.warn("Failed to capture screenshot: {}", e.getMessage());
             }
         }
+        
+        // Write the video leading up to the failure
+        Path video = ScreenRecorder.persist(testName + "_failure", result.getEndMillis());
+        if (video != null) {
+            ReportManager.logInfo("Failure video: " + video);
+        }
+    }
+    
+    /**
+     * Restores the app state snapshot if enabled for the package
+     */
+    private void restoreAppState(String appPackage) {
+        if (!AppStateManager.isEnabledFor(appPackage)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        if (DriverFactory.restoreAppState(appPackage)) {
+            ReportManager.logInfo("App state restored in " + (System.currentTimeMillis() - start) + "ms");
+        } else {
+            ReportManager.logInfo("No usable app state snapshot, running the onboarding flow");
+        }
+    }
+    
+    /**
+     * Captures the post-onboarding app state after the first passing test
+     */
+    private void captureAppState(ITestResult result) {
+        if (result.getStatus() == ITestResult.SUCCESS && !AppStateManager.isStateRestored()
+                && AppStateManager.isEnabledFor(currentAppPackage) && DriverFactory.isDriverInitialized()) {
+            DriverFactory.captureAppState(currentAppPackage);
+        }
     }
     
     /**
@@ -250,6 +346,9 @@ public abstract class BaseTest {
     private void logSuiteSummary() {
         logger.info("Suite execution completed");
         logger.info("Reports location: {}", config.getReportsDirectory());
+        if (AppStateManager.getInstance().getRestoreCount() + AppStateManager.getInstance().getRestoreFailureCount() > 0) {
+            logger.info("App state: {}", AppStateManager.getInstance().getSummary());
+        }
     }
     
     /**
@@ -263,7 +362,7 @@ public abstract class BaseTest {
 
     // Checks if the Appium server is reachable by calling the /status endpoint
     private boolean isAppiumServerAvailable() {
-        String baseUrl = config != null ? config.getProperty("appium.server.url", "http://127.0.0.1:4723") : "http://127.0.0.1:4723";
+        String baseUrl = DriverFactory.getAppiumServerUrl();
         String statusUrl = baseUrl.endsWith("/") ? baseUrl + "status" : baseUrl + "/status";
         try {
             URL url = new URL(statusUrl);
@@ -1,13 +1,32 @@
 package com.appium.core;
 
+import com.appium.adb.AdbClient;
+import com.appium.adb.AdbShellResult;
+import com.appium.adb.AppStateManager;
+import com.appium.http.SharedHttpClientFactory;
+import com.appium.impact.TestImpactIndex;
+import com.appium.metrics.CommandLatency;
+import com.appium.metrics.CommandLatencyListener;
+import com.appium.metrics.SuiteMetrics;
+import com.appium.stub.StubAppiumServer;
+import com.appium.tracing.Span;
+import com.appium.tracing.Tracer;
+import com.appium.utils.ReportManager;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.options.UiAutomator2Options;
+import io.appium.java_client.proxy.Helpers;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.http.HttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class DriverFactory {
@@ -21,17 +40,71 @@ public class DriverFactory {
     private DriverFactory() {
     }
     
-    public static AndroidDriver createAndroidDriver(String deviceName, String platformVersion, 
+    /**
+     * Creates the driver of the current thread on the given device
+     * 
+     * @param deviceName Device name
+     * @param platformVersion Android version of the device
+     * @param udid ADB serial that selects the device on the Appium server
+     * @param appPackage App package, empty for none
+     * @param appActivity App activity, empty for the launcher activity
+     * @return Android driver
+     */
+    public static AndroidDriver createAndroidDriver(String deviceName, String platformVersion, String udid,
+                                                   String appPackage, String appActivity) {
+        // Skip at once while this device keeps failing to start a session
+        CircuitBreaker breaker = CircuitBreaker.isEnabled() ? CircuitBreaker.forTarget(deviceName) : null;
+        if (breaker != null && !breaker.tryAcquire()) {
+            String message = breaker.describeOpen();
+            logger.warn(message);
+            ReportManager.logSkip(message);
+            throw new SkipException(message);
+        }
+        
+        Span span = Tracer.start("driver.create")
+            .setAttribute("device.name", deviceName)
+            .setAttribute("platform.version", platformVersion)
+            .setAttribute("device.udid", udid)
+            .setAttribute("app.package", appPackage);
+        long start = System.nanoTime();
+        try {
+            AndroidDriver driver = openAndroidDriver(deviceName, platformVersion, udid, appPackage, appActivity);
+            SuiteMetrics.recordSessionCreation(System.nanoTime() - start, true);
+            if (breaker != null) {
+                breaker.recordSuccess();
+            }
+            return driver;
+        } catch (RuntimeException e) {
+            SuiteMetrics.recordSessionCreation(System.nanoTime() - start, false);
+            if (breaker != null) {
+                breaker.recordFailure(e);
+            }
+            span.recordError(e);
+            throw e;
+        } finally {
+            Tracer.end(span);
+        }
+    }
+    
+    private static AndroidDriver openAndroidDriver(String deviceName, String platformVersion, String udid,
                                                    String appPackage, String appActivity) {
         
-        logger.info("Initializing Android driver for device: {}, Platform: {}", deviceName, platformVersion);
+        logger.info("Initializing Android driver for device: {} ({}), Platform: {}", deviceName, udid, platformVersion);
         logger.info("Using manual UIAutomator2 server installation - skipServerInstallation=true");
         
         try {
-            UiAutomator2Options options = buildDriverOptions(deviceName, platformVersion, appPackage, appActivity);
+            UiAutomator2Options options = buildDriverOptions(deviceName, platformVersion, udid, appPackage, appActivity);
             URL serverUrl = new URL(getAppiumServerUrl());
             
-            AndroidDriver driver = new AndroidDriver(serverUrl, options);
+            // Sessions share one HTTP client, and its connections, per Appium server
+            HttpClient.Factory clientFactory = SharedHttpClientFactory.forSessions();
+            
+            // Proxied drivers time every wire command for the latency report
+            // and record the lookups of each test for the impact index
+            AndroidDriver driver = CommandLatency.isEnabled() || TestImpactIndex.isEnabled()
+                ? Helpers.createProxy(AndroidDriver.class, new Object[] {serverUrl, clientFactory, options},
+                    new Class<?>[] {URL.class, HttpClient.Factory.class, Capabilities.class}, new CommandLatencyListener())
+                : new AndroidDriver(serverUrl, clientFactory, options);
             configureDriver(driver);
             
             String threadName = Thread.currentThread().getName();
@@ -50,17 +123,18 @@ public class DriverFactory {
         }
     }
     
-    private static UiAutomator2Options buildDriverOptions(String deviceName, String platformVersion,
+    private static UiAutomator2Options buildDriverOptions(String deviceName, String platformVersion, String udid,
                                                           String appPackage, String appActivity) {
         
         UiAutomator2Options options = new UiAutomator2Options();
         
-        // Device identification
-        options.setDeviceName("OPPOA54");
+        // Device identification - the udid picks the device when several are attached,
+        // so scheduler and quarantine lanes each drive their own
+        options.setDeviceName(deviceName);
         options.setPlatformName("Android");
-        options.setPlatformVersion("11");
+        options.setPlatformVersion(platformVersion);
         options.setAutomationName("UiAutomator2");
-        options.setCapability("udid", "PZPVSC95GMKNGUBQ");
+        options.setCapability("udid", udid);
         
         // App configuration - Your lead's confirmed settings
         if (appPackage != null && !appPackage.isEmpty()) {
@@ -93,7 +167,7 @@ public class DriverFactory {
         options.setCapability("enforceXPath1", true);
         options.setCapability("disableIdLocatorAutocompletion", true);
         
-        logger.info("Driver options configured for OPPOA54 (CPH2239) with manual UIAutomator2 setup");
+        logger.info("Driver options configured for {} ({}) with manual UIAutomator2 setup", deviceName, udid);
         logger.info("App Package: {}, App Activity: {}", appPackage, appActivity);
         return options;
     }
@@ -124,27 +198,7 @@ public class DriverFactory {
         
         if (driver != null) {
             try {
-                // Terminate the app to ensure it closes on the device
-                String currentPackage = getCurrentAppPackage(driver);
-                if (currentPackage != null && !currentPackage.isEmpty()) {
-                    logger.info("Terminating app: {}", currentPackage);
-                    try {
-                        driver.terminateApp(currentPackage);
-                    } catch (Exception e) {
-                        logger.warn("Failed to terminate app normally, trying force stop: {}", e.getMessage());
-                        // Try to force close the app using ADB command
-                        executeAdbCommand("adb shell am force-stop " + currentPackage);
-                    }
-                }
-                
-                // Close all apps to ensure clean state
-                try {
-                    driver.closeApp();
-                } catch (Exception e) {
-                    logger.warn("Failed to close app normally: {}", e.getMessage());
-                }
-                
-                driver.quit();
+                closeSession(driver);
                 logger.info("Driver quit successfully for thread: {}", threadName);
             } catch (Exception e) {
                 logger.warn("Error while quitting driver for thread {}: {}", threadName, e.getMessage());
@@ -158,48 +212,108 @@ public class DriverFactory {
     }
     
     public static void quitAllDrivers() {
+        quitAllDriversAsync().join();
+    }
+    
+    /**
+     * Quits all active drivers on the dedicated shutdown executor
+     * Each session gets driver.shutdown.timeout seconds; sessions that overrun are
+     * abandoned after force-stopping their app over ADB (the Appium server is remote,
+     * so there is no local driver process to kill)
+     * 
+     * @return Future completed when every session is down
+     */
+    public static CompletableFuture<Void> quitAllDriversAsync() {
         logger.info("Quitting all active drivers. Count: {}", activeDrivers.size());
         
-        activeDrivers.values().parallelStream().forEach(driver -> {
-            try {
-                if (driver != null) {
-                    // Terminate the app before quitting driver
+        Map<String, AndroidDriver> sessions = new HashMap<>(activeDrivers);
+        activeDrivers.clear();
+        driverThreadLocal.remove();
+        
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        Duration deadline = Duration.ofSeconds(config.getIntProperty("driver.shutdown.timeout", 30));
+        Duration killDeadline = Duration.ofSeconds(config.getIntProperty("driver.shutdown.kill.timeout", 10));
+        
+        return DriverShutdownExecutor.shutdownAll(sessions, deadline, killDeadline,
+                (owner, driver) -> closeSession(driver),
+                (owner, driver) -> {
                     String currentPackage = getCurrentAppPackage(driver);
                     if (currentPackage != null && !currentPackage.isEmpty()) {
-                        logger.info("Terminating app: {}", currentPackage);
-                        try {
-                            driver.terminateApp(currentPackage);
-                        } catch (Exception e) {
-                            logger.warn("Failed to terminate app normally, trying force stop: {}", e.getMessage());
-                            // Try to force close the app using ADB command
-                            executeAdbCommand("adb shell am force-stop " + currentPackage);
-                        }
-                    }
-                    
-                    // Close all apps to ensure clean state
-                    try {
-                        driver.closeApp();
-                    } catch (Exception e) {
-                        logger.warn("Failed to close app normally: {}", e.getMessage());
+                        forceStopApp(driver, currentPackage);
                     }
-                    
-                    driver.quit();
-                }
+                    logger.warn("Abandoned Appium session for {} after shutdown timeout", owner);
+                })
+            .thenAccept(results -> logger.info("All drivers quit successfully"));
+    }
+    
+    /**
+     * Terminates the app under test and ends the Appium session
+     */
+    private static void closeSession(AndroidDriver driver) {
+        // Terminate the app to ensure it closes on the device
+        String currentPackage = getCurrentAppPackage(driver);
+        if (currentPackage != null && !currentPackage.isEmpty()) {
+            logger.info("Terminating app: {}", currentPackage);
+            try {
+                driver.terminateApp(currentPackage);
             } catch (Exception e) {
-                logger.warn("Error while quitting driver: {}", e.getMessage());
+                logger.warn("Failed to terminate app normally, trying force stop: {}", e.getMessage());
+                // Try to force close the app over the ADB server socket
+                forceStopApp(driver, currentPackage);
             }
-        });
+        }
         
-        activeDrivers.clear();
-        driverThreadLocal.remove();
-        logger.info("All drivers quit successfully");
+        // Close all apps to ensure clean state
+        try {
+            driver.closeApp();
+        } catch (Exception e) {
+            logger.warn("Failed to close app normally: {}", e.getMessage());
+        }
+        
+        driver.quit();
+    }
+    
+    /**
+     * Restores the app's captured post-onboarding state and relaunches it
+     * 
+     * @param appPackage App package
+     * @return true if restored, false if the test has to go through the UI flow
+     */
+    public static boolean restoreAppState(String appPackage) {
+        AndroidDriver driver = getDriver();
+        boolean restored = AppStateManager.getInstance().restore(getDeviceSerial(driver), appPackage);
+        if (restored) {
+            driver.activateApp(appPackage);
+        }
+        return restored;
+    }
+    
+    /**
+     * Captures the app's current state unless a snapshot already exists
+     * 
+     * @param appPackage App package
+     */
+    public static void captureAppState(String appPackage) {
+        String serial = getDeviceSerial(getDriver());
+        AppStateManager manager = AppStateManager.getInstance();
+        if (!manager.hasSnapshot(serial, appPackage)) {
+            manager.capture(serial, appPackage);
+        }
     }
     
     public static int getActiveDriverCount() {
         return activeDrivers.size();
     }
     
-    private static String getAppiumServerUrl() {
+    /**
+     * Gets the Appium server drivers connect to; the in-process stub when stub.server.enabled
+     * 
+     * @return Appium server URL
+     */
+    public static String getAppiumServerUrl() {
+        if (StubAppiumServer.isEnabled()) {
+            return StubAppiumServer.getInstance().getUrl().toString();
+        }
         return ConfigurationManager.getInstance().getProperty("appium.server.url", DEFAULT_APPIUM_URL);
     }
     
@@ -217,20 +331,37 @@ public class DriverFactory {
     }
     
     /**
-     * Executes an ADB command
+     * Safely gets the device serial (udid) from driver capabilities
+     */
+    private static String getDeviceSerial(AndroidDriver driver) {
+        try {
+            for (String capability : new String[] {"udid", "appium:udid", "deviceUDID"}) {
+                Object udid = driver.getCapabilities().getCapability(capability);
+                if (udid != null && !udid.toString().isEmpty()) {
+                    return udid.toString();
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to get device serial: {}", e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Force stops an app through the ADB server without spawning an adb process
      */
-    private static void executeAdbCommand(String command) {
+    private static void forceStopApp(AndroidDriver driver, String appPackage) {
+        String serial = getDeviceSerial(driver);
         try {
-            logger.info("Executing ADB command: {}", command);
-            Process process = Runtime.getRuntime().exec(command);
-            int exitCode = process.waitFor();
-            if (exitCode == 0) {
-                logger.info("ADB command executed successfully");
+            logger.info("Force stopping app {} on device {}", appPackage, serial);
+            AdbShellResult result = AdbClient.getInstance().shell(serial, "am force-stop " + appPackage);
+            if (result.isSuccess()) {
+                logger.info("ADB force-stop completed in {}ms", result.getDurationMillis());
             } else {
-                logger.warn("ADB command failed with exit code: {}", exitCode);
+                logger.warn("ADB force-stop failed with exit code {}: {}", result.getExitCode(), result.getOutput().trim());
             }
         } catch (Exception e) {
-            logger.warn("Failed to execute ADB command: {}", e.getMessage());
+            logger.warn("Failed to execute ADB force-stop: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,279 @@
+package com.appium.distributed;
+
+import com.appium.utils.ReportManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator - Serves test units to worker JVMs over HTTP and collects their results
+ * Protocol (all POST, parameters in the query string):
+ * /lease?worker=W answers 200 with a {@link WorkUnit} document, 202 when nothing is free
+ * yet (ask again) or 204 when the run is over; /heartbeat?worker=W keeps the worker's
+ * leases alive; /result?worker=W&amp;unit=U&amp;attempt=N&amp;test=T&amp;status=S&amp;millis=M
+ * streams one test result (body: failure message); /complete?worker=W&amp;unit=U&amp;attempt=N
+ * ends a lease. Results and completions of leases that expired meanwhile are answered
+ * with 409 and ignored, the re-queued attempt decides
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class Coordinator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Coordinator.class);
+
+    /**
+     * Final result of one test method
+     */
+    public static final class Outcome {
+        private final String status;
+        private final long millis;
+        private final String worker;
+        private final int attempt;
+        private final String message;
+
+        Outcome(String status, long millis, String worker, int attempt, String message) {
+            this.status = status;
+            this.millis = millis;
+            this.worker = worker;
+            this.attempt = attempt;
+            this.message = message;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public String getWorker() {
+            return worker;
+        }
+
+        public int getAttempt() {
+            return attempt;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final WorkQueue queue;
+    private final Map<String, Outcome> outcomes = new ConcurrentHashMap<>();
+    private final AtomicInteger staleResults = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public Coordinator(WorkQueue queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Starts serving
+     *
+     * @param host Bind address
+     * @param port Port, 0 for any free port
+     * @return Bound port
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized int start(String host, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/lease", exchange -> handle(exchange, this::lease));
+        server.createContext("/heartbeat", exchange -> handle(exchange, this::heartbeat));
+        server.createContext("/result", exchange -> handle(exchange, this::result));
+        server.createContext("/complete", exchange -> handle(exchange, this::complete));
+        executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Coordinator listening on http://{}:{}/", host, getPort());
+        return getPort();
+    }
+
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    /**
+     * Waits until every unit ran or was abandoned
+     *
+     * @param timeoutMillis Longest wait
+     * @return true if the run finished in time
+     */
+    public boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!queue.isDone()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            // isDone also expires leases of crashed and late workers
+            Thread.sleep(100);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    // ==================== PROTOCOL ====================
+
+    private interface Handler {
+        int handle(Map<String, String> parameters, String body, StringBuilder response);
+    }
+
+    private int lease(Map<String, String> parameters, String body, StringBuilder response) {
+        WorkQueue.Lease lease = queue.lease(parameters.get("worker"));
+        if (lease == null) {
+            return queue.isDone() ? 204 : 202;
+        }
+        logger.info("Leased {} to {} (attempt {})", lease.getUnit(), lease.getWorker(), lease.getAttempt());
+        response.append(lease.getUnit().encode(lease.getAttempt()));
+        return 200;
+    }
+
+    private int heartbeat(Map<String, String> parameters, String body, StringBuilder response) {
+        queue.heartbeat(parameters.get("worker"));
+        return 204;
+    }
+
+    private int result(Map<String, String> parameters, String body, StringBuilder response) {
+        String worker = parameters.get("worker");
+        int attempt = Integer.parseInt(parameters.getOrDefault("attempt", "0"));
+        if (!queue.isCurrent(worker, parameters.get("unit"), attempt)) {
+            staleResults.incrementAndGet();
+            return 409;
+        }
+        outcomes.put(parameters.get("test"), new Outcome(parameters.get("status"),
+            Long.parseLong(parameters.getOrDefault("millis", "0")), worker, attempt, body));
+        return 204;
+    }
+
+    private int complete(Map<String, String> parameters, String body, StringBuilder response) {
+        String unit = parameters.get("unit");
+        boolean current = queue.complete(parameters.get("worker"), unit,
+            Integer.parseInt(parameters.getOrDefault("attempt", "0")));
+        if (current) {
+            logger.info("{} completed by {}", unit, parameters.get("worker"));
+        }
+        return current ? 204 : 409;
+    }
+
+    private static void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            StringBuilder response = new StringBuilder();
+            int status = handler.handle(parseQuery(exchange.getRequestURI().getRawQuery()), body, response);
+            byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Bad coordinator request {}: {}", exchange.getRequestURI(), e.toString());
+            exchange.sendResponseHeaders(400, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    // ==================== RESULTS ====================
+
+    /**
+     * @return Latest accepted result by test id (Class.method)
+     */
+    public Map<String, Outcome> getOutcomes() {
+        return new LinkedHashMap<>(outcomes);
+    }
+
+    /**
+     * @return Results thrown away because their lease had expired
+     */
+    public int getStaleResultCount() {
+        return staleResults.get();
+    }
+
+    /**
+     * @return true if no test failed and no unit was abandoned
+     */
+    public boolean isSuccessful() {
+        return queue.getAbandoned().isEmpty()
+            && outcomes.values().stream().noneMatch(outcome -> "FAIL".equals(outcome.status));
+    }
+
+    /**
+     * Logs the per-worker counters and adds them to the report
+     */
+    public void publish() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Worker", "Leased", "Completed", "Stolen", "Expired", "Passed", "Failed", "Skipped"});
+        queue.getWorkerStats().forEach((worker, stats) -> {
+            String[] row = {worker, String.valueOf(stats.getLeased()), String.valueOf(stats.getCompleted()),
+                String.valueOf(stats.getStolen()), String.valueOf(stats.getExpired()),
+                count(worker, "PASS"), count(worker, "FAIL"), count(worker, "SKIP")};
+            rows.add(row);
+            logger.info("Worker {}: leased {}, completed {}, stolen {}, expired {}, passed {}, failed {}, skipped {}",
+                (Object[]) row);
+        });
+        rows.add(new String[] {"Abandoned units", String.valueOf(queue.getAbandoned().size()), "", "", "", "", "", ""});
+        rows.add(new String[] {"Stale results", String.valueOf(staleResults.get()), "", "", "", "", "", ""});
+        logger.info("Distributed run: {} tests, {} abandoned units {}, {} stale results", outcomes.size(),
+            queue.getAbandoned().size(), queue.getAbandoned(), staleResults.get());
+        ReportManager.addSummaryTable("Distributed Execution", rows.toArray(new String[0][]));
+    }
+
+    private String count(String worker, String status) {
+        return String.valueOf(outcomes.values().stream()
+            .filter(outcome -> outcome.worker.equals(worker) && status.equals(outcome.status)).count());
+    }
+}
@@ -0,0 +1,118 @@
+package com.appium.distributed;
+
+import com.appium.core.ConfigurationManager;
+import com.appium.utils.ReportManager;
+import com.appium.utils.TestMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DistributedRunner - Runs a TestNG suite on worker JVMs fed by a {@link Coordinator}
+ * Usage: DistributedRunner &lt;suite.xml&gt; [local-workers]. The suite is cut into
+ * {@link WorkUnit}s (dependent methods stay together) and served on
+ * distributed.coordinator.host/port. The given number of {@link Worker} processes is
+ * started on this machine, each with its own report directory (reports/workers/worker-N);
+ * workers on other agents can join with Worker &lt;coordinator-url&gt;. Units of workers
+ * that crash or overrun are re-queued
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class DistributedRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedRunner.class);
+
+    private DistributedRunner() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: DistributedRunner <suite.xml> [local-workers]");
+            System.exit(64);
+        }
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : config.getIntProperty("distributed.local.workers", 2);
+        System.exit(run(Paths.get(args[0]), workers, Paths.get(config.getReportsDirectory())));
+    }
+
+    /**
+     * Serves a suite until every unit ran or was given up
+     *
+     * @param suiteFile TestNG suite XML
+     * @param localWorkers Worker processes to start on this machine
+     * @param reportsDirectory Report directory of the coordinator
+     * @return 0 if every test passed, 1 otherwise
+     */
+    public static int run(Path suiteFile, int localWorkers, Path reportsDirectory) throws IOException, InterruptedException {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        XmlSuite suite = new Parser(suiteFile.toString()).parseToList().get(0);
+        List<WorkUnit> units = collectUnits(suite);
+        WorkQueue queue = new WorkQueue(units,
+            config.getIntProperty("distributed.heartbeat.timeout.ms", 10000),
+            config.getIntProperty("distributed.unit.timeout.ms", 900000),
+            config.getIntProperty("distributed.max.attempts", 2), System::nanoTime);
+
+        ReportManager.initializeReports();
+        List<Process> processes = new ArrayList<>();
+        try (Coordinator coordinator = new Coordinator(queue)) {
+            String host = config.getProperty("distributed.coordinator.host", "127.0.0.1");
+            int port = coordinator.start(host, config.getIntProperty("distributed.coordinator.port", 7070));
+            String url = "http://" + host + ":" + port;
+            logger.info("Serving {} units of suite {} on {}", units.size(), suite.getName(), url);
+            for (int index = 1; index <= localWorkers; index++) {
+                Path directory = reportsDirectory.resolve("workers").resolve("worker-" + index);
+                processes.add(Worker.start(url, "worker-" + index, directory, Map.of()));
+            }
+
+            long timeout = config.getIntProperty("distributed.run.timeout.minutes", 120) * 60000L;
+            if (!coordinator.awaitCompletion(timeout)) {
+                logger.error("Distributed run did not finish within {} minutes", TimeUnit.MILLISECONDS.toMinutes(timeout));
+            }
+            coordinator.publish();
+            for (Process process : processes) {
+                // Workers exit on their own once the coordinator reports the run as done
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+            ReportManager.flushReports();
+            return coordinator.isSuccessful() ? 0 : 1;
+        } finally {
+            processes.forEach(Process::destroyForcibly);
+        }
+    }
+
+    // ==================== UNITS ====================
+
+    private static List<WorkUnit> collectUnits(XmlSuite suite) {
+        List<WorkUnit> units = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                Map<String, String> parameters = new LinkedHashMap<>(test.getAllParameters());
+                parameters.putAll(xmlClass.getLocalParameters());
+                List<String> methods = new ArrayList<>();
+                xmlClass.getIncludedMethods().forEach(include -> methods.add(include.getName()));
+                Map<String, List<String>> dependencies = TestMethods.dependencies(xmlClass.getName(), methods);
+                if (methods.isEmpty()) {
+                    methods.addAll(dependencies.keySet());
+                }
+                units.addAll(WorkUnit.split(xmlClass.getName(), methods, dependencies, parameters));
+            }
+        }
+        return units;
+    }
+}
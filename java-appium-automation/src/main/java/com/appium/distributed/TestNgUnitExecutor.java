@@ -0,0 +1,106 @@
+package com.appium.distributed;
+
+import com.appium.listeners.RetryTransformer;
+import com.appium.listeners.TestExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * TestNgUnitExecutor - Runs a work unit as a one-class TestNG suite in the worker JVM
+ * The unit's methods run in order through the usual {@link com.appium.core.BaseTest}
+ * life cycle and {@link TestExecutionListener}; every result is handed to the sink from
+ * the TestNG listener, so the coordinator sees it before the unit is over
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class TestNgUnitExecutor implements UnitExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestNgUnitExecutor.class);
+
+    private final String worker;
+
+    public TestNgUnitExecutor(String worker) {
+        this.worker = worker;
+    }
+
+    @Override
+    public void execute(WorkUnit unit, ResultSink sink) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Worker " + worker);
+        XmlTest test = new XmlTest(suite);
+        test.setName(unit.getId());
+        test.setPreserveOrder(true);
+        test.setParameters(new LinkedHashMap<>(unit.getParameters()));
+        XmlClass xmlClass = new XmlClass(unit.getClassName(), false);
+        List<XmlInclude> includes = new ArrayList<>();
+        unit.getMethods().forEach(method -> includes.add(new XmlInclude(method)));
+        xmlClass.setIncludedMethods(includes);
+        test.setXmlClasses(List.of(xmlClass));
+
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setXmlSuites(List.of(suite));
+        testng.addListener(new TestExecutionListener());
+        testng.addListener(new RetryTransformer());
+        testng.addListener(new StreamingListener(sink));
+        testng.run();
+    }
+
+    /**
+     * Forwards finished tests to the sink
+     */
+    private static final class StreamingListener implements ITestListener {
+        private final ResultSink sink;
+
+        StreamingListener(ResultSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            send(result, "PASS");
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            send(result, "FAIL");
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            // Attempts run again by RetryAnalyzer are followed by the result of the retry
+            if (!result.wasRetried()) {
+                send(result, "SKIP");
+            }
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            send(result, "PASS");
+        }
+
+        private void send(ITestResult result, String status) {
+            String testId = result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+            String message = result.getThrowable() != null ? result.getThrowable().toString() : null;
+            try {
+                sink.accept(testId, status, result.getEndMillis() - result.getStartMillis(), message);
+            } catch (IOException e) {
+                // The lease expires if the coordinator stays unreachable, then the unit runs again
+                logger.warn("Could not send the result of {}: {}", testId, e.toString());
+            }
+        }
+    }
+}
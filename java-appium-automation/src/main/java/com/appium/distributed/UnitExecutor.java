@@ -0,0 +1,28 @@
+package com.appium.distributed;
+
+import java.io.IOException;
+
+/**
+ * UnitExecutor - Runs the tests of a leased unit inside a worker
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public interface UnitExecutor {
+
+    /**
+     * Receives every test result as soon as it is known
+     */
+    interface ResultSink {
+        void accept(String testId, String status, long millis, String message) throws IOException;
+    }
+
+    /**
+     * Runs a unit
+     *
+     * @param unit Unit to run
+     * @param sink Where to stream the results (test id Class.method, PASS/FAIL/SKIP)
+     * @throws Exception if the unit could not be run at all
+     */
+    void execute(WorkUnit unit, ResultSink sink) throws Exception;
+}
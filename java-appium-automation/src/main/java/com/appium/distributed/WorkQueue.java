@@ -0,0 +1,289 @@
+package com.appium.distributed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * WorkQueue - Work-stealing queue of test units with leases
+ * A worker first drains its own deque. When that is empty it takes the next class from
+ * the shared queue (all units of that class, so one app stays on one worker), and when
+ * the shared queue is empty too it steals the last unit of the busiest worker.
+ * Every handed-out unit is leased: the lease is dropped and the unit re-queued at the
+ * front when the worker stops sending heartbeats (crashed) or holds the unit longer than
+ * the unit timeout (late). Units are given up after maxAttempts leases
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class WorkQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkQueue.class);
+
+    /**
+     * A unit handed to a worker
+     */
+    public static final class Lease {
+        private final WorkUnit unit;
+        private final String worker;
+        private final int attempt;
+        private final long leasedAt;
+        private long lastHeartbeat;
+
+        Lease(WorkUnit unit, String worker, int attempt, long leasedAt) {
+            this.unit = unit;
+            this.worker = worker;
+            this.attempt = attempt;
+            this.leasedAt = leasedAt;
+            this.lastHeartbeat = leasedAt;
+        }
+
+        public WorkUnit getUnit() {
+            return unit;
+        }
+
+        public String getWorker() {
+            return worker;
+        }
+
+        public int getAttempt() {
+            return attempt;
+        }
+    }
+
+    /**
+     * Counters of one worker
+     */
+    public static final class WorkerStats {
+        private int leased;
+        private int completed;
+        private int stolen;
+        private int expired;
+
+        public int getLeased() {
+            return leased;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public int getStolen() {
+            return stolen;
+        }
+
+        public int getExpired() {
+            return expired;
+        }
+    }
+
+    private final Deque<WorkUnit> shared = new ArrayDeque<>();
+    private final Map<String, Deque<WorkUnit>> local = new LinkedHashMap<>();
+    private final Map<String, Lease> leases = new LinkedHashMap<>();
+    private final Map<String, Long> lastSeen = new HashMap<>();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private final Map<String, WorkerStats> stats = new LinkedHashMap<>();
+    private final List<WorkUnit> abandoned = new ArrayList<>();
+    private final long heartbeatTimeoutNanos;
+    private final long unitTimeoutNanos;
+    private final int maxAttempts;
+    private final LongSupplier clock;
+
+    /**
+     * @param units Units in suite order
+     * @param heartbeatTimeoutMillis Silence after which a worker counts as crashed
+     * @param unitTimeoutMillis Time after which a leased unit counts as late
+     * @param maxAttempts Leases per unit before it is abandoned
+     * @param clock Nano time source
+     */
+    public WorkQueue(List<WorkUnit> units, long heartbeatTimeoutMillis, long unitTimeoutMillis,
+                     int maxAttempts, LongSupplier clock) {
+        this.shared.addAll(units);
+        this.heartbeatTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatTimeoutMillis);
+        this.unitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(unitTimeoutMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.clock = clock;
+    }
+
+    // ==================== LEASING ====================
+
+    /**
+     * Hands the next unit to a worker
+     *
+     * @param worker Worker id
+     * @return Lease, null if nothing is available right now
+     */
+    public synchronized Lease lease(String worker) {
+        expire();
+        long now = clock.getAsLong();
+        lastSeen.put(worker, now);
+        WorkerStats workerStats = stats.computeIfAbsent(worker, id -> new WorkerStats());
+        Deque<WorkUnit> own = local.computeIfAbsent(worker, id -> new ArrayDeque<>());
+
+        if (own.isEmpty() && !shared.isEmpty()) {
+            // Take the next class as a batch
+            String className = shared.peekFirst().getClassName();
+            for (Iterator<WorkUnit> iterator = shared.iterator(); iterator.hasNext(); ) {
+                WorkUnit unit = iterator.next();
+                if (unit.getClassName().equals(className)) {
+                    own.addLast(unit);
+                    iterator.remove();
+                }
+            }
+        }
+        WorkUnit unit = own.pollFirst();
+        if (unit == null) {
+            unit = steal(worker);
+            if (unit != null) {
+                workerStats.stolen++;
+            }
+        }
+        if (unit == null) {
+            return null;
+        }
+
+        int attempt = attempts.merge(unit.getId(), 1, Integer::sum);
+        Lease lease = new Lease(unit, worker, attempt, now);
+        leases.put(unit.getId(), lease);
+        workerStats.leased++;
+        return lease;
+    }
+
+    private WorkUnit steal(String thief) {
+        Deque<WorkUnit> victim = null;
+        String victimName = null;
+        for (Map.Entry<String, Deque<WorkUnit>> entry : local.entrySet()) {
+            if (!entry.getKey().equals(thief) && (victim == null || entry.getValue().size() > victim.size())) {
+                victim = entry.getValue();
+                victimName = entry.getKey();
+            }
+        }
+        if (victim == null || victim.isEmpty()) {
+            return null;
+        }
+        WorkUnit unit = victim.pollLast();
+        logger.debug("Worker {} stole {} from {}", thief, unit, victimName);
+        return unit;
+    }
+
+    /**
+     * Renews the liveness of a worker and its leases
+     *
+     * @param worker Worker id
+     */
+    public synchronized void heartbeat(String worker) {
+        long now = clock.getAsLong();
+        lastSeen.put(worker, now);
+        for (Lease lease : leases.values()) {
+            if (lease.worker.equals(worker)) {
+                lease.lastHeartbeat = now;
+            }
+        }
+    }
+
+    /**
+     * Checks whether results of a lease are still wanted
+     *
+     * @return true if the worker holds the current lease of the unit
+     */
+    public synchronized boolean isCurrent(String worker, String unitId, int attempt) {
+        Lease lease = leases.get(unitId);
+        return lease != null && lease.worker.equals(worker) && lease.attempt == attempt;
+    }
+
+    /**
+     * Ends a lease after its unit ran
+     *
+     * @return true if the lease was current, false for a late worker whose unit was re-queued
+     */
+    public synchronized boolean complete(String worker, String unitId, int attempt) {
+        if (!isCurrent(worker, unitId, attempt)) {
+            return false;
+        }
+        leases.remove(unitId);
+        stats.get(worker).completed++;
+        return true;
+    }
+
+    // ==================== EXPIRY ====================
+
+    /**
+     * Re-queues the units of crashed workers and late leases
+     *
+     * @return Leases that expired
+     */
+    public synchronized List<Lease> expire() {
+        long now = clock.getAsLong();
+        List<Lease> expired = new ArrayList<>();
+        // Units waiting in the deque of a silent worker go back to the shared queue, behind
+        // its expired leases re-queued below
+        for (Iterator<Map.Entry<String, Deque<WorkUnit>>> iterator = local.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Deque<WorkUnit>> entry = iterator.next();
+            if (now - lastSeen.getOrDefault(entry.getKey(), now) > heartbeatTimeoutNanos) {
+                Deque<WorkUnit> waiting = entry.getValue();
+                while (!waiting.isEmpty()) {
+                    shared.addFirst(waiting.pollLast());
+                }
+                iterator.remove();
+            }
+        }
+        for (Iterator<Lease> iterator = leases.values().iterator(); iterator.hasNext(); ) {
+            Lease lease = iterator.next();
+            boolean crashed = now - lease.lastHeartbeat > heartbeatTimeoutNanos;
+            boolean late = now - lease.leasedAt > unitTimeoutNanos;
+            if (crashed || late) {
+                iterator.remove();
+                expired.add(lease);
+                stats.get(lease.worker).expired++;
+                logger.warn("Lease of {} by {} expired ({}), attempt {}", lease.unit, lease.worker,
+                    crashed ? "no heartbeat" : "unit timeout", lease.attempt);
+                requeue(lease.unit);
+            }
+        }
+        return expired;
+    }
+
+    private void requeue(WorkUnit unit) {
+        if (attempts.getOrDefault(unit.getId(), 0) >= maxAttempts) {
+            logger.error("Giving up {} after {} attempts", unit, maxAttempts);
+            abandoned.add(unit);
+        } else {
+            shared.addFirst(unit);
+        }
+    }
+
+    // ==================== STATE ====================
+
+    /**
+     * @return true when every unit ran or was abandoned
+     */
+    public synchronized boolean isDone() {
+        expire();
+        return shared.isEmpty() && leases.isEmpty() && local.values().stream().allMatch(Deque::isEmpty);
+    }
+
+    /**
+     * @return Units given up after maxAttempts
+     */
+    public synchronized List<WorkUnit> getAbandoned() {
+        return new ArrayList<>(abandoned);
+    }
+
+    /**
+     * @return Counters by worker id, in order of first contact
+     */
+    public synchronized Map<String, WorkerStats> getWorkerStats() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(stats));
+    }
+}
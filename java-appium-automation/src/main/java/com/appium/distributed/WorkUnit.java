@@ -0,0 +1,172 @@
+package com.appium.distributed;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * WorkUnit - Tests a worker runs in one go
+ * Methods of one class that depend on each other (or the whole class when no methods are
+ * listed), with the parameters of their &lt;test&gt;. Sent over the wire as a properties
+ * document, together with the attempt number of the lease
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class WorkUnit {
+
+    private static final String PARAMETER_PREFIX = "param.";
+
+    private final String className;
+    private final List<String> methods;
+    private final Map<String, String> parameters;
+
+    public WorkUnit(String className, List<String> methods, Map<String, String> parameters) {
+        this.className = className;
+        this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+        this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+    }
+
+    /**
+     * Cuts a class into units so that methods linked by dependsOnMethods stay together
+     *
+     * @param className Test class
+     * @param methods Methods in run order, empty for the whole class
+     * @param dependencies Methods each method depends on
+     * @param parameters Parameters of the &lt;test&gt;
+     * @return Units in order of their first method
+     */
+    public static List<WorkUnit> split(String className, List<String> methods, Map<String, List<String>> dependencies,
+                                       Map<String, String> parameters) {
+        if (methods.isEmpty()) {
+            return List.of(new WorkUnit(className, methods, parameters));
+        }
+        // Union-find over method names
+        Map<String, String> parent = new LinkedHashMap<>();
+        methods.forEach(method -> parent.put(method, method));
+        dependencies.forEach((method, required) -> {
+            for (String dependency : required) {
+                if (parent.containsKey(method) && parent.containsKey(dependency)) {
+                    parent.put(root(parent, method), root(parent, dependency));
+                }
+            }
+        });
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String method : methods) {
+            groups.computeIfAbsent(root(parent, method), key -> new ArrayList<>()).add(method);
+        }
+        List<WorkUnit> units = new ArrayList<>();
+        groups.values().forEach(group -> units.add(new WorkUnit(className, group, parameters)));
+        return units;
+    }
+
+    private static String root(Map<String, String> parent, String method) {
+        String current = method;
+        while (!parent.get(current).equals(current)) {
+            current = parent.get(current);
+        }
+        return current;
+    }
+
+    /**
+     * @return Stable id, Class#method1,method2 (Class# for the whole class)
+     */
+    public String getId() {
+        return className + "#" + String.join(",", methods);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * @return Methods in run order, empty for the whole class
+     */
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Encodes the unit for a lease response
+     *
+     * @param attempt Attempt number of the lease
+     * @return Properties document
+     */
+    public String encode(int attempt) {
+        Properties properties = new Properties();
+        properties.setProperty("class", className);
+        properties.setProperty("methods", String.join(",", methods));
+        properties.setProperty("attempt", String.valueOf(attempt));
+        parameters.forEach((key, value) -> properties.setProperty(PARAMETER_PREFIX + key, value));
+        StringWriter writer = new StringWriter();
+        try {
+            properties.store(writer, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode work unit " + getId(), e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Decodes a lease response
+     *
+     * @param encoded Properties document written by {@link #encode(int)}
+     * @return Unit and attempt
+     * @throws IOException if the document is malformed
+     */
+    public static Leased decode(String encoded) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(encoded));
+        String className = properties.getProperty("class");
+        if (className == null) {
+            throw new IOException("Work unit without class: " + encoded);
+        }
+        String methodList = properties.getProperty("methods", "");
+        List<String> methods = methodList.isEmpty() ? List.of() : Arrays.asList(methodList.split(","));
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(PARAMETER_PREFIX)) {
+                parameters.put(key.substring(PARAMETER_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        return new Leased(new WorkUnit(className, methods, parameters),
+            Integer.parseInt(properties.getProperty("attempt", "1")));
+    }
+
+    /**
+     * A unit as handed to a worker
+     */
+    public static final class Leased {
+        private final WorkUnit unit;
+        private final int attempt;
+
+        public Leased(WorkUnit unit, int attempt) {
+            this.unit = unit;
+            this.attempt = attempt;
+        }
+
+        public WorkUnit getUnit() {
+            return unit;
+        }
+
+        public int getAttempt() {
+            return attempt;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getId();
+    }
+}
@@ -0,0 +1,189 @@
+package com.appium.distributed;
+
+import com.appium.core.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker - Pulls test units from a {@link Coordinator} and runs them
+ * Usage: Worker &lt;coordinator-url&gt; [worker-id]. Units are run one after the other by a
+ * {@link TestNgUnitExecutor} (or passed without running when distributed.worker.dry.run
+ * is set, to try out the plumbing); results are streamed back as every test finishes.
+ * A background thread sends heartbeats so the coordinator can tell a long test from a
+ * dead worker
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class Worker {
+
+    private static final Logger logger = LoggerFactory.getLogger(Worker.class);
+    private static final int MAX_CONNECT_FAILURES = 5;
+
+    private final WorkerClient client;
+    private final UnitExecutor executor;
+    private final long heartbeatMillis;
+    private final long pollMillis;
+
+    public Worker(WorkerClient client, UnitExecutor executor, long heartbeatMillis, long pollMillis) {
+        this.client = client;
+        this.executor = executor;
+        this.heartbeatMillis = heartbeatMillis;
+        this.pollMillis = pollMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: Worker <coordinator-url> [worker-id]");
+            System.exit(64);
+        }
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        String id = args.length > 1 ? args[1] : ManagementFactory.getRuntimeMXBean().getName();
+        UnitExecutor executor = config.getBooleanProperty("distributed.worker.dry.run", false)
+            ? Worker::dryRun : new TestNgUnitExecutor(id);
+        Worker worker = new Worker(new WorkerClient(args[0], id), executor,
+            config.getIntProperty("distributed.heartbeat.interval.ms", 1000),
+            config.getIntProperty("distributed.poll.interval.ms", 500));
+        System.exit(worker.run() >= 0 ? 0 : 1);
+    }
+
+    /**
+     * Starts a worker process on this machine
+     *
+     * @param url Coordinator URL
+     * @param id Worker id
+     * @param directory Report directory of the worker, also gets worker.log
+     * @param properties Extra system properties of the worker
+     * @return Worker process
+     */
+    public static Process start(String url, String id, Path directory, Map<String, String> properties) throws IOException {
+        Files.createDirectories(directory);
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        // Settings given to this JVM apply to every worker
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D")) {
+                command.add(argument);
+            }
+        }
+        command.add("-Dreporting.output.directory=" + directory);
+        command.add("-Dmetrics.server.enabled=false");
+        properties.forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Worker.class.getName());
+        command.add(url);
+        command.add(id);
+        logger.info("Starting {} (log: {})", id, directory.resolve("worker.log"));
+        return new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(directory.resolve("worker.log").toFile()).start();
+    }
+
+    /**
+     * Leases and runs units until the coordinator reports the run as done
+     *
+     * @return Units run, -1 if the coordinator could not be reached
+     */
+    public int run() throws InterruptedException {
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heartbeat-" + client.getWorker());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        int units = 0;
+        int failures = 0;
+        try {
+            while (true) {
+                WorkerClient.LeaseResponse response;
+                try {
+                    response = client.lease();
+                    failures = 0;
+                } catch (IOException e) {
+                    if (++failures >= MAX_CONNECT_FAILURES) {
+                        logger.error("Worker {} gives up, coordinator unreachable: {}", client.getWorker(), e.toString());
+                        return -1;
+                    }
+                    Thread.sleep(pollMillis);
+                    continue;
+                }
+                if (response.isDone()) {
+                    logger.info("Worker {} finished after {} units", client.getWorker(), units);
+                    return units;
+                }
+                if (response.getLeased() == null) {
+                    Thread.sleep(pollMillis);
+                    continue;
+                }
+                runUnit(response.getLeased());
+                units++;
+            }
+        } finally {
+            heartbeat.shutdownNow();
+        }
+    }
+
+    private void runUnit(WorkUnit.Leased leased) {
+        WorkUnit unit = leased.getUnit();
+        logger.info("Worker {} runs {} (attempt {})", client.getWorker(), unit, leased.getAttempt());
+        UnitExecutor.ResultSink sink = (testId, status, millis, message) -> {
+            if (!client.result(leased, testId, status, millis, message)) {
+                logger.warn("Result of {} was not accepted, lease of {} expired", testId, unit);
+            }
+        };
+        try {
+            try {
+                executor.execute(unit, sink);
+            } catch (Exception e) {
+                // The unit is broken, not the worker: report it instead of letting the lease expire
+                logger.error("Worker {} could not run {}: {}", client.getWorker(), unit, e.toString());
+                for (String testId : testIds(unit)) {
+                    sink.accept(testId, "FAIL", 0, e.toString());
+                }
+            }
+            if (!client.complete(leased)) {
+                logger.warn("Worker {} finished {} late, it was re-queued", client.getWorker(), unit);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not complete {}: {}", unit, e.toString());
+        }
+    }
+
+    private void sendHeartbeat() {
+        try {
+            client.heartbeat();
+        } catch (IOException e) {
+            logger.debug("Heartbeat of {} failed: {}", client.getWorker(), e.toString());
+        }
+    }
+
+    /**
+     * Reports every method of a unit as passed without running it
+     */
+    static void dryRun(WorkUnit unit, UnitExecutor.ResultSink sink) throws IOException {
+        for (String testId : testIds(unit)) {
+            sink.accept(testId, "PASS", 0, null);
+        }
+    }
+
+    private static List<String> testIds(WorkUnit unit) {
+        if (unit.getMethods().isEmpty()) {
+            return List.of(unit.getClassName());
+        }
+        List<String> testIds = new ArrayList<>();
+        unit.getMethods().forEach(method -> testIds.add(unit.getClassName() + "." + method));
+        return testIds;
+    }
+}
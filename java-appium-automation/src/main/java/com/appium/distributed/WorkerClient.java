@@ -0,0 +1,141 @@
+package com.appium.distributed;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * WorkerClient - Worker side of the {@link Coordinator} protocol
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class WorkerClient {
+
+    private static final int TIMEOUT_MILLIS = 10000;
+
+    /**
+     * Answer to a lease request
+     */
+    public static final class LeaseResponse {
+        private final WorkUnit.Leased leased;
+        private final boolean done;
+
+        LeaseResponse(WorkUnit.Leased leased, boolean done) {
+            this.leased = leased;
+            this.done = done;
+        }
+
+        /**
+         * @return Leased unit, null when nothing was handed out
+         */
+        public WorkUnit.Leased getLeased() {
+            return leased;
+        }
+
+        /**
+         * @return true when the run is over and the worker should exit
+         */
+        public boolean isDone() {
+            return done;
+        }
+    }
+
+    private final String baseUrl;
+    private final String worker;
+
+    /**
+     * @param baseUrl Coordinator URL, e.g. http://127.0.0.1:7070
+     * @param worker Id of this worker
+     */
+    public WorkerClient(String baseUrl, String worker) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.worker = worker;
+    }
+
+    public String getWorker() {
+        return worker;
+    }
+
+    public LeaseResponse lease() throws IOException {
+        HttpURLConnection connection = post("/lease?worker=" + encode(worker), "");
+        try {
+            int status = connection.getResponseCode();
+            switch (status) {
+                case 200:
+                    try (InputStream in = connection.getInputStream()) {
+                        return new LeaseResponse(WorkUnit.decode(new String(in.readAllBytes(), StandardCharsets.UTF_8)), false);
+                    }
+                case 202:
+                    return new LeaseResponse(null, false);
+                case 204:
+                    return new LeaseResponse(null, true);
+                default:
+                    throw new IOException("Lease failed with HTTP " + status);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    public void heartbeat() throws IOException {
+        send("/heartbeat?worker=" + encode(worker), "");
+    }
+
+    /**
+     * Streams one test result
+     *
+     * @return false if the coordinator no longer wants results of this lease
+     */
+    public boolean result(WorkUnit.Leased leased, String testId, String status, long millis, String message)
+        throws IOException {
+        return send("/result?worker=" + encode(worker) + "&unit=" + encode(leased.getUnit().getId())
+            + "&attempt=" + leased.getAttempt() + "&test=" + encode(testId) + "&status=" + encode(status)
+            + "&millis=" + millis, message != null ? message : "") == 204;
+    }
+
+    /**
+     * Ends a lease
+     *
+     * @return false if the lease had expired and the unit was handed to another worker
+     */
+    public boolean complete(WorkUnit.Leased leased) throws IOException {
+        return send("/complete?worker=" + encode(worker) + "&unit=" + encode(leased.getUnit().getId())
+            + "&attempt=" + leased.getAttempt(), "") == 204;
+    }
+
+    private int send(String path, String body) throws IOException {
+        HttpURLConnection connection = post(path, body);
+        try {
+            int status = connection.getResponseCode();
+            if (status >= 400 && status != 409) {
+                throw new IOException("Coordinator answered " + path + " with HTTP " + status);
+            }
+            return status;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private HttpURLConnection post(String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        connection.setDoOutput(true);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        connection.setFixedLengthStreamingMode(bytes.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(bytes);
+        }
+        return connection;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,240 @@
+package com.appium.http;
+
+import com.appium.core.ConfigurationManager;
+import com.appium.utils.ReportManager;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SharedHttpClientFactory - One Selenium HTTP client per server for all driver sessions
+ * Selenium creates a client per driver by default, so every session opened new connections
+ * to the Appium server. Sessions created through this factory share the client of their
+ * server and reuse its kept-alive connections. The client is Selenium's default one (Netty
+ * on the Selenium version java-client brings in), built from the first session's
+ * {@link ClientConfig} (timeouts, proxy, credentials, filters), so every session of a server
+ * must pass the same one; quitting a driver leaves the shared client open until {@link #closeAll()}.
+ * Requests are counted against the TCP connections opened to each server ({@link TcpConnections}),
+ * which shows whether the connections were actually reused
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class SharedHttpClientFactory implements HttpClient.Factory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedHttpClientFactory.class);
+    private static final SharedHttpClientFactory INSTANCE = new SharedHttpClientFactory();
+
+    /**
+     * Requests, sessions and connections of one shared client
+     */
+    public static final class Stats {
+        private final String server;
+        private final long sessions;
+        private final long requests;
+        private final int connections;
+
+        Stats(String server, long sessions, long requests, int connections) {
+            this.server = server;
+            this.sessions = sessions;
+            this.requests = requests;
+            this.connections = connections;
+        }
+
+        public String getServer() {
+            return server;
+        }
+
+        /**
+         * @return Driver sessions that used the client; all but the first reused its connections
+         */
+        public long getSessions() {
+            return sessions;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return TCP connections opened to the server, -1 if they are not counted
+         */
+        public int getConnections() {
+            return connections;
+        }
+
+        /**
+         * @return Requests sent per connection opened, 0 if connections are not counted
+         */
+        public double getRequestsPerConnection() {
+            return connections > 0 ? (double) requests / connections : 0;
+        }
+    }
+
+    private final Map<String, SharedClient> clients = new ConcurrentHashMap<>();
+    private HttpClient.Factory delegate;
+
+    private SharedHttpClientFactory() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static SharedHttpClientFactory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether sessions share the client of their server (http.client.shared.enabled)
+     *
+     * @return true if sessions share clients
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("http.client.shared.enabled", true);
+    }
+
+    /**
+     * @return This factory, or Selenium's default factory when sharing is disabled
+     */
+    public static HttpClient.Factory forSessions() {
+        return isEnabled() ? INSTANCE : HttpClient.Factory.createDefault();
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        SharedClient shared = clients.computeIfAbsent(config.baseUri().toString(), server -> {
+            logger.info("Opening shared HTTP client for {}", server);
+            return new SharedClient(server, getDelegate().createClient(config), trackConnections(config.baseUri()));
+        });
+        shared.sessions.increment();
+        return new SessionClient(shared);
+    }
+
+    private synchronized HttpClient.Factory getDelegate() {
+        if (delegate == null) {
+            delegate = HttpClient.Factory.createDefault();
+        }
+        return delegate;
+    }
+
+    // ==================== STATISTICS ====================
+
+    /**
+     * Starts counting the connections to a server (http.client.connections.tracked)
+     *
+     * @return Connection counter, null if connections are not counted
+     */
+    private static TcpConnections trackConnections(URI server) {
+        if (!ConfigurationManager.getInstance().getBooleanProperty("http.client.connections.tracked", true)
+            || !TcpConnections.isSupported()) {
+            return null;
+        }
+        try {
+            return new TcpConnections(server);
+        } catch (UnknownHostException e) {
+            logger.debug("Not counting connections to {}: {}", server, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return Counters of the shared clients, empty if no session used one
+     */
+    public static List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        INSTANCE.clients.values().forEach(client ->
+            stats.add(new Stats(client.server, client.sessions.sum(), client.requests.sum(),
+                client.connections != null ? client.connections.count() : -1)));
+        return stats;
+    }
+
+    /**
+     * Logs the sessions, requests and connections per shared client and adds them to the report
+     */
+    public static void publish() {
+        List<Stats> stats = getStats();
+        if (stats.isEmpty()) {
+            return;
+        }
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Server", "Sessions", "Requests", "Connections", "Requests/Connection"});
+        for (Stats client : stats) {
+            boolean counted = client.getConnections() >= 0;
+            String connections = counted ? String.valueOf(client.getConnections()) : "n/a";
+            String perConnection = counted ? String.format("%.1f", client.getRequestsPerConnection()) : "n/a";
+            logger.info("Shared HTTP client {}: {} sessions, {} requests over {} connections", client.getServer(),
+                client.getSessions(), client.getRequests(), connections);
+            rows.add(new String[] {client.getServer(), String.valueOf(client.getSessions()),
+                String.valueOf(client.getRequests()), connections, perConnection});
+        }
+        ReportManager.addSummaryTable("Shared HTTP Clients", rows.toArray(new String[0][]));
+    }
+
+    /**
+     * Closes the shared clients and their connections
+     */
+    public static void closeAll() {
+        INSTANCE.clients.values().forEach(client -> client.client.close());
+        INSTANCE.clients.clear();
+    }
+
+    /**
+     * Client of one server with its counters
+     */
+    private static final class SharedClient {
+        private final String server;
+        private final HttpClient client;
+        private final TcpConnections connections;
+        private final LongAdder sessions = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+
+        SharedClient(String server, HttpClient client, TcpConnections connections) {
+            this.server = server;
+            this.client = client;
+            this.connections = connections;
+        }
+    }
+
+    /**
+     * The view of a shared client handed to one driver; closing it keeps the connections
+     */
+    private static final class SessionClient implements HttpClient {
+        private final SharedClient shared;
+
+        SessionClient(SharedClient shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            shared.requests.increment();
+            try {
+                return shared.client.execute(request);
+            } finally {
+                if (shared.connections != null) {
+                    shared.connections.sample();
+                }
+            }
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return shared.client.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // The connections stay with the shared client
+        }
+    }
+}
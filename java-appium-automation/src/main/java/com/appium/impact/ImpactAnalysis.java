@@ -0,0 +1,194 @@
+package com.appium.impact;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ImpactAnalysis - Decides which tests a diff can affect
+ * Built from the unified diff (git diff -U0) of the change. Within the module:
+ * a changed page object affects the tests that touched it, narrowed to the tests using
+ * a changed locator when only locator declarations changed; a changed test class
+ * affects all its methods; any other changed file affects everything. Tests that are
+ * not in the index are always affected
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class ImpactAnalysis {
+
+    private static final String PAGES_DIR = "src/main/java/com/appium/pages/";
+    private static final String TEST_SOURCES_DIR = "src/test/java/";
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern LOCATOR_DECLARATION = Pattern.compile("FindBy\\s*\\(|AppiumBy\\.|\\bBy\\.");
+
+    private final Map<String, Set<String>> changedPages = new LinkedHashMap<>();
+    private final Set<String> changedTestClasses = new LinkedHashSet<>();
+    private final List<String> globalChanges = new ArrayList<>();
+
+    /**
+     * @param diff Output of git diff -U0
+     * @param modulePath Module directory relative to the repository root ("" when the module is the root)
+     */
+    public ImpactAnalysis(String diff, String modulePath) {
+        String prefix = modulePath.isEmpty() || modulePath.endsWith("/") ? modulePath : modulePath + "/";
+        Map<String, List<String>> changedLines = parse(diff);
+        changedLines.forEach((path, lines) -> classify(path, prefix, lines));
+    }
+
+    /**
+     * Splits a unified diff into changed (added and removed) lines per file
+     *
+     * @param diff Unified diff
+     * @return Changed lines by file path, new path for renames
+     */
+    static Map<String, List<String>> parse(String diff) {
+        Map<String, List<String>> files = new LinkedHashMap<>();
+        List<String> current = null;
+        String oldPath = null;
+        for (String line : diff.split("\n")) {
+            if (line.startsWith("diff --git ")) {
+                current = null;
+                oldPath = null;
+            } else if (line.startsWith("--- ")) {
+                oldPath = stripPrefix(line.substring(4));
+            } else if (line.startsWith("+++ ")) {
+                String newPath = stripPrefix(line.substring(4));
+                // A deleted file is reported under its old path
+                String path = newPath != null ? newPath : oldPath;
+                if (path != null) {
+                    current = files.computeIfAbsent(path, p -> new ArrayList<>());
+                }
+            } else if (current != null && (line.startsWith("+") || line.startsWith("-"))) {
+                current.add(line.substring(1));
+            }
+        }
+        return files;
+    }
+
+    private static String stripPrefix(String path) {
+        String trimmed = path.trim();
+        if ("/dev/null".equals(trimmed)) {
+            return null;
+        }
+        return trimmed.startsWith("a/") || trimmed.startsWith("b/") ? trimmed.substring(2) : trimmed;
+    }
+
+    private void classify(String path, String prefix, List<String> lines) {
+        if (!path.startsWith(prefix)) {
+            return;
+        }
+        String modulePath = path.substring(prefix.length());
+        if (modulePath.startsWith(PAGES_DIR) && modulePath.endsWith(".java")) {
+            String page = modulePath.substring(PAGES_DIR.length(), modulePath.length() - ".java".length());
+            changedPages.merge(page, locatorValues(lines), (known, added) -> {
+                // A page already changed beyond its locators stays fully changed
+                if (known.isEmpty() || added.isEmpty()) {
+                    return Collections.emptySet();
+                }
+                known.addAll(added);
+                return known;
+            });
+        } else if (modulePath.startsWith(TEST_SOURCES_DIR) && modulePath.endsWith(".java")) {
+            changedTestClasses.add(modulePath.substring(TEST_SOURCES_DIR.length(), modulePath.length() - ".java".length())
+                .replace('/', '.'));
+        } else {
+            globalChanges.add(path);
+        }
+    }
+
+    /**
+     * String literals of the changed lines when every changed line is a locator declaration
+     *
+     * @return Changed locator values, empty when other code changed too
+     */
+    private static Set<String> locatorValues(List<String> lines) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String line : lines) {
+            String code = line.trim();
+            if (code.isEmpty() || code.startsWith("//") || code.startsWith("*") || code.startsWith("/*")) {
+                continue;
+            }
+            if (!LOCATOR_DECLARATION.matcher(code).find()) {
+                return new LinkedHashSet<>();
+            }
+            Matcher literal = STRING_LITERAL.matcher(code);
+            while (literal.find()) {
+                values.add(literal.group(1).replace("\\\"", "\""));
+            }
+        }
+        return values;
+    }
+
+    // ==================== SELECTION ====================
+
+    /**
+     * @return true when a change outside pages and tests forces a full run
+     */
+    public boolean isFullRun() {
+        return !globalChanges.isEmpty();
+    }
+
+    /**
+     * @return Changed files that force a full run
+     */
+    public List<String> getGlobalChanges() {
+        return Collections.unmodifiableList(globalChanges);
+    }
+
+    /**
+     * @return Changed page simple names with their changed locator values (empty when not locator-only)
+     */
+    public Map<String, Set<String>> getChangedPages() {
+        return Collections.unmodifiableMap(changedPages);
+    }
+
+    /**
+     * @return Fully qualified names of changed test classes
+     */
+    public Set<String> getChangedTestClasses() {
+        return Collections.unmodifiableSet(changedTestClasses);
+    }
+
+    /**
+     * Explains why a test is affected
+     *
+     * @param className Fully qualified test class name
+     * @param testId Test id (Class.method)
+     * @param dependencies Indexed dependencies of the test, null if not indexed
+     * @return Reason, null when the change cannot affect the test
+     */
+    public String reason(String className, String testId, TestImpactIndex.Dependencies dependencies) {
+        if (isFullRun()) {
+            return "changed " + globalChanges.get(0);
+        }
+        if (changedTestClasses.contains(className)) {
+            return "test class changed";
+        }
+        if (dependencies == null) {
+            return "not indexed";
+        }
+        for (String page : dependencies.getPages()) {
+            Set<String> locators = changedPages.get(page);
+            if (locators == null) {
+                continue;
+            }
+            if (locators.isEmpty()) {
+                return page + " changed";
+            }
+            for (String locator : dependencies.getLocators()) {
+                String value = locator.substring(locator.indexOf('=') + 1);
+                if (locators.contains(value)) {
+                    return page + " locator " + locator;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,291 @@
+package com.appium.impact;
+
+import com.appium.core.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestImpactIndex - Which page objects and locators each test touched at runtime
+ * The driver proxy reports every element lookup; the pages on the calling stack and the
+ * locator (strategy=value) are added to the current test's entry. At suite end the
+ * observed entries replace the stored ones and the index is written in a compact binary
+ * form (string table plus varint references) for {@link TestImpactSelector}
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class TestImpactIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestImpactIndex.class);
+    private static final int MAGIC = 0x54494458; // "TIDX"
+    private static final int VERSION = 1;
+    private static final String PAGES_PACKAGE = "com.appium.pages.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final Map<String, Dependencies> observed = new ConcurrentHashMap<>();
+
+    /**
+     * Pages and locators touched by one test
+     */
+    public static final class Dependencies {
+        private final Set<String> pages = ConcurrentHashMap.newKeySet();
+        private final Set<String> locators = ConcurrentHashMap.newKeySet();
+
+        public Dependencies() {
+        }
+
+        public Dependencies(Set<String> pages, Set<String> locators) {
+            this.pages.addAll(pages);
+            this.locators.addAll(locators);
+        }
+
+        /**
+         * @return Simple names of the page classes on the stack of any lookup
+         */
+        public Set<String> getPages() {
+            return Collections.unmodifiableSet(pages);
+        }
+
+        /**
+         * @return Locators as strategy=value
+         */
+        public Set<String> getLocators() {
+            return Collections.unmodifiableSet(locators);
+        }
+    }
+
+    private TestImpactIndex() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether dependencies are recorded (impact.index.enabled)
+     *
+     * @return true if tests are indexed
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("impact.index.enabled", false);
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Starts a fresh entry for a test on the current thread
+     *
+     * @param className Fully qualified test class name
+     * @param methodName Test method name
+     */
+    public static void startTest(String className, String methodName) {
+        String testId = className + "." + methodName;
+        currentTest.set(testId);
+        observed.put(testId, new Dependencies());
+    }
+
+    /**
+     * Stops recording for the current thread
+     */
+    public static void endTest() {
+        currentTest.remove();
+    }
+
+    /**
+     * Records an element lookup of the current thread's test
+     *
+     * @param using Locator strategy (W3C "using")
+     * @param value Locator value
+     */
+    public static void recordFind(String using, Object value) {
+        String testId = currentTest.get();
+        if (testId == null) {
+            return;
+        }
+        Dependencies dependencies = observed.get(testId);
+        dependencies.locators.add(using + "=" + value);
+        STACK_WALKER.forEach(frame -> {
+            String className = frame.getClassName();
+            if (className.startsWith(PAGES_PACKAGE)) {
+                int nested = className.indexOf('$', PAGES_PACKAGE.length());
+                dependencies.pages.add(className.substring(PAGES_PACKAGE.length(), nested < 0 ? className.length() : nested));
+            }
+        });
+    }
+
+    /**
+     * @return Entries observed in this JVM by test id
+     */
+    public static Map<String, Dependencies> getObserved() {
+        return Collections.unmodifiableMap(observed);
+    }
+
+    /**
+     * Merges the observed entries into the stored index (impact.index.file)
+     */
+    public static void persist() {
+        if (observed.isEmpty()) {
+            return;
+        }
+        Path file = getIndexFile();
+        try {
+            Map<String, Dependencies> index = new TreeMap<>(load(file));
+            index.putAll(observed);
+            save(file, index);
+            logger.info("Test impact index updated: {} tests ({} from this run) in {}",
+                index.size(), observed.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to update test impact index {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops all observed entries
+     */
+    public static void reset() {
+        observed.clear();
+    }
+
+    /**
+     * @return Configured index file
+     */
+    public static Path getIndexFile() {
+        return Paths.get(ConfigurationManager.getInstance().getProperty("impact.index.file", "test-history/impact.idx"));
+    }
+
+    // ==================== BINARY FORMAT ====================
+
+    /**
+     * Reads an index; a missing file is an empty index
+     *
+     * @param file Index file
+     * @return Entries by test id
+     * @throws IOException if the file is unreadable or not an index
+     */
+    public static Map<String, Dependencies> load(Path file) throws IOException {
+        Map<String, Dependencies> index = new LinkedHashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("Not a test impact index: " + file);
+            }
+            String[] strings = new String[readVarint(in)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readVarint(in)];
+                in.readFully(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int tests = readVarint(in);
+            for (int test = 0; test < tests; test++) {
+                String testId = strings[readVarint(in)];
+                Set<String> pages = readReferences(in, strings);
+                Set<String> locators = readReferences(in, strings);
+                index.put(testId, new Dependencies(pages, locators));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Writes an index atomically
+     *
+     * @param file Index file
+     * @param index Entries by test id
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(Path file, Map<String, Dependencies> index) throws IOException {
+        // Every string is stored once; entries reference it by position
+        Map<String, Integer> table = new LinkedHashMap<>();
+        index.forEach((testId, dependencies) -> {
+            table.putIfAbsent(testId, table.size());
+            new TreeSet<>(dependencies.pages).forEach(page -> table.putIfAbsent(page, table.size()));
+            new TreeSet<>(dependencies.locators).forEach(locator -> table.putIfAbsent(locator, table.size()));
+        });
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeVarint(out, table.size());
+            for (String value : table.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, bytes.length);
+                out.write(bytes);
+            }
+            writeVarint(out, index.size());
+            for (Map.Entry<String, Dependencies> entry : index.entrySet()) {
+                writeVarint(out, table.get(entry.getKey()));
+                writeReferences(out, entry.getValue().pages, table);
+                writeReferences(out, entry.getValue().locators, table);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Set<String> readReferences(DataInputStream in, String[] strings) throws IOException {
+        int count = readVarint(in);
+        Set<String> values = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            values.add(strings[readVarint(in)]);
+        }
+        return values;
+    }
+
+    private static void writeReferences(OutputStream out, Set<String> values, Map<String, Integer> table) throws IOException {
+        List<String> sorted = new ArrayList<>(new TreeSet<>(values));
+        writeVarint(out, sorted.size());
+        for (String value : sorted) {
+            writeVarint(out, table.get(value));
+        }
+    }
+
+    static void writeVarint(OutputStream out, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Truncated test impact index");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in test impact index");
+    }
+}
@@ -0,0 +1,192 @@
+package com.appium.impact;
+
+import com.appium.core.ConfigurationManager;
+import com.appium.utils.ReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * TestImpactSelector - Runs only the tests a change can affect
+ * With impact.selection.enabled the diff against impact.base.ref (committed and
+ * uncommitted changes) is matched against the {@link TestImpactIndex} by
+ * {@link ImpactAnalysis}. Affected tests, the sanity subset (impact.sanity.tests, regular
+ * expressions on Class.method) and the methods they depend on are kept; the rest are
+ * left out of the run. Without git or an index everything runs
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class TestImpactSelector implements IMethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestImpactSelector.class);
+
+    private static volatile Selection selection;
+
+    /**
+     * Diff analysis and index, computed once per JVM for all &lt;test&gt;s
+     */
+    private static final class Selection {
+        private final ImpactAnalysis analysis;
+        private final Map<String, TestImpactIndex.Dependencies> index;
+        private final List<Pattern> sanity;
+
+        Selection(ImpactAnalysis analysis, Map<String, TestImpactIndex.Dependencies> index, List<Pattern> sanity) {
+            this.analysis = analysis;
+            this.index = index;
+            this.sanity = sanity;
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ConfigurationManager.getInstance().getBooleanProperty("impact.selection.enabled", false)) {
+            return methods;
+        }
+        Selection current = getSelection();
+        if (current == null || current.analysis.isFullRun()) {
+            return methods;
+        }
+
+        Map<String, String> reasons = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            String className = method.getRealClass().getName();
+            String testId = className + "." + method.getMethodName();
+            String reason = current.analysis.reason(className, testId, current.index.get(testId));
+            if (reason == null && current.sanity.stream().anyMatch(pattern -> pattern.matcher(testId).matches())) {
+                reason = "sanity";
+            }
+            if (reason != null) {
+                reasons.put(testId, reason);
+            }
+        }
+        keepDependencies(methods, reasons);
+
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            if (reasons.containsKey(method.getRealClass().getName() + "." + method.getMethodName())) {
+                selected.add(instance);
+            }
+        }
+        report(context, methods.size(), reasons);
+        return selected;
+    }
+
+    /**
+     * Adds the methods selected tests depend on, transitively
+     */
+    private static void keepDependencies(List<IMethodInstance> methods, Map<String, String> reasons) {
+        Map<String, ITestNGMethod> byId = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            byId.put(method.getRealClass().getName() + "." + method.getMethodName(), method);
+        }
+        List<String> pending = new ArrayList<>(reasons.keySet());
+        while (!pending.isEmpty()) {
+            String testId = pending.remove(pending.size() - 1);
+            ITestNGMethod method = byId.get(testId);
+            if (method == null) {
+                continue;
+            }
+            for (String dependency : method.getMethodsDependedUpon()) {
+                if (!reasons.containsKey(dependency)) {
+                    reasons.put(dependency, "required by " + method.getMethodName());
+                    pending.add(dependency);
+                }
+            }
+        }
+    }
+
+    private static void report(ITestContext context, int total, Map<String, String> reasons) {
+        logger.info("Test impact selection for {}: {} of {} tests", context.getName(), reasons.size(), total);
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Test", "Reason"});
+        reasons.forEach((testId, reason) -> {
+            logger.info("  {} ({})", testId, reason);
+            rows.add(new String[] {testId, reason});
+        });
+        rows.add(new String[] {"Skipped by selection", String.valueOf(total - reasons.size())});
+        ReportManager.addSummaryTable("Test Impact Selection - " + context.getName(), rows.toArray(new String[0][]));
+    }
+
+    // ==================== CHANGE DETECTION ====================
+
+    private static Selection getSelection() {
+        if (selection == null) {
+            synchronized (TestImpactSelector.class) {
+                if (selection == null) {
+                    selection = loadSelection();
+                }
+            }
+        }
+        return selection.analysis != null ? selection : null;
+    }
+
+    private static Selection loadSelection() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        String baseRef = config.getProperty("impact.base.ref", "origin/main");
+        List<Pattern> sanity = new ArrayList<>();
+        for (String expression : config.getProperty("impact.sanity.tests", "").split("\\s*,\\s*")) {
+            if (!expression.isEmpty()) {
+                sanity.add(Pattern.compile(expression));
+            }
+        }
+        try {
+            Map<String, TestImpactIndex.Dependencies> index = TestImpactIndex.load(TestImpactIndex.getIndexFile());
+            if (index.isEmpty()) {
+                logger.warn("Test impact index {} is empty, running all tests", TestImpactIndex.getIndexFile());
+                return new Selection(null, index, sanity);
+            }
+            String modulePath = git("rev-parse", "--show-prefix").trim();
+            ImpactAnalysis analysis = new ImpactAnalysis(git("diff", "--no-color", "--no-ext-diff", "-U0", baseRef), modulePath);
+            if (analysis.isFullRun()) {
+                logger.info("Changes outside pages and tests ({}), running all tests", analysis.getGlobalChanges());
+            } else {
+                logger.info("Changed against {}: pages {}, test classes {}", baseRef,
+                    analysis.getChangedPages().keySet(), analysis.getChangedTestClasses());
+            }
+            return new Selection(analysis, index, sanity);
+        } catch (IOException e) {
+            logger.warn("Test impact selection unavailable, running all tests: {}", e.getMessage());
+            return new Selection(null, Map.of(), sanity);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Selection(null, Map.of(), sanity);
+        }
+    }
+
+    private static String git(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            in.transferTo(buffer);
+            output = buffer.toString(StandardCharsets.UTF_8);
+        }
+        if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IOException(String.join(" ", command) + " failed: " + output.trim());
+        }
+        return output;
+    }
+}
@@ -0,0 +1,30 @@
+package com.appium.listeners;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * RetryTransformer - Attaches {@link RetryAnalyzer} to every test
+ * Tests that declare a retryAnalyzer of their own keep it. Nothing is attached while the
+ * retry count is 0. Annotation transformers must be declared in the suite XML
+ * (&lt;listeners&gt;), @Listeners is too late for them
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class RetryTransformer implements IAnnotationTransformer {
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (RetryAnalyzer.getConfiguredRetryCount() > 0
+                && (annotation.getRetryAnalyzerClass() == null
+                    || annotation.getRetryAnalyzerClass() == DisabledRetryAnalyzer.class)) {
+            annotation.setRetryAnalyzer(RetryAnalyzer.class);
+        }
+    }
+}
@@ -2,12 +2,22 @@ package com.appium.listeners;
 
 import com.appium.core.ConfigurationManager;
 import com.appium.core.DriverFactory;
+import com.appium.quarantine.FlakinessHistory;
+import com.appium.quarantine.FlakinessStore;
+import com.appium.results.ColumnarResultFile;
+import com.appium.results.ResultArchive;
 import com.appium.utils.ReportManager;
 import com.appium.utils.ScreenshotUtils;
+import com.appium.tracing.Span;
+import com.appium.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.*;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * TestExecutionListener - Comprehensive TestNG listener for test lifecycle management
  * Handles suite, test, and method level events with detailed logging and reporting
@@ -15,11 +25,15 @@ import org.testng.*;
  * @author Asim Kumar Singh
  * @version 1.0.0
  */
-public class TestExecutionListener implements ISuiteListener, ITestListener {
+public class TestExecutionListener implements ISuiteListener, ITestListener, IInvokedMethodListener {
     
     private static final Logger logger = LoggerFactory.getLogger(TestExecutionListener.class);
+    private static final String SPAN_ATTRIBUTE = "tracing.span";
     private ConfigurationManager config;
     
+    // Test span per worker thread, spanning @BeforeMethod through the last @AfterMethod
+    private final Map<Thread, Span> testSpans = new ConcurrentHashMap<>();
+    
     // ==================== SUITE LEVEL EVENTS ====================
     
     @Override
@@ -30,6 +44,9 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         
         config = ConfigurationManager.getInstance();
         
+        // Open the root span of the run
+        Tracer.startSuite(suite.getName());
+        
         // Initialize reporting
         ReportManager.initializeReports();
         
@@ -46,11 +63,19 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         logger.info("========================================");
         
         try {
-            // Ensure all drivers are properly closed
-            DriverFactory.quitAllDrivers();
+            // Close remaining drivers while the report is being flushed
+            CompletableFuture<Void> driverShutdown = DriverFactory.quitAllDriversAsync();
+            
+            // Record this run's results in the flakiness history
+            FlakinessHistory.persist();
+            FlakinessHistory.publish();
+            
+            // Archive this run's results for ResultQuery
+            ResultArchive.persist();
             
             // Finalize reports
             ReportManager.flushReports();
+            driverShutdown.join();
             
             // Cleanup old screenshots (keep last 7 days)
             int cleanedFiles = ScreenshotUtils.cleanupOldScreenshots(7);
@@ -63,6 +88,11 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
             logger.error("Error during suite cleanup", e);
         }
         
+        // Close test spans left open by the last test of each worker and write the trace
+        testSpans.values().forEach(Tracer::end);
+        testSpans.clear();
+        Tracer.endSuite();
+        
         logger.info("Suite execution completed successfully");
     }
     
@@ -93,6 +123,9 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         logger.info("✅ TEST PASSED: {} (Duration: {}ms)", testName, duration);
         
         ReportManager.logPass("Test completed successfully in " + duration + "ms");
+        reportRetriedResult(result, "PASSED");
+        FlakinessHistory.record(RetryAnalyzer.testId(result), FlakinessStore.PASS);
+        ResultArchive.record(result, ColumnarResultFile.PASS);
         
         // Capture success screenshot if enabled
         captureSuccessScreenshotIfEnabled(result);
@@ -112,6 +145,9 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         // Log failure in report
         String errorMessage = throwable != null ? throwable.getMessage() : "Unknown error";
         ReportManager.logFail("Test failed after " + duration + "ms: " + errorMessage);
+        reportRetriedResult(result, "FAILED");
+        FlakinessHistory.record(RetryAnalyzer.testId(result), FlakinessStore.FAIL);
+        ResultArchive.record(result, ColumnarResultFile.FAIL);
         
         // Capture failure screenshot
         captureFailureScreenshot(result);
@@ -125,12 +161,42 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         String testName = getTestName(result);
         Throwable throwable = result.getThrowable();
         
+        // A failed attempt that RetryAnalyzer runs again is reported as a retry, not a skip
+        if (result.wasRetried()) {
+            FailureClassifier.Category category = FailureClassifier.classify(throwable);
+            String reason = throwable != null ? throwable.getMessage() : "Unknown error";
+            logger.warn("🔁 TEST RETRIED: {} after {} failure", testName, category);
+            ReportManager.logWarning("Attempt failed with " + category + " failure and is retried: " + reason);
+            ReportManager.assignCategory("Retried Attempts");
+            FlakinessHistory.record(RetryAnalyzer.testId(result), FlakinessStore.RETRY);
+            ResultArchive.record(result, ColumnarResultFile.RETRY);
+            captureFailureScreenshot(result);
+            return;
+        }
+        
         logger.warn("⏭️ TEST SKIPPED: {}", testName);
         
         String skipReason = throwable != null ? throwable.getMessage() : "Unknown reason";
         logger.warn("Skip reason: {}", skipReason);
         
         ReportManager.logSkip("Test skipped: " + skipReason);
+        reportRetriedResult(result, "SKIPPED");
+        FlakinessHistory.record(RetryAnalyzer.testId(result), FlakinessStore.SKIP);
+        ResultArchive.record(result, ColumnarResultFile.SKIP);
+    }
+    
+    /**
+     * Labels the final attempt of a retried test so it is not mistaken for a first-run result
+     */
+    private void reportRetriedResult(ITestResult result, String status) {
+        String testId = RetryAnalyzer.testId(result);
+        int retries = RetryAnalyzer.getRetryCount(testId);
+        if (retries == 0) {
+            return;
+        }
+        RetryAnalyzer.recordFinalResult(testId, status);
+        ReportManager.logWarning(status + " after " + retries + " retries of infrastructure failures");
+        ReportManager.assignCategory("PASSED".equals(status) ? "Passed On Retry" : "Failed After Retry");
     }
     
     @Override
@@ -149,11 +215,73 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         logger.error("⏰ TEST FAILED WITH TIMEOUT: {} (Duration: {}ms)", testName, duration);
         
         ReportManager.logFail("Test failed due to timeout after " + duration + "ms");
+        reportRetriedResult(result, "FAILED");
+        FlakinessHistory.record(RetryAnalyzer.testId(result), FlakinessStore.FAIL);
+        ResultArchive.record(result, ColumnarResultFile.FAIL);
         
         // Capture timeout screenshot
         captureFailureScreenshot(result);
     }
     
+    // ==================== METHOD LEVEL EVENTS (TRACING) ====================
+    
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!Tracer.isActive()) {
+            return;
+        }
+        ITestNGMethod testMethod = method.getTestMethod();
+        Thread thread = Thread.currentThread();
+        Span testSpan = testSpans.get(thread);
+        
+        // The previous test on this thread is over once anything but another @AfterMethod runs
+        if (testSpan != null && testSpan.isEnded() && !testMethod.isAfterMethodConfiguration()) {
+            testSpans.remove(thread);
+            Tracer.end(testSpan);
+            testSpan = null;
+        }
+        if (testSpan == null && (method.isTestMethod() || testMethod.isBeforeMethodConfiguration())) {
+            testSpan = Tracer.start("test " + getSimpleClassName(testMethod.getTestClass().getName()));
+            testSpans.put(thread, testSpan);
+        }
+        if (testSpan != null && method.isTestMethod()) {
+            String className = getSimpleClassName(testMethod.getTestClass().getName());
+            testSpan.rename("test " + className + "." + testMethod.getMethodName())
+                .setAttribute("test.class", className)
+                .setAttribute("test.method", testMethod.getMethodName())
+                .setAttribute("testng.test", testResult.getTestContext().getName());
+        }
+        
+        String methodName = getSimpleClassName(testMethod.getRealClass().getName()) + "." + testMethod.getMethodName();
+        Span span = Tracer.start(getPhaseName(method) + " " + methodName);
+        testResult.setAttribute(SPAN_ATTRIBUTE, span);
+    }
+    
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Object span = testResult.removeAttribute(SPAN_ATTRIBUTE);
+        if (!(span instanceof Span)) {
+            return;
+        }
+        Span phaseSpan = (Span) span;
+        Span testSpan = testSpans.get(Thread.currentThread());
+        if (testResult.getStatus() == ITestResult.FAILURE) {
+            phaseSpan.recordError(testResult.getThrowable());
+            if (testSpan != null) {
+                testSpan.recordError(testResult.getThrowable());
+            }
+        }
+        if (method.isTestMethod() && testSpan != null) {
+            testSpan.setAttribute("test.status", getStatusName(testResult.getStatus()));
+        }
+        Tracer.end(phaseSpan);
+        
+        // Keep the test span open for further @AfterMethods, but end its time here
+        if (method.getTestMethod().isAfterMethodConfiguration() && testSpan != null) {
+            testSpan.markEnd();
+        }
+    }
+    
     // ==================== HELPER METHODS ====================
     
     /**
@@ -183,10 +311,11 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         String className = result.getTestClass().getName();
         String threadName = Thread.currentThread().getName();
         
-        ReportManager.logInfo("Test Class: " + className);
-        ReportManager.logInfo("Test Method: " + testName);
-        ReportManager.logInfo("Thread: " + threadName);
-        ReportManager.logInfo("Start Time: " + new java.util.Date(result.getStartMillis()));
+        // Messages are only built when the test is reported
+        ReportManager.logInfo(() -> "Test Class: " + className);
+        ReportManager.logInfo(() -> "Test Method: " + testName);
+        ReportManager.logInfo(() -> "Thread: " + threadName);
+        ReportManager.logInfo(() -> "Start Time: " + new java.util.Date(result.getStartMillis()));
         
         // Assign metadata
         ReportManager.assignCategory(getSimpleClassName(className));
@@ -303,6 +432,45 @@ public class TestExecutionListener implements ISuiteListener, ITestListener {
         return description != null && !description.isEmpty() ? description : "Test: " + getTestName(result);
     }
     
+    /**
+     * Gets the lifecycle phase of an invoked method for its span name
+     */
+    private String getPhaseName(IInvokedMethod method) {
+        ITestNGMethod testMethod = method.getTestMethod();
+        if (method.isTestMethod()) {
+            return "body";
+        } else if (testMethod.isBeforeMethodConfiguration()) {
+            return "setup";
+        } else if (testMethod.isAfterMethodConfiguration()) {
+            return "teardown";
+        } else if (testMethod.isBeforeClassConfiguration()) {
+            return "class setup";
+        } else if (testMethod.isAfterClassConfiguration()) {
+            return "class teardown";
+        } else if (testMethod.isBeforeSuiteConfiguration()) {
+            return "suite setup";
+        } else if (testMethod.isAfterSuiteConfiguration()) {
+            return "suite teardown";
+        }
+        return "configuration";
+    }
+    
+    /**
+     * Gets a readable name for a TestNG result status
+     */
+    private String getStatusName(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                return "PASS";
+            case ITestResult.FAILURE:
+                return "FAIL";
+            case ITestResult.SKIP:
+                return "SKIP";
+            default:
+                return String.valueOf(status);
+        }
+    }
+    
     /**
      * Gets simple class name from full class name
      */
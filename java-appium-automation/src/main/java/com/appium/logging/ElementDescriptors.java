@@ -0,0 +1,164 @@
+package com.appium.logging;
+
+import org.openqa.selenium.WebElement;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ElementDescriptors - Log descriptions of page elements, taken from their locator annotations
+ * Calling toString() on a PageFactory element resolves the proxy, which looks the element up
+ * on the device. The description of every @AndroidFindBy / @FindBy field is instead built once
+ * per page class from the annotation (e.g. "equalsButton [id=com.google.android.calculator:id/eq]")
+ * and looked up by the identity of the field value, without touching the element
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ElementDescriptors {
+
+    /**
+     * Element field of a page class with its precomputed description
+     */
+    private static final class Descriptor {
+        private final Field field;
+        private final String description;
+
+        Descriptor(Field field, String description) {
+            this.field = field;
+            this.description = description;
+        }
+    }
+
+    private static final ClassValue<List<Descriptor>> DESCRIPTORS = new ClassValue<>() {
+        @Override
+        protected List<Descriptor> computeValue(Class<?> pageClass) {
+            return Collections.unmodifiableList(describeFields(pageClass));
+        }
+    };
+
+    private ElementDescriptors() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Maps the (proxied) elements of an initialized page to their descriptions
+     *
+     * @param page Page object after PageFactory.initElements
+     * @return Descriptions keyed by element identity
+     */
+    public static Map<Object, String> of(Object page) {
+        List<Descriptor> descriptors = DESCRIPTORS.get(page.getClass());
+        Map<Object, String> descriptions = new IdentityHashMap<>(descriptors.size() * 2);
+        for (Descriptor descriptor : descriptors) {
+            try {
+                Object element = descriptor.field.get(page);
+                if (element != null) {
+                    descriptions.put(element, descriptor.description);
+                }
+            } catch (IllegalAccessException e) {
+                // Not accessible, the element is described by the caller's fallback
+            }
+        }
+        return descriptions;
+    }
+
+    /**
+     * Renders the non-default attributes of a locator annotation
+     *
+     * @param locator Locator annotation such as @AndroidFindBy(id = "...")
+     * @return Attributes as name=value, e.g. "id=com.google.android.calculator:id/eq"
+     */
+    public static String describe(Annotation locator) {
+        Method[] attributes = locator.annotationType().getDeclaredMethods();
+        Arrays.sort(attributes, Comparator.comparing(Method::getName));
+        StringBuilder text = new StringBuilder();
+        for (Method attribute : attributes) {
+            String value = render(locator, attribute);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(attribute.getName()).append('=').append(value);
+        }
+        return text.toString();
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static List<Descriptor> describeFields(Class<?> pageClass) {
+        List<Descriptor> descriptors = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || !isElementField(field)) {
+                    continue;
+                }
+                List<String> locators = new ArrayList<>();
+                for (Annotation annotation : field.getDeclaredAnnotations()) {
+                    if (isLocator(annotation)) {
+                        locators.add(describe(annotation));
+                    }
+                }
+                if (locators.isEmpty()) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                descriptors.add(new Descriptor(field, field.getName() + " [" + String.join("; ", locators) + "]"));
+            }
+        }
+        return descriptors;
+    }
+
+    private static boolean isElementField(Field field) {
+        return WebElement.class.isAssignableFrom(field.getType()) || List.class.isAssignableFrom(field.getType());
+    }
+
+    private static boolean isLocator(Annotation annotation) {
+        String name = annotation.annotationType().getSimpleName();
+        return name.contains("FindBy") || name.contains("FindAll");
+    }
+
+    private static String render(Annotation locator, Method attribute) {
+        Object value;
+        try {
+            value = attribute.invoke(locator);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+        if (value == null || Objects.deepEquals(value, attribute.getDefaultValue())) {
+            return null;
+        }
+        if (value instanceof String || value instanceof Enum) {
+            return value.toString();
+        }
+        if (value instanceof Annotation[]) {
+            StringBuilder nested = new StringBuilder("[");
+            for (Annotation annotation : (Annotation[]) value) {
+                if (nested.length() > 1) {
+                    nested.append("; ");
+                }
+                nested.append(describe(annotation));
+            }
+            return nested.append(']').toString();
+        }
+        // Priorities and other numbers do not identify the element
+        return null;
+    }
+}
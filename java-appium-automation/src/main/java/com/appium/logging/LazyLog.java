@@ -0,0 +1,65 @@
+package com.appium.logging;
+
+import org.slf4j.Logger;
+
+import java.util.function.Supplier;
+
+/**
+ * LazyLog - Logging facade that costs nothing while a level is disabled
+ * Arguments that are expensive to build (element descriptions, concatenations) are passed
+ * as suppliers and only evaluated after the level check. Non-capturing suppliers are
+ * allocated once; capturing ones are small and usually removed by escape analysis
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class LazyLog {
+
+    private LazyLog() {
+        // Private constructor to prevent instantiation
+    }
+
+    // ==================== DEBUG ====================
+
+    /**
+     * Logs at DEBUG, evaluating the argument only when DEBUG is enabled
+     *
+     * @param logger Logger to write to
+     * @param format SLF4J format with one placeholder
+     * @param arg Supplier of the argument
+     */
+    public static void debug(Logger logger, String format, Supplier<?> arg) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, arg.get());
+        }
+    }
+
+    /**
+     * Logs at DEBUG, evaluating the second argument only when DEBUG is enabled
+     *
+     * @param logger Logger to write to
+     * @param format SLF4J format with two placeholders
+     * @param arg1 First argument, already at hand
+     * @param arg2 Supplier of the second argument
+     */
+    public static void debug(Logger logger, String format, Object arg1, Supplier<?> arg2) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(format, arg1, arg2.get());
+        }
+    }
+
+    // ==================== INFO ====================
+
+    /**
+     * Logs at INFO, evaluating the argument only when INFO is enabled
+     *
+     * @param logger Logger to write to
+     * @param format SLF4J format with one placeholder
+     * @param arg Supplier of the argument
+     */
+    public static void info(Logger logger, String format, Supplier<?> arg) {
+        if (logger.isInfoEnabled()) {
+            logger.info(format, arg.get());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.appium.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * LogBudget - Log events allowed per second before DEBUG output is shed
+ * Counts events in fixed one-second windows. Once a window has used its budget the
+ * remaining DEBUG and TRACE events of that window are dropped, while INFO and above
+ * are always written; the next window starts with a full budget again
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class LogBudget {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long eventsPerSecond;
+    private final LongSupplier clock;
+    private final AtomicLong windowStart;
+    private final AtomicLong used = new AtomicLong();
+
+    /**
+     * @param eventsPerSecond Budget per window, 0 or less for no limit
+     * @param clock Nano time source
+     */
+    public LogBudget(long eventsPerSecond, LongSupplier clock) {
+        this.eventsPerSecond = eventsPerSecond;
+        this.clock = clock;
+        this.windowStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Counts one event against the budget of the current window
+     *
+     * @return false if the window's budget was already used up
+     */
+    public boolean tryAcquire() {
+        if (eventsPerSecond <= 0) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        return used.incrementAndGet() <= eventsPerSecond;
+    }
+}
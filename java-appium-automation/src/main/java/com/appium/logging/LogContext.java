@@ -0,0 +1,43 @@
+package com.appium.logging;
+
+import org.slf4j.MDC;
+
+/**
+ * LogContext - Tags log events of a test thread with the running test
+ * Sets the MDC keys test, thread and device for the duration of a test, so every line
+ * of the JSON log can be traced back to it, also when tests run in parallel
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class LogContext {
+
+    public static final String TEST = "test";
+    public static final String THREAD = "thread";
+    public static final String DEVICE = "device";
+
+    private LogContext() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Starts tagging the current thread's log events
+     *
+     * @param testId Class.method of the test
+     * @param device Device the test runs on
+     */
+    public static void startTest(String testId, String device) {
+        MDC.put(TEST, testId);
+        MDC.put(THREAD, Thread.currentThread().getName());
+        MDC.put(DEVICE, device);
+    }
+
+    /**
+     * Stops tagging the current thread's log events
+     */
+    public static void endTest() {
+        MDC.remove(TEST);
+        MDC.remove(THREAD);
+        MDC.remove(DEVICE);
+    }
+}
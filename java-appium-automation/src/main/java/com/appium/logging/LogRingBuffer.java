@@ -0,0 +1,93 @@
+package com.appium.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * LogRingBuffer - Bounded lock-free queue between logging threads and the log writer
+ * Any number of threads offer, one thread polls. Every slot carries a sequence number
+ * that tells producers whether it is free and the consumer whether it is filled, so
+ * neither side ever takes a lock and a full buffer is detected without blocking
+ *
+ * @param <E> Element type
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class LogRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity Requested capacity, rounded up to a power of two
+     */
+    public LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int slot = 0; slot < size; slot++) {
+            sequences.set(slot, slot);
+        }
+    }
+
+    /**
+     * Adds an element without waiting
+     *
+     * @param element Element, not null
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) (position & mask);
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer has not freed the slot a full lap ago
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest element; only one thread may poll
+     *
+     * @return Element, null if the buffer is empty
+     */
+    public E poll() {
+        long position = head.get();
+        int slot = (int) (position & mask);
+        if (sequences.get(slot) != position + 1) {
+            return null;
+        }
+        E element = slots.get(slot);
+        slots.lazySet(slot, null);
+        sequences.set(slot, position + mask + 1);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * @return Elements waiting, approximate while producers are adding
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity(), tail.get() - head.get()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
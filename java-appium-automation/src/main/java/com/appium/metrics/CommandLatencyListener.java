@@ -0,0 +1,121 @@
+package com.appium.metrics;
+
+import com.appium.impact.TestImpactIndex;
+import com.appium.tracing.Span;
+import com.appium.tracing.Tracer;
+import io.appium.java_client.proxy.MethodCallListener;
+import org.openqa.selenium.remote.CommandPayload;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.remote.Response;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommandLatencyListener - Times every wire command of a driver created with Helpers.createProxy
+ * All driver and element calls funnel through RemoteWebDriver.execute(CommandPayload),
+ * so that single method is timed and named after the payload (findElement, clickElement,
+ * screenshot, executeScript, getCurrentPackage, ...). Element commands are tagged with
+ * the strategy of the locator that found the element. Element lookups are also
+ * reported to the {@link TestImpactIndex}
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class CommandLatencyListener implements MethodCallListener {
+
+    private static final String NONE = "-";
+
+    // Only the outermost execute of a thread is timed (execute overloads delegate to each other)
+    private static final ThreadLocal<long[]> callState = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final Map<String, String> elementStrategies = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeCall(Object obj, Method method, Object[] args) {
+        if (isWireCommand(method, args)) {
+            long[] state = callState.get();
+            if (state[0]++ == 0) {
+                state[1] = System.nanoTime();
+            }
+        }
+    }
+
+    @Override
+    public void afterCall(Object obj, Method method, Object[] args, Object result) {
+        if (isWireCommand(method, args) && finish(args)) {
+            rememberElements(args, result);
+        }
+    }
+
+    @Override
+    public Object onError(Object obj, Method method, Object[] args, Throwable e) throws Throwable {
+        if (isWireCommand(method, args)) {
+            finish(args);
+        }
+        throw e;
+    }
+
+    /**
+     * Records the command once the outermost execute returns
+     *
+     * @return true if this was the outermost execute
+     */
+    private boolean finish(Object[] args) {
+        long[] state = callState.get();
+        if (state[0] == 0 || --state[0] > 0) {
+            return false;
+        }
+        long end = System.nanoTime();
+        CommandPayload payload = payloadOf(args);
+        String page = CommandLatency.callingPage();
+        String strategy = strategyOf(payload.getParameters());
+        CommandLatency.record(payload.getName(), page, strategy, end - state[1]);
+        Object using = payload.getParameters().get("using");
+        if (using != null) {
+            TestImpactIndex.recordFind(using.toString(), payload.getParameters().get("value"));
+        }
+        if (Tracer.isActive()) {
+            Tracer.record("command " + payload.getName(), Span.KIND_CLIENT, state[1], end,
+                Map.of("appium.command", payload.getName(), "page", page, "locator.strategy", strategy));
+        }
+        return true;
+    }
+
+    private String strategyOf(Map<String, ?> parameters) {
+        Object using = parameters.get("using");
+        if (using != null) {
+            return using.toString();
+        }
+        Object elementId = parameters.get("id");
+        return elementId != null ? elementStrategies.getOrDefault(elementId.toString(), NONE) : NONE;
+    }
+
+    private void rememberElements(Object[] args, Object result) {
+        Object using = payloadOf(args).getParameters().get("using");
+        if (using == null || !(result instanceof Response)) {
+            return;
+        }
+        Object value = ((Response) result).getValue();
+        if (value instanceof RemoteWebElement) {
+            elementStrategies.put(((RemoteWebElement) value).getId(), using.toString());
+        } else if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                if (element instanceof RemoteWebElement) {
+                    elementStrategies.put(((RemoteWebElement) element).getId(), using.toString());
+                }
+            }
+        }
+    }
+
+    private static boolean isWireCommand(Method method, Object[] args) {
+        return "execute".equals(method.getName()) && args != null && args.length == 1
+            && args[0] instanceof CommandPayload;
+    }
+
+    private static CommandPayload payloadOf(Object[] args) {
+        return (CommandPayload) args[0];
+    }
+}
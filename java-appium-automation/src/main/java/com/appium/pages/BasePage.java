@@ -1,6 +1,8 @@
 package com.appium.pages;
 
 import com.appium.core.DriverFactory;
+import com.appium.logging.ElementDescriptors;
+import com.appium.logging.LazyLog;
 import com.appium.utils.WaitHelper;
 import io.appium.java_client.AppiumBy;
 import io.appium.java_client.android.AndroidDriver;
@@ -12,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * BasePage - Foundation class for all page objects
@@ -26,11 +29,13 @@ public abstract class BasePage {
     protected final Logger logger = LoggerFactory.getLogger(this.getClass());
     protected final AndroidDriver driver;
     protected final WaitHelper waitHelper;
+    private final Map<Object, String> elementDescriptions;
     
     protected BasePage() {
         this.driver = DriverFactory.getDriver();
         this.waitHelper = new WaitHelper(driver);
         PageFactory.initElements(new AppiumFieldDecorator(driver), this);
+        this.elementDescriptions = ElementDescriptors.of(this);
         logger.debug("Initialized page: {}", this.getClass().getSimpleName());
     }
     
@@ -44,7 +49,7 @@ public abstract class BasePage {
     protected void click(WebElement element) {
         waitHelper.waitForElementToBeClickable(element);
         element.click();
-        logger.debug("Clicked element: {}", getElementDescription(element));
+        LazyLog.debug(logger, "Clicked element: {}", () -> getElementDescription(element));
     }
     
     /**
@@ -68,7 +73,7 @@ public abstract class BasePage {
         waitHelper.waitForElementToBeVisible(element);
         element.clear();
         element.sendKeys(text);
-        logger.debug("Entered text '{}' into element: {}", text, getElementDescription(element));
+        LazyLog.debug(logger, "Entered text '{}' into element: {}", text, () -> getElementDescription(element));
     }
     
     /**
@@ -93,7 +98,7 @@ public abstract class BasePage {
     protected String getText(WebElement element) {
         waitHelper.waitForElementToBeVisible(element);
         String text = element.getText();
-        logger.debug("Retrieved text '{}' from element: {}", text, getElementDescription(element));
+        LazyLog.debug(logger, "Retrieved text '{}' from element: {}", text, () -> getElementDescription(element));
         return text;
     }
     
@@ -120,7 +125,7 @@ public abstract class BasePage {
         try {
             return element.isDisplayed();
         } catch (Exception e) {
-            logger.debug("Element not displayed: {}", getElementDescription(element));
+            LazyLog.debug(logger, "Element not displayed: {}", () -> getElementDescription(element));
             return false;
         }
     }
@@ -136,7 +141,7 @@ public abstract class BasePage {
             waitHelper.waitForElementToBeVisible(element);
             return element.isEnabled();
         } catch (Exception e) {
-            logger.debug("Element not enabled: {}", getElementDescription(element));
+            LazyLog.debug(logger, "Element not enabled: {}", () -> getElementDescription(element));
             return false;
         }
     }
@@ -273,8 +278,14 @@ public abstract class BasePage {
     
     /**
      * Gets element description for logging
+     * Page fields are described by their locator annotation, as toString() of a
+     * PageFactory proxy looks the element up on the device
      */
     private String getElementDescription(WebElement element) {
+        String description = elementDescriptions.get(element);
+        if (description != null) {
+            return description;
+        }
         try {
             return element.toString();
         } catch (Exception e) {
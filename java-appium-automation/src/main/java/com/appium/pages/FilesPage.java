@@ -1,5 +1,6 @@
 package com.appium.pages;
 
+import com.appium.adb.AppStateManager;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
 
@@ -37,8 +38,10 @@ public class FilesPage extends BasePage {
     @Override
     public boolean isPageLoaded() {
         try {
-            // Handle permissions first
-            handlePermissions();
+            // Handle permissions first, unless a restored snapshot already got past them
+            if (!AppStateManager.isStateRestored()) {
+                handlePermissions();
+            }
             
             // Wait for app to load
             Thread.sleep(3000);
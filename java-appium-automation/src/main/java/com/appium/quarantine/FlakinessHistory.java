@@ -0,0 +1,135 @@
+package com.appium.quarantine;
+
+import com.appium.core.ConfigurationManager;
+import com.appium.utils.ReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * FlakinessHistory - Collects the results of this run for the {@link FlakinessStore}
+ * TestExecutionListener records every finished attempt; the results are written once at
+ * suite end and the tests that currently score as flaky are added to the report.
+ * Also holds the quarantine settings shared by the main run and the lane
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class FlakinessHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlakinessHistory.class);
+    // The quarantine lane records under the run id of the main run
+    private static final long RUN_ID = Long.getLong("flakiness.run.id", System.currentTimeMillis());
+    private static final List<FlakinessStore.Record> pending = new CopyOnWriteArrayList<>();
+    private static FlakinessStore store;
+
+    private FlakinessHistory() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Records one finished attempt of this run
+     *
+     * @param testId Class.method of the test
+     * @param outcome FlakinessStore.PASS, FAIL, RETRY or SKIP
+     */
+    public static void record(String testId, String outcome) {
+        if (ConfigurationManager.getInstance().getBooleanProperty("flakiness.history.enabled", true)) {
+            pending.add(new FlakinessStore.Record(RUN_ID, testId, outcome));
+        }
+    }
+
+    /**
+     * @return Id the results of this run are recorded under
+     */
+    public static long getRunId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Writes the recorded attempts to the store
+     */
+    public static void persist() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<FlakinessStore.Record> records = new ArrayList<>(pending);
+        pending.removeAll(records);
+        getStore().append(records);
+        logger.info("Recorded {} test results in the flakiness history", records.size());
+    }
+
+    /**
+     * @return Store of the configured history file, loaded once
+     */
+    public static synchronized FlakinessStore getStore() {
+        if (store == null) {
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            store = new FlakinessStore(
+                Paths.get(config.getProperty("flakiness.history.file", "test-history/flakiness.tsv")),
+                config.getIntProperty("flakiness.history.runs", 20));
+        }
+        return store;
+    }
+
+    // ==================== QUARANTINE SETTINGS ====================
+
+    /**
+     * @return Flakiness score at which tests are quarantined
+     */
+    public static double getThreshold() {
+        String threshold = ConfigurationManager.getInstance().getProperty("quarantine.threshold", "0.3");
+        try {
+            return Double.parseDouble(threshold.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid quarantine.threshold '{}', using 0.3", threshold);
+            return 0.3;
+        }
+    }
+
+    /**
+     * @return Runs a test needs before its score counts
+     */
+    public static int getMinRuns() {
+        return ConfigurationManager.getInstance().getIntProperty("flakiness.min.runs", 5);
+    }
+
+    /**
+     * @return Tests always quarantined, Class.method
+     */
+    public static Set<String> getPinned() {
+        String pinned = ConfigurationManager.getInstance().getProperty("quarantine.tests", "").trim();
+        return pinned.isEmpty() ? Set.of() : new LinkedHashSet<>(Arrays.asList(pinned.split("\\s*,\\s*")));
+    }
+
+    /**
+     * Adds the tests that currently score as flaky to the report
+     */
+    public static void publish() {
+        double threshold = getThreshold();
+        int minRuns = getMinRuns();
+        Set<String> pinned = getPinned();
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Test", "Runs", "Flaky Runs", "Score", "Last Result", "Quarantined"});
+        for (FlakinessStore.Score score : getStore().scores().values()) {
+            if (score.getFlakyRuns() == 0) {
+                continue;
+            }
+            String reason = QuarantinePlan.reason(score, threshold, minRuns, pinned);
+            rows.add(new String[] {score.getTestId(), String.valueOf(score.getRuns()),
+                String.valueOf(score.getFlakyRuns()), String.format(Locale.ROOT, "%.2f", score.getScore()),
+                String.valueOf(score.getLastResult()), reason != null ? "yes" : "no"});
+        }
+        if (rows.size() > 1) {
+            ReportManager.addSummaryTable("Flaky Tests", rows.toArray(new String[0][]));
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.appium.quarantine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * FlakinessStore - Append-only pass/fail/retry history of every test per run
+ * One tab-separated line per attempt (run id, test id, outcome). A run of a test is flaky
+ * when it passed only on retry, or when its result differs from the previous run's; the
+ * flakiness score of a test is the share of flaky runs among its last historyRuns runs.
+ * Tests that fail every time are broken, not flaky, and score 0. The main run and the
+ * quarantine lane write the file at the same time, so appends and compaction hold a lock
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class FlakinessStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlakinessStore.class);
+    private static final String SEPARATOR = "\t";
+
+    public static final String PASS = "PASS";
+    public static final String FAIL = "FAIL";
+    public static final String RETRY = "RETRY";
+    public static final String SKIP = "SKIP";
+
+    /**
+     * One attempt of a test
+     */
+    public static final class Record {
+        private final long runId;
+        private final String testId;
+        private final String outcome;
+
+        /**
+         * @param runId Start millis of the run
+         * @param testId Class.method of the test
+         * @param outcome PASS, FAIL, RETRY (failed attempt that ran again) or SKIP
+         */
+        public Record(long runId, String testId, String outcome) {
+            this.runId = runId;
+            this.testId = testId;
+            this.outcome = outcome;
+        }
+
+        public long getRunId() {
+            return runId;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        String toLine() {
+            return runId + SEPARATOR + testId + SEPARATOR + outcome;
+        }
+    }
+
+    /**
+     * Flakiness of one test over its kept runs
+     */
+    public static final class Score {
+        private final String testId;
+        private final int runs;
+        private final int flakyRuns;
+        private final String lastResult;
+
+        Score(String testId, int runs, int flakyRuns, String lastResult) {
+            this.testId = testId;
+            this.runs = runs;
+            this.flakyRuns = flakyRuns;
+            this.lastResult = lastResult;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        /**
+         * @return Runs with a result (runs where the test was only skipped do not count)
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        public int getFlakyRuns() {
+            return flakyRuns;
+        }
+
+        /**
+         * @return Final result of the latest run, null if the test never finished
+         */
+        public String getLastResult() {
+            return lastResult;
+        }
+
+        /**
+         * @return Share of flaky runs, 0.0 to 1.0
+         */
+        public double getScore() {
+            return runs == 0 ? 0.0 : (double) flakyRuns / runs;
+        }
+    }
+
+    private final Path file;
+    private final int historyRuns;
+    // Test id -> run id -> outcomes of the run in order
+    private final Map<String, TreeMap<Long, List<String>>> history = new HashMap<>();
+    private int fileLines;
+
+    /**
+     * Opens the store, loading the existing history (a missing file is an empty history)
+     *
+     * @param file Store file
+     * @param historyRuns Runs kept per test
+     */
+    public FlakinessStore(Path file, int historyRuns) {
+        this.file = file;
+        this.historyRuns = Math.max(1, historyRuns);
+        if (Files.isRegularFile(file)) {
+            try {
+                fileLines = parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+                logger.info("Loaded flakiness history of {} tests from {}", history.size(), file);
+            } catch (IOException e) {
+                logger.warn("Failed to read flakiness history {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Scores a test over its kept runs
+     *
+     * @param testId Class.method of the test
+     * @return Score, with 0 runs if the test has no history
+     */
+    public synchronized Score score(String testId) {
+        TreeMap<Long, List<String>> runs = history.get(testId);
+        if (runs == null) {
+            return new Score(testId, 0, 0, null);
+        }
+        int counted = 0;
+        int flaky = 0;
+        String previous = null;
+        for (List<String> outcomes : runs.values()) {
+            String result = finalResult(outcomes);
+            if (result == null) {
+                continue;
+            }
+            boolean passedOnRetry = PASS.equals(result) && outcomes.contains(RETRY);
+            boolean mixed = outcomes.contains(PASS) && outcomes.contains(FAIL);
+            boolean flipped = previous != null && !previous.equals(result);
+            if (passedOnRetry || mixed || flipped) {
+                flaky++;
+            }
+            counted++;
+            previous = result;
+        }
+        return new Score(testId, counted, flaky, previous);
+    }
+
+    /**
+     * @return Scores of all tests with history, by test id
+     */
+    public synchronized Map<String, Score> scores() {
+        Map<String, Score> scores = new TreeMap<>();
+        history.keySet().forEach(testId -> scores.put(testId, score(testId)));
+        return scores;
+    }
+
+    /**
+     * Appends attempts to the file and the in-memory history
+     *
+     * @param records Attempts of this run
+     */
+    public synchronized void append(Collection<Record> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (Record record : records) {
+            remember(record);
+            lines.append(record.toLine()).append('\n');
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+                 FileLock lock = channel.lock()) {
+                channel.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+            }
+            fileLines += records.size();
+            if (fileLines > 4 * historyRuns * Math.max(1, history.size())) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to append {} results to {}: {}", records.size(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * @return Number of tests with history
+     */
+    public synchronized int size() {
+        return history.size();
+    }
+
+    private int parse(String content) {
+        int lines = 0;
+        for (String line : content.split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            lines++;
+            String[] fields = line.split(SEPARATOR);
+            if (fields.length < 3) {
+                continue;
+            }
+            try {
+                remember(new Record(Long.parseLong(fields[0]), fields[1], fields[2].trim()));
+            } catch (NumberFormatException e) {
+                logger.debug("Skipping malformed flakiness line: {}", line);
+            }
+        }
+        return lines;
+    }
+
+    private void remember(Record record) {
+        TreeMap<Long, List<String>> runs = history.computeIfAbsent(record.getTestId(), id -> new TreeMap<>());
+        runs.computeIfAbsent(record.getRunId(), id -> new ArrayList<>()).add(record.getOutcome());
+        while (runs.size() > historyRuns) {
+            runs.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Final result of a run: its last PASS or FAIL, null if it was only skipped
+     */
+    private static String finalResult(List<String> outcomes) {
+        for (int i = outcomes.size() - 1; i >= 0; i--) {
+            String outcome = outcomes.get(i);
+            if (PASS.equals(outcome) || FAIL.equals(outcome)) {
+                return outcome;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rewrites the file with only the kept runs. The file is re-read under the lock first,
+     * so lines another process appended since loading are kept
+     */
+    private void compact() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+            ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+            while (content.hasRemaining() && channel.read(content) > 0) {
+                logger.trace("Read {} of {} bytes of {}", content.position(), content.capacity(), file);
+            }
+            history.clear();
+            parse(new String(content.array(), 0, content.position(), StandardCharsets.UTF_8));
+
+            List<Record> kept = new ArrayList<>();
+            history.forEach((testId, runs) -> runs.forEach((runId, outcomes) ->
+                outcomes.forEach(outcome -> kept.add(new Record(runId, testId, outcome)))));
+            kept.sort((a, b) -> Long.compare(a.getRunId(), b.getRunId()));
+
+            StringBuilder lines = new StringBuilder();
+            kept.forEach(record -> lines.append(record.toLine()).append('\n'));
+            ByteBuffer compacted = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            channel.truncate(0);
+            channel.position(0);
+            while (compacted.hasRemaining()) {
+                channel.write(compacted);
+            }
+            fileLines = kept.size();
+        }
+        logger.debug("Compacted flakiness history {} to {} lines", file, fileLines);
+    }
+}
@@ -0,0 +1,125 @@
+package com.appium.quarantine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * QuarantinePlan - Decides which tests leave the main run for the quarantine lane
+ * A test is quarantined when it is pinned in quarantine.tests or its flakiness score
+ * reaches the threshold over enough runs. Within a class, tests that depend on a
+ * quarantined test move with it (they would be skipped in the main run anyway), and the
+ * tests it depends on run in the lane as well, without leaving the main run
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class QuarantinePlan {
+
+    private QuarantinePlan() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Methods of one class split between the main run and the lane
+     */
+    public static final class Selection {
+        private final List<String> moved;
+        private final List<String> lane;
+
+        Selection(List<String> moved, List<String> lane) {
+            this.moved = moved;
+            this.lane = lane;
+        }
+
+        /**
+         * @return Methods taken out of the main run, in run order
+         */
+        public List<String> getMoved() {
+            return moved;
+        }
+
+        /**
+         * @return Methods the lane runs: the moved ones and their prerequisites, in run order
+         */
+        public List<String> getLane() {
+            return lane;
+        }
+    }
+
+    /**
+     * Gives the reason a test is quarantined
+     *
+     * @param score Flakiness of the test
+     * @param threshold Score at which tests are quarantined
+     * @param minRuns Runs needed before the score counts
+     * @param pinned Tests always quarantined (Class.method)
+     * @return Reason for the report, null if the test stays in the main run
+     */
+    public static String reason(FlakinessStore.Score score, double threshold, int minRuns, Set<String> pinned) {
+        if (pinned.contains(score.getTestId())) {
+            return "pinned";
+        }
+        if (score.getRuns() >= minRuns && score.getScore() >= threshold) {
+            return String.format(Locale.ROOT, "flaky in %d of %d runs", score.getFlakyRuns(), score.getRuns());
+        }
+        return null;
+    }
+
+    /**
+     * Selects the methods of one class for the lane
+     *
+     * @param methods Methods in run order
+     * @param dependencies Methods each method depends on
+     * @param quarantined Whether a method is quarantined
+     * @return Selection, with nothing moved if no method is quarantined
+     */
+    public static Selection select(List<String> methods, Map<String, List<String>> dependencies,
+                                   Predicate<String> quarantined) {
+        Set<String> moved = new LinkedHashSet<>();
+        methods.stream().filter(quarantined).forEach(moved::add);
+        if (moved.isEmpty()) {
+            return new Selection(List.of(), List.of());
+        }
+        // Dependents of moved methods follow them
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (String method : methods) {
+                if (!moved.contains(method)
+                        && dependencies.getOrDefault(method, List.of()).stream().anyMatch(moved::contains)) {
+                    moved.add(method);
+                    changed = true;
+                }
+            }
+        }
+        // Prerequisites of moved methods run in the lane too
+        Set<String> lane = new LinkedHashSet<>(moved);
+        changed = true;
+        while (changed) {
+            changed = false;
+            for (String method : new ArrayList<>(lane)) {
+                for (String dependency : dependencies.getOrDefault(method, List.of())) {
+                    if (methods.contains(dependency) && lane.add(dependency)) {
+                        changed = true;
+                    }
+                }
+            }
+        }
+        List<String> movedInOrder = new ArrayList<>();
+        List<String> laneInOrder = new ArrayList<>();
+        for (String method : methods) {
+            if (moved.contains(method)) {
+                movedInOrder.add(method);
+            }
+            if (lane.contains(method)) {
+                laneInOrder.add(method);
+            }
+        }
+        return new Selection(movedInOrder, laneInOrder);
+    }
+}
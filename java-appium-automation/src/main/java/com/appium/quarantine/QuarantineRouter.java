@@ -0,0 +1,281 @@
+package com.appium.quarantine;
+
+import com.appium.core.ConfigurationManager;
+import com.appium.utils.ReportManager;
+import com.appium.utils.TestMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuarantineRouter - Runs flaky tests in a quarantine lane off the critical path
+ * Before execution, tests picked by {@link QuarantinePlan} are taken out of the suite and
+ * written to a quarantine suite of their own, which a separate JVM runs at the same time
+ * as the main run on quarantine.device.name. Without a device of its own the lane is not
+ * started, as two runs on one device are the flakiness it isolates. The main run no longer waits on
+ * retries of known-flaky tests and its result no longer depends on them. Lane results go
+ * to reports/quarantine and the flakiness history, so a test that turns stable leaves the
+ * quarantine by itself; they never fail the main build. At suite end the main run waits
+ * up to quarantine.lane.wait.seconds for the lane and reports it
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class QuarantineRouter implements IAlterSuiteListener, ISuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuarantineRouter.class);
+    private static final String LANE_PROPERTY = "quarantine.lane";
+
+    /**
+     * Lane started for one suite
+     */
+    private static final class Lane {
+        private final Map<String, String> reasons;
+        private final Path directory;
+        private final Process process;
+
+        Lane(Map<String, String> reasons, Path directory, Process process) {
+            this.reasons = reasons;
+            this.directory = directory;
+            this.process = process;
+        }
+    }
+
+    // Lanes by name of the main suite
+    private static final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    // ==================== ROUTING ====================
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        if (!config.getBooleanProperty("quarantine.enabled", false) || Boolean.getBoolean(LANE_PROPERTY)) {
+            return;
+        }
+        String device = laneDevice(config);
+        if (device == null) {
+            logger.warn("Quarantine lane needs a device of its own (quarantine.device.name), "
+                + "quarantined tests run in the main run");
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            Map<String, String> reasons = new LinkedHashMap<>();
+            XmlSuite laneSuite = route(suite, device, reasons);
+            if (laneSuite == null) {
+                continue;
+            }
+            reasons.forEach((testId, reason) -> logger.warn("Quarantined {} ({})", testId, reason));
+            try {
+                lanes.put(suite.getName(), start(laneSuite, reasons, config));
+            } catch (IOException e) {
+                // The tests still run, just not in the main run
+                logger.error("Failed to start the quarantine lane of suite {}: {}", suite.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the lane's device from quarantine.device.name (adb serial[:platformVersion])
+     *
+     * @return Device, null if none is set or it is the device of the main run
+     */
+    static String laneDevice(ConfigurationManager config) {
+        String device = config.getProperty("quarantine.device.name", "").trim();
+        String serial = device.split(":", 2)[0];
+        String mainDevice = config.getProperty("device.udid", config.getProperty("device.name", "")).trim();
+        return serial.isEmpty() || serial.equals(mainDevice) ? null : device;
+    }
+
+    /**
+     * Moves the quarantined tests of a suite into a new lane suite
+     *
+     * @param device Lane device, adb serial[:platformVersion]
+     * @return Lane suite, null if nothing is quarantined
+     */
+    private XmlSuite route(XmlSuite suite, String device, Map<String, String> reasons) {
+        FlakinessStore store = FlakinessHistory.getStore();
+        double threshold = FlakinessHistory.getThreshold();
+        int minRuns = FlakinessHistory.getMinRuns();
+        Set<String> pinned = FlakinessHistory.getPinned();
+
+        XmlSuite laneSuite = new XmlSuite();
+        laneSuite.setName(suite.getName() + " - Quarantine");
+        laneSuite.setListeners(new ArrayList<>(suite.getListeners()));
+        laneSuite.setParameters(new LinkedHashMap<>(suite.getParameters()));
+        List<XmlTest> keptTests = new ArrayList<>();
+
+        for (XmlTest test : suite.getTests()) {
+            XmlTest laneTest = null;
+            List<XmlClass> keptClasses = new ArrayList<>();
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                String className = xmlClass.getName();
+                String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                Map<String, XmlInclude> includes = new LinkedHashMap<>();
+                xmlClass.getIncludedMethods().forEach(include -> includes.put(include.getName(), include));
+                Map<String, List<String>> dependencies = TestMethods.dependencies(className, new ArrayList<>(includes.keySet()));
+                List<String> methods = includes.isEmpty()
+                    ? new ArrayList<>(dependencies.keySet()) : new ArrayList<>(includes.keySet());
+
+                QuarantinePlan.Selection selection = QuarantinePlan.select(methods, dependencies, method -> {
+                    String testId = simpleName + "." + method;
+                    String reason = QuarantinePlan.reason(store.score(testId), threshold, minRuns, pinned);
+                    if (reason != null) {
+                        reasons.put(testId, reason);
+                    }
+                    return reason != null;
+                });
+                if (selection.getMoved().isEmpty()) {
+                    keptClasses.add(xmlClass);
+                    continue;
+                }
+                selection.getMoved().stream().map(method -> simpleName + "." + method)
+                    .forEach(testId -> reasons.putIfAbsent(testId, "depends on a quarantined test"));
+
+                List<XmlInclude> kept = new ArrayList<>();
+                for (String method : methods) {
+                    if (!selection.getMoved().contains(method)) {
+                        kept.add(includes.getOrDefault(method, new XmlInclude(method)));
+                    }
+                }
+                if (!kept.isEmpty()) {
+                    xmlClass.setIncludedMethods(kept);
+                    keptClasses.add(xmlClass);
+                }
+
+                if (laneTest == null) {
+                    laneTest = new XmlTest(laneSuite);
+                    laneTest.setName(test.getName());
+                    laneTest.setPreserveOrder(true);
+                    Map<String, String> parameters = new LinkedHashMap<>(test.getLocalParameters());
+                    parameters.putAll(deviceParameters(device));
+                    laneTest.setParameters(parameters);
+                    laneTest.setXmlClasses(new ArrayList<>());
+                }
+                XmlClass laneClass = new XmlClass(className, false);
+                Map<String, String> classParameters = new LinkedHashMap<>(xmlClass.getLocalParameters());
+                // The lane's device wins over a device set on the class
+                classParameters.keySet().removeAll(List.of("deviceName", "udid", "platformVersion"));
+                laneClass.setParameters(classParameters);
+                List<XmlInclude> laneIncludes = new ArrayList<>();
+                selection.getLane().forEach(method -> laneIncludes.add(new XmlInclude(method)));
+                laneClass.setIncludedMethods(laneIncludes);
+                laneTest.getXmlClasses().add(laneClass);
+            }
+            test.setXmlClasses(keptClasses);
+            if (!keptClasses.isEmpty()) {
+                keptTests.add(test);
+            }
+        }
+        if (laneSuite.getTests().isEmpty()) {
+            return null;
+        }
+        suite.setTests(keptTests);
+        return laneSuite;
+    }
+
+    private static Map<String, String> deviceParameters(String device) {
+        String[] parts = device.split(":", 2);
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("deviceName", parts[0]);
+        // The serial selects the lane's device on the Appium server
+        parameters.put("udid", parts[0]);
+        if (parts.length > 1) {
+            parameters.put("platformVersion", parts[1]);
+        }
+        return parameters;
+    }
+
+    /**
+     * Writes the lane suite and starts a JVM running it with TestNG
+     */
+    private static Lane start(XmlSuite laneSuite, Map<String, String> reasons, ConfigurationManager config)
+            throws IOException {
+        Path directory = Paths.get(config.getReportsDirectory(), "quarantine",
+            laneSuite.getName().replaceAll("[^A-Za-z0-9_-]+", "-"));
+        Files.createDirectories(directory);
+        Path suiteFile = directory.resolve("quarantine-suite.xml");
+        Files.write(suiteFile, laneSuite.toXml().getBytes(StandardCharsets.UTF_8));
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        // Settings given to this JVM apply to the lane too
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D")) {
+                command.add(argument);
+            }
+        }
+        command.add("-D" + LANE_PROPERTY + "=true");
+        command.add("-Dflakiness.run.id=" + FlakinessHistory.getRunId());
+        command.add("-Dreporting.output.directory=" + directory);
+        command.add("-Dmetrics.server.enabled=false");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(TestNG.class.getName());
+        command.add("-d");
+        command.add(directory.resolve("testng").toString());
+        command.add(suiteFile.toString());
+        logger.info("Starting quarantine lane for {} tests (log: {})", reasons.size(), directory.resolve("lane.log"));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(directory.resolve("lane.log").toFile()).start();
+        return new Lane(reasons, directory, process);
+    }
+
+    // ==================== REPORTING ====================
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Lane lane = lanes.remove(suite.getName());
+        if (lane == null) {
+            return;
+        }
+        int waitSeconds = ConfigurationManager.getInstance().getIntProperty("quarantine.lane.wait.seconds", 300);
+        String status = waitFor(lane.process, waitSeconds);
+        logger.info("Quarantine lane of suite {} {}, report in {}", suite.getName(), status, lane.directory);
+
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Test", "Reason", "Lane"});
+        lane.reasons.forEach((testId, reason) -> rows.add(new String[] {testId, reason, status}));
+        rows.add(new String[] {"Report", lane.directory.toString(), ""});
+        ReportManager.addSummaryTable("Quarantine Lane", rows.toArray(new String[0][]));
+        ReportManager.flushReports();
+    }
+
+    /**
+     * Waits for the lane JVM to end
+     *
+     * @return Lane status for the report
+     */
+    private static String waitFor(Process process, int waitSeconds) {
+        try {
+            if (!process.waitFor(waitSeconds, TimeUnit.SECONDS)) {
+                return "still running";
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "still running";
+        }
+        int exitCode = process.exitValue();
+        return exitCode == 0 ? "passed" : "failed (exit " + exitCode + ")";
+    }
+}
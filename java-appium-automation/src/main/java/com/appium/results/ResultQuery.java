@@ -0,0 +1,308 @@
+package com.appium.results;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ResultQuery - Duration percentiles and trends over the archived runs
+ * Usage: ResultQuery &lt;directory or .rcol files&gt; [--test=&lt;substring&gt;] [--top=&lt;n&gt;]
+ * [--runs=&lt;n&gt;] [--days=&lt;n&gt;]. Every file is memory-mapped and scanned column by column;
+ * only the durations of the matching rows are copied, into one primitive array per test and
+ * per run. Prints the slowest tests by p90 with their failure rate and duration trend, and
+ * the failure rate and percentiles of the most recent runs
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ResultQuery {
+
+    private static final DateTimeFormatter RUN_TIME =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneOffset.UTC);
+
+    /**
+     * Attempts of one test or one run
+     */
+    static final class Stats {
+        private final String name;
+        private int[] durations = new int[16];
+        private long[] starts = new long[16];
+        private int count;
+        private int failed;
+        private int skipped;
+        private int[] sorted;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void add(long startMillis, int durationMillis, byte status) {
+            if (status == ColumnarResultFile.SKIP) {
+                // Skipped attempts did not run; their durations would skew the percentiles
+                skipped++;
+                return;
+            }
+            if (status != ColumnarResultFile.PASS) {
+                failed++;
+            }
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            durations[count] = durationMillis;
+            starts[count] = startMillis;
+            count++;
+            sorted = null;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getAttempts() {
+            return count;
+        }
+
+        int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return Failed (and retried) attempts per executed attempt
+         */
+        double getFailureRate() {
+            return count == 0 ? 0 : (double) failed / count;
+        }
+
+        long getFirstStart() {
+            long first = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                first = Math.min(first, starts[i]);
+            }
+            return first;
+        }
+
+        /**
+         * Nearest-rank percentile of the durations
+         *
+         * @param percent Percentile, 0 to 100
+         * @return Duration in millis, 0 without attempts
+         */
+        int percentile(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            if (sorted == null) {
+                // Sorted copy, the trend needs the durations paired with their starts
+                sorted = Arrays.copyOf(durations, count);
+                Arrays.sort(sorted);
+            }
+            int rank = (int) Math.ceil(percent / 100 * count);
+            return sorted[Math.max(0, Math.min(count, rank) - 1)];
+        }
+
+        /**
+         * Least-squares slope of duration over start time
+         *
+         * @return Change of the duration in millis per day, NaN with fewer than two attempts
+         */
+        double getTrendMillisPerDay() {
+            if (count < 2) {
+                return Double.NaN;
+            }
+            double meanStart = 0;
+            double meanDuration = 0;
+            for (int i = 0; i < count; i++) {
+                meanStart += starts[i];
+                meanDuration += durations[i];
+            }
+            meanStart /= count;
+            meanDuration /= count;
+            double covariance = 0;
+            double variance = 0;
+            for (int i = 0; i < count; i++) {
+                double x = starts[i] - meanStart;
+                covariance += x * (durations[i] - meanDuration);
+                variance += x * x;
+            }
+            return variance == 0 ? Double.NaN : covariance / variance * TimeUnit.DAYS.toMillis(1);
+        }
+    }
+
+    /**
+     * Aggregates of a scan
+     */
+    static final class Result {
+        private final Map<String, Stats> tests = new HashMap<>();
+        private final TreeMap<Long, Stats> runs = new TreeMap<>();
+        private long rows;
+        private int files;
+
+        Map<String, Stats> getTests() {
+            return tests;
+        }
+
+        TreeMap<Long, Stats> getRuns() {
+            return runs;
+        }
+
+        long getRows() {
+            return rows;
+        }
+
+        int getFiles() {
+            return files;
+        }
+    }
+
+    private ResultQuery() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        String test = null;
+        int top = 20;
+        int runs = 20;
+        long sinceMillis = Long.MIN_VALUE;
+        for (String arg : args) {
+            if (arg.startsWith("--test=")) {
+                test = arg.substring("--test=".length());
+            } else if (arg.startsWith("--top=")) {
+                top = Integer.parseInt(arg.substring("--top=".length()));
+            } else if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--days=")) {
+                sinceMillis = System.currentTimeMillis()
+                    - TimeUnit.DAYS.toMillis(Long.parseLong(arg.substring("--days=".length())));
+            } else {
+                inputs.add(Paths.get(arg));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: ResultQuery <directory or .rcol files> [--test=<substring>] [--top=<n>]"
+                + " [--runs=<n>] [--days=<n>]");
+            System.exit(64);
+        }
+
+        long scanStart = System.nanoTime();
+        Result result = scan(resolveFiles(inputs), test == null || test.isEmpty() ? null : test, sinceMillis);
+        long scanMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scanStart);
+        print(result, top, runs, scanMillis, System.out);
+    }
+
+    /**
+     * Lists the result files of the given directories and files, oldest run first
+     *
+     * @param inputs Archive directories or single files
+     * @return Result files
+     */
+    static List<Path> resolveFiles(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> entries = Files.list(input)) {
+                    files.addAll(entries.filter(path -> path.toString().endsWith(ColumnarResultFile.EXTENSION))
+                        .sorted().collect(Collectors.toList()));
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Aggregates the rows of the files
+     *
+     * @param files Result files
+     * @param testFilter Substring the test name must contain, null for all tests
+     * @param sinceMillis Earliest attempt start to include
+     * @return Aggregates per test and per run
+     */
+    static Result scan(List<Path> files, String testFilter, long sinceMillis) throws IOException {
+        Result result = new Result();
+        for (Path path : files) {
+            ColumnarResultFile file = ColumnarResultFile.open(path);
+            // Resolve the file's dictionary once; rows then only index arrays
+            Stats[] byCode = new Stats[file.getDictionarySize()];
+            for (int code = 0; code < byCode.length; code++) {
+                String name = file.getTestName(code);
+                if (testFilter == null || name.contains(testFilter)) {
+                    byCode[code] = result.tests.computeIfAbsent(name, Stats::new);
+                }
+            }
+            Stats run = result.runs.computeIfAbsent(file.getRunId(), id -> new Stats(String.valueOf(id)));
+
+            int rows = file.getRowCount();
+            for (int row = 0; row < rows; row++) {
+                Stats test = byCode[file.getTestCode(row)];
+                long start = file.getStartMillis(row);
+                if (test == null || start < sinceMillis) {
+                    continue;
+                }
+                int duration = file.getDurationMillis(row);
+                byte status = file.getStatus(row);
+                test.add(start, duration, status);
+                run.add(start, duration, status);
+                result.rows++;
+            }
+            result.files++;
+        }
+        result.runs.values().removeIf(run -> run.getAttempts() + run.getSkipped() == 0);
+        return result;
+    }
+
+    // ==================== OUTPUT ====================
+
+    private static void print(Result result, int top, int runCount, long scanMillis, PrintStream out) {
+        out.printf(Locale.ROOT, "Scanned %,d rows of %d runs in %d files in %d ms%n%n",
+            result.getRows(), result.getRuns().size(), result.getFiles(), scanMillis);
+
+        List<Stats> slowest = result.getTests().values().stream()
+            .filter(stats -> stats.getAttempts() > 0)
+            .sorted(Comparator.comparingInt((Stats stats) -> stats.percentile(90)).reversed())
+            .limit(top)
+            .collect(Collectors.toList());
+        out.printf(Locale.ROOT, "%-60s %8s %7s %8s %8s %8s %8s %12s%n",
+            "Test", "Attempts", "Fail %", "p50 ms", "p90 ms", "p99 ms", "Max ms", "Trend ms/day");
+        for (Stats stats : slowest) {
+            double trend = stats.getTrendMillisPerDay();
+            out.printf(Locale.ROOT, "%-60s %8d %7.1f %8d %8d %8d %8d %12s%n",
+                abbreviate(stats.getName(), 60), stats.getAttempts(), stats.getFailureRate() * 100,
+                stats.percentile(50), stats.percentile(90), stats.percentile(99), stats.percentile(100),
+                Double.isNaN(trend) ? "-" : String.format(Locale.ROOT, "%+.1f", trend));
+        }
+
+        out.printf(Locale.ROOT, "%n%-20s %8s %7s %8s %8s %8s%n", "Run", "Attempts", "Fail %", "Skipped", "p50 ms",
+            "p90 ms");
+        List<Stats> recent = new ArrayList<>(result.getRuns().values());
+        for (Stats run : recent.subList(Math.max(0, recent.size() - runCount), recent.size())) {
+            long firstStart = run.getFirstStart();
+            out.printf(Locale.ROOT, "%-20s %8d %7.1f %8d %8d %8d%n",
+                firstStart == Long.MAX_VALUE ? run.getName() : RUN_TIME.format(Instant.ofEpochMilli(firstStart)),
+                run.getAttempts(), run.getFailureRate() * 100, run.getSkipped(),
+                run.percentile(50), run.percentile(90));
+        }
+    }
+
+    private static String abbreviate(String name, int width) {
+        return name.length() <= width ? name : "..." + name.substring(name.length() - width + 3);
+    }
+}
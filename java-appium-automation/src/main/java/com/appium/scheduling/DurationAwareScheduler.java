@@ -0,0 +1,254 @@
+package com.appium.scheduling;
+
+import com.appium.core.ConfigurationManager;
+import com.appium.utils.ReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DurationAwareScheduler - Records test durations and reorders parallel suites by them
+ * Every run appends the duration of each finished test to the {@link DurationStore}.
+ * Suites running parallel="tests" are rebuilt before execution: the included methods,
+ * grouped by dependsOnMethods ({@link MethodDependencies}) so a dependency never ends up
+ * in another lane, are bin-packed longest-first ({@link LptScheduler}) onto one
+ * &lt;test&gt; lane per thread (or per device from scheduler.devices), keeping each
+ * test's parameters. Suites with dependencies across classes or on groups keep XML order.
+ * At suite end the predicted and actual makespan are logged and added to the report
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class DurationAwareScheduler implements IAlterSuiteListener, ISuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurationAwareScheduler.class);
+    private static final String DEVICE_NAME = "deviceName";
+    private static final String PLATFORM_VERSION = "platformVersion";
+    private static final String UDID = "udid";
+
+    // Predicted lane loads by suite name, then by lane (<test>) name
+    private static final Map<String, Map<String, Long>> schedules = new ConcurrentHashMap<>();
+
+    private DurationStore store;
+
+    // ==================== SCHEDULING ====================
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        if (!config.getBooleanProperty("scheduler.enabled", false)) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() != XmlSuite.ParallelMode.TESTS) {
+                logger.debug("Suite {} is not parallel by tests, keeping XML order", suite.getName());
+                continue;
+            }
+            reschedule(suite, config);
+        }
+    }
+
+    private void reschedule(XmlSuite suite, ConfigurationManager config) {
+        String[] devices = config.getProperty("scheduler.devices", "").trim().split("\\s*,\\s*");
+        boolean perDevice = !devices[0].isEmpty();
+        int laneCount = perDevice ? devices.length
+            : config.getIntProperty("scheduler.lanes", 0) > 0 ? config.getIntProperty("scheduler.lanes", 0)
+            : suite.getThreadCount();
+
+        List<LptScheduler.Unit> units = collectUnits(suite, perDevice, config);
+        if (units == null) {
+            logger.info("Suite {} has dependencies across classes or on groups, keeping XML order", suite.getName());
+            return;
+        }
+        List<LptScheduler.Lane> lanes = LptScheduler.schedule(units, laneCount);
+
+        List<XmlTest> laneTests = new ArrayList<>();
+        Map<String, Long> predicted = new LinkedHashMap<>();
+        for (LptScheduler.Lane lane : lanes) {
+            if (lane.getUnits().isEmpty()) {
+                continue;
+            }
+            XmlTest laneTest = toXmlTest(suite, lane, perDevice ? devices[lane.getIndex()] : null);
+            laneTests.add(laneTest);
+            predicted.put(laneTest.getName(), lane.getPredictedMillis());
+            logger.info("{}: {} test units, predicted {}", laneTest.getName(), lane.getUnits().size(),
+                seconds(lane.getPredictedMillis()));
+        }
+        suite.setTests(laneTests);
+        suite.setThreadCount(Math.max(suite.getThreadCount(), laneTests.size()));
+        schedules.put(suite.getName(), predicted);
+
+        logger.info("Scheduled {} test units of suite {} longest-first on {} lanes, predicted makespan {}",
+            units.size(), suite.getName(), laneTests.size(), seconds(LptScheduler.predictedMakespan(lanes)));
+    }
+
+    /**
+     * Flattens all &lt;test&gt;/&lt;class&gt;/&lt;include&gt; entries into units with their effective parameters
+     *
+     * @return Units, or null if a dependency would have to be cut
+     */
+    private List<LptScheduler.Unit> collectUnits(XmlSuite suite, boolean perDevice, ConfigurationManager config) {
+        DurationStore durations = getStore();
+        long fallback = durations.typicalDuration()
+            .orElse(config.getIntProperty("scheduler.default.duration.ms", 30000));
+
+        List<LptScheduler.Unit> units = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                Map<String, String> parameters = new LinkedHashMap<>(test.getLocalParameters());
+                parameters.putAll(xmlClass.getLocalParameters());
+                if (perDevice) {
+                    // The lane decides the device
+                    parameters.remove(DEVICE_NAME);
+                    parameters.remove(PLATFORM_VERSION);
+                    parameters.remove(UDID);
+                }
+                String className = xmlClass.getName();
+                if (xmlClass.getIncludedMethods().isEmpty()) {
+                    units.add(new LptScheduler.Unit(className, List.of(), parameters,
+                        durations.predictClass(className).orElse(fallback)));
+                    continue;
+                }
+                Map<String, XmlInclude> includes = new LinkedHashMap<>();
+                xmlClass.getIncludedMethods().forEach(include -> includes.put(include.getName(), include));
+                List<List<String>> groups = MethodDependencies.group(className, new ArrayList<>(includes.keySet()));
+                if (groups == null) {
+                    return null;
+                }
+                for (List<String> group : groups) {
+                    Map<String, String> groupParameters = new LinkedHashMap<>(parameters);
+                    long predicted = 0;
+                    for (String method : group) {
+                        groupParameters.putAll(includes.get(method).getLocalParameters());
+                        predicted += durations.predict(className + "." + method).orElse(fallback);
+                    }
+                    units.add(new LptScheduler.Unit(className, group, groupParameters, predicted));
+                }
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Builds the &lt;test&gt; of a lane; parameters move to class level so tests of
+     * different apps can share a lane
+     */
+    private XmlTest toXmlTest(XmlSuite suite, LptScheduler.Lane lane, String device) {
+        XmlTest laneTest = new XmlTest();
+        laneTest.setSuite(suite);
+        laneTest.setPreserveOrder(true);
+        String name = "Lane " + (lane.getIndex() + 1);
+        if (device != null) {
+            String[] deviceParts = device.split(":", 2);
+            Map<String, String> deviceParameters = new LinkedHashMap<>();
+            deviceParameters.put(DEVICE_NAME, deviceParts[0]);
+            // The ADB serial selects the lane's device on the Appium server
+            deviceParameters.put(UDID, deviceParts[0]);
+            if (deviceParts.length > 1) {
+                deviceParameters.put(PLATFORM_VERSION, deviceParts[1]);
+            }
+            laneTest.setParameters(deviceParameters);
+            name += " - " + deviceParts[0];
+        }
+        laneTest.setName(name);
+
+        Map<String, XmlClass> classes = new LinkedHashMap<>();
+        for (LptScheduler.Unit unit : lane.getUnits()) {
+            String key = unit.getClassName() + unit.getParameters();
+            XmlClass xmlClass = classes.computeIfAbsent(key, k -> {
+                XmlClass created = new XmlClass(unit.getClassName(), false);
+                created.setParameters(new LinkedHashMap<>(unit.getParameters()));
+                created.setIncludedMethods(new ArrayList<>());
+                return created;
+            });
+            unit.getMethodNames().forEach(method -> xmlClass.getIncludedMethods().add(new XmlInclude(method)));
+        }
+        laneTest.setXmlClasses(new ArrayList<>(classes.values()));
+        return laneTest;
+    }
+
+    // ==================== RECORDING ====================
+
+    @Override
+    public void onStart(ISuite suite) {
+        getStore();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Map<String, Long> predicted = schedules.getOrDefault(suite.getName(), Map.of());
+        List<DurationStore.Sample> samples = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Lane", "Tests", "Predicted s", "Actual s"});
+        long runStart = Long.MAX_VALUE;
+        long runEnd = Long.MIN_VALUE;
+
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            long start = context.getStartDate().getTime();
+            long end = context.getEndDate().getTime();
+            runStart = Math.min(runStart, start);
+            runEnd = Math.max(runEnd, end);
+
+            int finished = collect(samples, context.getPassedTests().getAllResults(), "PASS")
+                + collect(samples, context.getFailedTests().getAllResults(), "FAIL");
+            Long lanePrediction = predicted.get(context.getName());
+            rows.add(new String[] {context.getName(), String.valueOf(finished),
+                lanePrediction != null ? seconds(lanePrediction) : "-", seconds(end - start)});
+        }
+        getStore().append(samples);
+
+        if (predicted.isEmpty() || runStart == Long.MAX_VALUE) {
+            return;
+        }
+        long predictedMakespan = predicted.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        long actualMakespan = runEnd - runStart;
+        rows.add(new String[] {"Makespan", String.valueOf(samples.size()), seconds(predictedMakespan), seconds(actualMakespan)});
+        logger.info("Suite {} makespan: predicted {}, actual {}", suite.getName(),
+            seconds(predictedMakespan), seconds(actualMakespan));
+
+        ReportManager.addSummaryTable("Duration-Aware Schedule", rows.toArray(new String[0][]));
+        ReportManager.flushReports();
+    }
+
+    private static int collect(List<DurationStore.Sample> samples, Iterable<ITestResult> results, String status) {
+        int count = 0;
+        for (ITestResult result : results) {
+            String testId = result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+            samples.add(new DurationStore.Sample(result.getEndMillis(), testId,
+                result.getEndMillis() - result.getStartMillis(), status));
+            count++;
+        }
+        return count;
+    }
+
+    private synchronized DurationStore getStore() {
+        if (store == null) {
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            store = new DurationStore(Paths.get(config.getProperty("scheduler.duration.store", "test-history/test-durations.tsv")),
+                config.getIntProperty("scheduler.history.size", 10));
+        }
+        return store;
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.1f", millis / 1000.0);
+    }
+}
@@ -0,0 +1,223 @@
+package com.appium.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * DurationStore - Append-only history of test durations
+ * One tab-separated line per finished test (epoch millis, test id, duration millis, status).
+ * Only the last historySize samples of each test are kept in memory; the file is
+ * rewritten in that compact form once it grows past four times the kept samples
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class DurationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurationStore.class);
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * One finished test
+     */
+    public static final class Sample {
+        private final long timestamp;
+        private final String testId;
+        private final long durationMillis;
+        private final String status;
+
+        public Sample(long timestamp, String testId, long durationMillis, String status) {
+            this.timestamp = timestamp;
+            this.testId = testId;
+            this.durationMillis = durationMillis;
+            this.status = status;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        String toLine() {
+            return timestamp + SEPARATOR + testId + SEPARATOR + durationMillis + SEPARATOR + status;
+        }
+    }
+
+    private final Path file;
+    private final int historySize;
+    private final Map<String, Deque<Sample>> history = new HashMap<>();
+    private int fileLines;
+
+    /**
+     * Opens the store, loading the existing history (a missing file is an empty history)
+     *
+     * @param file Store file
+     * @param historySize Samples kept per test
+     */
+    public DurationStore(Path file, int historySize) {
+        this.file = file;
+        this.historySize = Math.max(1, historySize);
+        load();
+    }
+
+    /**
+     * Predicts a test's duration as the median of its recent samples
+     *
+     * @param testId Test id (Class.method, or Class for all its methods)
+     * @return Predicted millis, empty if the test has no history
+     */
+    public synchronized OptionalLong predict(String testId) {
+        Deque<Sample> samples = history.get(testId);
+        if (samples == null || samples.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        long[] durations = samples.stream().mapToLong(Sample::getDurationMillis).sorted().toArray();
+        int middle = durations.length / 2;
+        return OptionalLong.of(durations.length % 2 == 1
+            ? durations[middle] : (durations[middle - 1] + durations[middle]) / 2);
+    }
+
+    /**
+     * Predicts all methods of a class together
+     *
+     * @param className Fully qualified class name
+     * @return Sum of the predictions of all known methods of the class, empty if none is known
+     */
+    public synchronized OptionalLong predictClass(String className) {
+        String prefix = className + ".";
+        long total = 0;
+        boolean known = false;
+        for (String testId : history.keySet()) {
+            if (testId.startsWith(prefix) && testId.indexOf('.', prefix.length()) < 0) {
+                total += predict(testId).orElse(0);
+                known = true;
+            }
+        }
+        return known ? OptionalLong.of(total) : OptionalLong.empty();
+    }
+
+    /**
+     * Median of all known predictions, used for tests without history
+     *
+     * @return Typical test duration, empty if the store is empty
+     */
+    public synchronized OptionalLong typicalDuration() {
+        long[] predictions = history.keySet().stream().map(this::predict)
+            .filter(OptionalLong::isPresent).mapToLong(OptionalLong::getAsLong).sorted().toArray();
+        return predictions.length == 0 ? OptionalLong.empty() : OptionalLong.of(predictions[predictions.length / 2]);
+    }
+
+    /**
+     * Appends samples to the file and the in-memory history
+     *
+     * @param samples Finished tests
+     */
+    public synchronized void append(Collection<Sample> samples) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(samples.size());
+        for (Sample sample : samples) {
+            remember(sample);
+            lines.add(sample.toLine());
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileLines += lines.size();
+            if (fileLines > 4 * historySize * Math.max(1, history.size())) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to append {} durations to {}: {}", samples.size(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * @return Number of tests with history
+     */
+    public synchronized int size() {
+        return history.size();
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(SEPARATOR);
+                fileLines++;
+                if (fields.length < 4) {
+                    continue;
+                }
+                try {
+                    remember(new Sample(Long.parseLong(fields[0]), fields[1], Long.parseLong(fields[2]), fields[3]));
+                } catch (NumberFormatException e) {
+                    logger.debug("Skipping malformed duration line: {}", line);
+                }
+            }
+            logger.info("Loaded duration history of {} tests from {}", history.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to read duration history {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void remember(Sample sample) {
+        Deque<Sample> samples = history.computeIfAbsent(sample.getTestId(), id -> new ArrayDeque<>());
+        samples.addLast(sample);
+        while (samples.size() > historySize) {
+            samples.removeFirst();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the kept samples
+     */
+    private void compact() throws IOException {
+        List<Sample> kept = new ArrayList<>();
+        history.values().forEach(kept::addAll);
+        Sample[] ordered = kept.toArray(new Sample[0]);
+        Arrays.sort(ordered, (a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+
+        List<String> lines = new ArrayList<>(ordered.length);
+        for (Sample sample : ordered) {
+            lines.add(sample.toLine());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileLines = lines.size();
+        logger.debug("Compacted duration history {} to {} lines", file, fileLines);
+    }
+}
@@ -0,0 +1,129 @@
+package com.appium.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * LptScheduler - Longest-processing-time-first bin packing of tests onto lanes
+ * Tests are sorted by predicted duration, longest first, and each goes to the lane
+ * with the least predicted load so far. The result is within 4/3 of the optimal
+ * makespan and, unlike XML order, never leaves the longest test for last
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class LptScheduler {
+
+    /**
+     * One schedulable test: methods of a class that depend on each other, or a whole
+     * class when no methods are listed. A unit never spans lanes
+     */
+    public static final class Unit {
+        private final String className;
+        private final List<String> methodNames;
+        private final Map<String, String> parameters;
+        private final long predictedMillis;
+
+        public Unit(String className, List<String> methodNames, Map<String, String> parameters,
+                    long predictedMillis) {
+            this.className = className;
+            this.methodNames = List.copyOf(methodNames);
+            this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+            this.predictedMillis = predictedMillis;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return Method names in XML order, empty for the whole class
+         */
+        public List<String> getMethodNames() {
+            return methodNames;
+        }
+
+        public Map<String, String> getParameters() {
+            return parameters;
+        }
+
+        public long getPredictedMillis() {
+            return predictedMillis;
+        }
+    }
+
+    /**
+     * Tests assigned to one thread or device, in execution order
+     */
+    public static final class Lane {
+        private final int index;
+        private final List<Unit> units = new ArrayList<>();
+        private long predictedMillis;
+
+        Lane(int index) {
+            this.index = index;
+        }
+
+        void add(Unit unit) {
+            units.add(unit);
+            predictedMillis += unit.getPredictedMillis();
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public List<Unit> getUnits() {
+            return Collections.unmodifiableList(units);
+        }
+
+        public long getPredictedMillis() {
+            return predictedMillis;
+        }
+    }
+
+    private LptScheduler() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Assigns tests to lanes, longest first onto the least loaded lane
+     *
+     * @param units Tests with predicted durations
+     * @param laneCount Number of threads or devices
+     * @return Lanes (empty lanes included), each listing its tests longest first
+     */
+    public static List<Lane> schedule(List<Unit> units, int laneCount) {
+        List<Lane> lanes = new ArrayList<>();
+        PriorityQueue<Lane> byLoad = new PriorityQueue<>(
+            Comparator.comparingLong(Lane::getPredictedMillis).thenComparingInt(Lane::getIndex));
+        for (int index = 0; index < Math.max(1, laneCount); index++) {
+            Lane lane = new Lane(index);
+            lanes.add(lane);
+            byLoad.add(lane);
+        }
+
+        List<Unit> ordered = new ArrayList<>(units);
+        // Stable sort keeps XML order among tests with equal predictions
+        ordered.sort(Comparator.comparingLong(Unit::getPredictedMillis).reversed());
+        for (Unit unit : ordered) {
+            Lane lane = byLoad.poll();
+            lane.add(unit);
+            byLoad.add(lane);
+        }
+        return lanes;
+    }
+
+    /**
+     * @param lanes Scheduled lanes
+     * @return Predicted makespan, the load of the busiest lane
+     */
+    public static long predictedMakespan(List<Lane> lanes) {
+        return lanes.stream().mapToLong(Lane::getPredictedMillis).max().orElse(0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.appium.scheduling;
+
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * MethodDependencies - Groups the included methods of a test class that must share a lane
+ * TestNG resolves dependsOnMethods only within one &lt;test&gt;, so methods linked by
+ * dependencies, directly or through other methods, are kept together. Dependencies are
+ * matched the way TestNG does: unqualified names are prefixed with the class and the
+ * result is a regular expression over Class.method
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+final class MethodDependencies {
+
+    private static final Pattern METHOD_NAME = Pattern.compile("[A-Za-z_$][\\w$]*");
+
+    private MethodDependencies() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Splits the included methods into groups connected by dependsOnMethods
+     *
+     * @param className Test class
+     * @param methods Included method names in XML order
+     * @return Groups in XML order of their first method, each in XML order; one group with
+     *         all methods if the class cannot be inspected; null if a method depends on
+     *         groups or on another class, so lanes cannot be cut inside this suite
+     */
+    static List<List<String>> group(String className, List<String> methods) {
+        Class<?> testClass;
+        try {
+            testClass = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return List.of(methods);
+        }
+        for (String method : methods) {
+            if (!METHOD_NAME.matcher(method).matches()) {
+                // A regular expression include: which methods it selects is up to TestNG
+                return List.of(methods);
+            }
+        }
+
+        Test classTest = testClass.getAnnotation(Test.class);
+        if (classTest != null && classTest.dependsOnGroups().length > 0) {
+            return null;
+        }
+        int[] parent = new int[methods.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (Method method : testClass.getMethods()) {
+            int index = methods.indexOf(method.getName());
+            Test test = method.getAnnotation(Test.class);
+            if (index < 0 || (test == null && classTest == null)) {
+                continue;
+            }
+            List<String> dependencies = new ArrayList<>();
+            if (test != null) {
+                if (test.dependsOnGroups().length > 0) {
+                    return null;
+                }
+                dependencies.addAll(List.of(test.dependsOnMethods()));
+            }
+            if (classTest != null) {
+                dependencies.addAll(List.of(classTest.dependsOnMethods()));
+            }
+            for (String dependency : dependencies) {
+                if (!link(parent, className, methods, index, dependency)) {
+                    return null;
+                }
+            }
+        }
+
+        Map<Integer, List<String>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < methods.size(); i++) {
+            groups.computeIfAbsent(root(parent, i), root -> new ArrayList<>()).add(methods.get(i));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Joins a method with the included methods its dependency matches
+     *
+     * @return false if the dependency points outside the class
+     */
+    private static boolean link(int[] parent, String className, List<String> methods, int index, String dependency) {
+        String qualified = dependency.indexOf('.') < 0 ? className + "." + dependency : dependency;
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(qualified);
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+        boolean matched = false;
+        for (int other = 0; other < methods.size(); other++) {
+            if (pattern.matcher(className + "." + methods.get(other)).matches()) {
+                parent[root(parent, other)] = root(parent, index);
+                matched = true;
+            }
+        }
+        // Unmatched dependencies of this class are not included; TestNG reports those itself
+        return matched || qualified.startsWith(className + ".");
+    }
+
+    private static int root(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+}
@@ -0,0 +1,355 @@
+package com.appium.stub;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CalculatorApplication - Google Calculator for the stub Appium server
+ * Models the keypad, the formula line and the preview/final result lines with the
+ * app's evaluation rules (× and ÷ before + and −, trailing zeros dropped, "−" for
+ * negative results). Every widget is always present and displayed, as in the real
+ * layout; the result lines are empty until there is a result
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class CalculatorApplication implements StubApplication {
+
+    public static final String PACKAGE = "com.google.android.calculator";
+
+    private static final String FORMULA = PACKAGE + ".formula";
+    private static final String RESULT = PACKAGE + ".result";
+    private static final String OPERATORS = "+−×÷";
+    private static final Pattern SELECTOR = Pattern.compile("\\.(\\w+)\\(\"((?:[^\"\\\\]|\\\\.)*)\"\\)");
+
+    private static final class Widget {
+        private final String id;
+        private final String label;
+        private final String description;
+
+        private Widget(String id, String label, String description) {
+            this.id = id;
+            this.label = label;
+            this.description = description;
+        }
+
+        private String resourceId() {
+            return PACKAGE + ":id/" + id;
+        }
+    }
+
+    private static final List<Widget> WIDGETS = new ArrayList<>();
+
+    static {
+        WIDGETS.add(new Widget("formula", null, null));
+        WIDGETS.add(new Widget("result_preview", null, null));
+        WIDGETS.add(new Widget("result_final", null, null));
+        for (int digit = 0; digit <= 9; digit++) {
+            WIDGETS.add(new Widget("digit_" + digit, String.valueOf(digit), String.valueOf(digit)));
+        }
+        WIDGETS.add(new Widget("dec_point", ".", "point"));
+        WIDGETS.add(new Widget("op_add", "+", "plus"));
+        WIDGETS.add(new Widget("op_sub", "−", "minus"));
+        WIDGETS.add(new Widget("op_mul", "×", "multiply"));
+        WIDGETS.add(new Widget("op_div", "÷", "divide"));
+        WIDGETS.add(new Widget("eq", "=", "equals"));
+        WIDGETS.add(new Widget("clr", "AC", "clear"));
+        WIDGETS.add(new Widget("del", "⌫", "delete"));
+    }
+
+    @Override
+    public String getPackageName() {
+        return PACKAGE;
+    }
+
+    @Override
+    public String getActivity() {
+        return "com.android.calculator2.Calculator";
+    }
+
+    // ==================== ELEMENTS ====================
+
+    @Override
+    public List<String> findElements(StubSession session, String using, String value) {
+        List<String> found = new ArrayList<>();
+        for (Widget widget : WIDGETS) {
+            if (matches(session, widget, using, value)) {
+                found.add(widget.id);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean isAttached(StubSession session, String elementId) {
+        return widget(elementId) != null;
+    }
+
+    @Override
+    public String getText(StubSession session, String elementId) {
+        switch (elementId) {
+            case "formula":
+                return formula(session);
+            case "result_final":
+                return result(session);
+            case "result_preview":
+                return result(session).isEmpty() ? preview(formula(session)) : "";
+            default:
+                Widget widget = widget(elementId);
+                return widget == null || widget.label == null ? "" : widget.label;
+        }
+    }
+
+    @Override
+    public boolean isDisplayed(StubSession session, String elementId) {
+        return widget(elementId) != null;
+    }
+
+    @Override
+    public String getAttribute(StubSession session, String elementId, String name) {
+        Widget widget = widget(elementId);
+        switch (name) {
+            case "resource-id":
+            case "resourceId":
+                return widget.resourceId();
+            case "content-desc":
+            case "contentDescription":
+                return widget.description;
+            case "class":
+            case "className":
+                return widget.label == null ? "android.widget.TextView" : "android.widget.ImageButton";
+            case "displayed":
+                return String.valueOf(isDisplayed(session, elementId));
+            case "enabled":
+            case "clickable":
+                return "true";
+            default:
+                return StubApplication.super.getAttribute(session, elementId, name);
+        }
+    }
+
+    @Override
+    public String getPageSource(StubSession session) {
+        StringBuilder source = new StringBuilder("<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>")
+            .append("<hierarchy rotation=\"0\"><android.widget.FrameLayout package=\"").append(PACKAGE).append("\">");
+        for (Widget widget : WIDGETS) {
+            source.append("<node resource-id=\"").append(widget.resourceId())
+                .append("\" text=\"").append(getText(session, widget.id))
+                .append("\" content-desc=\"").append(widget.description == null ? "" : widget.description)
+                .append("\" displayed=\"").append(isDisplayed(session, widget.id)).append("\"/>");
+        }
+        return source.append("</android.widget.FrameLayout></hierarchy>").toString();
+    }
+
+    // ==================== KEYPAD ====================
+
+    @Override
+    public void click(StubSession session, String elementId) {
+        Widget widget = widget(elementId);
+        if (widget == null || widget.label == null) {
+            return;
+        }
+        String formula = formula(session);
+        String result = result(session);
+
+        switch (elementId) {
+            case "clr":
+                formula = "";
+                result = "";
+                break;
+            case "del":
+                if (!result.isEmpty()) {
+                    result = "";
+                } else if (!formula.isEmpty()) {
+                    formula = formula.substring(0, formula.length() - 1);
+                }
+                break;
+            case "eq":
+                if (!formula.isEmpty()) {
+                    result = evaluate(formula);
+                }
+                break;
+            default:
+                boolean operator = OPERATORS.contains(widget.label);
+                if (!result.isEmpty()) {
+                    // A new key after "=" continues from the result (operator) or starts over (digit)
+                    formula = operator && !result.startsWith("Can") ? result : "";
+                    result = "";
+                }
+                formula = append(formula, widget.label, operator);
+        }
+        session.setState(FORMULA, formula);
+        session.setState(RESULT, result);
+    }
+
+    private static String append(String formula, String key, boolean operator) {
+        if (!operator) {
+            return formula + key;
+        }
+        if (formula.isEmpty()) {
+            return "−".equals(key) ? key : formula;
+        }
+        char last = formula.charAt(formula.length() - 1);
+        if (OPERATORS.indexOf(last) >= 0) {
+            return formula.substring(0, formula.length() - 1) + key;
+        }
+        return formula + key;
+    }
+
+    // ==================== EVALUATION ====================
+
+    /**
+     * Live preview shown while a complete binary expression is being typed
+     */
+    private static String preview(String formula) {
+        boolean hasOperator = false;
+        for (int i = 1; i < formula.length(); i++) {
+            hasOperator |= OPERATORS.indexOf(formula.charAt(i)) >= 0;
+        }
+        if (!hasOperator || OPERATORS.indexOf(formula.charAt(formula.length() - 1)) >= 0) {
+            return "";
+        }
+        String value = evaluate(formula);
+        return value.startsWith("Can") ? "" : value;
+    }
+
+    static String evaluate(String formula) {
+        List<BigDecimal> numbers = new ArrayList<>();
+        List<Character> operators = new ArrayList<>();
+        StringBuilder number = new StringBuilder();
+        for (int i = 0; i < formula.length(); i++) {
+            char c = formula.charAt(i);
+            if (OPERATORS.indexOf(c) >= 0 && !(c == '−' && number.length() == 0)) {
+                numbers.add(parse(number));
+                operators.add(c);
+                number.setLength(0);
+            } else {
+                number.append(c == '−' ? '-' : c);
+            }
+        }
+        if (number.length() == 0) {
+            // Trailing operator is ignored, as in the app
+            if (!operators.isEmpty()) {
+                operators.remove(operators.size() - 1);
+            }
+        } else {
+            numbers.add(parse(number));
+        }
+
+        try {
+            // × and ÷ first, then + and − left to right
+            for (int i = 0; i < operators.size(); ) {
+                char operator = operators.get(i);
+                if (operator == '×' || operator == '÷') {
+                    BigDecimal left = numbers.get(i);
+                    BigDecimal right = numbers.remove(i + 1);
+                    numbers.set(i, operator == '×' ? left.multiply(right) : left.divide(right, MathContext.DECIMAL64));
+                    operators.remove(i);
+                } else {
+                    i++;
+                }
+            }
+            BigDecimal total = numbers.get(0);
+            for (int i = 0; i < operators.size(); i++) {
+                total = operators.get(i) == '+' ? total.add(numbers.get(i + 1)) : total.subtract(numbers.get(i + 1));
+            }
+            return format(total);
+        } catch (ArithmeticException e) {
+            return "Can't divide by 0";
+        }
+    }
+
+    private static BigDecimal parse(StringBuilder number) {
+        String text = number.toString();
+        if (text.isEmpty() || "-".equals(text) || ".".equals(text)) {
+            return BigDecimal.ZERO;
+        }
+        return new BigDecimal(text.startsWith(".") ? "0" + text : text);
+    }
+
+    private static String format(BigDecimal value) {
+        String text = value.round(MathContext.DECIMAL64).stripTrailingZeros().toPlainString();
+        return text.startsWith("-") ? "−" + text.substring(1) : text;
+    }
+
+    // ==================== LOCATORS ====================
+
+    private boolean matches(StubSession session, Widget widget, String using, String value) {
+        switch (using) {
+            case "id":
+                return value.equals(widget.resourceId()) || value.equals(widget.id);
+            case "accessibility id":
+                return value.equals(widget.description);
+            case "-android uiautomator":
+                return matchesSelector(session, widget, value);
+            case "xpath":
+                return value.contains("'" + widget.resourceId() + "'") || value.contains("\"" + widget.resourceId() + "\"");
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Matches a UiSelector chain such as new UiSelector().resourceIdMatches(".*result.*");
+     * every predicate in the chain has to hold
+     */
+    private boolean matchesSelector(StubSession session, Widget widget, String selector) {
+        Matcher matcher = SELECTOR.matcher(selector);
+        boolean any = false;
+        while (matcher.find()) {
+            any = true;
+            String argument = matcher.group(2).replace("\\\"", "\"").replace("\\\\", "\\");
+            String text = getText(session, widget.id);
+            boolean holds;
+            switch (matcher.group(1)) {
+                case "text":
+                    holds = text.equals(argument);
+                    break;
+                case "textContains":
+                    holds = !text.isEmpty() && text.contains(argument);
+                    break;
+                case "description":
+                    holds = argument.equals(widget.description);
+                    break;
+                case "resourceId":
+                    holds = widget.resourceId().equals(argument);
+                    break;
+                case "resourceIdMatches":
+                    holds = widget.resourceId().matches(argument);
+                    break;
+                case "className":
+                    holds = argument.equals(getAttribute(session, widget.id, "class"));
+                    break;
+                default:
+                    holds = false;
+            }
+            if (!holds) {
+                return false;
+            }
+        }
+        return any;
+    }
+
+    private static String formula(StubSession session) {
+        String formula = session.getState(FORMULA);
+        return formula == null ? "" : formula;
+    }
+
+    private static String result(StubSession session) {
+        String result = session.getState(RESULT);
+        return result == null ? "" : result;
+    }
+
+    private static Widget widget(String elementId) {
+        for (Widget widget : WIDGETS) {
+            if (widget.id.equals(elementId)) {
+                return widget;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,548 @@
+package com.appium.stub;
+
+import com.appium.core.ConfigurationManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StubAppiumServer - In-process Appium (UiAutomator2) endpoint backed by simulated apps
+ * Implements the W3C commands the page objects use (find, click, sendKeys, getText,
+ * element state, screenshots, page source) plus the Appium app management endpoints
+ * and their "mobile:" script equivalents, with configurable per-command latency, so
+ * framework overhead can be measured without a device. Element lookups never wait:
+ * a locator that does not match answers "no such element" immediately
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class StubAppiumServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubAppiumServer.class);
+    private static volatile StubAppiumServer instance;
+
+    static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final String VENDOR_PREFIX = "appium:";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, StubApplication> applications;
+    private final StubLatency latency;
+    private final Map<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final String screenshot;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final URL url;
+
+    StubAppiumServer(List<StubApplication> applications, StubLatency latency, int port) throws IOException {
+        Map<String, StubApplication> byPackage = new ConcurrentHashMap<>();
+        applications.forEach(application -> byPackage.put(application.getPackageName(), application));
+        this.applications = Collections.unmodifiableMap(byPackage);
+        this.latency = latency;
+        this.screenshot = Base64.getEncoder().encodeToString(renderScreenshot());
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-appium-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.url = new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        logger.info("Stub Appium server listening on {} with apps {} (latency: {})", url, this.applications.keySet(), latency);
+    }
+
+    /**
+     * Checks whether drivers should target the stub server (stub.server.enabled)
+     *
+     * @return true if the stub server replaces the Appium server and device
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("stub.server.enabled", false);
+    }
+
+    /**
+     * Gets the shared server, starting it on first use
+     *
+     * @return Running stub server
+     */
+    public static StubAppiumServer getInstance() {
+        if (instance == null) {
+            synchronized (StubAppiumServer.class) {
+                if (instance == null) {
+                    try {
+                        instance = new StubAppiumServer(List.of(new CalculatorApplication()), StubLatency.fromConfiguration(),
+                            ConfigurationManager.getInstance().getIntProperty("stub.server.port", 0));
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to start stub Appium server", e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the shared server if it was started
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.stop();
+            instance = null;
+        }
+    }
+
+    public URL getUrl() {
+        return url;
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    public long getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops the server and drops all sessions
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Stub Appium server stopped: {} sessions, {} commands", sessionsCreated.get(), commands.get());
+        sessions.clear();
+    }
+
+    // ==================== REQUEST HANDLING ====================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        ObjectNode response = mapper.createObjectNode();
+        int status = 200;
+        try {
+            JsonNode body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = mapper.readTree(in.readAllBytes());
+            }
+            putValue(response, "value", route(exchange.getRequestMethod(), segments(exchange), body));
+            commands.incrementAndGet();
+        } catch (AppiumError e) {
+            status = e.status;
+            ObjectNode value = response.putObject("value");
+            value.put("error", e.error);
+            value.put("message", e.getMessage());
+            value.put("stacktrace", "");
+        } catch (RuntimeException e) {
+            logger.warn("Stub server failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            status = 500;
+            ObjectNode value = response.putObject("value");
+            value.put("error", "unknown error");
+            value.put("message", String.valueOf(e.getMessage()));
+            value.put("stacktrace", "");
+        }
+
+        byte[] bytes = mapper.writeValueAsBytes(response);
+        try {
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Object route(String method, String[] path, JsonNode body) {
+        if (path.length == 1 && "status".equals(path[0])) {
+            ObjectNode status = mapper.createObjectNode();
+            status.put("ready", true);
+            status.put("message", "Stub Appium server ready");
+            return status;
+        }
+        if (path.length == 0 || !"session".equals(path[0])) {
+            throw AppiumError.unknownCommand(method, path);
+        }
+        if (path.length == 1 && "POST".equals(method)) {
+            return newSession(body);
+        }
+
+        StubSession session = path.length > 1 ? sessions.get(path[1]) : null;
+        if (session == null) {
+            throw new AppiumError(404, "invalid session id", "No active session with that id");
+        }
+        if (path.length == 2) {
+            if (!"DELETE".equals(method)) {
+                throw AppiumError.unknownCommand(method, path);
+            }
+            latency.apply("deleteSession");
+            sessions.remove(session.getId());
+            return null;
+        }
+        return sessionCommand(method, session, path, body);
+    }
+
+    private Object newSession(JsonNode body) {
+        latency.apply("newSession");
+        JsonNode requested = body.path("capabilities");
+        ObjectNode capabilities = mapper.createObjectNode();
+        // The server reports capabilities without the vendor prefix
+        merge(capabilities, requested.path("alwaysMatch"));
+        merge(capabilities, requested.path("firstMatch").path(0));
+        capabilities.put("platformName", "Android");
+        capabilities.put("automationName", "UiAutomator2");
+        capabilities.put("deviceName", "stub");
+        if (!capabilities.has("udid")) {
+            capabilities.put("udid", "STUB0001");
+        }
+
+        String appPackage = capabilities.path("appPackage").asText("");
+        StubSession session = new StubSession(UUID.randomUUID().toString(), capabilities, appPackage);
+        sessions.put(session.getId(), session);
+        sessionsCreated.incrementAndGet();
+
+        ObjectNode created = mapper.createObjectNode();
+        created.put("sessionId", session.getId());
+        created.set("capabilities", capabilities);
+        return created;
+    }
+
+    private Object sessionCommand(String method, StubSession session, String[] path, JsonNode body) {
+        String command = path[2];
+        switch (command) {
+            case "source":
+                latency.apply("pageSource");
+                StubApplication application = applications.get(session.getCurrentPackage());
+                return application != null ? application.getPageSource(session) : "<hierarchy rotation=\"0\"/>";
+            case "screenshot":
+                latency.apply("screenshot");
+                return screenshot;
+            case "timeouts":
+            case "actions":
+            case "back":
+                return null;
+            case "element":
+            case "elements":
+                if (path.length == 3) {
+                    return find(session, "elements".equals(command), body);
+                }
+                return elementCommand(method, session, path, body);
+            case "execute":
+                return executeScript(session, body.path("script").asText(), body.path("args"));
+            case "appium":
+                return appiumCommand(method, session, path, body);
+            default:
+                throw AppiumError.unknownCommand(method, path);
+        }
+    }
+
+    // ==================== ELEMENTS ====================
+
+    private Object find(StubSession session, boolean multiple, JsonNode body) {
+        latency.apply("findElement");
+        String using = body.path("using").asText();
+        String value = body.path("value").asText();
+        StubApplication application = applications.get(session.getCurrentPackage());
+        List<String> found = application != null ? application.findElements(session, using, value) : List.of();
+        if (multiple) {
+            ArrayNode elements = mapper.createArrayNode();
+            found.forEach(id -> elements.add(reference(id)));
+            return elements;
+        }
+        if (found.isEmpty()) {
+            throw new AppiumError(404, "no such element",
+                "An element could not be located on the page using the given search parameters");
+        }
+        return reference(found.get(0));
+    }
+
+    private Object elementCommand(String method, StubSession session, String[] path, JsonNode body) {
+        String elementId = path[3];
+        StubApplication application = attached(session, elementId);
+        String command = path.length > 4 ? path[4] : "";
+        switch (command) {
+            case "element":
+            case "elements":
+                // The simulated screens are flat, so nested lookups search the whole screen
+                return find(session, "elements".equals(command), body);
+            case "click":
+                latency.apply("click");
+                application.click(session, elementId);
+                return null;
+            case "clear":
+                latency.apply("sendKeys");
+                application.clear(session, elementId);
+                return null;
+            case "value":
+                latency.apply("sendKeys");
+                application.sendKeys(session, elementId, keys(body));
+                return null;
+            case "text":
+                latency.apply("getText");
+                return application.getText(session, elementId);
+            case "displayed":
+                latency.apply("elementState");
+                return application.isDisplayed(session, elementId);
+            case "enabled":
+                latency.apply("elementState");
+                return application.isEnabled(session, elementId);
+            case "selected":
+                latency.apply("elementState");
+                return false;
+            case "name":
+                return application.getAttribute(session, elementId, "class");
+            case "attribute":
+                latency.apply("elementState");
+                return application.getAttribute(session, elementId, path.length > 5 ? path[5] : "");
+            case "rect":
+                ObjectNode rect = mapper.createObjectNode();
+                rect.put("x", 0);
+                rect.put("y", 0);
+                rect.put("width", 200);
+                rect.put("height", 200);
+                return rect;
+            case "screenshot":
+                latency.apply("screenshot");
+                return screenshot;
+            default:
+                throw AppiumError.unknownCommand(method, path);
+        }
+    }
+
+    private StubApplication attached(StubSession session, String elementId) {
+        StubApplication application = applications.get(session.getCurrentPackage());
+        if (application == null || !application.isAttached(session, elementId)) {
+            throw new AppiumError(404, "stale element reference",
+                "The element '" + elementId + "' does not exist in DOM anymore");
+        }
+        return application;
+    }
+
+    private ObjectNode reference(String elementId) {
+        ObjectNode reference = mapper.createObjectNode();
+        reference.put(ELEMENT_KEY, elementId);
+        return reference;
+    }
+
+    private static String keys(JsonNode body) {
+        if (body.has("text")) {
+            return body.get("text").asText();
+        }
+        StringBuilder text = new StringBuilder();
+        for (JsonNode key : body.path("value")) {
+            text.append(key.asText());
+        }
+        return text.toString();
+    }
+
+    // ==================== APP MANAGEMENT ====================
+
+    /**
+     * Legacy Appium endpoints used by java-client 8 (/appium/device/..., /appium/app/...)
+     */
+    private Object appiumCommand(String method, StubSession session, String[] path, JsonNode body) {
+        String command = String.join("/", Arrays.copyOfRange(path, 3, path.length));
+        switch (command) {
+            case "device/current_package":
+                return mobile(session, "getCurrentPackage", body);
+            case "device/current_activity":
+                return mobile(session, "getCurrentActivity", body);
+            case "device/activate_app":
+                return mobile(session, "activateApp", body);
+            case "device/terminate_app":
+                return mobile(session, "terminateApp", body);
+            case "device/app_state":
+                return mobile(session, "queryAppState", body);
+            case "device/is_keyboard_shown":
+                return mobile(session, "isKeyboardShown", body);
+            case "device/hide_keyboard":
+                return mobile(session, "hideKeyboard", body);
+            case "app/close":
+                latency.apply("mobile");
+                String current = session.getCurrentPackage();
+                if (current != null) {
+                    session.terminate(current);
+                }
+                return null;
+            case "settings":
+                return "GET".equals(method) ? mapper.createObjectNode() : null;
+            default:
+                throw AppiumError.unknownCommand(method, path);
+        }
+    }
+
+    private Object executeScript(StubSession session, String script, JsonNode args) {
+        String trimmed = script.trim();
+        if (!trimmed.startsWith("mobile:")) {
+            throw new AppiumError(404, "unknown command", "Only 'mobile:' scripts are supported by the stub server");
+        }
+        return mobile(session, trimmed.substring("mobile:".length()).trim(), args.path(0));
+    }
+
+    /**
+     * Runs a "mobile:" extension command
+     *
+     * @param session Session
+     * @param name Extension name (activateApp, terminateApp, ...)
+     * @param params Extension parameters
+     * @return Command result
+     */
+    private Object mobile(StubSession session, String name, JsonNode params) {
+        latency.apply("mobile");
+        String appId = params.has("appId") ? params.get("appId").asText() : params.path("bundleId").asText("");
+        switch (name) {
+            case "getCurrentPackage":
+                return session.getCurrentPackage();
+            case "getCurrentActivity":
+                StubApplication application = applications.get(session.getCurrentPackage());
+                return application != null ? application.getActivity() : ".NexusLauncherActivity";
+            case "activateApp":
+                requireApp(appId);
+                session.activate(appId);
+                return null;
+            case "terminateApp":
+                return session.terminate(appId);
+            case "queryAppState":
+                return applications.containsKey(appId) ? session.getAppState(appId) : 0;
+            case "isKeyboardShown":
+                return session.isKeyboardShown();
+            case "hideKeyboard":
+                session.setKeyboardShown(false);
+                return null;
+            case "scrollGesture":
+            case "swipeGesture":
+                // Nothing to scroll on the simulated screens
+                return false;
+            case "clickGesture":
+            case "longClickGesture":
+            case "pressKey":
+                return null;
+            case "shell":
+                return "";
+            default:
+                throw new AppiumError(404, "unknown method", "Unsupported mobile command: " + name);
+        }
+    }
+
+    private void requireApp(String appId) {
+        if (!applications.containsKey(appId)) {
+            throw new AppiumError(500, "unknown error", "App '" + appId + "' is not installed on the stub device");
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static String[] segments(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        // Clients may be configured with a base path such as /wd/hub
+        int session = path.indexOf("/session");
+        int status = path.indexOf("/status");
+        int start = session >= 0 ? session : Math.max(status, 0);
+        String trimmed = path.substring(start).replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+
+    private static void merge(ObjectNode target, JsonNode source) {
+        if (source.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = ((ObjectNode) source).fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String name = field.getKey().startsWith(VENDOR_PREFIX)
+                    ? field.getKey().substring(VENDOR_PREFIX.length()) : field.getKey();
+                target.set(name, field.getValue());
+            }
+        }
+    }
+
+    private static void putValue(ObjectNode target, String field, Object value) {
+        if (value == null) {
+            target.putNull(field);
+        } else if (value instanceof JsonNode) {
+            target.set(field, (JsonNode) value);
+        } else if (value instanceof Boolean) {
+            target.put(field, (Boolean) value);
+        } else if (value instanceof Long || value instanceof Integer) {
+            target.put(field, ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            target.put(field, ((Number) value).doubleValue());
+        } else {
+            target.put(field, value.toString());
+        }
+    }
+
+    /**
+     * Renders a plain portrait screen so screenshot consumers get a decodable PNG
+     */
+    private static byte[] renderScreenshot() {
+        BufferedImage image = new BufferedImage(540, 1170, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 540, 1170);
+            graphics.setColor(new Color(0x20, 0x21, 0x24));
+            graphics.fillRect(0, 0, 540, 48);
+        } finally {
+            graphics.dispose();
+        }
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * W3C error response
+     */
+    static final class AppiumError extends RuntimeException {
+        private final int status;
+        private final String error;
+
+        AppiumError(int status, String error, String message) {
+            super(message);
+            this.status = status;
+            this.error = error;
+        }
+
+        static AppiumError unknownCommand(String method, String[] path) {
+            return new AppiumError(404, "unknown command",
+                "Stub server does not implement " + method + " /" + String.join("/", path));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.appium.stub;
+
+import java.util.List;
+
+/**
+ * StubApplication - Simulated Android app behind the stub Appium server
+ * Element ids returned by {@link #findElements} are used verbatim as W3C element
+ * references, so they must be URL-safe
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public interface StubApplication {
+
+    /**
+     * @return Package name the app is registered under
+     */
+    String getPackageName();
+
+    /**
+     * @return Activity reported while the app is in the foreground
+     */
+    String getActivity();
+
+    /**
+     * Finds elements on the app's current screen
+     *
+     * @param session Session
+     * @param using Locator strategy (id, xpath, accessibility id, -android uiautomator, ...)
+     * @param value Locator value
+     * @return Ids of matching elements, empty if none
+     */
+    List<String> findElements(StubSession session, String using, String value);
+
+    /**
+     * Checks whether an element is still on the current screen
+     *
+     * @param session Session
+     * @param elementId Element id
+     * @return false makes the server answer "stale element reference"
+     */
+    boolean isAttached(StubSession session, String elementId);
+
+    String getText(StubSession session, String elementId);
+
+    void click(StubSession session, String elementId);
+
+    String getPageSource(StubSession session);
+
+    default void sendKeys(StubSession session, String elementId, String text) {
+        // Read-only by default
+    }
+
+    default void clear(StubSession session, String elementId) {
+        // Read-only by default
+    }
+
+    default boolean isDisplayed(StubSession session, String elementId) {
+        return true;
+    }
+
+    default boolean isEnabled(StubSession session, String elementId) {
+        return true;
+    }
+
+    /**
+     * Gets an element attribute (UiAutomator2 names such as resource-id, text, class)
+     *
+     * @param session Session
+     * @param elementId Element id
+     * @param name Attribute name
+     * @return Attribute value or null
+     */
+    default String getAttribute(StubSession session, String elementId, String name) {
+        return "text".equals(name) ? getText(session, elementId) : null;
+    }
+}
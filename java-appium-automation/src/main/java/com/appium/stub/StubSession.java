@@ -0,0 +1,113 @@
+package com.appium.stub;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StubSession - State of one session on the stub Appium server
+ * Holds what the device would: the foreground package, running apps, keyboard
+ * visibility and a free-form state map for the simulated applications
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class StubSession {
+
+    private final String id;
+    private final ObjectNode capabilities;
+    private final Set<String> runningApps = ConcurrentHashMap.newKeySet();
+    private final Map<String, Object> state = new ConcurrentHashMap<>();
+    private volatile String currentPackage;
+    private volatile boolean keyboardShown;
+
+    StubSession(String id, ObjectNode capabilities, String appPackage) {
+        this.id = id;
+        this.capabilities = capabilities;
+        this.currentPackage = appPackage;
+        if (appPackage != null && !appPackage.isEmpty()) {
+            runningApps.add(appPackage);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ObjectNode getCapabilities() {
+        return capabilities;
+    }
+
+    public String getCurrentPackage() {
+        return currentPackage;
+    }
+
+    public boolean isKeyboardShown() {
+        return keyboardShown;
+    }
+
+    public void setKeyboardShown(boolean keyboardShown) {
+        this.keyboardShown = keyboardShown;
+    }
+
+    // ==================== APP LIFECYCLE ====================
+
+    /**
+     * Brings an app to the foreground, starting it if needed
+     *
+     * @param appPackage App package
+     */
+    public void activate(String appPackage) {
+        runningApps.add(appPackage);
+        currentPackage = appPackage;
+    }
+
+    /**
+     * Stops an app and drops its state
+     *
+     * @param appPackage App package
+     * @return true if the app was running
+     */
+    public boolean terminate(String appPackage) {
+        state.keySet().removeIf(key -> key.startsWith(appPackage + "."));
+        boolean wasRunning = runningApps.remove(appPackage);
+        if (appPackage.equals(currentPackage)) {
+            currentPackage = "com.google.android.apps.nexuslauncher";
+        }
+        return wasRunning;
+    }
+
+    /**
+     * Gets the app state the way queryAppState reports it
+     *
+     * @param appPackage App package
+     * @return 4 running in foreground, 3 running in background, 1 not running
+     */
+    public int getAppState(String appPackage) {
+        if (!runningApps.contains(appPackage)) {
+            return 1;
+        }
+        return appPackage.equals(currentPackage) ? 4 : 3;
+    }
+
+    // ==================== APPLICATION STATE ====================
+
+    /**
+     * Gets application state; keys are prefixed with the owning package so that
+     * terminating an app resets it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getState(String key) {
+        return (T) state.get(key);
+    }
+
+    public void setState(String key, Object value) {
+        if (value == null) {
+            state.remove(key);
+        } else {
+            state.put(key, value);
+        }
+    }
+}
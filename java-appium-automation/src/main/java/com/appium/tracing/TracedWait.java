@@ -0,0 +1,37 @@
+package com.appium.tracing;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * TracedWait - WebDriverWait that records every until() as a span
+ * Commands polled by the condition nest under the wait span
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class TracedWait extends WebDriverWait {
+
+    public TracedWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        if (!Tracer.isActive()) {
+            return super.until(isTrue);
+        }
+        Span span = Tracer.start("wait").setAttribute("wait.condition", String.valueOf(isTrue));
+        try {
+            return super.until(isTrue);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            Tracer.end(span);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.appium.tracing;
+
+import com.appium.core.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tracer - Nested spans for the test lifecycle, exported as OTLP JSON lines
+ * A suite span is the root of the run; every span started on a thread becomes a child
+ * of the span currently open on that thread (or of the suite span), so setup, waits and
+ * commands nest under their test. The file (tracing.file in the reports directory) can
+ * be loaded into Jaeger/Tempo through the OpenTelemetry Collector's otlpjsonfile receiver
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class Tracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+    // Wall clock anchored once; span times are offsets of the monotonic clock
+    private static final long EPOCH_NANOS_BASE = System.currentTimeMillis() * 1_000_000L;
+    private static final long NANO_TIME_BASE = System.nanoTime();
+
+    private static final ThreadLocal<Deque<Span>> openSpans = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static volatile Span suiteSpan;
+    private static volatile OtlpJsonExporter exporter;
+
+    private Tracer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether runs are traced (tracing.enabled)
+     *
+     * @return true if tracing is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("tracing.enabled", false);
+    }
+
+    /**
+     * @return true while a suite span is open
+     */
+    public static boolean isActive() {
+        return suiteSpan != null;
+    }
+
+    // ==================== SUITE ====================
+
+    /**
+     * Opens the root span of the run and the export file, if tracing is enabled
+     *
+     * @param suiteName TestNG suite name
+     */
+    public static synchronized void startSuite(String suiteName) {
+        if (suiteSpan != null || !isEnabled()) {
+            return;
+        }
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        Path file = Paths.get(config.getReportsDirectory(), config.getProperty("tracing.file", "traces.jsonl"));
+        try {
+            exporter = new OtlpJsonExporter(file, config.getProperty("tracing.service.name", "java-appium-automation"),
+                config.getIntProperty("tracing.batch.size", 256));
+        } catch (IOException e) {
+            logger.warn("Tracing disabled, cannot write {}: {}", file, e.getMessage());
+            return;
+        }
+        suiteSpan = new Span(randomId(16), randomId(8), null, "suite " + suiteName, Span.KIND_INTERNAL, nowEpochNanos())
+            .setAttribute("testng.suite", suiteName);
+        logger.info("Tracing suite {} to {} (trace id {})", suiteName, file, suiteSpan.getTraceId());
+    }
+
+    /**
+     * Ends the root span and flushes all spans to the export file
+     */
+    public static synchronized void endSuite() {
+        Span suite = suiteSpan;
+        if (suite == null) {
+            return;
+        }
+        suite.setEndEpochNanos(nowEpochNanos());
+        exporter.export(suite);
+        exporter.close();
+        logger.info("Trace {} written: {} spans", suite.getTraceId(), exporter.getExportedCount());
+        suiteSpan = null;
+        exporter = null;
+        openSpans.remove();
+    }
+
+    // ==================== SPANS ====================
+
+    /**
+     * Starts an internal span as child of the current thread's open span
+     *
+     * @param name Span name
+     * @return Open span, a no-op span while tracing is inactive
+     */
+    public static Span start(String name) {
+        return start(name, Span.KIND_INTERNAL);
+    }
+
+    /**
+     * Starts a span as child of the current thread's open span
+     *
+     * @param name Span name
+     * @param kind Span kind ({@link Span#KIND_INTERNAL}, {@link Span#KIND_CLIENT})
+     * @return Open span, a no-op span while tracing is inactive
+     */
+    public static Span start(String name, int kind) {
+        Span suite = suiteSpan;
+        if (suite == null) {
+            return Span.NOOP;
+        }
+        Deque<Span> spans = openSpans.get();
+        Span parent = spans.isEmpty() ? suite : spans.peek();
+        Span span = new Span(suite.getTraceId(), randomId(8), parent.getSpanId(), name, kind, nowEpochNanos())
+            .setAttribute("thread.name", Thread.currentThread().getName());
+        spans.push(span);
+        return span;
+    }
+
+    /**
+     * Ends a span and queues it for export
+     *
+     * @param span Span to end
+     */
+    public static void end(Span span) {
+        if (span == null || span.isNoop()) {
+            return;
+        }
+        if (!span.isEnded()) {
+            span.setEndEpochNanos(nowEpochNanos());
+        }
+        openSpans.get().removeFirstOccurrence(span);
+        OtlpJsonExporter target = exporter;
+        if (target != null) {
+            target.export(span);
+        }
+    }
+
+    /**
+     * Records an already finished operation as child of the current thread's open span
+     *
+     * @param name Span name
+     * @param kind Span kind
+     * @param startNanoTime Start as System.nanoTime()
+     * @param endNanoTime End as System.nanoTime()
+     * @param attributes Span attributes
+     */
+    public static void record(String name, int kind, long startNanoTime, long endNanoTime, Map<String, ?> attributes) {
+        Span suite = suiteSpan;
+        OtlpJsonExporter target = exporter;
+        if (suite == null || target == null) {
+            return;
+        }
+        Deque<Span> spans = openSpans.get();
+        Span parent = spans.isEmpty() ? suite : spans.peek();
+        Span span = new Span(suite.getTraceId(), randomId(8), parent.getSpanId(), name, kind, toEpochNanos(startNanoTime))
+            .setAttribute("thread.name", Thread.currentThread().getName());
+        attributes.forEach(span::setAttribute);
+        span.setEndEpochNanos(toEpochNanos(endNanoTime));
+        target.export(span);
+    }
+
+    /**
+     * @return Innermost open span of the current thread, the suite span or a no-op span
+     */
+    public static Span current() {
+        Span open = openSpans.get().peek();
+        if (open != null) {
+            return open;
+        }
+        Span suite = suiteSpan;
+        return suite != null ? suite : Span.NOOP;
+    }
+
+    // ==================== CLOCK AND IDS ====================
+
+    static long nowEpochNanos() {
+        return toEpochNanos(System.nanoTime());
+    }
+
+    static long toEpochNanos(long nanoTime) {
+        return EPOCH_NANOS_BASE + (nanoTime - NANO_TIME_BASE);
+    }
+
+    private static String randomId(int bytes) {
+        StringBuilder id = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            id.append(Character.forDigit(random.nextInt(16), 16)).append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return id.toString();
+    }
+}
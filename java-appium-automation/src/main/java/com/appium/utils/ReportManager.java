@@ -4,6 +4,7 @@ import com.appium.core.ConfigurationManager;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import org.slf4j.Logger;
@@ -12,6 +13,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * ReportManager - Manages ExtentReports for comprehensive test reporting
@@ -25,6 +28,8 @@ public class ReportManager {
     private static final Logger logger = LoggerFactory.getLogger(ReportManager.class);
     private static ExtentReports extentReports;
     private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+    // Tests created since the last flush, i.e. still held in memory only
+    private static final AtomicInteger pendingTests = new AtomicInteger();
     
     private static final String REPORT_NAME = "Appium_Android_Automation_Report";
     private static final String DATE_FORMAT = "yyyy-MM-dd_HH-mm-ss";
@@ -121,6 +126,7 @@ public class ReportManager {
         
         ExtentTest test = extentReports.createTest(testName, description);
         extentTest.set(test);
+        pendingTests.incrementAndGet();
         logger.debug("Created test in report: {}", testName);
     }
     
@@ -148,6 +154,20 @@ public class ReportManager {
         }
     }
     
+    /**
+     * Logs an info message built only when there is a test to log it to
+     * 
+     * @param message Supplier of the info message
+     */
+    public static void logInfo(Supplier<String> message) {
+        ExtentTest test = getCurrentTest();
+        if (test != null) {
+            String text = message.get();
+            test.log(Status.INFO, text);
+            logger.debug("Logged info: {}", text);
+        }
+    }
+    
     /**
      * Logs a pass message
      * 
@@ -298,6 +318,20 @@ public class ReportManager {
         }
     }
     
+    /**
+     * Adds a suite-level table (e.g. command latency) as its own entry in the report
+     * 
+     * @param title Entry title
+     * @param table Rows of cells, the first row being the header
+     */
+    public static synchronized void addSummaryTable(String title, String[][] table) {
+        if (extentReports == null) {
+            logger.warn("Reports not initialized, dropping summary table: {}", title);
+            return;
+        }
+        extentReports.createTest(title).info(MarkupHelper.createTable(table));
+    }
+    
     // ==================== REPORT FINALIZATION ====================
     
     /**
@@ -306,10 +340,20 @@ public class ReportManager {
     public static synchronized void flushReports() {
         if (extentReports != null) {
             extentReports.flush();
+            pendingTests.set(0);
             logger.info("ExtentReports flushed successfully");
         }
     }
     
+    /**
+     * Gets the number of report entries waiting for the next flush
+     * 
+     * @return Tests created since the last flush
+     */
+    public static int getPendingTestCount() {
+        return pendingTests.get();
+    }
+    
     /**
      * Cleans up thread local test reference
      */
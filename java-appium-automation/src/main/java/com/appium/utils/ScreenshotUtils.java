@@ -2,6 +2,7 @@ package com.appium.utils;
 
 import com.appium.core.ConfigurationManager;
 import com.appium.core.DriverFactory;
+import com.appium.metrics.SuiteMetrics;
 import io.appium.java_client.android.AndroidDriver;
 import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
@@ -213,6 +214,7 @@ public class ScreenshotUtils {
             File destinationFile = new File(fullPath);
             
             FileUtils.copyFile(screenshotFile, destinationFile);
+            SuiteMetrics.recordScreenshot(destinationFile.length());
             
             logger.info("Screenshot captured successfully: {}", fullPath);
             return fullPath;
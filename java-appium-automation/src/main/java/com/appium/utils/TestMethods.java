@@ -0,0 +1,57 @@
+package com.appium.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TestMethods - Reads the @Test methods of a test class for runners that split suites
+ * Sharding, distributed and quarantine runs cut classes into units of dependent methods
+ * before TestNG sees them, so they need the methods and their dependsOnMethods up front
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class TestMethods {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestMethods.class);
+
+    private TestMethods() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Lists the @Test methods of a class in priority order, with their dependsOnMethods
+     *
+     * @param className Test class
+     * @param included Included method names, empty for all methods
+     * @return Method name to the methods it depends on; empty if the class is not on the class path
+     */
+    public static Map<String, List<String>> dependencies(String className, List<String> included) {
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        try {
+            Method[] methods = Class.forName(className).getMethods();
+            Arrays.sort(methods, (a, b) -> Integer.compare(priority(a), priority(b)));
+            for (Method method : methods) {
+                Test test = method.getAnnotation(Test.class);
+                if (test != null && (included.isEmpty() || included.contains(method.getName()))) {
+                    dependencies.put(method.getName(), Arrays.asList(test.dependsOnMethods()));
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            logger.warn("Test class {} not on the class path, its methods and dependencies are unknown", className);
+        }
+        return dependencies;
+    }
+
+    private static int priority(Method method) {
+        Test test = method.getAnnotation(Test.class);
+        return test != null ? test.priority() : 0;
+    }
+}
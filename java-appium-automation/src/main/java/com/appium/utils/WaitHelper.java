@@ -1,5 +1,7 @@
 package com.appium.utils;
 
+import com.appium.core.ConfigurationManager;
+import com.appium.tracing.TracedWait;
 import io.appium.java_client.android.AndroidDriver;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
@@ -33,7 +35,7 @@ public class WaitHelper {
     public WaitHelper(AndroidDriver driver, int timeoutSeconds) {
         this.driver = driver;
         this.defaultTimeoutSeconds = timeoutSeconds;
-        this.defaultWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        this.defaultWait = new TracedWait(driver, Duration.ofSeconds(timeoutSeconds));
     }
     
     // ==================== ELEMENT VISIBILITY WAITS ====================
@@ -305,7 +307,7 @@ public class WaitHelper {
      * @throws RuntimeException if condition not met within timeout
      */
     public <T> T waitForCondition(int timeoutSeconds, org.openqa.selenium.support.ui.ExpectedCondition<T> condition) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSeconds));
+        WebDriverWait customWait = new TracedWait(driver, Duration.ofSeconds(timeoutSeconds));
         try {
             logger.debug("Waiting for custom condition with timeout: {} seconds", timeoutSeconds);
             return customWait.until(condition);
@@ -319,10 +321,14 @@ public class WaitHelper {
     
     /**
      * Simple sleep method (use sparingly - prefer explicit waits)
+     * Skipped with timeouts.sleep.enabled=false, e.g. on the stub server, which has no animations to wait out
      * 
      * @param milliseconds Time to sleep in milliseconds
      */
     public static void sleep(long milliseconds) {
+        if (!ConfigurationManager.getInstance().getBooleanProperty("timeouts.sleep.enabled", true)) {
+            return;
+        }
         try {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
@@ -0,0 +1,214 @@
+package com.appium.video;
+
+import com.appium.core.ConfigurationManager;
+import io.appium.java_client.android.AndroidStartScreenRecordingOptions;
+import io.appium.java_client.screenrecording.CanRecordScreen;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScreenRecorder - Failure video for Android devices
+ * Records the screen with startRecordingScreen in segments: a video recorder thread stops
+ * and restarts the recording every reporting.video.segment.seconds, decodes the finished
+ * MP4 and puts it into a {@link SegmentRing} holding the last reporting.video.retention.seconds.
+ * Only a failing test writes the segments before its failure to reports/videos, as numbered
+ * MP4 files in a directory per failure. Passing tests stop the recording and drop the buffer
+ * without decoding or writing anything
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ScreenRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreenRecorder.class);
+
+    private static final String VIDEO_SUBDIRECTORY = "videos";
+    private static final String DATE_FORMAT = "yyyy-MM-dd_HH-mm-ss-SSS";
+
+    // Segments of parallel devices are pulled concurrently
+    private static final ScheduledExecutorService rotator = Executors.newScheduledThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+            Thread thread = new Thread(runnable, "video-recorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private static final ThreadLocal<ScreenRecorder> current = new ThreadLocal<>();
+
+    private final CanRecordScreen driver;
+    private final SegmentRing ring;
+    private final long retentionMillis;
+    private final AndroidStartScreenRecordingOptions options;
+    private ScheduledFuture<?> rotation;
+    private boolean running = true;
+    private long segmentStart;
+
+    ScreenRecorder(CanRecordScreen driver, long segmentMillis, long retentionMillis, long maxBytes, int bitRate) {
+        this.driver = driver;
+        this.retentionMillis = retentionMillis;
+        this.ring = new SegmentRing(retentionMillis, maxBytes);
+        // The device stops by itself should a rotation be missed
+        this.options = AndroidStartScreenRecordingOptions.startScreenRecordingOptions()
+            .withBitRate(bitRate)
+            .withTimeLimit(Duration.ofMillis(segmentMillis * 2));
+    }
+
+    /**
+     * Checks if failure videos are enabled (reporting.video.recording)
+     *
+     * @return true if recording is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("reporting.video.recording", false);
+    }
+
+    /**
+     * Starts recording the device screen for the current thread's test
+     * Does nothing if recording is disabled
+     *
+     * @param driver Freshly created driver
+     */
+    public static void start(CanRecordScreen driver) {
+        if (!isEnabled() || driver == null) {
+            return;
+        }
+        discard();
+
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int retentionSeconds = config.getIntProperty("reporting.video.retention.seconds", 30);
+        long segmentMillis = TimeUnit.SECONDS.toMillis(config.getIntProperty("reporting.video.segment.seconds", 10));
+        try {
+            ScreenRecorder recorder = new ScreenRecorder(driver, segmentMillis,
+                TimeUnit.SECONDS.toMillis(retentionSeconds),
+                config.getIntProperty("reporting.video.buffer.mb", 64) * 1024L * 1024L,
+                config.getIntProperty("reporting.video.bit.rate", 4000000));
+            driver.startRecordingScreen(recorder.options);
+            recorder.segmentStart = System.currentTimeMillis();
+            recorder.rotation = rotator.scheduleWithFixedDelay(recorder::rotate,
+                segmentMillis, segmentMillis, TimeUnit.MILLISECONDS);
+            current.set(recorder);
+            logger.info("Screen recording started, keeping the last {}s", retentionSeconds);
+        } catch (Exception e) {
+            logger.warn("Screen recording could not be started, continuing without it: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording and writes the video before a failure
+     *
+     * @param name Base name of the video directory
+     * @param failureMillis Time of the failure
+     * @return Directory holding the video segments, or null if nothing was recorded
+     */
+    public static Path persist(String name, long failureMillis) {
+        ScreenRecorder recorder = current.get();
+        current.remove();
+        if (recorder == null) {
+            return null;
+        }
+
+        try {
+            recorder.stop(true);
+            List<SegmentRing.Segment> segments =
+                recorder.ring.covering(failureMillis - recorder.retentionMillis, failureMillis);
+            if (segments.isEmpty()) {
+                return null;
+            }
+            String directoryName = name.replaceAll("[^a-zA-Z0-9._-]", "_") + "_"
+                + new SimpleDateFormat(DATE_FORMAT).format(new Date());
+            Path directory = Paths.get(ConfigurationManager.getInstance().getReportsDirectory(),
+                VIDEO_SUBDIRECTORY, directoryName);
+            writeSegments(segments, directory);
+            logger.info("Failure video written: {} ({} segments)", directory, segments.size());
+            return directory;
+        } catch (Exception e) {
+            logger.warn("Failed to write failure video: {}", e.getMessage());
+            return null;
+        } finally {
+            recorder.ring.clear();
+        }
+    }
+
+    /**
+     * Stops recording and drops the buffered video, for tests that did not fail
+     */
+    public static void discard() {
+        ScreenRecorder recorder = current.get();
+        current.remove();
+        if (recorder != null) {
+            try {
+                recorder.stop(false);
+            } catch (Exception e) {
+                logger.debug("Screen recording already gone: {}", e.getMessage());
+            }
+            recorder.ring.clear();
+        }
+    }
+
+    // ==================== SEGMENTS ====================
+
+    /**
+     * Runs on the video recorder thread: closes the current segment and starts the next
+     */
+    private synchronized void rotate() {
+        if (!running) {
+            return;
+        }
+        try {
+            long end = System.currentTimeMillis();
+            String video = driver.stopRecordingScreen();
+            driver.startRecordingScreen(options);
+            long start = segmentStart;
+            segmentStart = System.currentTimeMillis();
+            add(start, end, video);
+        } catch (Exception e) {
+            logger.debug("Screen recording segment lost: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the recording, keeping the last segment only when it is needed
+     */
+    private void stop(boolean keepLastSegment) {
+        if (rotation != null) {
+            rotation.cancel(false);
+        }
+        synchronized (this) {
+            running = false;
+            String video = driver.stopRecordingScreen();
+            if (keepLastSegment) {
+                add(segmentStart, System.currentTimeMillis(), video);
+            }
+        }
+    }
+
+    private void add(long startMillis, long endMillis, String base64Video) {
+        if (base64Video != null && !base64Video.isEmpty()) {
+            ring.add(new SegmentRing.Segment(startMillis, endMillis, Base64.getMimeDecoder().decode(base64Video)));
+        }
+    }
+
+    /**
+     * Writes the segments as numbered MP4 files; each one plays on its own
+     */
+    static void writeSegments(List<SegmentRing.Segment> segments, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            Files.write(directory.resolve(String.format("segment-%02d.mp4", i + 1)), segments.get(i).getData());
+        }
+    }
+}
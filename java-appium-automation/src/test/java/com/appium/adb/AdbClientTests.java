@@ -0,0 +1,107 @@
+package com.appium.adb;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AdbClient Test Suite
+ * Verifies the ADB socket protocol against a local fake ADB server
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AdbClientTests {
+
+    private static final String SERIAL = "FAKE0001";
+
+    private FakeAdbServer server;
+    private AdbClient client;
+
+    @BeforeClass(alwaysRun = true)
+    public void startServer() throws Exception {
+        server = new FakeAdbServer().withDevice(SERIAL, command -> {
+            if (command.startsWith("am force-stop ")) {
+                return "";
+            }
+            if (command.startsWith("echo ")) {
+                return command.substring(5) + "\n";
+            }
+            if (command.equals("logcat -d")) {
+                return "line one\nline two\nline three\n";
+            }
+            if (command.startsWith("sleep ")) {
+                return "";
+            }
+            return null;
+        });
+        client = new AdbClient("127.0.0.1", server.getPort(), 4, Duration.ofSeconds(5));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test(description = "Verify shell output and exit code are returned")
+    public void testShellReturnsOutputAndExitCode() {
+        AdbShellResult result = client.shell(SERIAL, "echo hello");
+
+        Assert.assertTrue(result.isSuccess(), "Command should succeed: " + result);
+        Assert.assertEquals(result.getOutput(), "hello\n");
+    }
+
+    @Test(description = "Verify non-zero exit codes are surfaced")
+    public void testUnknownCommandReportsFailure() {
+        AdbShellResult result = client.shell(SERIAL, "does-not-exist");
+
+        Assert.assertEquals(result.getExitCode(), 127);
+        Assert.assertFalse(result.isSuccess());
+    }
+
+    @Test(description = "Verify output is streamed line by line")
+    public void testStreamingOutput() {
+        List<String> lines = new ArrayList<>();
+        int exitCode = client.shellStreaming(SERIAL, "logcat -d", Duration.ofSeconds(5), lines::add);
+
+        Assert.assertEquals(exitCode, 0);
+        Assert.assertEquals(lines, List.of("line one", "line two", "line three"));
+    }
+
+    @Test(description = "Verify unknown devices raise AdbException")
+    public void testUnknownDeviceFails() {
+        Assert.expectThrows(AdbException.class, () -> client.shell("MISSING", "echo hi"));
+    }
+
+    @Test(description = "Verify commands exceeding their deadline time out")
+    public void testCommandTimeout() {
+        long start = System.currentTimeMillis();
+        Assert.expectThrows(AdbException.class, () -> client.shell(SERIAL, "sleep 3", Duration.ofMillis(500)));
+        Assert.assertTrue(System.currentTimeMillis() - start < 2500, "Timeout should not wait for the command");
+    }
+
+    @Test(description = "Verify concurrent commands share the per-device pool")
+    public void testConcurrentCommands() {
+        List<CompletableFuture<AdbShellResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(client.shellAsync(SERIAL, "echo task" + i, Duration.ofSeconds(5)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals(futures.get(i).join().getOutput(), "task" + i + "\n");
+        }
+        Assert.assertTrue(server.getMaxConcurrentShells() <= 4, "Pool limit should bound concurrent shells");
+    }
+
+    @Test(description = "Verify device listing uses the host service")
+    public void testListDevices() {
+        Assert.assertEquals(client.listDevices(), List.of(SERIAL + "\tdevice"));
+        Assert.assertTrue(client.isServerAvailable());
+    }
+}
@@ -0,0 +1,137 @@
+package com.appium.adb;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * AppStateManager Test Suite
+ * Verifies snapshot capture and restore commands against the fake ADB server
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AppStateManagerTests {
+
+    private static final String DEBUGGABLE = "DEBUG0001";
+    private static final String LOCKED = "LOCKED0001";
+    private static final String PACKAGE = "com.google.android.apps.nbu.files";
+
+    private static final String DUMPSYS = "Packages:\n"
+        + "  Package [" + PACKAGE + "] (1a2b3c):\n"
+        + "    install permissions:\n"
+        + "      android.permission.INTERNET: granted=true\n"
+        + "    User 0: ceDataInode=1 installed=true\n"
+        + "      runtime permissions:\n"
+        + "        android.permission.READ_EXTERNAL_STORAGE: granted=true, flags=[ USER_SET ]\n"
+        + "        android.permission.POST_NOTIFICATIONS: granted=false, flags=[ USER_SET ]\n"
+        + "        android.permission.WRITE_EXTERNAL_STORAGE: granted=true, flags=[ USER_SET ]\n"
+        + "    Queries:\n";
+
+    private final List<String> commands = new CopyOnWriteArrayList<>();
+    private volatile boolean failExtract;
+    private FakeAdbServer server;
+    private AdbClient client;
+    private AppStateManager manager;
+
+    @BeforeClass(alwaysRun = true)
+    public void startServer() throws Exception {
+        server = new FakeAdbServer()
+            .withDevice(DEBUGGABLE, command -> respond(command, true))
+            .withDevice(LOCKED, command -> respond(command, false));
+        client = new AdbClient("127.0.0.1", server.getPort(), 2, Duration.ofSeconds(5));
+        manager = new AppStateManager(client, "/data/local/tmp/appstate", Duration.ofSeconds(5));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetState() {
+        commands.clear();
+        failExtract = false;
+        AppStateManager.resetTestState();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test(description = "Verify capture archives app data via run-as and records granted permissions")
+    public void testCaptureWithRunAs() {
+        AppStateSnapshot snapshot = manager.capture(DEBUGGABLE, PACKAGE);
+
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(snapshot.getStrategy(), AppStateSnapshot.Strategy.RUN_AS);
+        Assert.assertEquals(snapshot.getGrantedPermissions(), List.of(
+            "android.permission.READ_EXTERNAL_STORAGE", "android.permission.WRITE_EXTERNAL_STORAGE"));
+        Assert.assertEquals(commands.get(0), "am force-stop " + PACKAGE, "App must be stopped before archiving");
+        Assert.assertTrue(commands.stream().anyMatch(c -> c.contains("run-as " + PACKAGE + " tar -cf -")));
+    }
+
+    @Test(description = "Verify restore extracts data, re-grants permissions and flags the test",
+          dependsOnMethods = "testCaptureWithRunAs")
+    public void testRestore() {
+        Assert.assertTrue(manager.restore(DEBUGGABLE, PACKAGE));
+
+        Assert.assertTrue(AppStateManager.isStateRestored());
+        Assert.assertTrue(commands.stream().anyMatch(c -> c.contains("| run-as " + PACKAGE + " tar -xf -")));
+        Assert.assertTrue(commands.contains("pm grant " + PACKAGE + " android.permission.READ_EXTERNAL_STORAGE"));
+        Assert.assertTrue(manager.getRestoreCount() >= 1);
+    }
+
+    @Test(description = "Verify a failed restore drops the snapshot and reports fallback",
+          dependsOnMethods = "testRestore")
+    public void testFailedRestoreFallsBack() {
+        failExtract = true;
+
+        Assert.assertFalse(manager.restore(DEBUGGABLE, PACKAGE));
+        Assert.assertFalse(AppStateManager.isStateRestored());
+        Assert.assertFalse(manager.hasSnapshot(DEBUGGABLE, PACKAGE), "Broken snapshot should be dropped");
+        Assert.assertEquals(manager.getRestoreFailureCount(), 1L);
+    }
+
+    @Test(description = "Verify locked-down apps fall back to permission-only snapshots that leave onboarding to the UI")
+    public void testPermissionsOnlySnapshot() {
+        AppStateSnapshot snapshot = manager.capture(LOCKED, PACKAGE);
+
+        Assert.assertEquals(snapshot.getStrategy(), AppStateSnapshot.Strategy.PERMISSIONS_ONLY);
+        Assert.assertNull(snapshot.getArchivePath());
+        Assert.assertTrue(manager.restore(LOCKED, PACKAGE));
+        Assert.assertTrue(commands.stream().noneMatch(c -> c.contains("tar ")), "No archive should be touched");
+        Assert.assertFalse(AppStateManager.isStateRestored(), "Onboarding dialogs must still be handled");
+    }
+
+    @Test(description = "Verify restore without a snapshot asks for the UI flow")
+    public void testRestoreWithoutSnapshot() {
+        Assert.assertFalse(manager.restore(DEBUGGABLE, "com.example.unknown"));
+    }
+
+    private String respond(String command, boolean debuggable) {
+        commands.add(command);
+        if (command.startsWith("am force-stop") || command.startsWith("pm grant")) {
+            return "";
+        }
+        if (command.startsWith("dumpsys package")) {
+            return DUMPSYS;
+        }
+        if (command.startsWith("run-as ") && command.endsWith(" id")) {
+            return debuggable ? "uid=10123(u0_a123)\n" : null;
+        }
+        if (command.startsWith("su ")) {
+            return null;
+        }
+        if (command.contains("tar -cf")) {
+            return "";
+        }
+        if (command.contains("tar -xf")) {
+            return failExtract ? null : "";
+        }
+        return null;
+    }
+}
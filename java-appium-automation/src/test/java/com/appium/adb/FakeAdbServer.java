@@ -0,0 +1,184 @@
+package com.appium.adb;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * FakeAdbServer - Minimal local ADB server implementing host:version, host:devices,
+ * host:transport and shell: so AdbClient can be tested without a device
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+class FakeAdbServer implements AutoCloseable {
+
+    private static final String EXIT_SUFFIX = "; echo __ADB_EXIT__$?";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Function<String, String>> devices = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger activeShells = new AtomicInteger();
+    private final AtomicInteger maxConcurrentShells = new AtomicInteger();
+
+    FakeAdbServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::acceptLoop);
+    }
+
+    /**
+     * Registers a device whose shell answers commands with the given handler
+     * A handler result of null means "command not found" (exit code 127);
+     * the command "sleep N" blocks for N seconds before answering
+     */
+    FakeAdbServer withDevice(String serial, Function<String, String> shellHandler) {
+        devices.put(serial, shellHandler);
+        return this;
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    int getMaxConcurrentShells() {
+        return maxConcurrentShells.get();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                executor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket) {
+            DataInputStream in = new DataInputStream(s.getInputStream());
+            OutputStream out = s.getOutputStream();
+            String serial = null;
+
+            while (true) {
+                String request = readRequest(in);
+                if (request == null) {
+                    return;
+                }
+                if (request.equals("host:version")) {
+                    writeOkay(out, "0029");
+                    return;
+                } else if (request.equals("host:devices")) {
+                    StringBuilder list = new StringBuilder();
+                    devices.keySet().forEach(d -> list.append(d).append("\tdevice\n"));
+                    writeOkay(out, list.toString());
+                    return;
+                } else if (request.startsWith("host:transport:")) {
+                    serial = request.substring("host:transport:".length());
+                    if (!devices.containsKey(serial)) {
+                        writeFail(out, "device '" + serial + "' not found");
+                        return;
+                    }
+                    out.write("OKAY".getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                } else if (request.equals("host:transport-any")) {
+                    if (devices.size() != 1) {
+                        writeFail(out, "more than one device/emulator");
+                        return;
+                    }
+                    serial = devices.keySet().iterator().next();
+                    out.write("OKAY".getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                } else if (request.startsWith("shell:") && serial != null) {
+                    runShell(out, devices.get(serial), request.substring("shell:".length()));
+                    return;
+                } else {
+                    writeFail(out, "unknown request: " + request);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private void runShell(OutputStream out, Function<String, String> handler, String command) throws IOException {
+        int active = activeShells.incrementAndGet();
+        maxConcurrentShells.accumulateAndGet(active, Math::max);
+        try {
+            out.write("OKAY".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            String bareCommand = command.endsWith(EXIT_SUFFIX)
+                ? command.substring(0, command.length() - EXIT_SUFFIX.length()) : command;
+
+            if (bareCommand.startsWith("sleep ")) {
+                try {
+                    Thread.sleep(Long.parseLong(bareCommand.substring(6).trim()) * 1000L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            String output = handler.apply(bareCommand);
+            int exitCode = output == null ? 127 : 0;
+            StringBuilder response = new StringBuilder(output == null ? "/system/bin/sh: not found\n" : output);
+            if (command.endsWith(EXIT_SUFFIX)) {
+                response.append("__ADB_EXIT__").append(exitCode).append('\n');
+            }
+            out.write(response.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } finally {
+            activeShells.decrementAndGet();
+        }
+    }
+
+    private String readRequest(DataInputStream in) throws IOException {
+        byte[] header = new byte[4];
+        try {
+            in.readFully(header);
+        } catch (IOException e) {
+            return null;
+        }
+        byte[] payload = new byte[Integer.parseInt(new String(header, StandardCharsets.US_ASCII), 16)];
+        in.readFully(payload);
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    private void writeOkay(OutputStream out, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        out.write(("OKAY" + String.format("%04x", bytes.length)).getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.flush();
+    }
+
+    private void writeFail(OutputStream out, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        out.write(("FAIL" + String.format("%04x", bytes.length)).getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}
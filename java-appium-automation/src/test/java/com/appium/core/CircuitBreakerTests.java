@@ -0,0 +1,99 @@
+package com.appium.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit Breaker Test Suite
+ * Verifies tripping, refusing, half-open probing and recovery of driver creation
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class CircuitBreakerTests {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @AfterMethod(alwaysRun = true)
+    public void resetBreakers() {
+        CircuitBreaker.reset();
+    }
+
+    @Test(description = "The breaker opens after the configured consecutive failures")
+    public void testTrip() {
+        CircuitBreaker breaker = newBreaker();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Assert.assertTrue(breaker.tryAcquire());
+            breaker.recordFailure(new RuntimeException("Driver initialization failed"));
+        }
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+
+        Assert.assertTrue(breaker.tryAcquire());
+        breaker.recordFailure(new RuntimeException("Driver initialization failed",
+            new IllegalStateException("session not created")));
+
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        Assert.assertFalse(breaker.tryAcquire());
+        Assert.assertTrue(breaker.describeOpen().contains("3 consecutive"));
+    }
+
+    @Test(description = "A success in between resets the failure count")
+    public void testSuccessResets() {
+        CircuitBreaker breaker = newBreaker();
+        breaker.recordFailure(new RuntimeException("first"));
+        breaker.recordFailure(new RuntimeException("second"));
+        breaker.recordSuccess();
+        breaker.recordFailure(new RuntimeException("third"));
+
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test(description = "After the open period one probe goes through and closes the breaker on success")
+    public void testHalfOpenRecovery() {
+        CircuitBreaker breaker = trippedBreaker();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        Assert.assertFalse(breaker.tryAcquire());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assert.assertTrue(breaker.tryAcquire());
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        // Only one probe at a time
+        Assert.assertFalse(breaker.tryAcquire());
+
+        breaker.recordSuccess();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED);
+        Assert.assertTrue(breaker.tryAcquire());
+    }
+
+    @Test(description = "A failed probe opens the breaker for another period")
+    public void testFailedProbe() {
+        CircuitBreaker breaker = trippedBreaker();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        Assert.assertTrue(breaker.tryAcquire());
+
+        breaker.recordFailure(new RuntimeException("still down"));
+
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        Assert.assertFalse(breaker.tryAcquire());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assert.assertTrue(breaker.tryAcquire());
+    }
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker("emulator-5554", 3, TimeUnit.SECONDS.toMillis(30), clock::get);
+    }
+
+    private CircuitBreaker trippedBreaker() {
+        CircuitBreaker breaker = newBreaker();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            breaker.recordFailure(new RuntimeException("Driver initialization failed"));
+        }
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+}
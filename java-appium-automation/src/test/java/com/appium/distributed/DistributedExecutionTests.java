@@ -0,0 +1,197 @@
+package com.appium.distributed;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributed Execution Test Suite
+ * Verifies work stealing, re-queueing of crashed and late workers, and whole runs of a
+ * coordinator with worker threads and worker processes
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class DistributedExecutionTests {
+
+    private static final String CALCULATOR = "com.appium.tests.CalculatorTests";
+    private static final String DOCS = "com.appium.tests.GoogleDocsTests";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test(description = "Workers take whole classes, then steal from the busiest worker")
+    public void testWorkStealing() {
+        WorkQueue queue = new WorkQueue(List.of(unit(CALCULATOR, "testAddition"), unit(CALCULATOR, "testSubtraction"),
+            unit(CALCULATOR, "testMultiplication"), unit(DOCS, "testGoogleDocsPageLoad")), 10000, 60000, 2, clock::get);
+
+        Assert.assertEquals(lease(queue, "worker-1").getUnit().getId(), CALCULATOR + "#testAddition");
+        Assert.assertEquals(lease(queue, "worker-2").getUnit().getId(), DOCS + "#testGoogleDocsPageLoad");
+        Assert.assertEquals(lease(queue, "worker-2").getUnit().getId(), CALCULATOR + "#testMultiplication");
+        Assert.assertEquals(lease(queue, "worker-1").getUnit().getId(), CALCULATOR + "#testSubtraction");
+        Assert.assertNull(queue.lease("worker-1"));
+        Assert.assertFalse(queue.isDone());
+
+        Assert.assertEquals(queue.getWorkerStats().get("worker-2").getStolen(), 1);
+        Assert.assertEquals(queue.getWorkerStats().get("worker-1").getLeased(), 2);
+    }
+
+    @Test(description = "Units of a worker without heartbeats go to another worker, its late results are refused")
+    public void testCrashedWorkerRequeued() {
+        WorkQueue queue = new WorkQueue(List.of(unit(CALCULATOR, "testAddition"), unit(CALCULATOR, "testSubtraction")),
+            10000, 60000, 2, clock::get);
+        WorkQueue.Lease crashed = queue.lease("worker-1");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        queue.heartbeat("worker-2");
+        Assert.assertTrue(queue.isCurrent("worker-1", crashed.getUnit().getId(), 1));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        WorkQueue.Lease retry = queue.lease("worker-2");
+        Assert.assertEquals(retry.getUnit().getId(), crashed.getUnit().getId());
+        Assert.assertEquals(retry.getAttempt(), 2);
+        Assert.assertFalse(queue.complete("worker-1", crashed.getUnit().getId(), 1));
+        Assert.assertTrue(queue.complete("worker-2", retry.getUnit().getId(), 2));
+        // The unit waiting in the crashed worker's deque is not lost either
+        WorkQueue.Lease waiting = queue.lease("worker-2");
+        Assert.assertEquals(waiting.getUnit().getId(), CALCULATOR + "#testSubtraction");
+        Assert.assertTrue(queue.complete("worker-2", waiting.getUnit().getId(), 1));
+        Assert.assertTrue(queue.isDone());
+        Assert.assertEquals(queue.getWorkerStats().get("worker-1").getExpired(), 1);
+    }
+
+    @Test(description = "A unit that overruns every attempt is given up")
+    public void testLateUnitAbandoned() {
+        WorkQueue queue = new WorkQueue(List.of(unit(DOCS, "testGoogleDocsPageLoad", "testCreateNewDocument")),
+            10000, 60000, 2, clock::get);
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            Assert.assertEquals(lease(queue, "worker-1").getAttempt(), attempt);
+            for (int second = 0; second < 61; second += 5) {
+                clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+                queue.heartbeat("worker-1");
+            }
+        }
+
+        Assert.assertTrue(queue.isDone());
+        Assert.assertEquals(queue.getAbandoned().size(), 1);
+        Assert.assertNull(queue.lease("worker-1"));
+    }
+
+    @Test(description = "Methods linked by dependsOnMethods form one unit")
+    public void testSplitDependentMethods() {
+        List<WorkUnit> units = WorkUnit.split(DOCS, List.of("testGoogleDocsPageLoad", "testCreateNewDocument", "testSearch"),
+            Map.of("testCreateNewDocument", List.of("testGoogleDocsPageLoad")), Map.of("deviceName", "Android_Device"));
+
+        Assert.assertEquals(units.size(), 2);
+        Assert.assertEquals(units.get(0).getMethods(), List.of("testGoogleDocsPageLoad", "testCreateNewDocument"));
+        WorkUnit.Leased decoded = decode(units.get(0).encode(3));
+        Assert.assertEquals(decoded.getUnit().getId(), units.get(0).getId());
+        Assert.assertEquals(decoded.getUnit().getParameters(), Map.of("deviceName", "Android_Device"));
+        Assert.assertEquals(decoded.getAttempt(), 3);
+    }
+
+    @Test(description = "Worker threads finish a run over HTTP although one worker crashes holding a unit")
+    public void testRunWithCrashingWorker() throws Exception {
+        WorkQueue queue = new WorkQueue(units(6), 1000, 60000, 3, System::nanoTime);
+        try (Coordinator coordinator = new Coordinator(queue)) {
+            String url = "http://127.0.0.1:" + coordinator.start("127.0.0.1", 0);
+            WorkUnit.Leased lost = new WorkerClient(url, "crashed").lease().getLeased();
+            Assert.assertNotNull(lost);
+
+            List<Thread> threads = new ArrayList<>();
+            for (String id : List.of("worker-1", "worker-2")) {
+                Worker worker = new Worker(new WorkerClient(url, id), Worker::dryRun, 200, 100);
+                Thread thread = new Thread(() -> {
+                    try {
+                        worker.run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, id);
+                thread.start();
+                threads.add(thread);
+            }
+            Assert.assertTrue(coordinator.awaitCompletion(20000));
+            for (Thread thread : threads) {
+                thread.join(5000);
+            }
+
+            Assert.assertEquals(coordinator.getOutcomes().size(), 6);
+            Assert.assertTrue(coordinator.isSuccessful());
+            Coordinator.Outcome retried = coordinator.getOutcomes().get(lost.getUnit().getClassName() + "."
+                + lost.getUnit().getMethods().get(0));
+            Assert.assertEquals(retried.getAttempt(), 2);
+            Assert.assertFalse(new WorkerClient(url, "crashed").complete(lost));
+            Assert.assertEquals(queue.getWorkerStats().get("crashed").getExpired(), 1);
+        }
+    }
+
+    @Test(description = "Worker processes on this machine pull and finish every unit")
+    public void testRunWithWorkerProcesses() throws Exception {
+        Path directory = Files.createTempDirectory("workers");
+        WorkQueue queue = new WorkQueue(units(8), 10000, 60000, 2, System::nanoTime);
+        List<Process> processes = new ArrayList<>();
+        try (Coordinator coordinator = new Coordinator(queue)) {
+            String url = "http://127.0.0.1:" + coordinator.start("127.0.0.1", 0);
+            for (int index = 1; index <= 2; index++) {
+                processes.add(Worker.start(url, "worker-" + index, directory.resolve("worker-" + index),
+                    Map.of("distributed.worker.dry.run", "true")));
+            }
+            Assert.assertTrue(coordinator.awaitCompletion(60000), "workers did not finish");
+            for (Process process : processes) {
+                Assert.assertTrue(process.waitFor(30, TimeUnit.SECONDS));
+                Assert.assertEquals(process.exitValue(), 0, log(directory));
+            }
+
+            Assert.assertEquals(coordinator.getOutcomes().size(), 8);
+            Assert.assertTrue(coordinator.isSuccessful());
+            Assert.assertEquals(queue.getWorkerStats().values().stream().mapToInt(WorkQueue.WorkerStats::getCompleted).sum(), 8);
+        } finally {
+            processes.forEach(Process::destroyForcibly);
+        }
+    }
+
+    private static WorkUnit unit(String className, String... methods) {
+        return new WorkUnit(className, List.of(methods), Map.of());
+    }
+
+    private static List<WorkUnit> units(int count) {
+        List<WorkUnit> units = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            units.add(unit(index % 2 == 0 ? CALCULATOR : DOCS, "test" + index));
+        }
+        return units;
+    }
+
+    private static WorkQueue.Lease lease(WorkQueue queue, String worker) {
+        WorkQueue.Lease lease = queue.lease(worker);
+        Assert.assertNotNull(lease, "no unit for " + worker);
+        return lease;
+    }
+
+    private static WorkUnit.Leased decode(String encoded) {
+        try {
+            return WorkUnit.decode(encoded);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String log(Path directory) throws IOException {
+        StringBuilder log = new StringBuilder();
+        for (int index = 1; index <= 2; index++) {
+            Path file = directory.resolve("worker-" + index).resolve("worker.log");
+            if (Files.exists(file)) {
+                log.append(new String(Files.readAllBytes(file)));
+            }
+        }
+        return log.toString();
+    }
+}
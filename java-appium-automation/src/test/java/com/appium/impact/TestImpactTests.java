@@ -0,0 +1,137 @@
+package com.appium.impact;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test Impact Test Suite
+ * Verifies the binary dependency index and the selection of tests affected by a diff
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class TestImpactTests {
+
+    private static final String DOCS_TEST = "com.appium.tests.GoogleDocsTests.testCreateNewDocument";
+    private static final String CALCULATOR_TEST = "com.appium.tests.CalculatorTests.testNumberInput";
+
+    private Path indexFile;
+
+    @AfterMethod(alwaysRun = true)
+    public void cleanUp() throws IOException {
+        TestImpactIndex.endTest();
+        TestImpactIndex.reset();
+        if (indexFile != null) {
+            Files.deleteIfExists(indexFile);
+            indexFile = null;
+        }
+    }
+
+    @Test(description = "The index survives a save and load unchanged")
+    public void testIndexRoundTrip() throws IOException {
+        indexFile = Files.createTempFile("impact", ".idx");
+        Map<String, TestImpactIndex.Dependencies> index = sampleIndex();
+
+        TestImpactIndex.save(indexFile, index);
+        Map<String, TestImpactIndex.Dependencies> loaded = TestImpactIndex.load(indexFile);
+
+        Assert.assertEquals(loaded.keySet(), index.keySet());
+        Assert.assertEquals(loaded.get(DOCS_TEST).getPages(), Set.of("BasePage", "GoogleDocsPage"));
+        Assert.assertEquals(loaded.get(DOCS_TEST).getLocators(),
+            Set.of("id=com.google.android.apps.docs.editors.docs:id/new_doc_fab", "xpath=//*[@text='Blank']"));
+
+        // A test with known pages and locators costs its id plus a few varints
+        long size = Files.size(indexFile);
+        String sameDependencies = "com.appium.tests.GoogleDocsTests.testDocumentsVisibility";
+        index.put(sameDependencies, index.get(DOCS_TEST));
+        TestImpactIndex.save(indexFile, index);
+        Assert.assertTrue(Files.size(indexFile) - size <= sameDependencies.length() + 8,
+            "Index grew by " + (Files.size(indexFile) - size));
+    }
+
+    @Test(description = "Lookups are recorded only for the test running on the thread")
+    public void testRecording() {
+        TestImpactIndex.recordFind("id", "ignored");
+        Assert.assertTrue(TestImpactIndex.getObserved().isEmpty());
+
+        TestImpactIndex.startTest("com.appium.tests.FilesTests", "testFilesPageLoad");
+        TestImpactIndex.recordFind("accessibility id", "Search");
+        TestImpactIndex.endTest();
+        TestImpactIndex.recordFind("id", "after");
+
+        Assert.assertEquals(TestImpactIndex.getObserved().get("com.appium.tests.FilesTests.testFilesPageLoad").getLocators(),
+            Set.of("accessibility id=Search"));
+    }
+
+    @Test(description = "A changed locator selects only the tests using it")
+    public void testLocatorChange() {
+        String diff = "diff --git a/java-appium-automation/src/main/java/com/appium/pages/GoogleDocsPage.java "
+            + "b/java-appium-automation/src/main/java/com/appium/pages/GoogleDocsPage.java\n"
+            + "--- a/java-appium-automation/src/main/java/com/appium/pages/GoogleDocsPage.java\n"
+            + "+++ b/java-appium-automation/src/main/java/com/appium/pages/GoogleDocsPage.java\n"
+            + "@@ -30 +30 @@ public class GoogleDocsPage extends BasePage {\n"
+            + "-    @AndroidFindBy(xpath = \"//*[@text='Blank']\")\n"
+            + "+    @AndroidFindBy(xpath = \"//*[@text='Blank document']\")\n"
+            + "diff --git a/README.md b/README.md\n"
+            + "--- a/README.md\n"
+            + "+++ b/README.md\n"
+            + "@@ -1 +1 @@\n"
+            + "-# Old\n"
+            + "+# New\n";
+        ImpactAnalysis analysis = new ImpactAnalysis(diff, "java-appium-automation/");
+        Map<String, TestImpactIndex.Dependencies> index = sampleIndex();
+
+        Assert.assertFalse(analysis.isFullRun());
+        Assert.assertEquals(analysis.reason("com.appium.tests.GoogleDocsTests", DOCS_TEST, index.get(DOCS_TEST)),
+            "GoogleDocsPage locator xpath=//*[@text='Blank']");
+        Assert.assertNull(analysis.reason("com.appium.tests.GoogleDocsTests",
+            "com.appium.tests.GoogleDocsTests.testNavigateToRecent", index.get("com.appium.tests.GoogleDocsTests.testNavigateToRecent")));
+        Assert.assertNull(analysis.reason("com.appium.tests.CalculatorTests", CALCULATOR_TEST, index.get(CALCULATOR_TEST)));
+        Assert.assertEquals(analysis.reason("com.appium.tests.FilesTests", "com.appium.tests.FilesTests.testNew", null),
+            "not indexed");
+    }
+
+    @Test(description = "Page logic, test class and framework changes widen the selection")
+    public void testWiderChanges() {
+        String pageLogic = "--- a/src/main/java/com/appium/pages/BasePage.java\n"
+            + "+++ b/src/main/java/com/appium/pages/BasePage.java\n"
+            + "@@ -80 +80 @@\n"
+            + "+        logger.info(\"Clicking element\");\n"
+            + "--- a/src/test/java/com/appium/tests/CalculatorTests.java\n"
+            + "+++ b/src/test/java/com/appium/tests/CalculatorTests.java\n"
+            + "@@ -12 +12 @@\n"
+            + "+    // comment\n";
+        ImpactAnalysis analysis = new ImpactAnalysis(pageLogic, "");
+        Map<String, TestImpactIndex.Dependencies> index = sampleIndex();
+
+        Assert.assertEquals(analysis.getChangedTestClasses(), Set.of("com.appium.tests.CalculatorTests"));
+        Assert.assertEquals(analysis.reason("com.appium.tests.GoogleDocsTests", DOCS_TEST, index.get(DOCS_TEST)),
+            "BasePage changed");
+        Assert.assertEquals(analysis.reason("com.appium.tests.CalculatorTests", CALCULATOR_TEST, index.get(CALCULATOR_TEST)),
+            "test class changed");
+
+        ImpactAnalysis framework = new ImpactAnalysis("--- a/src/main/java/com/appium/core/DriverFactory.java\n"
+            + "+++ b/src/main/java/com/appium/core/DriverFactory.java\n+x\n", "");
+        Assert.assertTrue(framework.isFullRun());
+        Assert.assertNotNull(framework.reason("com.appium.tests.CalculatorTests", CALCULATOR_TEST, index.get(CALCULATOR_TEST)));
+    }
+
+    private static Map<String, TestImpactIndex.Dependencies> sampleIndex() {
+        Map<String, TestImpactIndex.Dependencies> index = new LinkedHashMap<>();
+        index.put(DOCS_TEST, new TestImpactIndex.Dependencies(Set.of("BasePage", "GoogleDocsPage"),
+            Set.of("id=com.google.android.apps.docs.editors.docs:id/new_doc_fab", "xpath=//*[@text='Blank']")));
+        index.put("com.appium.tests.GoogleDocsTests.testNavigateToRecent", new TestImpactIndex.Dependencies(
+            Set.of("BasePage", "GoogleDocsPage"), Set.of("accessibility id=Recent")));
+        index.put(CALCULATOR_TEST, new TestImpactIndex.Dependencies(Set.of("BasePage", "CalculatorPage"),
+            Set.of("id=com.google.android.calculator:id/digit_7")));
+        return index;
+    }
+}
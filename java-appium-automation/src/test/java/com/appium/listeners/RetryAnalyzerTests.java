@@ -0,0 +1,98 @@
+package com.appium.listeners;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+import java.util.List;
+
+/**
+ * Retry Analyzer Test Suite
+ * Verifies failure classification and that only infrastructure failures are retried
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class RetryAnalyzerTests {
+
+    @BeforeMethod(alwaysRun = true)
+    @AfterMethod(alwaysRun = true)
+    public void resetRetries() {
+        RetryAnalyzer.reset();
+    }
+
+    @Test(description = "Failures are classified by the whole cause chain")
+    public void testClassification() {
+        Assert.assertEquals(FailureClassifier.classify(
+            new NoSuchSessionException("A session is either terminated or not started")),
+            FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(FailureClassifier.classify(new WebDriverException("An unknown server-side error occurred "
+            + "while processing the command. Original error: instrumentation process is not running (probably crashed)")),
+            FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalStateException("wrapped",
+            new TimeoutException("command", new ConnectException("Connection refused")))),
+            FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("Expected condition failed")),
+            FailureClassifier.Category.TIMEOUT);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("Expected condition failed",
+            new NoSuchElementException("id=com.google.android.calculator:id/digit_7"))),
+            FailureClassifier.Category.ELEMENT_NOT_FOUND);
+        Assert.assertEquals(FailureClassifier.classify(new AssertionError("expected [12] but found [11]")),
+            FailureClassifier.Category.ASSERTION);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalArgumentException("bad data")),
+            FailureClassifier.Category.OTHER);
+        Assert.assertEquals(FailureClassifier.classify(null), FailureClassifier.Category.OTHER);
+    }
+
+    @Test(description = "Infrastructure failures are retried up to the retry count, product failures never")
+    public void testRetriesInfrastructureFailuresOnly() {
+        RetryAnalyzer analyzer = new RetryAnalyzer(2, true);
+
+        Assert.assertFalse(analyzer.retry("CalculatorTests.testNumberInput",
+            FailureClassifier.Category.ASSERTION, new AssertionError("wrong result")));
+        Assert.assertTrue(analyzer.retry("CalculatorTests.testNumberInput",
+            FailureClassifier.Category.DRIVER_CRASH, new NoSuchSessionException("invalid session id")));
+        Assert.assertTrue(analyzer.retry("CalculatorTests.testNumberInput",
+            FailureClassifier.Category.TIMEOUT, new TimeoutException("waiting for result")));
+        Assert.assertFalse(analyzer.retry("CalculatorTests.testNumberInput",
+            FailureClassifier.Category.TIMEOUT, new TimeoutException("waiting for result")));
+
+        List<RetryAnalyzer.Retry> retries = RetryAnalyzer.getRetries();
+        Assert.assertEquals(retries.size(), 2);
+        Assert.assertEquals(retries.get(0).getAttempt(), 1);
+        Assert.assertEquals(retries.get(0).getCategory(), FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(retries.get(1).getMessage(), "TimeoutException: waiting for result");
+        Assert.assertEquals(RetryAnalyzer.getRetryCount("CalculatorTests.testNumberInput"), 2);
+    }
+
+    @Test(description = "With execution.retry.failed.only=false every failure is retried")
+    public void testRetryAllFailures() {
+        RetryAnalyzer analyzer = new RetryAnalyzer(1, false);
+
+        Assert.assertTrue(analyzer.retry("CalculatorTests.testCalculatorPageLoad",
+            FailureClassifier.Category.ASSERTION, new AssertionError("wrong result")));
+        Assert.assertFalse(analyzer.retry("CalculatorTests.testCalculatorPageLoad",
+            FailureClassifier.Category.ASSERTION, new AssertionError("wrong result")));
+        Assert.assertFalse(new RetryAnalyzer(0, false).retry("GoogleDocsTests.testCreateNewDocument",
+            FailureClassifier.Category.DRIVER_CRASH, null));
+    }
+
+    @Test(description = "Final results are kept only for tests that were retried")
+    public void testFinalResults() {
+        new RetryAnalyzer(1, true).retry("GoogleDocsTests.testCreateNewDocument",
+            FailureClassifier.Category.DRIVER_CRASH, null);
+
+        RetryAnalyzer.recordFinalResult("GoogleDocsTests.testCreateNewDocument", "PASSED");
+        RetryAnalyzer.recordFinalResult("CalculatorTests.testCalculatorPageLoad", "FAILED");
+
+        Assert.assertEquals(RetryAnalyzer.getRetryCount("GoogleDocsTests.testCreateNewDocument"), 1);
+        Assert.assertEquals(RetryAnalyzer.getRetryCount("CalculatorTests.testCalculatorPageLoad"), 0);
+        RetryAnalyzer.publish();
+    }
+}
@@ -0,0 +1,85 @@
+package com.appium.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.appium.utils.ReportManager;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy Logging Test Suite
+ * Verifies that log arguments are only built for enabled levels and that page elements
+ * are described from their locators without calling the element
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class LazyLoggingTests {
+
+    /**
+     * Page with elements that fail on any call, as an unresolvable PageFactory proxy would
+     */
+    private static final class Page {
+        @AndroidFindBy(id = "com.google.android.calculator:id/eq")
+        private final WebElement equalsButton = untouchable();
+
+        @AndroidFindBy(accessibility = "equals")
+        @FindBy(xpath = "//*[@text='=']")
+        private final WebElement equalsText = untouchable();
+
+        private final WebElement undecorated = untouchable();
+    }
+
+    @Test(description = "Elements are described by their locator annotation, without calling them")
+    public void testElementDescriptors() {
+        Page page = new Page();
+        Map<Object, String> descriptions = ElementDescriptors.of(page);
+
+        Assert.assertEquals(descriptions.size(), 2);
+        Assert.assertEquals(descriptions.get(page.equalsButton),
+            "equalsButton [id=com.google.android.calculator:id/eq]");
+        Assert.assertEquals(descriptions.get(page.equalsText),
+            "equalsText [accessibility=equals; xpath=//*[@text='=']]");
+        Assert.assertNull(descriptions.get(page.undecorated), "Field without locator described");
+    }
+
+    @Test(description = "Supplied arguments are only evaluated when the level is enabled")
+    public void testLazyArguments() {
+        Logger logger = new LoggerContext().getLogger("com.appium.pages.CalculatorPage");
+        AtomicInteger evaluations = new AtomicInteger();
+
+        logger.setLevel(Level.INFO);
+        LazyLog.debug(logger, "Clicked element: {}", evaluations::incrementAndGet);
+        LazyLog.debug(logger, "Entered text '{}' into element: {}", "42", evaluations::incrementAndGet);
+        Assert.assertEquals(evaluations.get(), 0, "Argument built for a disabled level");
+        LazyLog.info(logger, "Calculation result: {}", evaluations::incrementAndGet);
+        Assert.assertEquals(evaluations.get(), 1);
+
+        logger.setLevel(Level.DEBUG);
+        LazyLog.debug(logger, "Clicked element: {}", evaluations::incrementAndGet);
+        Assert.assertEquals(evaluations.get(), 2);
+    }
+
+    @Test(description = "Report messages are not built for a thread without a test")
+    public void testReportMessageWithoutTest() {
+        ReportManager.removeTest();
+        AtomicInteger evaluations = new AtomicInteger();
+        ReportManager.logInfo(() -> "Thread: " + evaluations.incrementAndGet());
+        Assert.assertEquals(evaluations.get(), 0);
+    }
+
+    private static WebElement untouchable() {
+        return (WebElement) Proxy.newProxyInstance(WebElement.class.getClassLoader(),
+            new Class<?>[] {WebElement.class}, (proxy, method, args) -> {
+                throw new AssertionError("Element called: " + method.getName());
+            });
+    }
+}
@@ -0,0 +1,127 @@
+package com.appium.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command Latency Test Suite
+ * Verifies histogram accuracy under concurrent recording and the per-suite/per-test output
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class CommandLatencyTests {
+
+    @AfterMethod(alwaysRun = true)
+    public void resetLatencies() {
+        CommandLatency.endTest();
+        CommandLatency.reset();
+    }
+
+    @Test(description = "Buckets are contiguous and values stay within their bucket")
+    public void testBucketBoundaries() {
+        int previous = -1;
+        for (long micros = 0; micros < 200_000; micros++) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            Assert.assertTrue(bucket == previous || bucket == previous + 1, "Bucket gap at " + micros + "µs");
+            Assert.assertTrue(LatencyHistogram.lowerBoundOf(bucket) <= micros, "Lower bound above " + micros + "µs");
+            previous = bucket;
+        }
+    }
+
+    @Test(description = "Percentiles are reported within the histogram's precision")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 100);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 10_000L);
+        Assert.assertEquals(histogram.getMaxMicros(), 1_000_000L);
+        Assert.assertEquals(histogram.getMeanMicros(), 500_050L);
+        assertWithin(histogram.getPercentileMicros(50), 500_000, 0.03);
+        assertWithin(histogram.getPercentileMicros(90), 900_000, 0.03);
+        assertWithin(histogram.getPercentileMicros(99), 990_000, 0.03);
+        Assert.assertEquals(histogram.getPercentileMicros(100), 1_000_000L);
+    }
+
+    @Test(description = "Concurrent recording loses no values")
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i % 5_000);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(histogram.getCount(), 400_000L);
+        Assert.assertEquals(histogram.getMaxMicros(), 4_999L);
+    }
+
+    @Test(description = "Commands are tagged per test and merged per suite")
+    public void testTaggingAndTable() {
+        CommandLatency.startTest("CalculatorTests.testAddition");
+        CommandLatency.record("findElement", "CalculatorPage", "id", TimeUnit.MILLISECONDS.toNanos(4));
+        CommandLatency.record("findElement", "CalculatorPage", "id", TimeUnit.MILLISECONDS.toNanos(6));
+        CommandLatency.startTest("CalculatorTests.testSubtraction");
+        CommandLatency.record("findElement", "CalculatorPage", "id", TimeUnit.MILLISECONDS.toNanos(5));
+        CommandLatency.record("screenshot", "-", "-", TimeUnit.MILLISECONDS.toNanos(80));
+
+        Assert.assertEquals(CommandLatency.snapshot().size(), 3);
+
+        String[][] table = CommandLatency.toTable();
+        Assert.assertEquals(table.length, 3);
+        Assert.assertEquals(table[0][0], "Command");
+        // Largest total first
+        Assert.assertEquals(table[1][0], "screenshot");
+        Assert.assertEquals(table[2][0], "findElement");
+        Assert.assertEquals(table[2][3], "3");
+        Assert.assertEquals(table[2][9], "15.00");
+    }
+
+    @Test(description = "The JSON file holds suite totals and per-test rows")
+    public void testJsonOutput() throws IOException {
+        CommandLatency.startTest("CalculatorTests.testAddition");
+        CommandLatency.record("clickElement", "CalculatorPage", "id", TimeUnit.MILLISECONDS.toNanos(12));
+
+        Path file = Files.createTempFile("command-latency", ".json");
+        try {
+            CommandLatency.writeJson(file);
+            JsonNode root = new ObjectMapper().readTree(file.toFile());
+
+            Assert.assertEquals(root.path("unit").asText(), "microseconds");
+            Assert.assertEquals(root.path("suite").size(), 1);
+            JsonNode test = root.path("tests").path(0);
+            Assert.assertEquals(test.path("test").asText(), "CalculatorTests.testAddition");
+            Assert.assertEquals(test.path("page").asText(), "CalculatorPage");
+            Assert.assertEquals(test.path("strategy").asText(), "id");
+            Assert.assertEquals(test.path("command").asText(), "clickElement");
+            Assert.assertEquals(test.path("count").asLong(), 1L);
+            Assert.assertEquals(test.path("total").asLong(), 12_000L);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void assertWithin(long actual, long expected, double tolerance) {
+        Assert.assertTrue(Math.abs(actual - expected) <= expected * tolerance,
+            "Expected ~" + expected + " but was " + actual);
+    }
+}
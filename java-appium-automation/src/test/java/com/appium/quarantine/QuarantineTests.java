@@ -0,0 +1,145 @@
+package com.appium.quarantine;
+
+import com.appium.core.ConfigurationManager;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Quarantine Test Suite
+ * Verifies flakiness scoring, the shared history file and the selection of quarantined tests
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class QuarantineTests {
+
+    private static final String TEST = "GoogleDocsTests.testCreateNewDocument";
+
+    private Path storeFile;
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteStore() throws IOException {
+        if (storeFile != null) {
+            Files.deleteIfExists(storeFile);
+            storeFile = null;
+        }
+    }
+
+    @Test(description = "Passing on retry and flipping results count as flaky, failing every time does not")
+    public void testScoring() throws IOException {
+        storeFile = Files.createTempFile("flakiness", ".tsv");
+        FlakinessStore store = new FlakinessStore(storeFile, 20);
+        List<FlakinessStore.Record> records = new ArrayList<>();
+        String[][] runs = {
+            {"PASS"}, {"RETRY", "PASS"}, {"PASS"}, {"FAIL"}, {"PASS"}, {"SKIP"}
+        };
+        for (int run = 0; run < runs.length; run++) {
+            for (String outcome : runs[run]) {
+                records.add(new FlakinessStore.Record(run, TEST, outcome));
+                records.add(new FlakinessStore.Record(run, "CalculatorTests.testBasicOperations", "PASS"));
+                records.add(new FlakinessStore.Record(run, "FilesTests.testBrokenFeature", "FAIL"));
+            }
+        }
+        store.append(records);
+
+        // Run 1 passed on retry, run 3 flipped to FAIL, run 4 back to PASS; the skipped run does not count
+        FlakinessStore.Score flaky = store.score(TEST);
+        Assert.assertEquals(flaky.getRuns(), 5);
+        Assert.assertEquals(flaky.getFlakyRuns(), 3);
+        Assert.assertEquals(flaky.getScore(), 0.6, 0.0001);
+        Assert.assertEquals(flaky.getLastResult(), "PASS");
+
+        Assert.assertEquals(store.score("CalculatorTests.testBasicOperations").getScore(), 0.0);
+        Assert.assertEquals(store.score("FilesTests.testBrokenFeature").getScore(), 0.0);
+        Assert.assertEquals(store.score("FilesTests.testUnknown").getRuns(), 0);
+
+        FlakinessStore reloaded = new FlakinessStore(storeFile, 20);
+        Assert.assertEquals(reloaded.size(), 3);
+        Assert.assertEquals(reloaded.score(TEST).getFlakyRuns(), 3);
+    }
+
+    @Test(description = "Only the last runs are kept, and compaction keeps lines appended by another process")
+    public void testHistoryWindowAndCompaction() throws IOException {
+        storeFile = Files.createTempFile("flakiness", ".tsv");
+        FlakinessStore store = new FlakinessStore(storeFile, 4);
+        FlakinessStore lane = new FlakinessStore(storeFile, 4);
+        // Four flaky runs, then stable ones pushing them out of the window
+        for (int run = 0; run < 4; run++) {
+            store.append(List.of(new FlakinessStore.Record(run, TEST, "RETRY"),
+                new FlakinessStore.Record(run, TEST, "PASS")));
+        }
+        Assert.assertEquals(store.score(TEST).getScore(), 1.0);
+        lane.append(List.of(new FlakinessStore.Record(4, "ColorNoteTests.testCreateNote", "PASS")));
+        for (int run = 5; run < 30; run++) {
+            store.append(List.of(new FlakinessStore.Record(run, TEST, "PASS")));
+        }
+
+        FlakinessStore.Score score = store.score(TEST);
+        Assert.assertEquals(score.getRuns(), 4);
+        Assert.assertEquals(score.getScore(), 0.0);
+        // 34 lines were written in all
+        Assert.assertTrue(Files.readAllLines(storeFile).size() < 30, "File was not compacted");
+
+        FlakinessStore reloaded = new FlakinessStore(storeFile, 4);
+        Assert.assertEquals(reloaded.score("ColorNoteTests.testCreateNote").getRuns(), 1);
+        Assert.assertEquals(reloaded.score(TEST).getRuns(), 4);
+    }
+
+    @Test(description = "Tests are quarantined when pinned or flaky over enough runs")
+    public void testQuarantineReason() {
+        FlakinessStore.Score flaky = new FlakinessStore.Score(TEST, 10, 4, "PASS");
+        Assert.assertEquals(QuarantinePlan.reason(flaky, 0.3, 5, Set.of()), "flaky in 4 of 10 runs");
+        Assert.assertNull(QuarantinePlan.reason(flaky, 0.5, 5, Set.of()));
+
+        FlakinessStore.Score young = new FlakinessStore.Score(TEST, 3, 2, "PASS");
+        Assert.assertNull(QuarantinePlan.reason(young, 0.3, 5, Set.of()));
+        Assert.assertEquals(QuarantinePlan.reason(young, 0.3, 5, Set.of(TEST)), "pinned");
+    }
+
+    @Test(description = "Dependents move with a quarantined test, its prerequisites run in both lanes")
+    public void testSelection() {
+        List<String> methods = List.of("testGoogleDocsPageLoad", "testCreateNewDocument", "testDocumentEditing",
+            "testSearchFunctionality");
+        Map<String, List<String>> dependencies = Map.of(
+            "testGoogleDocsPageLoad", List.of(),
+            "testCreateNewDocument", List.of("testGoogleDocsPageLoad"),
+            "testDocumentEditing", List.of("testCreateNewDocument"),
+            "testSearchFunctionality", List.of("testGoogleDocsPageLoad"));
+
+        QuarantinePlan.Selection selection = QuarantinePlan.select(methods, dependencies,
+            "testCreateNewDocument"::equals);
+        Assert.assertEquals(selection.getMoved(), List.of("testCreateNewDocument", "testDocumentEditing"));
+        Assert.assertEquals(selection.getLane(),
+            List.of("testGoogleDocsPageLoad", "testCreateNewDocument", "testDocumentEditing"));
+
+        QuarantinePlan.Selection none = QuarantinePlan.select(methods, dependencies, method -> false);
+        Assert.assertTrue(none.getMoved().isEmpty());
+        Assert.assertTrue(none.getLane().isEmpty());
+    }
+
+    @Test(description = "The lane only gets a device other than the main run's")
+    public void testLaneDevice() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        try {
+            System.setProperty("device.udid", "MAIN_SERIAL");
+            System.setProperty("quarantine.device.name", "");
+            Assert.assertNull(QuarantineRouter.laneDevice(config));
+            System.setProperty("quarantine.device.name", "MAIN_SERIAL:12");
+            Assert.assertNull(QuarantineRouter.laneDevice(config));
+            System.setProperty("quarantine.device.name", "LANE_SERIAL:12");
+            Assert.assertEquals(QuarantineRouter.laneDevice(config), "LANE_SERIAL:12");
+        } finally {
+            System.clearProperty("device.udid");
+            System.clearProperty("quarantine.device.name");
+        }
+    }
+}
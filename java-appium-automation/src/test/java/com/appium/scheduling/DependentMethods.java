@@ -0,0 +1,37 @@
+package com.appium.scheduling;
+
+import org.testng.annotations.Test;
+
+/**
+ * DependentMethods - Fixture for the dependency groups of DurationSchedulingTests
+ * Not part of any suite; its dependencies are only read, never run
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class DependentMethods {
+
+    @Test
+    public void testA() {
+    }
+
+    @Test
+    public void testB() {
+    }
+
+    @Test(dependsOnMethods = "testA")
+    public void testC() {
+    }
+
+    @Test(dependsOnMethods = "test[C]")
+    public void testD() {
+    }
+
+    @Test(dependsOnGroups = "smoke")
+    public void testGroups() {
+    }
+
+    @Test(dependsOnMethods = "com.appium.tests.CalculatorTests.testCalculatorPageLoad")
+    public void testOtherClass() {
+    }
+}
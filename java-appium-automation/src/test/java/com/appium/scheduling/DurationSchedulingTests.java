@@ -0,0 +1,194 @@
+package com.appium.scheduling;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Duration Scheduling Test Suite
+ * Verifies the duration history, longest-processing-time-first lane assignment and that
+ * methods depending on each other stay in one lane
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class DurationSchedulingTests {
+
+    private Path storeFile;
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteStore() throws IOException {
+        if (storeFile != null) {
+            Files.deleteIfExists(storeFile);
+            storeFile = null;
+        }
+    }
+
+    @Test(description = "Predictions are the median of the recent samples and survive a reload")
+    public void testStorePrediction() throws IOException {
+        storeFile = Files.createTempFile("test-durations", ".tsv");
+        DurationStore store = new DurationStore(storeFile, 3);
+        store.append(List.of(
+            sample("CalculatorTests.testBasicOperations", 9000),
+            sample("CalculatorTests.testBasicOperations", 1000),
+            sample("CalculatorTests.testBasicOperations", 4000),
+            sample("CalculatorTests.testBasicOperations", 5000),
+            sample("CalculatorTests.testNumberInput", 2000)));
+
+        // Oldest sample (9000) is out of the window of 3
+        Assert.assertEquals(store.predict("CalculatorTests.testBasicOperations").getAsLong(), 4000L);
+        Assert.assertFalse(store.predict("CalculatorTests.testUnknown").isPresent());
+
+        DurationStore reloaded = new DurationStore(storeFile, 3);
+        Assert.assertEquals(reloaded.size(), 2);
+        Assert.assertEquals(reloaded.predict("CalculatorTests.testBasicOperations").getAsLong(), 4000L);
+        Assert.assertEquals(reloaded.predictClass("CalculatorTests").getAsLong(), 6000L);
+        Assert.assertEquals(reloaded.typicalDuration().getAsLong(), 4000L);
+    }
+
+    @Test(description = "The file is compacted to the kept samples once it grows")
+    public void testCompaction() throws IOException {
+        storeFile = Files.createTempFile("test-durations", ".tsv");
+        DurationStore store = new DurationStore(storeFile, 2);
+        List<DurationStore.Sample> samples = new ArrayList<>();
+        for (int run = 0; run < 20; run++) {
+            samples.add(sample("FilesTests.testFilesPageLoad", 1000 + run));
+        }
+        store.append(samples);
+
+        List<String> lines = Files.readAllLines(storeFile);
+        Assert.assertEquals(lines.size(), 2);
+        Assert.assertTrue(lines.get(1).contains("\t1019\t"));
+        Assert.assertEquals(new DurationStore(storeFile, 2).predict("FilesTests.testFilesPageLoad").getAsLong(), 1018L);
+    }
+
+    @Test(description = "Longest tests go first onto the least loaded lane")
+    public void testLptAssignment() {
+        List<LptScheduler.Unit> units = List.of(
+            unit("testA", 2000), unit("testB", 7000), unit("testC", 3000),
+            unit("testD", 5000), unit("testE", 4000), unit("testF", 3000));
+
+        List<LptScheduler.Lane> lanes = LptScheduler.schedule(units, 3);
+
+        Assert.assertEquals(lanes.size(), 3);
+        Assert.assertEquals(names(lanes.get(0)), "testB,testA");
+        Assert.assertEquals(names(lanes.get(1)), "testD,testF");
+        Assert.assertEquals(names(lanes.get(2)), "testE,testC");
+        Assert.assertEquals(LptScheduler.predictedMakespan(lanes), 9000L);
+        Assert.assertEquals(lanes.get(0).getUnits().get(0).getParameters().get("appPackage"),
+            "com.google.android.calculator");
+    }
+
+    @Test(description = "More lanes than tests leaves lanes empty")
+    public void testMoreLanesThanTests() {
+        List<LptScheduler.Lane> lanes = LptScheduler.schedule(List.of(unit("testA", 1000)), 4);
+
+        Assert.assertEquals(lanes.size(), 4);
+        Assert.assertEquals(lanes.get(0).getUnits().size(), 1);
+        Assert.assertTrue(lanes.get(3).getUnits().isEmpty());
+        Assert.assertEquals(LptScheduler.predictedMakespan(lanes), 1000L);
+    }
+
+    @Test(description = "Methods linked by dependsOnMethods form one group")
+    public void testDependencyGroups() {
+        String className = DependentMethods.class.getName();
+
+        Assert.assertEquals(MethodDependencies.group(className, List.of("testA", "testB", "testC", "testD")),
+            List.of(List.of("testA", "testC", "testD"), List.of("testB")));
+        Assert.assertEquals(MethodDependencies.group(className, List.of("testB", "testD")),
+            List.of(List.of("testB"), List.of("testD")));
+        Assert.assertNull(MethodDependencies.group(className, List.of("testA", "testGroups")),
+            "Group dependencies cannot be kept in one lane");
+        Assert.assertNull(MethodDependencies.group(className, List.of("testA", "testOtherClass")),
+            "Dependencies on other classes cannot be kept in one lane");
+        Assert.assertEquals(MethodDependencies.group("com.appium.tests.Missing", List.of("testA", "testB")),
+            List.of(List.of("testA", "testB")));
+    }
+
+    @Test(description = "The shipped parallel suite is rescheduled without separating dependent methods")
+    public void testParallelSuiteRescheduled() throws IOException {
+        XmlSuite suite = new Parser("src/test/resources/suites/parallel-tests.xml").parseToList().get(0);
+        List<String> included = includedMethods(suite.getTests());
+
+        new DurationAwareScheduler().alter(List.of(suite));
+
+        Assert.assertTrue(suite.getTests().stream().allMatch(test -> test.getName().startsWith("Lane ")),
+            "Suite was not rescheduled");
+        Assert.assertEquals(includedMethods(suite.getTests()).stream().sorted().collect(Collectors.toList()),
+            included.stream().sorted().collect(Collectors.toList()));
+        for (XmlTest lane : suite.getTests()) {
+            for (XmlClass xmlClass : lane.getXmlClasses()) {
+                List<String> methods = xmlClass.getIncludedMethods().stream()
+                    .map(XmlInclude::getName).collect(Collectors.toList());
+                if (methods.contains("testBasicOperations")) {
+                    Assert.assertEquals(methods.subList(0, 2), List.of("testCalculatorPageLoad", "testBasicOperations"),
+                        lane.getName() + " runs testBasicOperations without the method it depends on");
+                }
+            }
+        }
+    }
+
+    @Test(description = "Device lanes pass their device's serial as deviceName and udid")
+    public void testDeviceLanes() throws IOException {
+        XmlSuite suite = new Parser("src/test/resources/suites/parallel-tests.xml").parseToList().get(0);
+        System.setProperty("scheduler.devices", "SERIAL_A:11,SERIAL_B:12");
+        try {
+            new DurationAwareScheduler().alter(List.of(suite));
+        } finally {
+            System.clearProperty("scheduler.devices");
+        }
+
+        Assert.assertEquals(suite.getTests().size(), 2);
+        XmlTest first = suite.getTests().get(0);
+        Assert.assertEquals(first.getName(), "Lane 1 - SERIAL_A");
+        Assert.assertEquals(first.getLocalParameters(),
+            Map.of("deviceName", "SERIAL_A", "udid", "SERIAL_A", "platformVersion", "11"));
+        Assert.assertEquals(suite.getTests().get(1).getLocalParameters().get("udid"), "SERIAL_B");
+        for (XmlTest lane : suite.getTests()) {
+            for (XmlClass xmlClass : lane.getXmlClasses()) {
+                Assert.assertFalse(xmlClass.getLocalParameters().containsKey("udid"),
+                    "Class parameters must not override the lane's device");
+            }
+        }
+    }
+
+    private static List<String> includedMethods(List<XmlTest> tests) {
+        List<String> methods = new ArrayList<>();
+        for (XmlTest test : tests) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                for (XmlInclude include : xmlClass.getIncludedMethods()) {
+                    methods.add(xmlClass.getName() + "." + include.getName());
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static DurationStore.Sample sample(String testId, long millis) {
+        return new DurationStore.Sample(System.currentTimeMillis(), testId, millis, "PASS");
+    }
+
+    private static LptScheduler.Unit unit(String method, long millis) {
+        return new LptScheduler.Unit("com.appium.tests.CalculatorTests", List.of(method),
+            Map.of("appPackage", "com.google.android.calculator"), millis);
+    }
+
+    private static String names(LptScheduler.Lane lane) {
+        List<String> names = new ArrayList<>();
+        lane.getUnits().forEach(unit -> names.addAll(unit.getMethodNames()));
+        return String.join(",", names);
+    }
+}
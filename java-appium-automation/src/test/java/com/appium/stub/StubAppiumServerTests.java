@@ -0,0 +1,219 @@
+package com.appium.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stub Appium Server Test Suite
+ * Drives the simulated Google Calculator over the wire protocol the way AndroidDriver does
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class StubAppiumServerTests {
+
+    private static final String CALCULATOR = CalculatorApplication.PACKAGE;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private StubAppiumServer server;
+
+    private static final class Response {
+        private final int status;
+        private final JsonNode value;
+
+        private Response(int status, JsonNode value) {
+            this.status = status;
+            this.value = value;
+        }
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void startServer() throws IOException {
+        server = new StubAppiumServer(List.of(new CalculatorApplication()),
+            new StubLatency(0, 0, Map.of("newSession", 100L)), 0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test(description = "Sessions start in the app from the capabilities, without vendor prefixes")
+    public void testNewSession() throws IOException {
+        long start = System.nanoTime();
+        Response created = call("POST", "/session", sessionRequest());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assert.assertEquals(created.value.path("capabilities").path("appPackage").asText(), CALCULATOR);
+        Assert.assertTrue(elapsedMillis >= 100, "Session latency not applied: " + elapsedMillis + "ms");
+
+        String session = created.value.path("sessionId").asText();
+        Assert.assertEquals(call("GET", "/session/" + session + "/appium/device/current_package", null).value.asText(),
+            CALCULATOR);
+        Assert.assertEquals(call("GET", "/session/" + session + "/appium/device/current_activity", null).value.asText(),
+            "com.android.calculator2.Calculator");
+    }
+
+    @Test(description = "Keypad input builds the formula and = shows the result")
+    public void testCalculation() throws IOException {
+        String session = newSession();
+        press(session, "digit_5", "op_add", "digit_3");
+        Assert.assertEquals(text(session, "formula"), "5+3");
+        Assert.assertEquals(text(session, "result_preview"), "8");
+        Assert.assertEquals(text(session, "result_final"), "", "Final result shown before =");
+
+        press(session, "eq");
+        Assert.assertEquals(text(session, "result_final"), "8");
+        Assert.assertTrue(displayed(session, "result_final"), "Final result not shown after =");
+
+        press(session, "clr");
+        Assert.assertEquals(text(session, "formula"), "");
+        Assert.assertEquals(text(session, "result_preview"), "", "Preview shown after clear");
+        Assert.assertTrue(displayed(session, "result_preview"), "Empty result line hidden");
+    }
+
+    @Test(description = "Evaluation follows the app's precedence and formatting")
+    public void testEvaluation() {
+        Assert.assertEquals(CalculatorApplication.evaluate("2+3×4"), "14");
+        Assert.assertEquals(CalculatorApplication.evaluate("123.45+67.89"), "191.34");
+        Assert.assertEquals(CalculatorApplication.evaluate("20÷4"), "5");
+        Assert.assertEquals(CalculatorApplication.evaluate("12×0"), "0");
+        Assert.assertEquals(CalculatorApplication.evaluate("1÷3"), "0.3333333333333333");
+        Assert.assertEquals(CalculatorApplication.evaluate("4−10"), "−6");
+        Assert.assertEquals(CalculatorApplication.evaluate("5÷0"), "Can't divide by 0");
+    }
+
+    @Test(description = "Delete removes the last key")
+    public void testDelete() throws IOException {
+        String session = newSession();
+        press(session, "digit_7", "digit_8", "digit_9", "del");
+        Assert.assertEquals(text(session, "formula"), "78");
+    }
+
+    @Test(description = "UiAutomator selectors used by the page fallbacks resolve")
+    public void testUiAutomatorSelectors() throws IOException {
+        String session = newSession();
+        Assert.assertEquals(find(session, "-android uiautomator", "new UiSelector().text(\"5\")").value
+            .path(StubAppiumServer.ELEMENT_KEY).asText(), "digit_5");
+        Assert.assertEquals(find(session, "-android uiautomator", "new UiSelector().textContains(\"C\")").value
+            .path(StubAppiumServer.ELEMENT_KEY).asText(), "clr");
+        Assert.assertEquals(find(session, "-android uiautomator", "new UiSelector().resourceIdMatches(\".*formula.*\")").value
+            .path(StubAppiumServer.ELEMENT_KEY).asText(), "formula");
+        Assert.assertEquals(find(session, "accessibility id", "equals").value.path(StubAppiumServer.ELEMENT_KEY).asText(), "eq");
+
+        Response missing = find(session, "-android uiautomator", "new UiSelector().text(\"DEL\")");
+        Assert.assertEquals(missing.status, 404);
+        Assert.assertEquals(missing.value.path("error").asText(), "no such element");
+    }
+
+    @Test(description = "App management works through endpoints and mobile: scripts")
+    public void testAppManagement() throws IOException {
+        String session = newSession();
+        String digit = find(session, "id", CALCULATOR + ":id/digit_1").value.path(StubAppiumServer.ELEMENT_KEY).asText();
+        Assert.assertEquals(mobile(session, "queryAppState").value.asLong(), 4L);
+
+        ObjectNode terminate = mapper.createObjectNode();
+        terminate.put("appId", CALCULATOR);
+        Assert.assertTrue(call("POST", "/session/" + session + "/appium/device/terminate_app", terminate).value.asBoolean());
+        Assert.assertEquals(mobile(session, "queryAppState").value.asLong(), 1L);
+
+        Response click = call("POST", "/session/" + session + "/element/" + digit + "/click", mapper.createObjectNode());
+        Assert.assertEquals(click.value.path("error").asText(), "stale element reference");
+
+        mobile(session, "activateApp");
+        Assert.assertEquals(mobile(session, "getCurrentPackage").value.asText(), CALCULATOR);
+        Assert.assertEquals(call("POST", "/session/" + session + "/appium/app/close", mapper.createObjectNode()).status, 200);
+        Assert.assertEquals(mobile(session, "queryAppState").value.asLong(), 1L);
+    }
+
+    @Test(description = "Deleted sessions are removed")
+    public void testDeleteSession() throws IOException {
+        String session = newSession();
+        int active = server.getActiveSessionCount();
+
+        Assert.assertEquals(call("DELETE", "/session/" + session, null).status, 200);
+        Assert.assertEquals(server.getActiveSessionCount(), active - 1);
+        Assert.assertEquals(call("GET", "/session/" + session + "/source", null).value.path("error").asText(),
+            "invalid session id");
+    }
+
+    // ==================== HELPERS ====================
+
+    private ObjectNode sessionRequest() {
+        ObjectNode body = mapper.createObjectNode();
+        ObjectNode alwaysMatch = body.putObject("capabilities").putObject("alwaysMatch");
+        alwaysMatch.put("platformName", "Android");
+        alwaysMatch.put("appium:automationName", "UiAutomator2");
+        alwaysMatch.put("appium:appPackage", CALCULATOR);
+        return body;
+    }
+
+    private String newSession() throws IOException {
+        Response response = call("POST", "/session", sessionRequest());
+        Assert.assertEquals(response.status, 200);
+        return response.value.path("sessionId").asText();
+    }
+
+    private Response find(String session, String using, String value) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("using", using);
+        body.put("value", value);
+        return call("POST", "/session/" + session + "/element", body);
+    }
+
+    private void press(String session, String... keys) throws IOException {
+        for (String key : keys) {
+            String element = find(session, "id", CALCULATOR + ":id/" + key).value.path(StubAppiumServer.ELEMENT_KEY).asText();
+            Assert.assertEquals(call("POST", "/session/" + session + "/element/" + element + "/click",
+                mapper.createObjectNode()).status, 200);
+        }
+    }
+
+    private String text(String session, String id) throws IOException {
+        String element = find(session, "id", CALCULATOR + ":id/" + id).value.path(StubAppiumServer.ELEMENT_KEY).asText();
+        return call("GET", "/session/" + session + "/element/" + element + "/text", null).value.asText();
+    }
+
+    private boolean displayed(String session, String id) throws IOException {
+        String element = find(session, "id", CALCULATOR + ":id/" + id).value.path(StubAppiumServer.ELEMENT_KEY).asText();
+        return call("GET", "/session/" + session + "/element/" + element + "/displayed", null).value.asBoolean();
+    }
+
+    private Response mobile(String session, String command) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("script", "mobile: " + command);
+        body.putArray("args").addObject().put("appId", CALCULATOR);
+        return call("POST", "/session/" + session + "/execute/sync", body);
+    }
+
+    private Response call(String method, String path, JsonNode body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server.getUrl() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(mapper.writeValueAsBytes(body));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new Response(status, mapper.readTree(in.readAllBytes()).path("value"));
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
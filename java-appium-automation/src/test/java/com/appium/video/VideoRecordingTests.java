@@ -0,0 +1,59 @@
+package com.appium.video;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Video Recording Test Suite
+ * Verifies the rolling segment buffer and that the recording segments before a failure
+ * are written as playable files
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class VideoRecordingTests {
+
+    @Test(description = "The ring keeps the retention window and its byte budget")
+    public void testSegmentRing() {
+        SegmentRing ring = new SegmentRing(10000, 1000);
+        for (int second = 0; second < 30; second += 5) {
+            ring.add(new SegmentRing.Segment(second * 1000L, (second + 5) * 1000L, new byte[100]));
+        }
+        // Segments ending after 30s - 10s are kept
+        Assert.assertEquals(ring.size(), 2);
+        Assert.assertEquals(ring.getEvicted(), 4L);
+        Assert.assertEquals(ring.covering(0, 40000).get(0).getStartMillis(), 20000L);
+
+        // Over budget, the oldest go even inside the window
+        ring.add(new SegmentRing.Segment(35000, 36000, new byte[950]));
+        Assert.assertEquals(ring.size(), 1);
+        Assert.assertEquals(ring.getBytes(), 950L);
+
+        // The newest segment stays even when it alone exceeds the budget
+        ring.add(new SegmentRing.Segment(36000, 37000, new byte[2000]));
+        Assert.assertEquals(ring.size(), 1);
+        Assert.assertTrue(ring.covering(0, 35999).isEmpty());
+    }
+
+    @Test(description = "Each retained segment is written as a file of its own, in order")
+    public void testFailureVideo() throws IOException {
+        SegmentRing ring = new SegmentRing(25000, 1 << 20);
+        for (int segment = 0; segment < 5; segment++) {
+            ring.add(new SegmentRing.Segment(segment * 10000L, (segment + 1) * 10000L, new byte[] {(byte) segment}));
+        }
+        // Failure at 50s: the segments reaching into the last 25s
+        List<SegmentRing.Segment> segments = ring.covering(50000 - 25000, 50000);
+        Assert.assertEquals(segments.size(), 3);
+
+        Path directory = Files.createTempDirectory("video").resolve("videos").resolve("failure");
+        ScreenRecorder.writeSegments(segments, directory);
+        Assert.assertEquals(Files.readAllBytes(directory.resolve("segment-01.mp4")), new byte[] {2});
+        Assert.assertEquals(Files.readAllBytes(directory.resolve("segment-03.mp4")), new byte[] {4});
+        Assert.assertFalse(Files.exists(directory.resolve("segment-04.mp4")));
+    }
+}
@@ -1,15 +1,36 @@
 package com.selenium.core;
 
+import com.selenium.grid.GridThrottle;
+import com.selenium.http.SharedHttpClientFactory;
+import com.selenium.listeners.RetryAnalyzer;
+import com.selenium.logging.LogContext;
+import com.selenium.metrics.CommandLatency;
+import com.selenium.metrics.MetricsServer;
+import com.selenium.metrics.SuiteMetrics;
+import com.selenium.network.NetworkProfile;
+import com.selenium.network.NetworkShaper;
+import com.selenium.network.NetworkStats;
+import com.selenium.pages.LoginPage;
+import com.selenium.replay.ReplayServer;
+import com.selenium.session.LoginSessionCache;
+import com.selenium.session.ReuseLoginSession;
+import com.selenium.stub.StubDriverServer;
 import com.selenium.utils.ConfigurationManager;
+import com.selenium.utils.DataReader;
 import com.selenium.utils.ReportManager;
 import com.selenium.utils.ScreenshotUtils;
+import com.selenium.video.ScreencastRecorder;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
+import org.testng.SkipException;
 import org.testng.annotations.*;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * BaseTest - Foundation class for all test classes
@@ -24,12 +45,17 @@ public abstract class BaseTest {
     protected static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
     protected WebDriver driver;
     protected ConfigurationManager config;
+    private String sessionUser;
+    private boolean sessionRestored;
     
     @BeforeSuite(alwaysRun = true)
     public void suiteSetup() {
         logger.info("=== Test Suite Setup Started ===");
         config = ConfigurationManager.getInstance();
         ReportManager.initializeReports();
+        
+        // Live counters for Prometheus while the suite runs
+        MetricsServer.start(DriverManager::getActiveDriverCount);
         logger.info("=== Test Suite Setup Completed ===");
     }
     
@@ -44,7 +70,8 @@ public abstract class BaseTest {
     public void testSetup(@Optional("chrome") String browser,
                          @Optional("false") String headless,
                          @Optional("https://www.saucedemo.com") String baseUrl,
-                         Method method) {
+                         Method method,
+                         ITestContext context) {
         
         String testName = method.getName();
         logger.info("=== Test Setup: {} ===", testName);
@@ -54,21 +81,37 @@ public abstract class BaseTest {
         boolean isHeadless = Boolean.parseBoolean(resolveParameter("headless", headless, "false"));
         baseUrl = resolveParameter("base.url", baseUrl, "https://www.saucedemo.com");
         
+        // Tag log lines of this thread with the test
+        LogContext.startTest(getClass().getSimpleName() + "." + testName, browser);
         logTestConfiguration(testName, browser, isHeadless, baseUrl);
         
         try {
+            // Network shaping rules may differ per suite
+            NetworkShaper.useProfile(NetworkProfile.resolve(context.getCurrentXmlTest().getAllParameters()));
+            
+            // Tag driver commands of this thread with the test
+            CommandLatency.startTest(getClass().getSimpleName() + "." + testName);
+            
             // Initialize driver
             driver = DriverManager.createDriver(browser, isHeadless);
             
-            // Navigate to base URL
-            driver.get(baseUrl);
+            // Keep the last seconds of video in memory, written only if the test fails
+            ScreencastRecorder.start(DriverManager.unwrap(driver));
+            
+            // Navigate to base URL (or its local replay)
+            driver.get(DriverManager.resolveUrl(baseUrl));
             logger.info("Navigated to: {}", baseUrl);
             
             // Setup test reporting
             setupTestReporting(method, browser);
             
+            // Start logged in when the test opts in and a session was captured
+            restoreLoginSession(method, context);
+            
             logger.info("Test setup completed successfully for: {}", testName);
             
+        } catch (SkipException se) {
+            throw se; // propagate skip without wrapping
         } catch (Exception e) {
             logger.error("Test setup failed for: {}", testName, e);
             throw new RuntimeException("Test setup failed", e);
@@ -80,13 +123,23 @@ public abstract class BaseTest {
         String testName = result.getName();
         
         try {
+            // Attempts that are run again count once, with their final result
+            if (!result.wasRetried()) {
+                SuiteMetrics.recordTestResult(result.getStatus());
+            }
             handleTestResult(result);
+            logNetworkStats();
         } catch (Exception e) {
             logger.warn("Error handling test result for: {}", testName, e);
         } finally {
+            // Video of a test that did not fail is never written
+            ScreencastRecorder.discard();
+            
             // Always quit driver
             DriverManager.quitDriver();
+            CommandLatency.endTest();
             logger.info("=== Test Teardown Completed: {} ===", testName);
+            LogContext.endTest();
         }
     }
     
@@ -101,15 +154,34 @@ public abstract class BaseTest {
         logger.info("=== Test Suite Teardown Started ===");
         
         try {
-            // Ensure all drivers are quit
-            DriverManager.quitAllDrivers();
+            // Quit remaining drivers while the report is being flushed
+            CompletableFuture<Void> driverShutdown = DriverManager.quitAllDriversAsync();
+            
+            // Add the command latency table and JSON before the report is written
+            CommandLatency.publish();
+            CircuitBreaker.publish();
+            GridThrottle.publish();
+            SharedHttpClientFactory.publish();
+            RetryAnalyzer.publish();
             
             // Finalize reports
             ReportManager.flushReports();
             
+            // Wait for the per-session deadlines to play out
+            driverShutdown.join();
+            SharedHttpClientFactory.closeAll();
+            
+            // Persist new recordings and log hit/miss stats
+            ReplayServer.shutdownAll();
+            
+            // Log command counts of the stub server, if the suite used it
+            StubDriverServer.shutdown();
+            
             // Log summary
             logSuiteSummary();
             
+            MetricsServer.stop();
+            
         } catch (Exception e) {
             logger.error("Error during suite teardown", e);
         } finally {
@@ -212,6 +284,11 @@ public abstract class BaseTest {
         
         ReportManager.logFail("Test failed: " + errorMessage);
         
+        // A restored session may have been rejected mid-test; make the next test log in for real
+        if (sessionRestored) {
+            LoginSessionCache.invalidate(sessionUser, "test failed on a restored session");
+        }
+        
         // Capture screenshot if enabled and driver available
         if (config.isScreenshotOnFailureEnabled() && DriverManager.isDriverInitialized()) {
             try {
@@ -224,6 +301,42 @@ public abstract class BaseTest {
                 logger.warn("Failed to capture screenshot: {}", e.getMessage());
             }
         }
+        
+        // Write the video leading up to the failure
+        Path video = ScreencastRecorder.persist(testName + "_failure", result.getEndMillis());
+        if (video != null) {
+            ReportManager.logInfo("Failure video: " + video);
+        }
+    }
+    
+    /**
+     * Restores the captured login session for tests annotated with {@link ReuseLoginSession}
+     */
+    private void restoreLoginSession(Method method, ITestContext context) {
+        ReuseLoginSession reuse = method.getAnnotation(ReuseLoginSession.class);
+        if (reuse == null) {
+            reuse = method.getDeclaringClass().getAnnotation(ReuseLoginSession.class);
+        }
+        sessionUser = reuse == null ? null
+            : reuse.user().isEmpty() ? DataReader.getUsername(context) : reuse.user();
+        sessionRestored = false;
+        
+        if (sessionUser != null && LoginSessionCache.hasSnapshot(sessionUser)) {
+            sessionRestored = DriverManager.restoreLoginSession(sessionUser);
+            ReportManager.logInfo(sessionRestored
+                ? "Login skipped: restored session of " + sessionUser
+                : "Stored session of " + sessionUser + " was rejected, logging in through the UI");
+        }
+    }
+    
+    /**
+     * Logs requests and bytes saved by network shaping for the current test
+     */
+    private void logNetworkStats() {
+        NetworkStats stats = NetworkShaper.detach();
+        if (stats != null) {
+            ReportManager.logInfo("Network shaping: " + stats);
+        }
     }
     
     /**
@@ -232,6 +345,15 @@ public abstract class BaseTest {
     private void logSuiteSummary() {
         logger.info("Suite execution completed");
         logger.info("Reports location: {}", config.getReportsDirectory());
+        
+        if (LoginSessionCache.getTimings().getPerformedCount() + LoginSessionCache.getTimings().getRestoredCount() > 0) {
+            logger.info("Login timings: {}", LoginSessionCache.getTimings());
+        }
+        
+        NetworkStats networkTotals = NetworkShaper.getSuiteTotals();
+        if (networkTotals.getRequestsSaved() > 0) {
+            logger.info("Network shaping totals: {}", networkTotals);
+        }
     }
     
     /**
@@ -253,6 +375,33 @@ public abstract class BaseTest {
         }
     }
     
+    /**
+     * Logs in with valid credentials, unless the test already started from a restored session
+     * Successful UI logins are timed and captured for tests using {@link ReuseLoginSession}
+     * 
+     * @param username Username
+     * @param password Password
+     */
+    protected void login(String username, String password) {
+        if (sessionRestored && username.equals(sessionUser)) {
+            logger.info("Login skipped for {}: session already restored", username);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.login(username, password);
+        
+        if (loginPage.isLoginSuccessful()) {
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            LoginSessionCache.recordUiLogin(elapsed);
+            ReportManager.logInfo("UI login completed in " + elapsed + "ms");
+            if (!LoginSessionCache.hasSnapshot(username)) {
+                DriverManager.captureLoginSession(username);
+            }
+        }
+    }
+    
     /**
      * Gets current driver instance
      * 
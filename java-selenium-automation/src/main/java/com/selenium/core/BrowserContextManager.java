@@ -0,0 +1,171 @@
+package com.selenium.core;
+
+import com.selenium.utils.ConfigurationManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * BrowserContextManager - Shares one Chromium process per worker thread
+ * Each test runs in its own CDP browser context (separate cookies, storage and cache,
+ * like an incognito profile) which is disposed after the test, so the browser launch
+ * cost is paid once per worker instead of once per test
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class BrowserContextManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContextManager.class);
+
+    private static final ThreadLocal<ChromiumDriver> sharedBrowser = new ThreadLocal<>();
+    private static final ThreadLocal<String> homeWindow = new ThreadLocal<>();
+    private static final ThreadLocal<String> activeContextId = new ThreadLocal<>();
+    private static final ThreadLocal<String> activeTargetId = new ThreadLocal<>();
+    private static final ConcurrentHashMap<String, ChromiumDriver> sharedBrowsers = new ConcurrentHashMap<>();
+
+    private BrowserContextManager() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether the context isolation mode is enabled
+     *
+     * @param browserName Requested browser
+     * @return true if tests should run in browser contexts of a shared browser
+     */
+    static boolean isEnabledFor(String browserName) {
+        String mode = ConfigurationManager.getInstance()
+            .getProperty("browser.isolation.mode", "browser");
+        String browser = browserName.toLowerCase();
+        return "context".equalsIgnoreCase(mode) && ("chrome".equals(browser) || "edge".equals(browser));
+    }
+
+    /**
+     * Opens a fresh browser context in this worker's shared browser and focuses it
+     *
+     * @param browserLauncher Launches the shared browser on first use
+     * @return Driver focused on the new context's window
+     */
+    static ChromiumDriver openContext(Supplier<WebDriver> browserLauncher) {
+        if (activeContextId.get() != null) {
+            logger.warn("Previous browser context was not closed, disposing it now");
+            closeContext();
+        }
+
+        ChromiumDriver browser = sharedBrowser.get();
+        if (browser == null) {
+            browser = (ChromiumDriver) browserLauncher.get();
+            sharedBrowser.set(browser);
+            homeWindow.set(browser.getWindowHandle());
+            sharedBrowsers.put(Thread.currentThread().getName(), browser);
+            logger.info("Launched shared browser for thread: {}", Thread.currentThread().getName());
+        }
+
+        Map<String, Object> context = browser.executeCdpCommand("Target.createBrowserContext", new HashMap<>());
+        String contextId = (String) context.get("browserContextId");
+
+        Map<String, Object> targetParameters = new HashMap<>();
+        targetParameters.put("url", "about:blank");
+        targetParameters.put("browserContextId", contextId);
+        targetParameters.put("width", 1920);
+        targetParameters.put("height", 1080);
+        Map<String, Object> target = browser.executeCdpCommand("Target.createTarget", targetParameters);
+        String targetId = (String) target.get("targetId");
+
+        // ChromeDriver uses the CDP target id as the window handle
+        browser.switchTo().window(targetId);
+        activeContextId.set(contextId);
+        activeTargetId.set(targetId);
+
+        logger.debug("Opened browser context {} (target {})", contextId, targetId);
+        return browser;
+    }
+
+    /**
+     * Checks whether the current thread has an open browser context
+     *
+     * @return true if a context is open
+     */
+    static boolean isContextActive() {
+        return activeContextId.get() != null;
+    }
+
+    /**
+     * Closes the current thread's browser context, discarding its cookies and storage
+     */
+    static void closeContext() {
+        ChromiumDriver browser = sharedBrowser.get();
+        String contextId = activeContextId.get();
+        String targetId = activeTargetId.get();
+        activeContextId.remove();
+        activeTargetId.remove();
+
+        if (browser == null || contextId == null) {
+            return;
+        }
+
+        try {
+            browser.executeCdpCommand("Target.closeTarget", Map.of("targetId", targetId));
+        } catch (Exception e) {
+            logger.debug("Target {} already closed: {}", targetId, e.getMessage());
+        }
+        try {
+            browser.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+            logger.debug("Disposed browser context {}", contextId);
+        } catch (Exception e) {
+            logger.warn("Failed to dispose browser context {}: {}", contextId, e.getMessage());
+        }
+
+        // Keep WebDriver pointed at a live window for the next context
+        browser.switchTo().window(homeWindow.get());
+    }
+
+    /**
+     * Gets the shared browser of the current thread
+     *
+     * @return Shared browser, or null if none was launched
+     */
+    static ChromiumDriver getSharedBrowser() {
+        return sharedBrowser.get();
+    }
+
+    /**
+     * Forgets the current thread's shared browser, e.g. after it crashed, so the next
+     * context is opened in a newly launched one
+     *
+     * @return The discarded browser, or null if none was launched
+     */
+    static ChromiumDriver discardSharedBrowser() {
+        ChromiumDriver browser = sharedBrowser.get();
+        sharedBrowser.remove();
+        homeWindow.remove();
+        activeContextId.remove();
+        activeTargetId.remove();
+        if (browser != null) {
+            sharedBrowsers.remove(Thread.currentThread().getName(), browser);
+        }
+        return browser;
+    }
+
+    /**
+     * Hands over all shared browsers for shutdown and forgets them
+     *
+     * @return Shared browsers keyed by owning thread name
+     */
+    static Map<String, WebDriver> drainSharedBrowsers() {
+        Map<String, WebDriver> browsers = new HashMap<>(sharedBrowsers);
+        sharedBrowsers.clear();
+        sharedBrowser.remove();
+        homeWindow.remove();
+        activeContextId.remove();
+        activeTargetId.remove();
+        return browsers;
+    }
+}
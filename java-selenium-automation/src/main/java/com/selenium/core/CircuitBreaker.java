@@ -0,0 +1,185 @@
+package com.selenium.core;
+
+import com.selenium.utils.ConfigurationManager;
+import com.selenium.utils.ReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * CircuitBreaker - Stops driver creation against a target that keeps failing
+ * One breaker per browser. After circuit.breaker.failure.threshold consecutive
+ * failures it opens and further attempts are refused without touching the browser,
+ * so the remaining tests skip at once instead of waiting out their timeouts. After
+ * circuit.breaker.open.seconds one attempt is let through as a probe (half-open):
+ * success closes the breaker, failure opens it again. Trips and recoveries are
+ * logged and listed in the report
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private static final List<String[]> events = new CopyOnWriteArrayList<>();
+
+    /**
+     * Breaker states
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String target;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int refused;
+
+    CircuitBreaker(String target, int failureThreshold, long openMillis, LongSupplier clock) {
+        this.target = target;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the breaker of a target, configured from application.properties
+     *
+     * @param target Browser or device the driver is created for
+     * @return Shared breaker of the target
+     */
+    public static CircuitBreaker forTarget(String target) {
+        return breakers.computeIfAbsent(target, key -> {
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            return new CircuitBreaker(key,
+                config.getIntProperty("circuit.breaker.failure.threshold", 3),
+                TimeUnit.SECONDS.toMillis(config.getIntProperty("circuit.breaker.open.seconds", 30)),
+                System::nanoTime);
+        });
+    }
+
+    /**
+     * Checks whether breakers are applied (circuit.breaker.enabled)
+     *
+     * @return true if driver creation goes through the breakers
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("circuit.breaker.enabled", true);
+    }
+
+    // ==================== STATE TRANSITIONS ====================
+
+    /**
+     * Asks for permission to create a driver; in half-open state only one caller gets it
+     *
+     * @return true if the attempt may go ahead, false if it must be skipped
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            record("half-open", "probing after " + refused + " refused attempts");
+            return true;
+        }
+        refused++;
+        return false;
+    }
+
+    /**
+     * Records a created driver; closes the breaker if it was probing
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            record("recovered", "closed after " + refused + " refused attempts");
+            refused = 0;
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Records a failed driver creation; opens the breaker at the threshold or after a failed probe
+     *
+     * @param error Failure cause
+     */
+    public synchronized void recordFailure(Throwable error) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            open("probe failed", error);
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open("tripped", error);
+        }
+    }
+
+    private void open(String event, Throwable error) {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        record(event, consecutiveFailures + " consecutive failures, last: " + cause.getClass().getSimpleName()
+            + ": " + cause.getMessage());
+    }
+
+    private void record(String event, String detail) {
+        logger.warn("Circuit breaker for {} {}: {}", target, event, detail);
+        events.add(new String[] {Instant.now().toString(), target, event, detail});
+        ReportManager.logWarning("Circuit breaker for " + target + " " + event + ": " + detail);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * @return Message for tests skipped while the breaker is open
+     */
+    public synchronized String describeOpen() {
+        return "Circuit breaker for " + target + " is open after " + consecutiveFailures
+            + " consecutive driver failures, skipping without a new attempt";
+    }
+
+    // ==================== REPORTING ====================
+
+    /**
+     * Adds the trip and recovery events of this run to the report
+     */
+    public static void publish() {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Time", "Target", "Event", "Detail"});
+        rows.addAll(events);
+        ReportManager.addSummaryTable("Circuit Breaker Events", rows.toArray(new String[0][]));
+    }
+
+    /**
+     * Forgets all breakers and events
+     */
+    public static void reset() {
+        breakers.clear();
+        events.clear();
+    }
+}
@@ -1,18 +1,50 @@
 package com.selenium.core;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
+import com.selenium.grid.GridThrottle;
+import com.selenium.http.SharedHttpClientFactory;
+import com.selenium.metrics.CommandLatency;
+import com.selenium.metrics.CommandLatencyListener;
+import com.selenium.metrics.SuiteMetrics;
+import com.selenium.network.NetworkShaper;
+import com.selenium.replay.ReplayServer;
+import com.selenium.session.LoginSessionCache;
+import com.selenium.stub.StubDriverServer;
+import com.selenium.tracing.Span;
+import com.selenium.tracing.Tracer;
+import com.selenium.utils.ConfigurationManager;
+import com.selenium.utils.ReportManager;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.service.DriverService;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.SkipException;
 
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -27,6 +59,7 @@ public class DriverManager {
     private static final Logger logger = LoggerFactory.getLogger(DriverManager.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
     private static final ConcurrentHashMap<String, WebDriver> activeDrivers = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, DriverService> activeServices = new ConcurrentHashMap<>();
     
     private DriverManager() {
         // Private constructor to prevent instantiation
@@ -40,11 +73,69 @@ public class DriverManager {
      * @return Configured WebDriver instance
      */
     public static WebDriver createDriver(String browserName, boolean headless) {
+        // Skip at once while this browser keeps failing to start
+        CircuitBreaker breaker = CircuitBreaker.isEnabled() ? CircuitBreaker.forTarget(browserName.toLowerCase()) : null;
+        if (breaker != null && !breaker.tryAcquire()) {
+            String message = breaker.describeOpen();
+            logger.warn(message);
+            ReportManager.logSkip(message);
+            throw new SkipException(message);
+        }
+        
+        Span span = Tracer.start("driver.create")
+            .setAttribute("browser.name", browserName)
+            .setAttribute("browser.headless", headless);
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = openDriver(browserName, headless);
+            SuiteMetrics.recordSessionCreation(System.nanoTime() - start, true);
+            if (breaker != null) {
+                breaker.recordSuccess();
+            }
+            return driver;
+        } catch (RuntimeException e) {
+            SuiteMetrics.recordSessionCreation(System.nanoTime() - start, false);
+            if (breaker != null) {
+                breaker.recordFailure(e);
+            }
+            span.recordError(e);
+            throw e;
+        } finally {
+            Tracer.end(span);
+        }
+    }
+    
+    private static WebDriver openDriver(String browserName, boolean headless) {
         logger.info("Initializing WebDriver for browser: {}, Headless: {}", browserName, headless);
         
         WebDriver driver;
         
         try {
+            if (StubDriverServer.isEnabled()) {
+                // Measure framework overhead against the in-process stub instead of a browser
+                driver = new RemoteWebDriver(StubDriverServer.getInstance().getUrl(),
+                    new ImmutableCapabilities("browserName", browserName.toLowerCase()));
+                configureDriver(driver);
+                return registerDriver(driver);
+            }
+            
+            if (isGridEnabled()) {
+                driver = createRemoteDriver(browserName, headless);
+                configureDriver(driver);
+                return registerDriver(driver);
+            }
+            
+            if (BrowserContextManager.isEnabledFor(browserName)) {
+                // Reuse this worker's browser process, isolate the test in a new browser context
+                driver = BrowserContextManager.openContext(() -> {
+                    WebDriver browser = "edge".equalsIgnoreCase(browserName)
+                        ? createEdgeDriver(headless) : createChromeDriver(headless);
+                    configureDriver(browser);
+                    return browser;
+                });
+                return registerDriver(driver);
+            }
+            
             switch (browserName.toLowerCase()) {
                 case "chrome":
                     driver = createChromeDriver(headless);
@@ -64,14 +155,7 @@ public class DriverManager {
             }
             
             configureDriver(driver);
-            
-            // Store driver instances
-            String threadName = Thread.currentThread().getName();
-            driverThreadLocal.set(driver);
-            activeDrivers.put(threadName, driver);
-            
-            logger.info("WebDriver initialized successfully for thread: {}", threadName);
-            return driver;
+            return registerDriver(driver);
             
         } catch (Exception e) {
             logger.error("Failed to initialize WebDriver for browser: {}", browserName, e);
@@ -79,12 +163,45 @@ public class DriverManager {
         }
     }
     
+    /**
+     * Stores the driver for the current thread
+     */
+    private static WebDriver registerDriver(WebDriver driver) {
+        String threadName = Thread.currentThread().getName();
+        
+        // Block/stub requests of the focused page if the suite enables network shaping
+        NetworkShaper.attach(driver);
+        
+        // Time every command issued through the driver handed to tests and pages
+        WebDriver tracked = CommandLatency.isEnabled()
+            ? new EventFiringDecorator<>(new CommandLatencyListener()).decorate(driver)
+            : driver;
+        driverThreadLocal.set(tracked);
+        activeDrivers.put(threadName, tracked);
+        
+        logger.info("WebDriver initialized successfully for thread: {}", threadName);
+        return tracked;
+    }
+    
     /**
      * Creates Chrome WebDriver with options
      */
     private static WebDriver createChromeDriver(boolean headless) {
         WebDriverManager.chromedriver().clearDriverCache().setup();
         
+        ChromeDriverService service = ChromeDriverService.createDefaultService();
+        registerService(service);
+        if (SharedHttpClientFactory.isEnabled()) {
+            // Send commands through the shared client of this service
+            return LocalChromiumDriver.chrome(service, chromeOptions(headless), SharedHttpClientFactory.getInstance());
+        }
+        return new ChromeDriver(service, chromeOptions(headless));
+    }
+    
+    /**
+     * Builds the Chrome options shared by local and Grid sessions
+     */
+    private static ChromeOptions chromeOptions(boolean headless) {
         ChromeOptions options = new ChromeOptions();
         
         if (headless) {
@@ -110,8 +227,7 @@ public class DriverManager {
         options.addArguments("--disable-default-apps");
         options.addArguments("--disable-sync");
         options.addArguments("--disable-plugins");
-        
-        return new ChromeDriver(options);
+        return options;
     }
     
     /**
@@ -120,6 +236,15 @@ public class DriverManager {
     private static WebDriver createFirefoxDriver(boolean headless) {
         WebDriverManager.firefoxdriver().clearDriverCache().setup();
         
+        GeckoDriverService service = GeckoDriverService.createDefaultService();
+        registerService(service);
+        return new FirefoxDriver(service, firefoxOptions(headless));
+    }
+    
+    /**
+     * Builds the Firefox options shared by local and Grid sessions
+     */
+    private static FirefoxOptions firefoxOptions(boolean headless) {
         FirefoxOptions options = new FirefoxOptions();
         
         if (headless) {
@@ -132,8 +257,7 @@ public class DriverManager {
         // OPTIMIZED OPTIONS FOR FASTER EXECUTION
         options.addPreference("dom.max_script_run_time", 30);
         options.addPreference("dom.max_chrome_script_run_time", 30);
-        
-        return new FirefoxDriver(options);
+        return options;
     }
     
     /**
@@ -142,6 +266,18 @@ public class DriverManager {
     private static WebDriver createEdgeDriver(boolean headless) {
         WebDriverManager.edgedriver().clearDriverCache().setup();
         
+        EdgeDriverService service = EdgeDriverService.createDefaultService();
+        registerService(service);
+        if (SharedHttpClientFactory.isEnabled()) {
+            return LocalChromiumDriver.edge(service, edgeOptions(headless), SharedHttpClientFactory.getInstance());
+        }
+        return new EdgeDriver(service, edgeOptions(headless));
+    }
+    
+    /**
+     * Builds the Edge options shared by local and Grid sessions
+     */
+    private static EdgeOptions edgeOptions(boolean headless) {
         EdgeOptions options = new EdgeOptions();
         
         if (headless) {
@@ -157,8 +293,7 @@ public class DriverManager {
         options.addArguments("--disable-background-timer-throttling");
         options.addArguments("--disable-backgrounding-occluded-windows");
         options.addArguments("--disable-renderer-backgrounding");
-        
-        return new EdgeDriver(options);
+        return options;
     }
     
     /**
@@ -169,6 +304,62 @@ public class DriverManager {
         return new SafariDriver();
     }
     
+    /**
+     * Checks whether sessions run on a Selenium Grid (selenium.grid.enabled)
+     * 
+     * @return true if drivers are RemoteWebDrivers on selenium.hub
+     */
+    public static boolean isGridEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("selenium.grid.enabled", false);
+    }
+    
+    /**
+     * Creates a RemoteWebDriver on the Selenium Grid (selenium.hub, or SELENIUM_HUB)
+     * The new-session request is only sent once the Grid has a free slot, and all
+     * sessions talk to the hub over one shared HTTP client
+     */
+    private static WebDriver createRemoteDriver(String browserName, boolean headless)
+            throws MalformedURLException, InterruptedException {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        URL hub = new URL(config.getProperty("selenium.hub", "http://localhost:4444"));
+        Capabilities options;
+        switch (browserName.toLowerCase()) {
+            case "firefox":
+                options = firefoxOptions(headless);
+                break;
+            case "edge":
+                options = edgeOptions(headless);
+                break;
+            case "safari":
+                options = new SafariOptions();
+                break;
+            default:
+                options = chromeOptions(headless);
+        }
+        
+        GridThrottle throttle = GridThrottle.forHub(hub);
+        GridThrottle.Permit permit = throttle.acquire(options.getBrowserName());
+        try {
+            logger.info("Requesting {} session from Selenium Grid {} (waited {} ms for a slot)",
+                options.getBrowserName(), hub, Duration.ofNanos(permit.getWaitNanos()).toMillis());
+            ClientConfig clientConfig = ClientConfig.defaultConfig()
+                .baseUrl(hub)
+                .readTimeout(Duration.ofSeconds(config.getIntProperty("grid.read.timeout.seconds", 180)));
+            HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), clientConfig,
+                SharedHttpClientFactory.forSessions());
+            return new RemoteWebDriver(executor, options);
+        } finally {
+            throttle.release(permit);
+        }
+    }
+    
+    /**
+     * Remembers the local driver service so a hung session can be killed at shutdown
+     */
+    private static void registerService(DriverService service) {
+        activeServices.put(Thread.currentThread().getName(), service);
+    }
+    
     /**
      * Configures driver with optimized timeouts and settings
      */
@@ -198,6 +389,22 @@ public class DriverManager {
         return driver;
     }
     
+    /**
+     * Gets the browser driver behind a driver handed out by createDriver
+     * The command latency decorator implements the driver's interfaces but is not a
+     * RemoteWebDriver, so casts to driver classes need the unwrapped driver
+     * 
+     * @param driver Driver, decorated or not
+     * @return Undecorated driver
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver unwrapped = driver;
+        while (unwrapped instanceof WrapsDriver) {
+            unwrapped = ((WrapsDriver) unwrapped).getWrappedDriver();
+        }
+        return unwrapped;
+    }
+    
     /**
      * Checks if driver is initialized for current thread
      * 
@@ -207,6 +414,36 @@ public class DriverManager {
         return driverThreadLocal.get() != null;
     }
     
+    /**
+     * Resolves the URL the browser should open
+     * With replay.mode set, the live site is served by a local record/replay server
+     * 
+     * @param url Live URL
+     * @return URL to navigate to
+     */
+    public static String resolveUrl(String url) {
+        return ReplayServer.route(url);
+    }
+    
+    /**
+     * Injects a captured login session into the current driver and opens the logged-in page
+     * 
+     * @param user User whose session should be restored
+     * @return true if the browser is logged in, false if a UI login is required
+     */
+    public static boolean restoreLoginSession(String user) {
+        return LoginSessionCache.restore(getDriver(), user);
+    }
+    
+    /**
+     * Captures the current driver's cookies and localStorage as the user's login session
+     * 
+     * @param user User that has just logged in
+     */
+    public static void captureLoginSession(String user) {
+        LoginSessionCache.capture(getDriver(), user);
+    }
+    
     /**
      * Quits driver for current thread
      */
@@ -215,14 +452,25 @@ public class DriverManager {
         String threadName = Thread.currentThread().getName();
         
         if (driver != null) {
+            boolean sharedBrowser = BrowserContextManager.isContextActive();
             try {
-                driver.quit();
-                logger.info("Driver quit successfully for thread: {}", threadName);
+                NetworkShaper.detach();
+                if (sharedBrowser) {
+                    // Keep the browser process, only drop this test's cookies and storage
+                    BrowserContextManager.closeContext();
+                    logger.info("Browser context disposed for thread: {}", threadName);
+                } else {
+                    driver.quit();
+                    logger.info("Driver quit successfully for thread: {}", threadName);
+                }
             } catch (Exception e) {
                 logger.warn("Error while quitting driver for thread {}: {}", threadName, e.getMessage());
             } finally {
                 driverThreadLocal.remove();
                 activeDrivers.remove(threadName);
+                if (!sharedBrowser) {
+                    activeServices.remove(threadName);
+                }
             }
         } else {
             logger.warn("No driver found to quit for thread: {}", threadName);
@@ -230,24 +478,81 @@ public class DriverManager {
     }
     
     /**
-     * Quits all active drivers
+     * Throws away the current thread's shared browser after a crash, so the next test
+     * launches a fresh one instead of opening its context in the dead process
+     */
+    public static void discardSharedBrowser() {
+        WebDriver browser = BrowserContextManager.discardSharedBrowser();
+        if (browser == null) {
+            return;
+        }
+        String threadName = Thread.currentThread().getName();
+        DriverService service = activeServices.remove(threadName);
+        logger.warn("Discarding shared browser of thread {}", threadName);
+        
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        DriverShutdownExecutor.shutdownAll(Map.of(threadName, browser),
+            Duration.ofSeconds(config.getIntProperty("driver.shutdown.timeout", 20)),
+            Duration.ofSeconds(config.getIntProperty("driver.shutdown.kill.timeout", 5)),
+            (owner, driver) -> driver.quit(),
+            (owner, driver) -> killDriverService(owner, service));
+    }
+    
+    /**
+     * Quits all active drivers and waits for the shutdown to finish
      */
     public static void quitAllDrivers() {
+        quitAllDriversAsync().join();
+    }
+    
+    /**
+     * Quits all active drivers on the dedicated shutdown executor
+     * Each session gets driver.shutdown.timeout seconds; sessions that overrun are
+     * killed together with their local driver process tree
+     * 
+     * @return Future completed when every session is down
+     */
+    public static CompletableFuture<Void> quitAllDriversAsync() {
         logger.info("Quitting all active drivers. Count: {}", activeDrivers.size());
         
-        activeDrivers.values().parallelStream().forEach(driver -> {
-            try {
-                if (driver != null) {
-                    driver.quit();
-                }
-            } catch (Exception e) {
-                logger.warn("Error while quitting driver: {}", e.getMessage());
-            }
-        });
-        
+        Map<String, WebDriver> sessions = new HashMap<>(activeDrivers);
+        BrowserContextManager.drainSharedBrowsers().forEach(sessions::putIfAbsent);
+        Map<String, DriverService> services = new HashMap<>(activeServices);
         activeDrivers.clear();
+        activeServices.clear();
         driverThreadLocal.remove();
-        logger.info("All drivers quit successfully");
+        
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        Duration deadline = Duration.ofSeconds(config.getIntProperty("driver.shutdown.timeout", 20));
+        Duration killDeadline = Duration.ofSeconds(config.getIntProperty("driver.shutdown.kill.timeout", 5));
+        
+        return DriverShutdownExecutor.shutdownAll(sessions, deadline, killDeadline,
+                (owner, driver) -> driver.quit(),
+                (owner, driver) -> killDriverService(owner, services.get(owner)))
+            .thenAccept(results -> logger.info("All drivers quit successfully"));
+    }
+    
+    /**
+     * Kills the local driver process (and the browser it spawned) backing a session
+     */
+    private static void killDriverService(String owner, DriverService service) {
+        if (service == null) {
+            logger.warn("No local driver process recorded for {}, abandoning session", owner);
+            return;
+        }
+        
+        int port = service.getUrl().getPort();
+        String portArgument = "--port=" + port;
+        ProcessHandle.current().children()
+            .filter(process -> process.info().commandLine().map(line -> line.contains(portArgument)).orElse(false))
+            .forEach(process -> {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+                logger.warn("Killed driver process {} (port {}) for {}", process.pid(), port, owner);
+            });
+        
+        // Fallback in case the process could not be matched by its command line
+        service.stop();
     }
     
     /**
@@ -0,0 +1,204 @@
+package com.selenium.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * DriverShutdownExecutor - Tears down driver sessions on a dedicated thread pool
+ * Every session gets its own deadline; a session that overruns it is hard-killed
+ * so one hung quit cannot stall suite shutdown or starve the common ForkJoinPool.
+ * A step that overruns its deadline is interrupted, which ends a quit blocked in an
+ * HTTP call; only a step that ignores interrupts keeps its pool thread
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class DriverShutdownExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverShutdownExecutor.class);
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    // Cached pool: a session stuck in a blocking HTTP call only pins its own thread, until its deadline
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "driver-shutdown-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * How a single session ended
+     */
+    public enum Outcome {
+        GRACEFUL, FAILED, KILLED, KILL_FAILED
+    }
+
+    /**
+     * Shutdown result of a single session
+     */
+    public static final class SessionShutdown {
+        private final String sessionKey;
+        private final Outcome outcome;
+        private final long durationMillis;
+        private final String detail;
+
+        SessionShutdown(String sessionKey, Outcome outcome, long durationMillis, String detail) {
+            this.sessionKey = sessionKey;
+            this.outcome = outcome;
+            this.durationMillis = durationMillis;
+            this.detail = detail;
+        }
+
+        public String getSessionKey() {
+            return sessionKey;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+    }
+
+    private DriverShutdownExecutor() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Shuts down all sessions concurrently
+     *
+     * @param sessions Sessions keyed by owner (thread name)
+     * @param deadline Per-session deadline for the graceful quit
+     * @param killDeadline Deadline for the hard kill after a graceful quit timed out
+     * @param gracefulQuit Normal teardown (quit, close app, ...)
+     * @param hardKill Forced teardown used when the graceful quit overruns
+     * @param <D> Driver type
+     * @return Future completed with one entry per session once all are down
+     */
+    public static <D> CompletableFuture<List<SessionShutdown>> shutdownAll(Map<String, D> sessions,
+                                                                          Duration deadline,
+                                                                          Duration killDeadline,
+                                                                          BiConsumer<String, D> gracefulQuit,
+                                                                          BiConsumer<String, D> hardKill) {
+        List<CompletableFuture<SessionShutdown>> futures = new ArrayList<>();
+        sessions.forEach((key, driver) -> {
+            if (driver != null) {
+                futures.add(shutdownOne(key, driver, deadline, killDeadline, gracefulQuit, hardKill));
+            }
+        });
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                List<SessionShutdown> results = new ArrayList<>();
+                futures.forEach(future -> results.add(future.join()));
+                logBreakdown(results);
+                return results;
+            });
+    }
+
+    private static <D> CompletableFuture<SessionShutdown> shutdownOne(String key, D driver,
+                                                                     Duration deadline, Duration killDeadline,
+                                                                     BiConsumer<String, D> gracefulQuit,
+                                                                     BiConsumer<String, D> hardKill) {
+        long start = System.nanoTime();
+
+        return runWithDeadline(() -> gracefulQuit.accept(key, driver), deadline)
+            .handleAsync((ignored, error) -> {
+                if (error == null) {
+                    return CompletableFuture.completedFuture(
+                        new SessionShutdown(key, Outcome.GRACEFUL, elapsedMillis(start), ""));
+                }
+
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof TimeoutException)) {
+                    logger.warn("Error while quitting driver for {}: {}", key, cause.getMessage());
+                    return CompletableFuture.completedFuture(
+                        new SessionShutdown(key, Outcome.FAILED, elapsedMillis(start), String.valueOf(cause.getMessage())));
+                }
+
+                logger.warn("Driver for {} did not quit within {}s - killing it", key, deadline.getSeconds());
+                return runWithDeadline(() -> hardKill.accept(key, driver), killDeadline)
+                    .handle((killed, killError) -> killError == null
+                        ? new SessionShutdown(key, Outcome.KILLED, elapsedMillis(start), "quit timed out")
+                        : new SessionShutdown(key, Outcome.KILL_FAILED, elapsedMillis(start),
+                            unwrap(killError) instanceof TimeoutException
+                                ? "kill timed out" : String.valueOf(unwrap(killError).getMessage())));
+            }, executor)
+            .thenCompose(result -> result);
+    }
+
+    /**
+     * Runs a teardown step on the pool and interrupts it once it overruns its deadline
+     *
+     * @return Future completed when the step returns, or with a TimeoutException at the deadline
+     */
+    private static CompletableFuture<Void> runWithDeadline(Runnable step, Duration deadline) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                step.run();
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((ignored, error) -> {
+                if (error instanceof TimeoutException) {
+                    // Free the pool thread instead of leaving the hung call running
+                    task.cancel(true);
+                }
+            });
+        return result;
+    }
+
+    /**
+     * Logs the per-session shutdown time breakdown
+     */
+    private static void logBreakdown(List<SessionShutdown> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        logger.info("Driver shutdown breakdown ({} sessions):", results.size());
+        for (SessionShutdown result : results) {
+            if (result.getDetail().isEmpty()) {
+                logger.info("  {} -> {} in {}ms", result.getSessionKey(), result.getOutcome(), result.getDurationMillis());
+            } else {
+                logger.info("  {} -> {} in {}ms ({})", result.getSessionKey(), result.getOutcome(),
+                    result.getDurationMillis(), result.getDetail());
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
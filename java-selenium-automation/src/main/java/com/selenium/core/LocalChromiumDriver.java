@@ -0,0 +1,123 @@
+package com.selenium.core;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.AddHasCasting;
+import org.openqa.selenium.chromium.AddHasCdp;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.manager.SeleniumManagerOutput;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LocalChromiumDriver - Chrome or Edge driver on a local driver service with a given HTTP client
+ * ChromeDriver and EdgeDriver always talk to their service through a client of Selenium's
+ * default factory. This driver is the same ChromiumDriver (CDP, casting, DevTools) but sends
+ * its commands through the factory it is given, starting the service with the session and
+ * stopping it on quit like ChromeDriver does
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+final class LocalChromiumDriver extends ChromiumDriver {
+
+    private LocalChromiumDriver(ServiceCommandExecutor executor, ChromiumOptions<?> options, String capabilityKey,
+                                AddHasCasting casting, AddHasCdp cdp) {
+        super(executor, options, capabilityKey);
+        this.casting = casting.getImplementation(getCapabilities(), getExecuteMethod());
+        this.cdp = cdp.getImplementation(getCapabilities(), getExecuteMethod());
+    }
+
+    /**
+     * Starts a Chrome session on the service
+     *
+     * @param service Chromedriver service, started by the new session
+     * @param options Chrome options
+     * @param clientFactory Factory of the client the commands are sent through
+     * @return Chrome driver
+     */
+    static LocalChromiumDriver chrome(DriverService service, ChromeOptions options, HttpClient.Factory clientFactory) {
+        return open(service, options, ChromeOptions.CAPABILITY, new org.openqa.selenium.chrome.AddHasCasting(),
+            new org.openqa.selenium.chrome.AddHasCdp(), clientFactory);
+    }
+
+    /**
+     * Starts an Edge session on the service
+     *
+     * @param service Msedgedriver service, started by the new session
+     * @param options Edge options
+     * @param clientFactory Factory of the client the commands are sent through
+     * @return Edge driver
+     */
+    static LocalChromiumDriver edge(DriverService service, EdgeOptions options, HttpClient.Factory clientFactory) {
+        return open(service, options, EdgeOptions.CAPABILITY, new org.openqa.selenium.edge.AddHasCasting(),
+            new org.openqa.selenium.edge.AddHasCdp(), clientFactory);
+    }
+
+    private static LocalChromiumDriver open(DriverService service, ChromiumOptions<?> options, String capabilityKey,
+                                            AddHasCasting casting, AddHasCdp cdp, HttpClient.Factory clientFactory) {
+        if (service.getExecutable() == null) {
+            // Same lookup as ChromeDriver when WebDriverManager did not set the driver path
+            SeleniumManagerOutput.Result result = DriverFinder.getPath(service, options);
+            service.setExecutable(result.getDriverPath());
+            if (result.getBrowserPath() != null && !result.getBrowserPath().isEmpty()) {
+                options.setBinary(result.getBrowserPath());
+            }
+        }
+
+        Map<String, CommandInfo> commands = new HashMap<>(casting.getAdditionalCommands());
+        commands.putAll(cdp.getAdditionalCommands());
+        ServiceCommandExecutor executor = new ServiceCommandExecutor(service, commands, clientFactory);
+        return new LocalChromiumDriver(executor, options, capabilityKey, casting, cdp);
+    }
+
+    /**
+     * Sends commands to a local driver service, starting it for the new session and stopping it on quit
+     */
+    private static final class ServiceCommandExecutor extends HttpCommandExecutor {
+        private final DriverService service;
+
+        ServiceCommandExecutor(DriverService service, Map<String, CommandInfo> commands,
+                               HttpClient.Factory clientFactory) {
+            super(commands, ClientConfig.defaultConfig().baseUrl(service.getUrl()), clientFactory);
+            this.service = service;
+        }
+
+        @Override
+        public Response execute(Command command) throws IOException {
+            boolean newSession = DriverCommand.NEW_SESSION.equals(command.getName());
+            boolean quit = DriverCommand.QUIT.equals(command.getName());
+            if (newSession) {
+                service.start();
+            }
+            try {
+                Response response = super.execute(command);
+                if (quit) {
+                    service.stop();
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                if (newSession || quit) {
+                    // No session is left to quit the service with
+                    service.stop();
+                } else if (!service.isRunning()) {
+                    throw new WebDriverException("The driver server has unexpectedly died!", e);
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.selenium.grid;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * GridStatus - Free and total slots per browser from the Selenium Grid /status response
+ * Only nodes that are UP count. A node never runs more than its maxSessions, so its free
+ * slots of a browser are capped by the sessions it has left
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class GridStatus {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final boolean ready;
+    private final Map<String, Integer> freeSlots = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Integer> totalSlots = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private GridStatus(boolean ready) {
+        this.ready = ready;
+    }
+
+    /**
+     * Parses a /status response
+     *
+     * @param json Response body
+     * @return Slot counts
+     * @throws IOException if the body is not JSON
+     */
+    public static GridStatus parse(String json) throws IOException {
+        JsonNode value = mapper.readTree(json).path("value");
+        GridStatus status = new GridStatus(value.path("ready").asBoolean());
+        for (JsonNode node : value.path("nodes")) {
+            if (!"UP".equalsIgnoreCase(node.path("availability").asText())) {
+                continue;
+            }
+            Map<String, Integer> nodeFree = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            int busy = 0;
+            for (JsonNode slot : node.path("slots")) {
+                String browser = slot.path("stereotype").path("browserName").asText();
+                boolean free = slot.path("session").isMissingNode() || slot.path("session").isNull();
+                status.totalSlots.merge(browser, 1, Integer::sum);
+                if (free) {
+                    nodeFree.merge(browser, 1, Integer::sum);
+                } else {
+                    busy++;
+                }
+            }
+            int sessionsLeft = node.path("maxSessions").asInt(Integer.MAX_VALUE) - busy;
+            nodeFree.forEach((browser, free) ->
+                status.freeSlots.merge(browser, Math.max(0, Math.min(free, sessionsLeft)), Integer::sum));
+        }
+        return status;
+    }
+
+    /**
+     * @return true if the Grid accepts new sessions
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param browserName W3C browserName (chrome, firefox, MicrosoftEdge, safari)
+     * @return Sessions of the browser the Grid can start right now
+     */
+    public int getFreeSlots(String browserName) {
+        return freeSlots.getOrDefault(browserName, 0);
+    }
+
+    /**
+     * @param browserName W3C browserName
+     * @return Slots of the browser on nodes that are UP, busy or not
+     */
+    public int getTotalSlots(String browserName) {
+        return totalSlots.getOrDefault(browserName, 0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(ready ? "ready" : "not ready");
+        totalSlots.forEach((browser, total) -> text.append(", ").append(browser).append(' ')
+            .append(freeSlots.getOrDefault(browser, 0)).append('/').append(total).append(" free"));
+        return text.toString();
+    }
+}
@@ -0,0 +1,237 @@
+package com.selenium.grid;
+
+import com.selenium.metrics.SuiteMetrics;
+import com.selenium.utils.ConfigurationManager;
+import com.selenium.utils.ReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GridThrottle - Holds back new sessions until the Selenium Grid has a free slot
+ * A test thread asks for a slot before it sends the new-session request. The Grid's
+ * /status is polled (cached for grid.status.cache.ms) and a slot is granted only while
+ * the free slots of the browser exceed the sessions this JVM is still starting, so
+ * requests never wait in the Grid's session queue and never run into its timeout. The
+ * time a test waited for its slot is the session queue wait: it is exported as
+ * automation_session_queue_wait_seconds and summarized in the report
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class GridThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridThrottle.class);
+    private static final Map<String, GridThrottle> throttles = new ConcurrentHashMap<>();
+
+    /**
+     * A granted slot, released once the session is up or failed to start
+     */
+    public static final class Permit {
+        private final String browserName;
+        private final long waitNanos;
+
+        Permit(String browserName, long waitNanos) {
+            this.browserName = browserName;
+            this.waitNanos = waitNanos;
+        }
+
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+    }
+
+    private final URL hub;
+    private final long cacheNanos;
+    private final long pollMillis;
+    private final long timeoutNanos;
+    private final Map<String, Integer> starting = new HashMap<>();
+
+    private GridStatus status;
+    private long fetchedAt;
+    private boolean statusUnavailable;
+    private int statusRequests;
+    private int sessions;
+    private int queued;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    GridThrottle(URL hub, long cacheMillis, long pollMillis, long timeoutMillis) {
+        this.hub = hub;
+        this.cacheNanos = TimeUnit.MILLISECONDS.toNanos(cacheMillis);
+        this.pollMillis = Math.max(1, pollMillis);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Gets the throttle of a hub, configured from application.properties
+     *
+     * @param hub Grid URL
+     * @return Shared throttle of the hub
+     */
+    public static GridThrottle forHub(URL hub) {
+        return throttles.computeIfAbsent(hub.toString(), key -> {
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            return new GridThrottle(hub,
+                config.getIntProperty("grid.status.cache.ms", 500),
+                config.getIntProperty("grid.status.poll.ms", 1000),
+                TimeUnit.SECONDS.toMillis(config.getIntProperty("grid.slot.wait.timeout.seconds", 600)));
+        });
+    }
+
+    // ==================== SLOTS ====================
+
+    /**
+     * Blocks until the Grid has a free slot for the browser
+     *
+     * @param browserName W3C browserName of the session
+     * @return Permit to release after the new-session request
+     * @throws IllegalStateException if no slot frees up within grid.slot.wait.timeout.seconds,
+     *                               or the Grid has no slot for the browser at all
+     */
+    public synchronized Permit acquire(String browserName) throws InterruptedException {
+        long start = System.nanoTime();
+        boolean waitedForSlot = false;
+        while (true) {
+            GridStatus current = currentStatus();
+            if (current == null) {
+                // Without /status the Grid queues as usual
+                return grant(browserName, start, false);
+            }
+            if (current.isReady() && current.getTotalSlots(browserName) == 0) {
+                throw new IllegalStateException("Selenium Grid " + hub + " has no " + browserName + " slots (" + current + ")");
+            }
+            if (current.getFreeSlots(browserName) > starting.getOrDefault(browserName, 0)) {
+                return grant(browserName, start, waitedForSlot);
+            }
+            long waited = System.nanoTime() - start;
+            if (waited > timeoutNanos) {
+                throw new IllegalStateException(String.format(Locale.ROOT, "No free %s slot on Selenium Grid %s within %d s (%s)",
+                    browserName, hub, TimeUnit.NANOSECONDS.toSeconds(waited), current));
+            }
+            // Released permits wake the waiters early
+            wait(pollMillis);
+            waitedForSlot = true;
+        }
+    }
+
+    /**
+     * Ends the start of a session; the Grid's /status shows the slot as taken from now on
+     *
+     * @param permit Permit from {@link #acquire(String)}
+     */
+    public synchronized void release(Permit permit) {
+        starting.merge(permit.browserName, -1, Integer::sum);
+        status = null;
+        notifyAll();
+    }
+
+    private Permit grant(String browserName, long start, boolean waitedForSlot) {
+        long waited = System.nanoTime() - start;
+        starting.merge(browserName, 1, Integer::sum);
+        sessions++;
+        if (waitedForSlot) {
+            queued++;
+            logger.info("Waited {} ms for a free {} slot on {}", TimeUnit.NANOSECONDS.toMillis(waited), browserName, hub);
+        }
+        totalWaitNanos += waited;
+        maxWaitNanos = Math.max(maxWaitNanos, waited);
+        SuiteMetrics.recordSessionQueueWait(waited);
+        return new Permit(browserName, waited);
+    }
+
+    private GridStatus currentStatus() {
+        long now = System.nanoTime();
+        if (status != null && now - fetchedAt < cacheNanos) {
+            return status;
+        }
+        try {
+            status = GridStatus.parse(fetchStatus());
+            fetchedAt = now;
+            statusRequests++;
+            statusUnavailable = false;
+            logger.debug("Selenium Grid {}: {}", hub, status);
+            return status;
+        } catch (IOException e) {
+            if (!statusUnavailable) {
+                logger.warn("Cannot read the status of Selenium Grid {}, not throttling: {}", hub, e.toString());
+                statusUnavailable = true;
+            }
+            return null;
+        }
+    }
+
+    private String fetchStatus() throws IOException {
+        String base = hub.toString().endsWith("/") ? hub.toString() : hub + "/";
+        HttpURLConnection connection = (HttpURLConnection) new URL(base + "status").openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        try {
+            if (connection.getResponseCode() != 200) {
+                throw new IOException("HTTP " + connection.getResponseCode());
+            }
+            try (InputStream in = connection.getInputStream()) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // ==================== REPORTING ====================
+
+    /**
+     * @return Sessions that had to wait for a slot
+     */
+    public synchronized int getQueuedSessions() {
+        return queued;
+    }
+
+    /**
+     * @return Longest session queue wait in nanoseconds
+     */
+    public synchronized long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * Logs the session queue wait of every hub and adds it to the report
+     */
+    public static void publish() {
+        if (throttles.isEmpty()) {
+            return;
+        }
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Hub", "Sessions", "Waited for Slot", "Mean Wait ms", "Max Wait ms", "Status Requests"});
+        for (GridThrottle throttle : throttles.values()) {
+            synchronized (throttle) {
+                String[] row = {throttle.hub.toString(), String.valueOf(throttle.sessions), String.valueOf(throttle.queued),
+                    String.valueOf(throttle.sessions > 0 ? TimeUnit.NANOSECONDS.toMillis(throttle.totalWaitNanos / throttle.sessions) : 0),
+                    String.valueOf(TimeUnit.NANOSECONDS.toMillis(throttle.maxWaitNanos)), String.valueOf(throttle.statusRequests)};
+                rows.add(row);
+                logger.info("Selenium Grid {}: {} sessions, {} waited for a slot, mean wait {} ms, max wait {} ms",
+                    row[0], row[1], row[2], row[3], row[4]);
+            }
+        }
+        ReportManager.addSummaryTable("Selenium Grid Session Queue", rows.toArray(new String[0][]));
+    }
+
+    /**
+     * Forgets all hubs
+     */
+    public static void reset() {
+        throttles.clear();
+    }
+}
@@ -0,0 +1,156 @@
+package com.selenium.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TcpConnections - Counts the TCP connections this JVM opened to one server
+ * Neither the JDK client nor Netty reports when it opens a connection, so the connections
+ * are read from the Linux socket table (/proc/net/tcp, tcp6): every connection has a local
+ * port of its own, and the ports seen towards the server are the connections opened to it.
+ * Sockets of other processes are left out by their inode, checked only for ports not seen
+ * before, so a client that reuses its connections pays for reading the table alone.
+ * A connection the server closes right after its first response can be gone before it is
+ * sampled; driver services and Grid keep connections alive, so that is rare in a run.
+ * Elsewhere (no /proc) connections are not counted
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+final class TcpConnections {
+
+    private static final Logger logger = LoggerFactory.getLogger(TcpConnections.class);
+    private static final Path[] TABLES = {Paths.get("/proc/net/tcp"), Paths.get("/proc/net/tcp6")};
+    private static final Path FILE_DESCRIPTORS = Paths.get("/proc/self/fd");
+
+    private final Set<InetAddress> addresses;
+    private final int port;
+    private final Set<Integer> localPorts = new HashSet<>();
+    private final Set<Long> foreignSockets = new HashSet<>();
+
+    TcpConnections(URI server) throws UnknownHostException {
+        this.addresses = Set.of(InetAddress.getAllByName(server.getHost()));
+        this.port = server.getPort() != -1 ? server.getPort() : "https".equals(server.getScheme()) ? 443 : 80;
+    }
+
+    /**
+     * Checks whether connections can be counted on this system
+     *
+     * @return true if the socket table is readable
+     */
+    static boolean isSupported() {
+        return Files.isReadable(TABLES[0]) && Files.isDirectory(FILE_DESCRIPTORS);
+    }
+
+    /**
+     * Records the connections currently open to the server
+     * Call after every request: a connection is seen while the response is read from it
+     */
+    synchronized void sample() {
+        Map<Integer, Long> candidates = new HashMap<>();
+        for (Path table : TABLES) {
+            try {
+                readTable(Files.readAllLines(table), candidates);
+            } catch (IOException e) {
+                logger.debug("Could not read {}: {}", table, e.getMessage());
+            }
+        }
+        candidates.keySet().removeAll(localPorts);
+        candidates.values().removeAll(foreignSockets);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ownSockets = ownSockets();
+        candidates.forEach((localPort, inode) -> {
+            if (ownSockets.contains(inode)) {
+                localPorts.add(localPort);
+            } else {
+                foreignSockets.add(inode);
+            }
+        });
+    }
+
+    /**
+     * @return Connections opened to the server since the first sample
+     */
+    synchronized int count() {
+        return localPorts.size();
+    }
+
+    /**
+     * Collects local port and inode of the connections to the server in one socket table
+     */
+    private void readTable(List<String> lines, Map<Integer, Long> candidates) {
+        // sl local_address rem_address st tx_queue:rx_queue tr:tm->when retrnsmt uid timeout inode
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 10) {
+                continue;
+            }
+            String[] remote = fields[2].split(":");
+            long inode = Long.parseLong(fields[9]);
+            // Inode 0: closed and no longer owned by a process
+            if (inode == 0 || Integer.parseInt(remote[1], 16) != port || !addresses.contains(address(remote[0]))) {
+                continue;
+            }
+            candidates.put(Integer.parseInt(fields[1].split(":")[1], 16), inode);
+        }
+    }
+
+    /**
+     * Parses an address of the socket table, whose 32-bit words are in host byte order
+     */
+    private static InetAddress address(String hex) {
+        ByteBuffer bytes = ByteBuffer.allocate(hex.length() / 2);
+        for (int word = 0; word < hex.length(); word += 8) {
+            int value = (int) Long.parseLong(hex.substring(word, word + 8), 16);
+            bytes.putInt(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? Integer.reverseBytes(value) : value);
+        }
+        try {
+            // IPv4 connections of dual-stack sockets are listed as IPv4-mapped IPv6 addresses,
+            // which getByAddress turns back into IPv4 ones
+            return InetAddress.getByAddress(bytes.array());
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Invalid address in socket table: " + hex, e);
+        }
+    }
+
+    /**
+     * @return Inodes of the sockets this process has open
+     */
+    private static Set<Long> ownSockets() {
+        Set<Long> inodes = new HashSet<>();
+        try (DirectoryStream<Path> descriptors = Files.newDirectoryStream(FILE_DESCRIPTORS)) {
+            for (Path descriptor : descriptors) {
+                try {
+                    String target = Files.readSymbolicLink(descriptor).toString();
+                    if (target.startsWith("socket:[")) {
+                        inodes.add(Long.parseLong(target.substring(8, target.length() - 1)));
+                    }
+                } catch (IOException e) {
+                    // Closed while listing
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Could not list {}: {}", FILE_DESCRIPTORS, e.getMessage());
+        }
+        return inodes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.selenium.listeners;
+
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * FailureClassifier - Sorts test failures into infrastructure and product failures
+ * The whole cause chain is inspected, in order of precedence: a lost driver or browser
+ * anywhere in it makes the failure a driver crash, then a missing element, a timeout and
+ * a failed assertion. Only driver crashes and timeouts count as infrastructure failures
+ * worth an immediate retry; failed assertions and missing elements point at the
+ * application (or the test) and are reported as they are
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class FailureClassifier {
+
+    // WebDriverException messages of browsers and drivers that went away mid-test
+    private static final String[] CRASH_MESSAGES = {
+        "chrome not reachable", "disconnected: not connected to devtools", "session deleted because of page crash",
+        "tab crashed", "browser has closed the connection", "failed to decode response from marionette",
+        "connection refused", "connection reset", "unable to connect to renderer"
+    };
+
+    /**
+     * Failure categories
+     */
+    public enum Category {
+        DRIVER_CRASH(true),
+        TIMEOUT(true),
+        ELEMENT_NOT_FOUND(false),
+        ASSERTION(false),
+        OTHER(false);
+
+        private final boolean infrastructure;
+
+        Category(boolean infrastructure) {
+            this.infrastructure = infrastructure;
+        }
+
+        /**
+         * @return true if the failure lies with the driver, browser or Grid rather than the application
+         */
+        public boolean isInfrastructure() {
+            return infrastructure;
+        }
+    }
+
+    private FailureClassifier() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Classifies a test failure
+     *
+     * @param failure Throwable of the failed test, may be null
+     * @return Category of the failure
+     */
+    public static Category classify(Throwable failure) {
+        List<Throwable> chain = new ArrayList<>();
+        for (Throwable cause = failure; cause != null && !chain.contains(cause); cause = cause.getCause()) {
+            chain.add(cause);
+        }
+        if (chain.stream().anyMatch(FailureClassifier::isCrash)) {
+            return Category.DRIVER_CRASH;
+        }
+        // A wait that timed out looking for an element failed on the element, not on time
+        if (chain.stream().anyMatch(cause -> cause instanceof NoSuchElementException
+                || cause instanceof StaleElementReferenceException || cause instanceof InvalidSelectorException)) {
+            return Category.ELEMENT_NOT_FOUND;
+        }
+        if (chain.stream().anyMatch(cause -> cause instanceof TimeoutException
+                || cause instanceof ScriptTimeoutException || cause instanceof SocketTimeoutException
+                || "org.testng.internal.thread.ThreadTimeoutException".equals(cause.getClass().getName()))) {
+            return Category.TIMEOUT;
+        }
+        if (chain.stream().anyMatch(cause -> cause instanceof AssertionError)) {
+            return Category.ASSERTION;
+        }
+        return Category.OTHER;
+    }
+
+    private static boolean isCrash(Throwable cause) {
+        if (cause instanceof NoSuchSessionException || cause instanceof SessionNotCreatedException
+                || cause instanceof UnreachableBrowserException || cause instanceof SocketException) {
+            return true;
+        }
+        if (cause instanceof WebDriverException && cause.getMessage() != null) {
+            String message = cause.getMessage().toLowerCase(Locale.ROOT);
+            for (String crash : CRASH_MESSAGES) {
+                if (message.contains(crash)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
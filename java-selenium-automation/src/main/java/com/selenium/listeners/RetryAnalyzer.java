@@ -0,0 +1,212 @@
+package com.selenium.listeners;
+
+import com.selenium.core.DriverManager;
+import com.selenium.metrics.SuiteMetrics;
+import com.selenium.utils.ConfigurationManager;
+import com.selenium.utils.ReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RetryAnalyzer - Re-runs tests that failed for infrastructure reasons
+ * Failures are classified by {@link FailureClassifier}; with execution.retry.failed.only
+ * only driver crashes and timeouts are retried, at most test.retry.count times
+ * (execution.retry.count when unset). TestNG re-runs the test right away, and as the
+ * driver is created per test the retry runs on a fresh session; a crashed shared browser
+ * is thrown away first. Every retry and the final result of retried tests are listed
+ * in a report table of their own, so a pass on retry is never mistaken for a clean pass
+ * and product failures still fail on the first attempt.
+ * Attached to all tests by {@link RetryTransformer}
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryAnalyzer.class);
+    private static final List<Retry> retries = new CopyOnWriteArrayList<>();
+    private static final Map<String, String> finalResults = new ConcurrentHashMap<>();
+
+    /**
+     * One failed attempt that was retried
+     */
+    public static final class Retry {
+        private final String testId;
+        private final int attempt;
+        private final FailureClassifier.Category category;
+        private final String message;
+
+        Retry(String testId, int attempt, FailureClassifier.Category category, String message) {
+            this.testId = testId;
+            this.attempt = attempt;
+            this.category = category;
+            this.message = message;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        /**
+         * @return Number of the failed attempt, 1 for the first run
+         */
+        public int getAttempt() {
+            return attempt;
+        }
+
+        public FailureClassifier.Category getCategory() {
+            return category;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final int maxRetries;
+    private final boolean infrastructureOnly;
+    private int attempts;
+
+    public RetryAnalyzer() {
+        this(getConfiguredRetryCount(),
+            ConfigurationManager.getInstance().getBooleanProperty("execution.retry.failed.only", true));
+    }
+
+    RetryAnalyzer(int maxRetries, boolean infrastructureOnly) {
+        this.maxRetries = maxRetries;
+        this.infrastructureOnly = infrastructureOnly;
+    }
+
+    /**
+     * Gets the retry budget per test (test.retry.count, falling back to execution.retry.count)
+     *
+     * @return Retries per test, 0 if retrying is off
+     */
+    public static int getConfiguredRetryCount() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int retryCount = config.getIntProperty("execution.retry.count", 0);
+        return Math.max(0, config.getIntProperty("test.retry.count", retryCount));
+    }
+
+    @Override
+    public boolean retry(ITestResult result) {
+        FailureClassifier.Category category = FailureClassifier.classify(result.getThrowable());
+        boolean retry = retry(testId(result), category, result.getThrowable());
+        if (retry && category == FailureClassifier.Category.DRIVER_CRASH) {
+            DriverManager.discardSharedBrowser();
+        }
+        return retry;
+    }
+
+    /**
+     * Decides on one failed attempt and records it when it is retried
+     *
+     * @param testId Class.method of the test
+     * @param category Classified failure
+     * @param failure Failure of the attempt, may be null
+     * @return true if the test runs again
+     */
+    synchronized boolean retry(String testId, FailureClassifier.Category category, Throwable failure) {
+        if (infrastructureOnly && !category.isInfrastructure()) {
+            logger.info("Not retrying {}: {} is not an infrastructure failure", testId, category);
+            return false;
+        }
+        if (attempts >= maxRetries) {
+            if (maxRetries > 0) {
+                logger.warn("Not retrying {}: all {} retries used, last failure {}", testId, maxRetries, category);
+            }
+            return false;
+        }
+        attempts++;
+        String message = failure != null
+            ? failure.getClass().getSimpleName() + ": " + firstLine(failure.getMessage())
+            : "";
+        retries.add(new Retry(testId, attempts, category, message));
+        SuiteMetrics.recordRetry(category.name());
+        logger.warn("Retrying {} ({} of {}) after {} failure: {}", testId, attempts, maxRetries, category, message);
+        return true;
+    }
+
+    // ==================== RESULTS ====================
+
+    /**
+     * Builds the id retries are recorded under
+     *
+     * @param result Test result
+     * @return SimpleClassName.method
+     */
+    public static String testId(ITestResult result) {
+        return result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+    }
+
+    /**
+     * Counts the retries of a test so far
+     *
+     * @param testId Class.method of the test
+     * @return Retried attempts
+     */
+    public static int getRetryCount(String testId) {
+        return (int) retries.stream().filter(retry -> retry.testId.equals(testId)).count();
+    }
+
+    /**
+     * Records the final result of a test that was retried
+     *
+     * @param testId Class.method of the test
+     * @param status Final status (PASSED, FAILED, SKIPPED)
+     */
+    public static void recordFinalResult(String testId, String status) {
+        if (getRetryCount(testId) > 0) {
+            finalResults.put(testId, status);
+        }
+    }
+
+    /**
+     * @return Retried attempts of this run, in order
+     */
+    public static List<Retry> getRetries() {
+        return new ArrayList<>(retries);
+    }
+
+    /**
+     * Logs the retries of this run and adds them to the report as a table of their own
+     */
+    public static void publish() {
+        if (retries.isEmpty()) {
+            return;
+        }
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Test", "Attempt", "Failure Type", "Error", "Final Result"});
+        for (Retry retry : retries) {
+            rows.add(new String[] {retry.testId, String.valueOf(retry.attempt), retry.category.name(), retry.message,
+                finalResults.getOrDefault(retry.testId, "UNKNOWN")});
+        }
+        long passedOnRetry = finalResults.values().stream().filter("PASSED"::equals).count();
+        logger.warn("{} retries of {} tests, {} passed on retry", retries.size(), finalResults.size(), passedOnRetry);
+        ReportManager.addSummaryTable("Test Retries", rows.toArray(new String[0][]));
+    }
+
+    /**
+     * Forgets all recorded retries
+     */
+    public static void reset() {
+        retries.clear();
+        finalResults.clear();
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+}
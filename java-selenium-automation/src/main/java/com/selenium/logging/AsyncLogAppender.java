@@ -0,0 +1,309 @@
+package com.selenium.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AsyncLogAppender - Moves console and file output off the test threads
+ * Logging threads only put the event into a {@link LogRingBuffer}; one writer thread
+ * hands it to the attached appenders. Nothing on the test thread waits for I/O:
+ * <ul>
+ *   <li>DEBUG and TRACE are shed once the buffer is degradePercent full or the
+ *       {@link LogBudget} of the current second is used up</li>
+ *   <li>INFO is dropped when the buffer is full</li>
+ *   <li>WARN and ERROR wait up to maxBlockMillis for room before being dropped</li>
+ * </ul>
+ * Shed, dropped, unprepared and overflowing events are counted and exposed on /metrics. Remaining
+ * events are written out when logback stops (at JVM shutdown with the shutdown hook)
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AsyncLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static volatile AsyncLogAppender active;
+
+    /**
+     * Counters of the running appender
+     */
+    public static final class Stats {
+        private final long dropped;
+        private final long overflows;
+        private final long degraded;
+        private final long unprepared;
+        private final int queued;
+        private final int capacity;
+
+        Stats(long dropped, long overflows, long degraded, long unprepared, int queued, int capacity) {
+            this.dropped = dropped;
+            this.overflows = overflows;
+            this.degraded = degraded;
+            this.unprepared = unprepared;
+            this.queued = queued;
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return INFO and above events lost because the buffer stayed full
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * @return Events that found the buffer full
+         */
+        public long getOverflows() {
+            return overflows;
+        }
+
+        /**
+         * @return DEBUG and TRACE events shed under load
+         */
+        public long getDegraded() {
+            return degraded;
+        }
+
+        /**
+         * @return Events lost because their message or MDC could not be captured
+         */
+        public long getUnprepared() {
+            return unprepared;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+    }
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder degraded = new LongAdder();
+    private final LongAdder unprepared = new LongAdder();
+    private LogRingBuffer<ILoggingEvent> buffer;
+    private LogBudget budget;
+    private Thread writer;
+    private volatile boolean running;
+
+    private int bufferSize = 8192;
+    private int degradePercent = 75;
+    private long eventsPerSecond = 2000;
+    private long maxBlockMillis = 100;
+    private long maxFlushMillis = 2000;
+
+    // ==================== CONFIGURATION (logback.xml) ====================
+
+    /**
+     * @param bufferSize Events held for the writer, rounded up to a power of two
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @param degradePercent Buffer fill (percent) from which DEBUG and TRACE are shed
+     */
+    public void setDegradePercent(int degradePercent) {
+        this.degradePercent = degradePercent;
+    }
+
+    /**
+     * @param eventsPerSecond Log volume budget, 0 for none
+     */
+    public void setEventsPerSecond(long eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    /**
+     * @param maxBlockMillis Wait of WARN and ERROR events for room in a full buffer
+     */
+    public void setMaxBlockMillis(long maxBlockMillis) {
+        this.maxBlockMillis = maxBlockMillis;
+    }
+
+    /**
+     * @param maxFlushMillis Time given to write out remaining events on stop
+     */
+    public void setMaxFlushMillis(long maxFlushMillis) {
+        this.maxFlushMillis = maxFlushMillis;
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to " + getName());
+            return;
+        }
+        buffer = new LogRingBuffer<>(bufferSize);
+        budget = new LogBudget(eventsPerSecond, System::nanoTime);
+        running = true;
+        writer = new Thread(this::drain, "log-writer-" + getName());
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+        active = this;
+        addInfo("Logging through a ring buffer of " + buffer.capacity() + " events, budget "
+            + eventsPerSecond + " events/s");
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(maxFlushMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            addWarn(buffer.size() + " log events not written within " + maxFlushMillis + "ms");
+        }
+        Stats stats = getStats();
+        if (stats.getDropped() + stats.getDegraded() > 0) {
+            addWarn("Dropped " + stats.getDropped() + " and shed " + stats.getDegraded() + " DEBUG log events");
+        }
+        appenders.detachAndStopAllAppenders();
+        if (active == this) {
+            active = null;
+        }
+    }
+
+    // ==================== APPENDING ====================
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        boolean withinBudget = budget.tryAcquire();
+        int level = event.getLevel().toInt();
+        if (level <= Level.DEBUG_INT
+                && (!withinBudget || buffer.size() * 100L >= (long) buffer.capacity() * degradePercent)) {
+            degraded.increment();
+            return;
+        }
+        // Message, MDC and thread name must be taken on the logging thread
+        try {
+            event.prepareForDeferredProcessing();
+        } catch (RuntimeException e) {
+            // A failing toString() or MDC must not reach the caller; the writer could not format it either
+            unprepared.increment();
+            return;
+        }
+        if (buffer.offer(event)) {
+            return;
+        }
+        overflows.increment();
+        if (level >= Level.WARN_INT && offerWithin(event, maxBlockMillis)) {
+            return;
+        }
+        dropped.increment();
+    }
+
+    private boolean offerWithin(ILoggingEvent event, long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writer loop: passes events to the attached appenders until stopped and drained
+     */
+    private void drain() {
+        while (true) {
+            ILoggingEvent event = buffer.poll();
+            if (event != null) {
+                try {
+                    appenders.appendLoopOnAppenders(event);
+                } catch (RuntimeException e) {
+                    addError("Failed to write log event", e);
+                }
+            } else if (running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Counters of this appender
+     */
+    public Stats getStats() {
+        return new Stats(dropped.sum(), overflows.sum(), degraded.sum(), unprepared.sum(),
+            buffer != null ? buffer.size() : 0, buffer != null ? buffer.capacity() : 0);
+    }
+
+    /**
+     * @return Counters of the running appender, null if logging is not asynchronous
+     */
+    public static Stats getActiveStats() {
+        AsyncLogAppender appender = active;
+        return appender != null ? appender.getStats() : null;
+    }
+
+    // ==================== ATTACHED APPENDERS ====================
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
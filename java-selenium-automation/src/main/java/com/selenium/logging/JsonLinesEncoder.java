@@ -0,0 +1,108 @@
+package com.selenium.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * JsonLinesEncoder - Writes log events as one JSON object per line
+ * Fields: ts, level, logger, thread, message, the MDC entries set by {@link LogContext}
+ * (test, device, ...) and the stack trace as exception. Built by hand, as the encoder
+ * runs for every event on the log writer thread
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class JsonLinesEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    @Override
+    public byte[] headerBytes() {
+        return NO_BYTES;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        StringBuilder json = new StringBuilder(256);
+        json.append('{');
+        field(json, "ts", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+        json.append(',');
+        field(json, "level", event.getLevel().toString());
+        json.append(',');
+        field(json, "logger", event.getLoggerName());
+        json.append(',');
+        field(json, "thread", event.getThreadName());
+        json.append(',');
+        field(json, "message", event.getFormattedMessage());
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                // The thread of the event is already written
+                if (LogContext.THREAD.equals(entry.getKey())) {
+                    continue;
+                }
+                json.append(',');
+                field(json, entry.getKey(), entry.getValue());
+            }
+        }
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            json.append(',');
+            field(json, "exception", ThrowableProxyUtil.asString(throwable));
+        }
+        json.append("}\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return NO_BYTES;
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        quote(json, name);
+        json.append(':');
+        if (value == null) {
+            json.append("null");
+        } else {
+            quote(json, value);
+        }
+    }
+
+    static void quote(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
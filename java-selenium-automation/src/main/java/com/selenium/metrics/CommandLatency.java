@@ -0,0 +1,300 @@
+package com.selenium.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selenium.utils.ConfigurationManager;
+import com.selenium.utils.ReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommandLatency - Suite-wide WebDriver command latency, tagged by test, page and locator
+ * Drivers are wrapped with {@link CommandLatencyListener}, which records every call here.
+ * At suite end the aggregated table is added to the report and the full breakdown is
+ * written as JSON (metrics.command.latency.file in the reports directory)
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class CommandLatency {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandLatency.class);
+    private static final String NONE = "-";
+    private static final String PAGES_PACKAGE = "com.selenium.pages.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+
+    /**
+     * Tag of one histogram
+     */
+    public static final class Key {
+        private final String test;
+        private final String page;
+        private final String strategy;
+        private final String command;
+
+        Key(String test, String page, String strategy, String command) {
+            this.test = test;
+            this.page = page;
+            this.strategy = strategy;
+            this.command = command;
+        }
+
+        public String getTest() {
+            return test;
+        }
+
+        public String getPage() {
+            return page;
+        }
+
+        public String getStrategy() {
+            return strategy;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return test.equals(key.test) && page.equals(key.page)
+                && strategy.equals(key.strategy) && command.equals(key.command);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(test, page, strategy, command);
+        }
+    }
+
+    private CommandLatency() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether drivers are wrapped for latency recording (metrics.command.latency.enabled)
+     *
+     * @return true if command latency is recorded
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("metrics.command.latency.enabled", true);
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Tags commands issued by the current thread with a test name
+     *
+     * @param testName Test name (Class.method)
+     */
+    public static void startTest(String testName) {
+        currentTest.set(testName);
+    }
+
+    /**
+     * Stops tagging commands of the current thread
+     */
+    public static void endTest() {
+        currentTest.remove();
+    }
+
+    /**
+     * Records one command for the current thread's test
+     *
+     * @param command Command name
+     * @param page Page object class that issued it, "-" if none
+     * @param strategy Locator strategy involved, "-" if none
+     * @param nanos Duration in nanoseconds
+     */
+    public static void record(String command, String page, String strategy, long nanos) {
+        String test = currentTest.get();
+        Key key = new Key(test != null ? test : NONE, page, strategy, command);
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Finds the page object on the calling stack
+     *
+     * @return Simple name of the innermost page class, "-" if the call came from elsewhere
+     */
+    static String callingPage() {
+        Optional<String> page = STACK_WALKER.walk(frames -> frames
+            .map(StackWalker.StackFrame::getClassName)
+            .filter(className -> className.startsWith(PAGES_PACKAGE))
+            .findFirst());
+        return page.map(className -> className.substring(className.lastIndexOf('.') + 1)).orElse(NONE);
+    }
+
+    /**
+     * Extracts the strategy from a locator's toString, e.g. "By.cssSelector: #id" gives cssSelector
+     *
+     * @param locator Locator
+     * @return Strategy name, "-" if unknown
+     */
+    static String strategyOf(Object locator) {
+        if (locator == null) {
+            return NONE;
+        }
+        String text = locator.toString();
+        int colon = text.indexOf(':');
+        if (colon < 0) {
+            return NONE;
+        }
+        String prefix = text.substring(0, colon);
+        return prefix.substring(prefix.lastIndexOf('.') + 1).trim();
+    }
+
+    // ==================== RESULTS ====================
+
+    /**
+     * @return Copy of all histograms by tag
+     */
+    public static Map<Key, LatencyHistogram> snapshot() {
+        return new LinkedHashMap<>(histograms);
+    }
+
+    /**
+     * Merges the histograms over tests, keeping command, page and strategy
+     *
+     * @return Histograms ordered by total time spent, largest first
+     */
+    public static Map<Key, LatencyHistogram> bySuite() {
+        Map<Key, LatencyHistogram> merged = new LinkedHashMap<>();
+        histograms.forEach((key, histogram) -> merged
+            .computeIfAbsent(new Key(NONE, key.page, key.strategy, key.command), k -> new LatencyHistogram())
+            .add(histogram));
+        List<Map.Entry<Key, LatencyHistogram>> entries = new ArrayList<>(merged.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Key, LatencyHistogram> entry) -> entry.getValue().getTotalMicros()).reversed());
+        Map<Key, LatencyHistogram> ordered = new LinkedHashMap<>();
+        entries.forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return ordered;
+    }
+
+    /**
+     * Builds the per-suite table shown in the report
+     *
+     * @return Header row followed by one row per command, page and strategy
+     */
+    public static String[][] toTable() {
+        Map<Key, LatencyHistogram> suite = bySuite();
+        String[][] table = new String[suite.size() + 1][];
+        table[0] = new String[] {"Command", "Page", "Locator", "Count", "Mean ms", "p50 ms", "p90 ms", "p99 ms", "Max ms", "Total ms"};
+        int row = 1;
+        for (Map.Entry<Key, LatencyHistogram> entry : suite.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            table[row++] = new String[] {
+                entry.getKey().command, entry.getKey().page, entry.getKey().strategy,
+                String.valueOf(histogram.getCount()),
+                millis(histogram.getMeanMicros()),
+                millis(histogram.getPercentileMicros(50)),
+                millis(histogram.getPercentileMicros(90)),
+                millis(histogram.getPercentileMicros(99)),
+                millis(histogram.getMaxMicros()),
+                millis(histogram.getTotalMicros())
+            };
+        }
+        return table;
+    }
+
+    /**
+     * Writes every histogram (per test) plus the suite totals as JSON
+     *
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeJson(Path file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("generatedAt", Instant.now().toString());
+        root.put("unit", "microseconds");
+        writeRows(root.putArray("suite"), bySuite(), false);
+        writeRows(root.putArray("tests"), snapshot(), true);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, mapper.writeValueAsBytes(root));
+    }
+
+    /**
+     * Adds the suite table to the report and writes the JSON file
+     */
+    public static void publish() {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        ReportManager.addSummaryTable("WebDriver Command Latency", toTable());
+
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        Path file = Paths.get(config.getReportsDirectory(),
+            config.getProperty("metrics.command.latency.file", "command-latency.json"));
+        try {
+            writeJson(file);
+            logger.info("Command latency written to {}", file);
+        } catch (IOException e) {
+            logger.warn("Failed to write command latency to {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops all recorded latencies
+     */
+    public static void reset() {
+        histograms.clear();
+    }
+
+    private static void writeRows(ArrayNode rows, Map<Key, LatencyHistogram> source, boolean includeTest) {
+        source.forEach((key, histogram) -> {
+            ObjectNode row = rows.addObject();
+            if (includeTest) {
+                row.put("test", key.test);
+            }
+            row.put("page", key.page);
+            row.put("strategy", key.strategy);
+            row.put("command", key.command);
+            row.put("count", histogram.getCount());
+            row.put("mean", histogram.getMeanMicros());
+            row.put("p50", histogram.getPercentileMicros(50));
+            row.put("p90", histogram.getPercentileMicros(90));
+            row.put("p99", histogram.getPercentileMicros(99));
+            row.put("max", histogram.getMaxMicros());
+            row.put("total", histogram.getTotalMicros());
+        });
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.selenium.metrics;
+
+import com.selenium.tracing.Span;
+import com.selenium.tracing.Tracer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommandLatencyListener - Times every call made through an EventFiringDecorator-wrapped driver
+ * Element calls are tagged with the strategy of the locator that found the element,
+ * find calls with the strategy of their own locator
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class CommandLatencyListener implements WebDriverListener {
+
+    private static final String NONE = "-";
+    // Calls that only hand out decorated helper objects, no round trip to the browser
+    private static final Set<String> IGNORED = Set.of("manage", "navigate", "switchTo", "timeouts", "window",
+        "getWrappedDriver", "getWrappedElement", "equals", "hashCode", "toString");
+
+    private static final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Map<WebElement, String> elementStrategies = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!IGNORED.contains(method.getName())) {
+            startTimes.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (!IGNORED.contains(method.getName())) {
+            finish(target, method, args);
+            rememberElements(args, result);
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if (!IGNORED.contains(method.getName())) {
+            finish(target, method, args);
+        }
+    }
+
+    private void finish(Object target, Method method, Object[] args) {
+        Long start = startTimes.get().poll();
+        if (start == null) {
+            return;
+        }
+        long end = System.nanoTime();
+        String command = commandName(target, method);
+        String page = CommandLatency.callingPage();
+        String strategy = strategyOf(target, args);
+        CommandLatency.record(command, page, strategy, end - start);
+        if (Tracer.isActive()) {
+            Tracer.record("command " + command, Span.KIND_CLIENT, start, end,
+                Map.of("webdriver.command", command, "page", page, "locator.strategy", strategy));
+        }
+    }
+
+    private String strategyOf(Object target, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof By) {
+            return CommandLatency.strategyOf(args[0]);
+        }
+        if (target instanceof WebElement) {
+            return elementStrategies.getOrDefault(target, NONE);
+        }
+        return NONE;
+    }
+
+    private void rememberElements(Object[] args, Object result) {
+        if (args == null || args.length == 0 || !(args[0] instanceof By)) {
+            return;
+        }
+        String strategy = CommandLatency.strategyOf(args[0]);
+        if (result instanceof WebElement) {
+            elementStrategies.put((WebElement) result, strategy);
+        } else if (result instanceof List) {
+            for (Object element : (List<?>) result) {
+                if (element instanceof WebElement) {
+                    elementStrategies.put((WebElement) element, strategy);
+                }
+            }
+        }
+    }
+
+    /**
+     * Names driver and element calls after the method, helper calls after their owner
+     * (navigate.to, timeouts.implicitlyWait, window.maximize)
+     */
+    private static String commandName(Object target, Method method) {
+        if (target instanceof WebDriver || target instanceof WebElement) {
+            return method.getName();
+        }
+        String owner = method.getDeclaringClass().getSimpleName();
+        if ("Navigation".equals(owner)) {
+            owner = "navigate";
+        } else if ("TargetLocator".equals(owner)) {
+            owner = "switchTo";
+        }
+        return Character.toLowerCase(owner.charAt(0)) + owner.substring(1) + "." + method.getName();
+    }
+}
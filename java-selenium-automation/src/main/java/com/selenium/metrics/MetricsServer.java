@@ -0,0 +1,114 @@
+package com.selenium.metrics;
+
+import com.selenium.utils.ConfigurationManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+/**
+ * MetricsServer - Embedded HTTP endpoint serving {@link SuiteMetrics} for Prometheus
+ * Started once per JVM from BaseTest.suiteSetup (metrics.server.enabled) and scraped at
+ * http://host:metrics.server.port/metrics while the suite runs
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class MetricsServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    private MetricsServer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether the endpoint is enabled (metrics.server.enabled)
+     *
+     * @return true if the endpoint should be started
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("metrics.server.enabled", false);
+    }
+
+    /**
+     * Starts the endpoint if enabled and not already running
+     *
+     * @param activeDriverCount Supplier of the current driver count
+     */
+    public static synchronized void start(IntSupplier activeDriverCount) {
+        SuiteMetrics.startSuite(activeDriverCount);
+        if (server != null || !isEnabled()) {
+            return;
+        }
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        String host = config.getProperty("metrics.server.host", "0.0.0.0");
+        int port = config.getIntProperty("metrics.server.port", 9464);
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress(host, port), 0);
+            httpServer.createContext("/metrics", MetricsServer::handle);
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+            httpServer.setExecutor(executor);
+            httpServer.start();
+            server = httpServer;
+            logger.info("Metrics endpoint listening on http://{}:{}/metrics", host, getPort());
+        } catch (IOException e) {
+            // A second JVM on the same host must not fail the suite
+            logger.warn("Metrics endpoint not started on {}:{}: {}", host, port, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the endpoint
+     */
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+        logger.info("Metrics endpoint stopped");
+    }
+
+    /**
+     * @return Bound port, -1 if not running
+     */
+    public static synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = SuiteMetrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
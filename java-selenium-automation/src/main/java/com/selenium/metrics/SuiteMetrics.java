@@ -0,0 +1,279 @@
+package com.selenium.metrics;
+
+import com.selenium.http.SharedHttpClientFactory;
+import com.selenium.logging.AsyncLogAppender;
+import com.selenium.utils.ReportManager;
+import org.testng.ITestResult;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * SuiteMetrics - Live counters and histograms of the running suite
+ * Updated from the test lifecycle and rendered in the Prometheus text format
+ * by {@link MetricsServer}
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class SuiteMetrics {
+
+    private static final String PREFIX = "automation_";
+    // Upper bounds (seconds) of the session creation histogram
+    static final double[] SESSION_BUCKETS = {0.25, 0.5, 1, 2, 5, 10, 20, 30, 60, 120};
+
+    private static final LongAdder testsPassed = new LongAdder();
+    private static final LongAdder testsFailed = new LongAdder();
+    private static final LongAdder testsSkipped = new LongAdder();
+    private static final Map<String, LongAdder> testsRetried = new ConcurrentSkipListMap<>();
+    private static final LongAdder screenshotBytes = new LongAdder();
+    private static final LongAdder screenshotCount = new LongAdder();
+    private static final AtomicLongArray sessionBuckets = new AtomicLongArray(SESSION_BUCKETS.length);
+    private static final LongAdder sessionCount = new LongAdder();
+    private static final LongAdder sessionMicros = new LongAdder();
+    private static final LongAdder sessionFailures = new LongAdder();
+    private static final AtomicLongArray queueWaitBuckets = new AtomicLongArray(SESSION_BUCKETS.length);
+    private static final LongAdder queueWaitCount = new LongAdder();
+    private static final LongAdder queueWaitMicros = new LongAdder();
+
+    private static volatile long startNanos = System.nanoTime();
+    private static volatile IntSupplier activeDrivers = () -> 0;
+
+    private SuiteMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Restarts the tests-per-minute clock and sets the source of the active driver gauge
+     *
+     * @param activeDriverCount Supplier of the current driver count
+     */
+    public static void startSuite(IntSupplier activeDriverCount) {
+        startNanos = System.nanoTime();
+        activeDrivers = activeDriverCount;
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Counts a finished test by its TestNG status
+     *
+     * @param status ITestResult status
+     */
+    public static void recordTestResult(int status) {
+        switch (status) {
+            case ITestResult.SUCCESS:
+                testsPassed.increment();
+                break;
+            case ITestResult.FAILURE:
+                testsFailed.increment();
+                break;
+            case ITestResult.SKIP:
+                testsSkipped.increment();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Counts a failed attempt that is run again
+     *
+     * @param reason Failure category
+     */
+    public static void recordRetry(String reason) {
+        testsRetried.computeIfAbsent(reason.toLowerCase(Locale.ROOT), key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records the time taken to create a driver session
+     *
+     * @param nanos Creation time in nanoseconds
+     * @param succeeded false if creation failed
+     */
+    public static void recordSessionCreation(long nanos, boolean succeeded) {
+        if (!succeeded) {
+            sessionFailures.increment();
+            return;
+        }
+        double seconds = nanos / 1e9;
+        for (int bucket = 0; bucket < SESSION_BUCKETS.length; bucket++) {
+            if (seconds <= SESSION_BUCKETS[bucket]) {
+                sessionBuckets.incrementAndGet(bucket);
+                break;
+            }
+        }
+        sessionCount.increment();
+        sessionMicros.add(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Records the time a new session waited for a free Selenium Grid slot
+     *
+     * @param nanos Wait in nanoseconds
+     */
+    public static void recordSessionQueueWait(long nanos) {
+        double seconds = nanos / 1e9;
+        for (int bucket = 0; bucket < SESSION_BUCKETS.length; bucket++) {
+            if (seconds <= SESSION_BUCKETS[bucket]) {
+                queueWaitBuckets.incrementAndGet(bucket);
+                break;
+            }
+        }
+        queueWaitCount.increment();
+        queueWaitMicros.add(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Records a screenshot written to disk
+     *
+     * @param bytes File size
+     */
+    public static void recordScreenshot(long bytes) {
+        screenshotCount.increment();
+        screenshotBytes.add(bytes);
+    }
+
+    // ==================== EXPOSITION ====================
+
+    /**
+     * Tests finished per minute since the suite started
+     *
+     * @return Throughput, 0 before the first test finishes
+     */
+    public static double getTestsPerMinute() {
+        long finished = testsPassed.sum() + testsFailed.sum() + testsSkipped.sum();
+        double minutes = (System.nanoTime() - startNanos) / 60e9;
+        return minutes > 0 ? finished / minutes : 0;
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format (0.0.4)
+     *
+     * @return Exposition text
+     */
+    public static String toPrometheusText() {
+        StringBuilder text = new StringBuilder(2048);
+
+        header(text, "tests_total", "counter", "Finished tests by result");
+        sample(text, "tests_total{status=\"passed\"}", testsPassed.sum());
+        sample(text, "tests_total{status=\"failed\"}", testsFailed.sum());
+        sample(text, "tests_total{status=\"skipped\"}", testsSkipped.sum());
+
+        header(text, "tests_retried_total", "counter", "Failed attempts run again, by failure category");
+        testsRetried.forEach((reason, count) -> sample(text, "tests_retried_total{reason=\"" + reason + "\"}", count.sum()));
+
+        header(text, "tests_per_minute", "gauge", "Finished tests per minute since suite start");
+        sample(text, "tests_per_minute", getTestsPerMinute());
+
+        header(text, "active_drivers", "gauge", "Driver sessions currently open");
+        sample(text, "active_drivers", activeDrivers.getAsInt());
+
+        header(text, "session_creation_seconds", "histogram", "Time to create a driver session");
+        long cumulative = 0;
+        for (int bucket = 0; bucket < SESSION_BUCKETS.length; bucket++) {
+            cumulative += sessionBuckets.get(bucket);
+            sample(text, "session_creation_seconds_bucket{le=\"" + format(SESSION_BUCKETS[bucket]) + "\"}", cumulative);
+        }
+        long sessions = sessionCount.sum();
+        sample(text, "session_creation_seconds_bucket{le=\"+Inf\"}", sessions);
+        sample(text, "session_creation_seconds_sum", sessionMicros.sum() / 1e6);
+        sample(text, "session_creation_seconds_count", sessions);
+
+        header(text, "session_creation_failures_total", "counter", "Driver sessions that failed to start");
+        sample(text, "session_creation_failures_total", sessionFailures.sum());
+
+        header(text, "session_queue_wait_seconds", "histogram", "Time a new session waited for a free Grid slot");
+        cumulative = 0;
+        for (int bucket = 0; bucket < SESSION_BUCKETS.length; bucket++) {
+            cumulative += queueWaitBuckets.get(bucket);
+            sample(text, "session_queue_wait_seconds_bucket{le=\"" + format(SESSION_BUCKETS[bucket]) + "\"}", cumulative);
+        }
+        long waits = queueWaitCount.sum();
+        sample(text, "session_queue_wait_seconds_bucket{le=\"+Inf\"}", waits);
+        sample(text, "session_queue_wait_seconds_sum", queueWaitMicros.sum() / 1e6);
+        sample(text, "session_queue_wait_seconds_count", waits);
+
+        header(text, "screenshot_bytes_total", "counter", "Bytes of screenshots written to disk");
+        sample(text, "screenshot_bytes_total", screenshotBytes.sum());
+
+        header(text, "screenshots_total", "counter", "Screenshots written to disk");
+        sample(text, "screenshots_total", screenshotCount.sum());
+
+        List<SharedHttpClientFactory.Stats> clients = SharedHttpClientFactory.getStats();
+        if (!clients.isEmpty()) {
+            header(text, "http_requests_total", "counter", "Driver commands sent through the shared HTTP clients");
+            clients.forEach(client -> sample(text, "http_requests_total{server=\"" + client.getServer() + "\"}",
+                client.getRequests()));
+            header(text, "http_client_sessions_total", "counter", "Driver sessions that used the shared HTTP client");
+            clients.forEach(client -> sample(text, "http_client_sessions_total{server=\"" + client.getServer() + "\"}",
+                client.getSessions()));
+            header(text, "http_connections_total", "counter", "TCP connections the shared HTTP clients opened");
+            clients.stream().filter(client -> client.getConnections() >= 0).forEach(client ->
+                sample(text, "http_connections_total{server=\"" + client.getServer() + "\"}", client.getConnections()));
+        }
+
+        AsyncLogAppender.Stats logs = AsyncLogAppender.getActiveStats();
+        if (logs != null) {
+            header(text, "log_events_dropped_total", "counter", "Log events not written, by reason");
+            sample(text, "log_events_dropped_total{reason=\"buffer_full\"}", logs.getDropped());
+            sample(text, "log_events_dropped_total{reason=\"debug_shed\"}", logs.getDegraded());
+            sample(text, "log_events_dropped_total{reason=\"unprepared\"}", logs.getUnprepared());
+            header(text, "log_buffer_overflows_total", "counter", "Log events that found the log buffer full");
+            sample(text, "log_buffer_overflows_total", logs.getOverflows());
+            header(text, "log_buffer_depth", "gauge", "Log events waiting for the log writer");
+            sample(text, "log_buffer_depth", logs.getQueued());
+        }
+
+        header(text, "report_queue_depth", "gauge", "Report entries held in memory until the next flush");
+        sample(text, "report_queue_depth", ReportManager.getPendingTestCount());
+        return text.toString();
+    }
+
+    /**
+     * Clears all counters
+     */
+    public static void reset() {
+        testsPassed.reset();
+        testsFailed.reset();
+        testsSkipped.reset();
+        testsRetried.clear();
+        screenshotBytes.reset();
+        screenshotCount.reset();
+        for (int bucket = 0; bucket < SESSION_BUCKETS.length; bucket++) {
+            sessionBuckets.set(bucket, 0);
+        }
+        sessionCount.reset();
+        sessionMicros.reset();
+        sessionFailures.reset();
+        for (int bucket = 0; bucket < SESSION_BUCKETS.length; bucket++) {
+            queueWaitBuckets.set(bucket, 0);
+        }
+        queueWaitCount.reset();
+        queueWaitMicros.reset();
+        startNanos = System.nanoTime();
+    }
+
+    private static void header(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String series, long value) {
+        text.append(PREFIX).append(series).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String series, double value) {
+        text.append(PREFIX).append(series).append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        return Double.toString(value);
+    }
+}
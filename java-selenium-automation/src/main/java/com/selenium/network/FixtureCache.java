@@ -0,0 +1,160 @@
+package com.selenium.network;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FixtureCache - Local copies of static assets served instead of the network
+ * Files live under {@code <directory>/<host>/<path>} so fixtures can be checked in
+ * by hand or recorded from a real run, and are kept in memory once read
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class FixtureCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FixtureCache.class);
+    private static final Fixture MISSING = new Fixture(new byte[0], "");
+    private static final Map<String, FixtureCache> caches = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final Map<String, Fixture> entries = new ConcurrentHashMap<>();
+
+    /**
+     * A cached response body
+     */
+    public static final class Fixture {
+        private final byte[] body;
+        private final String contentType;
+
+        Fixture(byte[] body, String contentType) {
+            this.body = body;
+            this.contentType = contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    private FixtureCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the shared cache for a directory
+     *
+     * @param directory Cache directory
+     * @return Fixture cache
+     */
+    public static FixtureCache forDirectory(String directory) {
+        return caches.computeIfAbsent(directory, dir -> new FixtureCache(Paths.get(dir)));
+    }
+
+    /**
+     * Looks up a fixture for a URL
+     *
+     * @param url Request URL
+     * @return Fixture, or null on a cache miss
+     */
+    public Fixture lookup(String url) {
+        Path file = resolve(url);
+        if (file == null) {
+            return null;
+        }
+        Fixture fixture = entries.computeIfAbsent(file.toString(), key -> read(file));
+        return fixture == MISSING ? null : fixture;
+    }
+
+    /**
+     * Stores a response body for a URL on disk and in memory
+     *
+     * @param url Request URL
+     * @param body Response body
+     * @param contentType Response content type
+     */
+    public void store(String url, byte[] body, String contentType) {
+        Path file = resolve(url);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, body);
+            entries.put(file.toString(), new Fixture(body, contentType));
+            logger.debug("Recorded fixture {} ({} bytes)", file, body.length);
+        } catch (IOException e) {
+            logger.warn("Failed to record fixture for {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * Maps a URL to its fixture file, ignoring the query string
+     */
+    private Path resolve(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return null;
+            }
+            String path = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+            if (path.endsWith("/")) {
+                path += "index.html";
+            }
+            Path file = directory.resolve(uri.getHost()).resolve(path.substring(1)).normalize();
+            // Never let a crafted path escape the cache directory
+            return file.startsWith(directory.normalize()) ? file : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Fixture read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return MISSING;
+        }
+        try {
+            return new Fixture(Files.readAllBytes(file), contentType(file.getFileName().toString()));
+        } catch (IOException e) {
+            logger.warn("Failed to read fixture {}: {}", file, e.getMessage());
+            return MISSING;
+        }
+    }
+
+    private static String contentType(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".js")) {
+            return "application/javascript";
+        } else if (name.endsWith(".css")) {
+            return "text/css";
+        } else if (name.endsWith(".html")) {
+            return "text/html";
+        } else if (name.endsWith(".json")) {
+            return "application/json";
+        } else if (name.endsWith(".svg")) {
+            return "image/svg+xml";
+        } else if (name.endsWith(".png")) {
+            return "image/png";
+        } else if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return "image/jpeg";
+        } else if (name.endsWith(".woff2")) {
+            return "font/woff2";
+        } else if (name.endsWith(".woff")) {
+            return "font/woff";
+        }
+        return "application/octet-stream";
+    }
+}
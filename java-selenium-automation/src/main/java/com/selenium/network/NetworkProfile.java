@@ -0,0 +1,164 @@
+package com.selenium.network;
+
+import com.selenium.utils.ConfigurationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * NetworkProfile - Network shaping rules for a suite
+ * Values come from the suite XML parameters first and application.properties second,
+ * so each suite can block a different set of URLs and resource types
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class NetworkProfile {
+
+    private final boolean enabled;
+    private final List<String> blockedUrlPatterns;
+    private final List<String> blockedResourceTypes;
+    private final List<String> cachePatterns;
+    private final List<Pattern> compiledCachePatterns;
+    private final String cacheDirectory;
+    private final boolean recordCache;
+
+    private NetworkProfile(boolean enabled, List<String> blockedUrlPatterns, List<String> blockedResourceTypes,
+                           List<String> cachePatterns, String cacheDirectory, boolean recordCache) {
+        this.enabled = enabled;
+        this.blockedUrlPatterns = Collections.unmodifiableList(blockedUrlPatterns);
+        this.blockedResourceTypes = Collections.unmodifiableList(blockedResourceTypes);
+        this.cachePatterns = Collections.unmodifiableList(cachePatterns);
+        this.cacheDirectory = cacheDirectory;
+        this.recordCache = recordCache;
+
+        List<Pattern> compiled = new ArrayList<>();
+        cachePatterns.forEach(pattern -> compiled.add(toRegex(pattern)));
+        this.compiledCachePatterns = compiled;
+    }
+
+    /**
+     * Resolves the profile for a suite
+     *
+     * @param suiteParameters Suite XML parameters (may be empty)
+     * @return Network profile
+     */
+    public static NetworkProfile resolve(Map<String, String> suiteParameters) {
+        return new NetworkProfile(
+            Boolean.parseBoolean(value(suiteParameters, "network.shaping.enabled", "false")),
+            split(value(suiteParameters, "network.block.url.patterns", "")),
+            normalizeTypes(split(value(suiteParameters, "network.block.resource.types", ""))),
+            split(value(suiteParameters, "network.cache.url.patterns", "")),
+            value(suiteParameters, "network.cache.directory", "src/test/resources/network-cache"),
+            Boolean.parseBoolean(value(suiteParameters, "network.cache.record", "false")));
+    }
+
+    /**
+     * Resolves the profile from application.properties only
+     *
+     * @return Network profile
+     */
+    public static NetworkProfile fromConfiguration() {
+        return resolve(Collections.emptyMap());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<String> getBlockedUrlPatterns() {
+        return blockedUrlPatterns;
+    }
+
+    public List<String> getBlockedResourceTypes() {
+        return blockedResourceTypes;
+    }
+
+    public List<String> getCachePatterns() {
+        return cachePatterns;
+    }
+
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public boolean isRecordCache() {
+        return recordCache;
+    }
+
+    /**
+     * Checks whether a resource type is blocked
+     *
+     * @param resourceType CDP resource type (Image, Font, Stylesheet, ...)
+     * @return true if requests of this type should be failed
+     */
+    public boolean isBlockedType(String resourceType) {
+        return resourceType != null && blockedResourceTypes.contains(resourceType.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Checks whether a URL may be served from the fixture cache
+     *
+     * @param url Request URL
+     * @return true if the URL matches a cache pattern
+     */
+    public boolean isCacheable(String url) {
+        for (Pattern pattern : compiledCachePatterns) {
+            if (pattern.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String value(Map<String, String> suiteParameters, String key, String defaultValue) {
+        String suiteValue = suiteParameters.get(key);
+        if (suiteValue != null && !suiteValue.trim().isEmpty()) {
+            return suiteValue.trim();
+        }
+        return ConfigurationManager.getInstance().getProperty(key, defaultValue);
+    }
+
+    private static List<String> split(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static List<String> normalizeTypes(List<String> types) {
+        List<String> normalized = new ArrayList<>();
+        types.forEach(type -> normalized.add(type.toLowerCase(Locale.ROOT)));
+        return normalized;
+    }
+
+    /**
+     * Converts a CDP-style wildcard pattern ("*" matches anything) to a regex
+     */
+    private static Pattern toRegex(String wildcard) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : wildcard.split("\\*", -1)) {
+            if (regex.length() > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkProfile{enabled=" + enabled
+            + ", blockedUrls=" + blockedUrlPatterns
+            + ", blockedTypes=" + blockedResourceTypes
+            + ", cached=" + cachePatterns
+            + ", record=" + recordCache + "}";
+    }
+}
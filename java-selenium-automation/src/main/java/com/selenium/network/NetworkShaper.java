@@ -0,0 +1,259 @@
+package com.selenium.network;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * NetworkShaper - Cuts page weight by blocking and stubbing requests over CDP
+ * URL patterns are blocked inside the browser with Network.setBlockedURLs (no round trip);
+ * resource types and fixture lookups go through Fetch request interception.
+ * Uses raw CDP method names so it works with any Chromium version Selenium talks to
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class NetworkShaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkShaper.class);
+
+    private static final Event<Map<String, Object>> REQUEST_PAUSED = event("Fetch.requestPaused");
+    private static final Event<Map<String, Object>> LOADING_FINISHED = event("Network.loadingFinished");
+    private static final Event<Map<String, Object>> LOADING_FAILED = event("Network.loadingFailed");
+
+    private static final ThreadLocal<NetworkProfile> profile = new ThreadLocal<>();
+    private static final ThreadLocal<Session> session = new ThreadLocal<>();
+    private static final NetworkStats suiteTotals = new NetworkStats();
+
+    /**
+     * Shaping state of one attached page
+     */
+    private static final class Session {
+        private final DevTools devTools;
+        private final NetworkStats stats = new NetworkStats();
+        // Network ids already accounted for by the Fetch handler
+        private final Set<String> interceptedIds = ConcurrentHashMap.newKeySet();
+
+        private Session(DevTools devTools) {
+            this.devTools = devTools;
+        }
+    }
+
+    private NetworkShaper() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Sets the profile used for drivers created on the current thread
+     *
+     * @param networkProfile Suite network profile
+     */
+    public static void useProfile(NetworkProfile networkProfile) {
+        profile.set(networkProfile);
+    }
+
+    /**
+     * Applies the current profile to the driver's focused page
+     * Does nothing if shaping is disabled or the browser has no DevTools
+     *
+     * @param driver Freshly created driver
+     */
+    public static void attach(WebDriver driver) {
+        NetworkProfile rules = profile.get() != null ? profile.get() : NetworkProfile.fromConfiguration();
+        if (!rules.isEnabled() || !(driver instanceof HasDevTools)) {
+            return;
+        }
+        detach();
+
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSession(driver.getWindowHandle());
+            Session current = new Session(devTools);
+
+            devTools.send(command("Network.enable", new HashMap<>()));
+            if (!rules.getBlockedUrlPatterns().isEmpty()) {
+                devTools.send(command("Network.setBlockedURLs", Map.of("urls", rules.getBlockedUrlPatterns())));
+            }
+            devTools.addListener(LOADING_FINISHED, finished -> {
+                if (!current.interceptedIds.remove(String.valueOf(finished.get("requestId")))) {
+                    current.stats.recordLoaded(((Number) finished.get("encodedDataLength")).longValue());
+                }
+            });
+            devTools.addListener(LOADING_FAILED, failed -> {
+                if (!current.interceptedIds.remove(String.valueOf(failed.get("requestId")))
+                        && failed.get("blockedReason") != null) {
+                    current.stats.recordBlocked();
+                }
+            });
+
+            List<Map<String, Object>> patterns = interceptionPatterns(rules);
+            if (!patterns.isEmpty()) {
+                FixtureCache cache = FixtureCache.forDirectory(rules.getCacheDirectory());
+                devTools.addListener(REQUEST_PAUSED, paused -> handlePaused(current, rules, cache, paused));
+                devTools.send(command("Fetch.enable", Map.of("patterns", patterns)));
+            }
+
+            session.set(current);
+            logger.info("Network shaping enabled: {}", rules);
+        } catch (Exception e) {
+            logger.warn("Network shaping could not be enabled, continuing without it: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops shaping the current thread's page
+     *
+     * @return Stats of the detached page, or null if shaping was not active
+     */
+    public static NetworkStats detach() {
+        Session current = session.get();
+        session.remove();
+        if (current == null) {
+            return null;
+        }
+
+        try {
+            current.devTools.clearListeners();
+            current.devTools.disconnectSession();
+        } catch (Exception e) {
+            logger.debug("DevTools session already gone: {}", e.getMessage());
+        }
+        suiteTotals.add(current.stats);
+        logger.info("Network shaping: {}", current.stats);
+        return current.stats;
+    }
+
+    /**
+     * Gets the totals of all detached pages
+     *
+     * @return Suite-wide network stats
+     */
+    public static NetworkStats getSuiteTotals() {
+        return suiteTotals;
+    }
+
+    /**
+     * Builds the Fetch.enable patterns: one per blocked resource type, plus request
+     * (and, when recording, response) stage patterns for cacheable URLs
+     */
+    private static List<Map<String, Object>> interceptionPatterns(NetworkProfile rules) {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : rules.getBlockedResourceTypes()) {
+            // CDP resource types are capitalised (Image, Font, Stylesheet)
+            patterns.add(Map.of("urlPattern", "*", "resourceType",
+                Character.toUpperCase(type.charAt(0)) + type.substring(1), "requestStage", "Request"));
+        }
+        for (String urlPattern : rules.getCachePatterns()) {
+            patterns.add(Map.of("urlPattern", urlPattern, "requestStage", "Request"));
+            if (rules.isRecordCache()) {
+                patterns.add(Map.of("urlPattern", urlPattern, "requestStage", "Response"));
+            }
+        }
+        return patterns;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void handlePaused(Session current, NetworkProfile rules, FixtureCache cache,
+                                     Map<String, Object> paused) {
+        String requestId = (String) paused.get("requestId");
+        Map<String, Object> request = (Map<String, Object>) paused.get("request");
+        String url = (String) request.get("url");
+
+        try {
+            if (paused.containsKey("responseStatusCode") || paused.containsKey("responseErrorReason")) {
+                recordResponse(current, cache, paused, requestId, url);
+                return;
+            }
+
+            if (rules.isBlockedType((String) paused.get("resourceType"))) {
+                markIntercepted(current, paused);
+                current.devTools.send(command("Fetch.failRequest",
+                    Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+                current.stats.recordBlocked();
+                return;
+            }
+
+            FixtureCache.Fixture fixture = "GET".equals(request.get("method")) && rules.isCacheable(url)
+                ? cache.lookup(url) : null;
+            if (fixture != null) {
+                markIntercepted(current, paused);
+                Map<String, Object> response = new HashMap<>();
+                response.put("requestId", requestId);
+                response.put("responseCode", 200);
+                response.put("responseHeaders", List.of(
+                    Map.of("name", "Content-Type", "value", fixture.getContentType()),
+                    Map.of("name", "Cache-Control", "value", "no-store")));
+                response.put("body", Base64.getEncoder().encodeToString(fixture.getBody()));
+                current.devTools.send(command("Fetch.fulfillRequest", response));
+                current.stats.recordCacheHit(fixture.getBody().length);
+                return;
+            }
+
+            current.devTools.send(command("Fetch.continueRequest", Map.of("requestId", requestId)));
+        } catch (Exception e) {
+            logger.debug("Interception failed for {}, letting it through: {}", url, e.getMessage());
+            try {
+                current.devTools.send(command("Fetch.continueRequest", Map.of("requestId", requestId)));
+            } catch (Exception ignored) {
+                // Page is gone
+            }
+        }
+    }
+
+    /**
+     * Stores a successful response for a cacheable URL, then lets it continue
+     */
+    @SuppressWarnings("unchecked")
+    private static void recordResponse(Session current, FixtureCache cache, Map<String, Object> paused,
+                                       String requestId, String url) {
+        Object status = paused.get("responseStatusCode");
+        if (status instanceof Number && ((Number) status).intValue() == 200) {
+            Map<String, Object> body = current.devTools.send(
+                new Command<>("Fetch.getResponseBody", Map.of("requestId", requestId), Json.MAP_TYPE));
+            String encoded = (String) body.get("body");
+            byte[] bytes = Boolean.TRUE.equals(body.get("base64Encoded"))
+                ? Base64.getDecoder().decode(encoded) : encoded.getBytes(StandardCharsets.UTF_8);
+
+            String contentType = "application/octet-stream";
+            Object headers = paused.get("responseHeaders");
+            if (headers instanceof List) {
+                for (Map<String, Object> header : (List<Map<String, Object>>) headers) {
+                    if ("content-type".equalsIgnoreCase((String) header.get("name"))) {
+                        contentType = (String) header.get("value");
+                    }
+                }
+            }
+            cache.store(url, bytes, contentType);
+        }
+        current.devTools.send(command("Fetch.continueRequest", Map.of("requestId", requestId)));
+    }
+
+    private static void markIntercepted(Session current, Map<String, Object> paused) {
+        Object networkId = paused.get("networkId");
+        if (networkId != null) {
+            current.interceptedIds.add(networkId.toString());
+        }
+    }
+
+    private static Command<Void> command(String method, Map<String, Object> parameters) {
+        return new Command<>(method, parameters);
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
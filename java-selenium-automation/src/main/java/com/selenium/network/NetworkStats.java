@@ -0,0 +1,92 @@
+package com.selenium.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NetworkStats - Requests and bytes saved by network shaping
+ * Updated from the DevTools event thread, read by the test thread
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class NetworkStats {
+
+    private final AtomicLong requestsBlocked = new AtomicLong();
+    private final AtomicLong requestsServedFromCache = new AtomicLong();
+    private final AtomicLong bytesServedFromCache = new AtomicLong();
+    private final AtomicLong requestsLoaded = new AtomicLong();
+    private final AtomicLong bytesLoaded = new AtomicLong();
+
+    void recordBlocked() {
+        requestsBlocked.incrementAndGet();
+    }
+
+    void recordCacheHit(long bytes) {
+        requestsServedFromCache.incrementAndGet();
+        bytesServedFromCache.addAndGet(bytes);
+    }
+
+    void recordLoaded(long bytes) {
+        requestsLoaded.incrementAndGet();
+        bytesLoaded.addAndGet(bytes);
+    }
+
+    /**
+     * Adds another test's counters to this one
+     *
+     * @param other Stats to add
+     */
+    void add(NetworkStats other) {
+        requestsBlocked.addAndGet(other.getRequestsBlocked());
+        requestsServedFromCache.addAndGet(other.getRequestsServedFromCache());
+        bytesServedFromCache.addAndGet(other.getBytesServedFromCache());
+        requestsLoaded.addAndGet(other.getRequestsLoaded());
+        bytesLoaded.addAndGet(other.getBytesLoaded());
+    }
+
+    public long getRequestsBlocked() {
+        return requestsBlocked.get();
+    }
+
+    public long getRequestsServedFromCache() {
+        return requestsServedFromCache.get();
+    }
+
+    public long getBytesServedFromCache() {
+        return bytesServedFromCache.get();
+    }
+
+    public long getRequestsLoaded() {
+        return requestsLoaded.get();
+    }
+
+    public long getBytesLoaded() {
+        return bytesLoaded.get();
+    }
+
+    /**
+     * Requests that never reached the network (blocked or served locally)
+     *
+     * @return Saved request count
+     */
+    public long getRequestsSaved() {
+        return getRequestsBlocked() + getRequestsServedFromCache();
+    }
+
+    /**
+     * Bytes that did not have to be downloaded. Blocked requests are not
+     * included since their size is never known to the browser
+     *
+     * @return Saved byte count
+     */
+    public long getBytesSaved() {
+        return getBytesServedFromCache();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests saved %d (blocked %d, cached %d), bytes saved %d, loaded %d requests / %d bytes",
+            getRequestsSaved(), getRequestsBlocked(), getRequestsServedFromCache(), getBytesSaved(),
+            getRequestsLoaded(), getBytesLoaded());
+    }
+}
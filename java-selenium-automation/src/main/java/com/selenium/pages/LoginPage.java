@@ -1,5 +1,6 @@
 package com.selenium.pages;
 
+import com.selenium.tracing.TracedWait;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
@@ -42,7 +43,7 @@ public class LoginPage {
     // Constructor
     public LoginPage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.wait = new TracedWait(driver, Duration.ofSeconds(10));
         PageFactory.initElements(driver, this);
         logger.debug("LoginPage initialized");
     }
@@ -0,0 +1,39 @@
+package com.selenium.replay;
+
+/**
+ * ReplayMode - How the local replay server answers browser requests
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public enum ReplayMode {
+
+    /** Browser talks to the live site directly */
+    OFF,
+
+    /** Every request goes to the live site and the response is (re)recorded */
+    RECORD,
+
+    /** Only recorded responses are served, misses fail; works offline */
+    REPLAY,
+
+    /** Fresh recordings are served, misses and stale entries are recorded */
+    AUTO;
+
+    /**
+     * Parses a mode name, treating unknown values as OFF
+     *
+     * @param value Configured mode
+     * @return Replay mode
+     */
+    public static ReplayMode fromString(String value) {
+        if (value == null) {
+            return OFF;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return OFF;
+        }
+    }
+}
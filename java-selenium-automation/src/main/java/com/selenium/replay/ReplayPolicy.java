@@ -0,0 +1,127 @@
+package com.selenium.replay;
+
+import com.selenium.utils.ConfigurationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * ReplayPolicy - Cache-invalidation rules of the replay store
+ * Decides how requests are keyed, which paths are never recorded, which
+ * responses may be stored and when a recording is too old to trust
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ReplayPolicy {
+
+    private final Duration maxAge;
+    private final List<Pattern> bypassPatterns;
+    private final Set<String> ignoredQueryParameters;
+
+    ReplayPolicy(Duration maxAge, List<String> bypassPatterns, Set<String> ignoredQueryParameters) {
+        this.maxAge = maxAge;
+        this.bypassPatterns = new ArrayList<>();
+        bypassPatterns.forEach(pattern -> this.bypassPatterns.add(toRegex(pattern)));
+        this.ignoredQueryParameters = ignoredQueryParameters;
+    }
+
+    /**
+     * Builds the policy from application.properties
+     *
+     * @return Replay policy
+     */
+    public static ReplayPolicy fromConfiguration() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        return new ReplayPolicy(
+            Duration.ofHours(config.getIntProperty("replay.max.age.hours", 168)),
+            split(config.getProperty("replay.bypass.patterns", "")),
+            new HashSet<>(split(config.getProperty("replay.ignore.query.params", ""))));
+    }
+
+    /**
+     * Builds the store key of a request; ignored query parameters are dropped
+     * so cache-busting values do not cause misses
+     *
+     * @param method HTTP method
+     * @param path Request path
+     * @param query Raw query string (may be null)
+     * @return Store key
+     */
+    public String key(String method, String path, String query) {
+        if (query == null || query.isEmpty()) {
+            return method + " " + path;
+        }
+        StringJoiner kept = new StringJoiner("&");
+        for (String parameter : query.split("&")) {
+            String name = parameter.contains("=") ? parameter.substring(0, parameter.indexOf('=')) : parameter;
+            if (!ignoredQueryParameters.contains(name)) {
+                kept.add(parameter);
+            }
+        }
+        return kept.length() == 0 ? method + " " + path : method + " " + path + "?" + kept;
+    }
+
+    /**
+     * Checks whether a path must always go to the live site
+     *
+     * @param path Request path
+     * @return true if the path is never recorded or replayed
+     */
+    public boolean isBypassed(String path) {
+        for (Pattern pattern : bypassPatterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a live response may be stored; errors and partial content are not
+     *
+     * @param method HTTP method
+     * @param status Response status
+     * @return true if the response can be recorded
+     */
+    public boolean isRecordable(String method, int status) {
+        return ("GET".equals(method) || "HEAD".equals(method)) && status >= 200 && status < 400 && status != 206;
+    }
+
+    /**
+     * Checks whether a recording has outlived the configured maximum age
+     *
+     * @param recordedAt When the response was recorded
+     * @return true if the entry should be re-recorded
+     */
+    public boolean isStale(Instant recordedAt) {
+        return !maxAge.isZero() && recordedAt.plus(maxAge).isBefore(Instant.now());
+    }
+
+    private static List<String> split(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static Pattern toRegex(String wildcard) {
+        StringBuilder regex = new StringBuilder();
+        for (String part : wildcard.split("\\*", -1)) {
+            if (regex.length() > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(part));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
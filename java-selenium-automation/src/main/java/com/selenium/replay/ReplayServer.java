@@ -0,0 +1,267 @@
+package com.selenium.replay;
+
+import com.selenium.utils.ConfigurationManager;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReplayServer - Embedded HTTP server that records and replays a web origin
+ * The browser is pointed at {@code http://<origin host>.localhost:<port>}, which every
+ * Chromium and Firefox resolve to loopback, so URL assertions on the host name still
+ * hold while pages, scripts and assets come from the local HAR store
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ReplayServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayServer.class);
+    private static final Map<String, ReplayServer> servers = new ConcurrentHashMap<>();
+
+    // Headers that describe a single hop or the original transfer, never replayed
+    private static final Set<String> HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection", "te",
+        "trailer", "transfer-encoding", "upgrade", "content-length", "content-encoding", "host", "expect",
+        "accept-encoding", "strict-transport-security", "alt-svc");
+
+    private final String origin;
+    private final String localBase;
+    private final ReplayMode mode;
+    private final ReplayPolicy policy;
+    private final ReplayStore store;
+    private final ReplayStats stats = new ReplayStats();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final HttpClient client = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    ReplayServer(String origin, ReplayMode mode, ReplayPolicy policy, ReplayStore store, int port) throws IOException {
+        this.origin = origin;
+        this.mode = mode;
+        this.policy = policy;
+        this.store = store;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "replay-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.localBase = "http://" + URI.create(origin).getHost() + ".localhost:" + server.getAddress().getPort();
+        logger.info("Replay server for {} listening on {} (mode {}, {} recorded responses)",
+            origin, localBase, mode, store.size());
+    }
+
+    /**
+     * Routes a URL through the replay server when replay.mode is not off
+     * The server for the URL's origin is started on first use
+     *
+     * @param url Live URL, e.g. https://www.saucedemo.com
+     * @return Local URL served by the replay server, or the URL unchanged
+     */
+    public static String route(String url) {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        ReplayMode mode = ReplayMode.fromString(config.getProperty("replay.mode", "off"));
+        if (mode == ReplayMode.OFF) {
+            return url;
+        }
+
+        URI uri = URI.create(url);
+        String origin = uri.getScheme() + "://" + uri.getAuthority();
+        ReplayServer replayServer = servers.computeIfAbsent(origin, key -> {
+            ReplayPolicy policy = ReplayPolicy.fromConfiguration();
+            ReplayStore store = new ReplayStore(
+                Paths.get(config.getProperty("replay.store.directory", "src/test/resources/replay")), key, policy);
+            try {
+                return new ReplayServer(key, mode, policy, store, config.getIntProperty("replay.server.port", 0));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start replay server for " + key, e);
+            }
+        });
+        return replayServer.toLocalUrl(url);
+    }
+
+    /**
+     * Stops all replay servers, saves new recordings and logs hit/miss stats
+     */
+    public static void shutdownAll() {
+        servers.values().forEach(ReplayServer::stop);
+        servers.clear();
+    }
+
+    /**
+     * Rewrites a live URL of this origin to the local server
+     *
+     * @param url Live URL
+     * @return Local URL
+     */
+    public String toLocalUrl(String url) {
+        return url.startsWith(origin) ? localBase + url.substring(origin.length()) : url;
+    }
+
+    public String getLocalBase() {
+        return localBase;
+    }
+
+    public ReplayStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Stops the server and saves new recordings
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        store.save();
+        logger.info("Replay stats for {}: {}", origin, stats);
+    }
+
+    // ==================== REQUEST HANDLING ====================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            URI uri = exchange.getRequestURI();
+            String method = exchange.getRequestMethod();
+            String pathAndQuery = uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+
+            if (policy.isBypassed(uri.getRawPath())) {
+                stats.recordBypassed();
+                serve(exchange, forward(exchange, method, pathAndQuery), "bypass");
+                return;
+            }
+
+            String key = policy.key(method, uri.getRawPath(), uri.getRawQuery());
+            ReplayStore.Entry entry = mode == ReplayMode.RECORD ? null : store.get(key);
+            boolean stale = entry != null && policy.isStale(entry.getRecordedAt());
+
+            if (entry != null && (!stale || mode == ReplayMode.REPLAY)) {
+                stats.recordHit(entry.getBody().length, stale);
+                serve(exchange, entry, stale ? "stale" : "hit");
+                return;
+            }
+
+            if (mode == ReplayMode.REPLAY) {
+                stats.recordMiss();
+                logger.warn("Replay miss: {}", key);
+                byte[] body = ("Not recorded: " + key).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("X-Replay", "miss");
+                exchange.sendResponseHeaders(404, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+
+            if (mode == ReplayMode.AUTO) {
+                stats.recordMiss();
+            }
+            ReplayStore.Entry live = forward(exchange, method, pathAndQuery);
+            if (policy.isRecordable(method, live.getStatus())) {
+                store.put(key, live);
+                stats.recordRecorded();
+            }
+            serve(exchange, live, "recorded");
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Replay server failed on {}: {}", exchange.getRequestURI(), e.getMessage());
+            throw e;
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sends the request to the live origin and captures the response
+     */
+    private ReplayStore.Entry forward(HttpExchange exchange, String method, String pathAndQuery) throws IOException {
+        byte[] requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = in.readAllBytes();
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(origin + pathAndQuery))
+            .timeout(Duration.ofSeconds(30))
+            .method(method, requestBody.length == 0
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> request.header(name, value.replace(localBase, origin)));
+            }
+        });
+        // Plain bodies only, so stored text can be rewritten on replay
+        request.header("Accept-Encoding", "identity");
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            List<String[]> headers = new ArrayList<>();
+            response.headers().map().forEach((name, values) -> {
+                if (!name.startsWith(":") && !HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    values.forEach(value -> headers.add(new String[]{name, value}));
+                }
+            });
+            return new ReplayStore.Entry(method, pathAndQuery, response.statusCode(), headers, response.body(),
+                Instant.now(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding " + pathAndQuery, e);
+        }
+    }
+
+    /**
+     * Writes a recorded or live response, pointing absolute origin URLs at the local server
+     */
+    private void serve(HttpExchange exchange, ReplayStore.Entry entry, String source) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        entry.getHeaders().forEach(header -> headers.add(header[0], header[1].replace(origin, localBase)));
+        headers.add("X-Replay", source);
+
+        byte[] body = entry.getBody();
+        String contentType = entry.getHeader("Content-Type");
+        if (contentType != null && isText(contentType)) {
+            body = new String(body, StandardCharsets.UTF_8).replace(origin, localBase).getBytes(StandardCharsets.UTF_8);
+        }
+
+        boolean noBody = "HEAD".equals(exchange.getRequestMethod()) || body.length == 0
+            || entry.getStatus() == 204 || entry.getStatus() == 304;
+        exchange.sendResponseHeaders(entry.getStatus(), noBody ? -1 : body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static boolean isText(String contentType) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json")
+            || type.contains("xml") || type.contains("svg");
+    }
+}
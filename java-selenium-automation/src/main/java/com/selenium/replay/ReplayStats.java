@@ -0,0 +1,80 @@
+package com.selenium.replay;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ReplayStats - Hit/miss counters of the replay server
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ReplayStats {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong bytesServedFromStore = new AtomicLong();
+
+    void recordHit(long bytes, boolean stale) {
+        hits.incrementAndGet();
+        if (stale) {
+            staleHits.incrementAndGet();
+        }
+        bytesServedFromStore.addAndGet(bytes);
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    void recordRecorded() {
+        recorded.incrementAndGet();
+    }
+
+    void recordBypassed() {
+        bypassed.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public long getBypassed() {
+        return bypassed.get();
+    }
+
+    public long getBytesServedFromStore() {
+        return bytesServedFromStore.get();
+    }
+
+    /**
+     * Share of lookups answered from the store
+     *
+     * @return Hit ratio between 0 and 1
+     */
+    public double getHitRatio() {
+        long lookups = getHits() + getMisses();
+        return lookups == 0 ? 0 : (double) getHits() / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits %d (stale %d), misses %d, recorded %d, bypassed %d, hit ratio %.1f%%, %d bytes served",
+            getHits(), getStaleHits(), getMisses(), getRecorded(), getBypassed(), getHitRatio() * 100,
+            getBytesServedFromStore());
+    }
+}
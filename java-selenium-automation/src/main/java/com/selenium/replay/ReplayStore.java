@@ -0,0 +1,235 @@
+package com.selenium.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ReplayStore - On-disk store of recorded responses in HAR 1.2 layout
+ * One file per origin host; bodies are kept base64 encoded so binary assets
+ * survive, and the file can be opened in any HAR viewer
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ReplayStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayStore.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path file;
+    private final String origin;
+    private final ReplayPolicy policy;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    /**
+     * A recorded response
+     */
+    public static final class Entry {
+        private final String method;
+        private final String pathAndQuery;
+        private final int status;
+        private final List<String[]> headers;
+        private final byte[] body;
+        private final Instant recordedAt;
+        private final long timeMillis;
+
+        Entry(String method, String pathAndQuery, int status, List<String[]> headers, byte[] body,
+              Instant recordedAt, long timeMillis) {
+            this.method = method;
+            this.pathAndQuery = pathAndQuery;
+            this.status = status;
+            this.headers = Collections.unmodifiableList(headers);
+            this.body = body;
+            this.recordedAt = recordedAt;
+            this.timeMillis = timeMillis;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPathAndQuery() {
+            return pathAndQuery;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public List<String[]> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public Instant getRecordedAt() {
+            return recordedAt;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * Gets a response header value, ignoring case
+         *
+         * @param name Header name
+         * @return Header value or null
+         */
+        public String getHeader(String name) {
+            for (String[] header : headers) {
+                if (header[0].equalsIgnoreCase(name)) {
+                    return header[1];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Opens (or creates) the store for an origin
+     *
+     * @param directory Store directory
+     * @param origin Origin such as https://www.saucedemo.com
+     * @param policy Keying and invalidation rules
+     */
+    public ReplayStore(Path directory, String origin, ReplayPolicy policy) {
+        this.file = directory.resolve(URI.create(origin).getHost() + ".har");
+        this.origin = origin;
+        this.policy = policy;
+        load();
+    }
+
+    /**
+     * Looks up a recorded response
+     *
+     * @param key Store key from {@link ReplayPolicy#key}
+     * @return Entry or null
+     */
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Records a response, replacing any previous recording
+     *
+     * @param key Store key
+     * @param entry Recorded response
+     */
+    public void put(String key, Entry entry) {
+        entries.put(key, entry);
+        dirty.set(true);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the store to disk if anything was recorded since the last save
+     */
+    public synchronized void save() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode log = root.putObject("log");
+        log.put("version", "1.2");
+        log.putObject("creator").put("name", "java-selenium-automation").put("version", "1.0.0");
+        ArrayNode harEntries = log.putArray("entries");
+        entries.values().forEach(entry -> harEntries.add(toHar(entry)));
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), root);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved {} recorded responses to {}", entries.size(), file);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Failed to save replay store {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            logger.info("No replay store at {}, starting empty", file);
+            return;
+        }
+        try {
+            JsonNode harEntries = mapper.readTree(file.toFile()).path("log").path("entries");
+            for (JsonNode harEntry : harEntries) {
+                Entry entry = fromHar(harEntry);
+                URI uri = URI.create(origin + entry.getPathAndQuery());
+                // Re-key on load so changed keying rules apply to old recordings
+                entries.put(policy.key(entry.getMethod(), uri.getRawPath(), uri.getRawQuery()), entry);
+            }
+            logger.info("Loaded {} recorded responses from {}", entries.size(), file);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable replay store {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ObjectNode toHar(Entry entry) {
+        ObjectNode harEntry = mapper.createObjectNode();
+        harEntry.put("startedDateTime", entry.getRecordedAt().toString());
+        harEntry.put("time", entry.getTimeMillis());
+
+        ObjectNode request = harEntry.putObject("request");
+        request.put("method", entry.getMethod());
+        request.put("url", origin + entry.getPathAndQuery());
+
+        ObjectNode response = harEntry.putObject("response");
+        response.put("status", entry.getStatus());
+        ArrayNode headers = response.putArray("headers");
+        entry.getHeaders().forEach(header -> headers.addObject().put("name", header[0]).put("value", header[1]));
+        ObjectNode content = response.putObject("content");
+        content.put("size", entry.getBody().length);
+        String contentType = entry.getHeader("Content-Type");
+        content.put("mimeType", contentType != null ? contentType : "");
+        content.put("encoding", "base64");
+        content.put("text", Base64.getEncoder().encodeToString(entry.getBody()));
+        return harEntry;
+    }
+
+    private Entry fromHar(JsonNode harEntry) {
+        String url = harEntry.path("request").path("url").asText();
+        String pathAndQuery = url.startsWith(origin) ? url.substring(origin.length()) : URI.create(url).getRawPath();
+
+        JsonNode response = harEntry.path("response");
+        List<String[]> headers = new ArrayList<>();
+        response.path("headers").forEach(header ->
+            headers.add(new String[]{header.path("name").asText(), header.path("value").asText()}));
+
+        JsonNode content = response.path("content");
+        String text = content.path("text").asText("");
+        byte[] body = "base64".equals(content.path("encoding").asText())
+            ? Base64.getDecoder().decode(text) : text.getBytes(StandardCharsets.UTF_8);
+
+        return new Entry(harEntry.path("request").path("method").asText("GET"), pathAndQuery,
+            response.path("status").asInt(), headers, body,
+            Instant.parse(harEntry.path("startedDateTime").asText()), harEntry.path("time").asLong());
+    }
+}
@@ -0,0 +1,153 @@
+package com.selenium.results;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ColumnarResultFile - Memory-mapped view of the test results of one run
+ * File layout (little-endian), written by {@link ColumnarResultWriter}:
+ * <pre>
+ *   header       magic "RCOL", version, run id, row count, dictionary size, column offsets (64 bytes)
+ *   start        long[rows]  start of each attempt, epoch millis
+ *   duration     int[rows]   duration of each attempt, millis
+ *   test         int[rows]   code of the test in the dictionary
+ *   status       byte[rows]  PASS, FAIL, SKIP or RETRY
+ *   dictionary   per test: unsigned short length, UTF-8 Class.method
+ * </pre>
+ * Columns are read in place from the page cache; only the dictionary is decoded on open
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ColumnarResultFile {
+
+    public static final int MAGIC = 0x52434F4C;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 64;
+    public static final String EXTENSION = ".rcol";
+
+    public static final byte PASS = 0;
+    public static final byte FAIL = 1;
+    public static final byte SKIP = 2;
+    // A failed attempt that was run again
+    public static final byte RETRY = 3;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long runId;
+    private final int rowCount;
+    private final int startOffset;
+    private final int durationOffset;
+    private final int testOffset;
+    private final int statusOffset;
+    private final String[] dictionary;
+
+    private ColumnarResultFile(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a columnar result file: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported result file version " + buffer.getInt(4) + ": " + path);
+        }
+        this.runId = buffer.getLong(8);
+        this.rowCount = buffer.getInt(16);
+        int dictionarySize = buffer.getInt(20);
+        this.startOffset = (int) buffer.getLong(24);
+        this.durationOffset = (int) buffer.getLong(32);
+        this.testOffset = (int) buffer.getLong(40);
+        this.statusOffset = (int) buffer.getLong(48);
+        this.dictionary = readDictionary(buffer, (int) buffer.getLong(56), dictionarySize);
+    }
+
+    /**
+     * Maps a result file
+     *
+     * @param path File written by {@link ColumnarResultWriter}
+     * @return Mapped file
+     * @throws IOException if the file cannot be read or has another format
+     */
+    public static ColumnarResultFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ColumnarResultFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getStartMillis(int row) {
+        return buffer.getLong(startOffset + row * Long.BYTES);
+    }
+
+    public int getDurationMillis(int row) {
+        return buffer.getInt(durationOffset + row * Integer.BYTES);
+    }
+
+    /**
+     * @return Dictionary code of the row's test, see {@link #getTestName(int)}
+     */
+    public int getTestCode(int row) {
+        return buffer.getInt(testOffset + row * Integer.BYTES);
+    }
+
+    public byte getStatus(int row) {
+        return buffer.get(statusOffset + row);
+    }
+
+    public String getTestName(int code) {
+        return dictionary[code];
+    }
+
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * @return Name of a status code
+     */
+    public static String statusName(byte status) {
+        switch (status) {
+            case PASS:
+                return "PASS";
+            case FAIL:
+                return "FAIL";
+            case SKIP:
+                return "SKIP";
+            case RETRY:
+                return "RETRY";
+            default:
+                return "UNKNOWN";
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer, int offset, int size) {
+        String[] names = new String[size];
+        ByteBuffer entries = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        entries.position(offset);
+        for (int code = 0; code < size; code++) {
+            byte[] bytes = new byte[Short.toUnsignedInt(entries.getShort())];
+            entries.get(bytes);
+            names[code] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return names;
+    }
+}
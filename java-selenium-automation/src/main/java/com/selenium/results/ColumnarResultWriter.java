@@ -0,0 +1,129 @@
+package com.selenium.results;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ColumnarResultWriter - Collects the test attempts of one run into primitive columns
+ * Rows are appended from the listener threads; test names are dictionary encoded, so a
+ * row costs 17 bytes whatever the length of its name. {@link #write(Path)} produces the
+ * layout read by {@link ColumnarResultFile}
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ColumnarResultWriter {
+
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private final long runId;
+    private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+    private long[] starts = new long[64];
+    private int[] durations = new int[64];
+    private int[] tests = new int[64];
+    private byte[] statuses = new byte[64];
+    private int rows;
+
+    /**
+     * @param runId Id of the run, the same for all files of a run (forks, lanes)
+     */
+    public ColumnarResultWriter(long runId) {
+        this.runId = runId;
+    }
+
+    /**
+     * Appends one attempt
+     *
+     * @param testId Class.method of the test
+     * @param startMillis Start of the attempt
+     * @param durationMillis Duration of the attempt
+     * @param status ColumnarResultFile.PASS, FAIL, SKIP or RETRY
+     */
+    public synchronized void add(String testId, long startMillis, long durationMillis, byte status) {
+        if (rows == starts.length) {
+            int capacity = rows * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            tests = Arrays.copyOf(tests, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        starts[rows] = startMillis;
+        durations[rows] = (int) Math.min(Math.max(durationMillis, 0), Integer.MAX_VALUE);
+        tests[rows] = dictionary.computeIfAbsent(testId, name -> dictionary.size());
+        statuses[rows] = status;
+        rows++;
+    }
+
+    public synchronized int getRowCount() {
+        return rows;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    /**
+     * Writes the collected rows; the file appears complete or not at all
+     *
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void write(Path file) throws IOException {
+        byte[][] names = new byte[dictionary.size()][];
+        int dictionaryBytes = 0;
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            if (name.length > MAX_NAME_BYTES) {
+                name = Arrays.copyOf(name, MAX_NAME_BYTES);
+            }
+            names[entry.getValue()] = name;
+            dictionaryBytes += Short.BYTES + name.length;
+        }
+
+        // 8-byte columns first, so every column is aligned to its element size
+        long startOffset = ColumnarResultFile.HEADER_BYTES;
+        long durationOffset = startOffset + (long) rows * Long.BYTES;
+        long testOffset = durationOffset + (long) rows * Integer.BYTES;
+        long statusOffset = testOffset + (long) rows * Integer.BYTES;
+        long dictionaryOffset = statusOffset + rows;
+        ByteBuffer buffer = ByteBuffer.allocate((int) (dictionaryOffset + dictionaryBytes))
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(ColumnarResultFile.MAGIC).putInt(ColumnarResultFile.VERSION).putLong(runId)
+            .putInt(rows).putInt(names.length)
+            .putLong(startOffset).putLong(durationOffset).putLong(testOffset).putLong(statusOffset)
+            .putLong(dictionaryOffset);
+        buffer.position(ColumnarResultFile.HEADER_BYTES);
+        buffer.asLongBuffer().put(starts, 0, rows);
+        buffer.position((int) durationOffset);
+        buffer.asIntBuffer().put(durations, 0, rows);
+        buffer.position((int) testOffset);
+        buffer.asIntBuffer().put(tests, 0, rows);
+        buffer.position((int) statusOffset);
+        buffer.put(statuses, 0, rows);
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length).put(name);
+        }
+        buffer.flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,88 @@
+package com.selenium.results;
+
+import com.selenium.listeners.RetryAnalyzer;
+import com.selenium.utils.ConfigurationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * ResultArchive - Keeps the results of every run as a columnar file for later analysis
+ * TestExecutionListener records every finished attempt; at suite end the run is written
+ * to results.archive.directory as run-&lt;run id&gt;-&lt;pid&gt;.rcol. Shard forks share the
+ * run id of the ShardRunner, so {@link ResultQuery} counts them as one run
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ResultArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultArchive.class);
+    private static final long RUN_ID = Long.getLong("results.run.id", System.currentTimeMillis());
+    // Guarded by the class lock
+    private static ColumnarResultWriter writer = new ColumnarResultWriter(RUN_ID);
+
+    private ResultArchive() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Records one finished attempt of this run
+     *
+     * @param result TestNG result of the attempt
+     * @param status ColumnarResultFile.PASS, FAIL, SKIP or RETRY
+     */
+    public static void record(ITestResult result, byte status) {
+        if (!isEnabled()) {
+            return;
+        }
+        String testId = RetryAnalyzer.testId(result);
+        synchronized (ResultArchive.class) {
+            writer.add(testId, result.getStartMillis(), result.getEndMillis() - result.getStartMillis(), status);
+        }
+    }
+
+    /**
+     * @return Id the results of this run are recorded under
+     */
+    public static long getRunId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Writes the attempts recorded so far
+     *
+     * @return Written file, or null if there was nothing to write
+     */
+    public static Path persist() {
+        ColumnarResultWriter rows;
+        synchronized (ResultArchive.class) {
+            rows = writer;
+            if (rows.getRowCount() == 0) {
+                return null;
+            }
+            writer = new ColumnarResultWriter(RUN_ID);
+        }
+
+        String directory = ConfigurationManager.getInstance().getProperty("results.archive.directory",
+            "test-history/results");
+        Path file = Paths.get(directory, "run-" + RUN_ID + "-" + ProcessHandle.current().pid()
+            + ColumnarResultFile.EXTENSION);
+        try {
+            rows.write(file);
+            logger.info("Archived {} test results in {}", rows.getRowCount(), file);
+            return file;
+        } catch (IOException e) {
+            logger.warn("Failed to archive test results in {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("results.archive.enabled", true);
+    }
+}
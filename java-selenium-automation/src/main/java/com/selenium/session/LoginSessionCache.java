@@ -0,0 +1,209 @@
+package com.selenium.session;
+
+import com.selenium.utils.ConfigurationManager;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginSessionCache - Captures a logged-in browser state once and replays it
+ * A snapshot holds the cookies and localStorage of the page reached after a real
+ * UI login. Restoring it into a fresh browser skips the login form entirely.
+ * Snapshots are dropped as soon as a restore lands anywhere but the logged-in page
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class LoginSessionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginSessionCache.class);
+
+    private static final String READ_STORAGE_SCRIPT =
+        "var state = {};"
+            + "for (var i = 0; i < localStorage.length; i++) {"
+            + "  var key = localStorage.key(i); state[key] = localStorage.getItem(key);"
+            + "}"
+            + "return state;";
+    private static final String WRITE_STORAGE_SCRIPT =
+        "localStorage.clear();"
+            + "var state = arguments[0];"
+            + "for (var key in state) { localStorage.setItem(key, state[key]); }";
+    private static final String LOGGED_OUT_SCRIPT = "return document.querySelector(arguments[0]) !== null;";
+
+    private static final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private static final LoginTimings timings = new LoginTimings();
+
+    /**
+     * Browser state right after a successful login
+     */
+    static final class Snapshot {
+        private final String origin;
+        private final String landingPath;
+        private final List<Cookie> cookies;
+        private final Map<String, String> localStorage;
+        private final Instant capturedAt;
+
+        Snapshot(String origin, String landingPath, List<Cookie> cookies, Map<String, String> localStorage,
+                 Instant capturedAt) {
+            this.origin = origin;
+            this.landingPath = landingPath;
+            this.cookies = Collections.unmodifiableList(cookies);
+            this.localStorage = Collections.unmodifiableMap(localStorage);
+            this.capturedAt = capturedAt;
+        }
+
+        boolean isExpired(Duration maxAge) {
+            if (capturedAt.plus(maxAge).isBefore(Instant.now())) {
+                return true;
+            }
+            Date now = new Date();
+            return cookies.stream().anyMatch(cookie -> cookie.getExpiry() != null && cookie.getExpiry().before(now));
+        }
+    }
+
+    private LoginSessionCache() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether a usable snapshot exists for a user
+     *
+     * @param user User name
+     * @return true if a restore can be attempted
+     */
+    public static boolean hasSnapshot(String user) {
+        Snapshot snapshot = snapshots.get(user);
+        return snapshot != null && !snapshot.isExpired(maxAge());
+    }
+
+    /**
+     * Captures the current page's cookies and localStorage as the user's session
+     *
+     * @param driver Driver that has just logged in
+     * @param user User name
+     */
+    @SuppressWarnings("unchecked")
+    public static void capture(WebDriver driver, String user) {
+        try {
+            URI current = URI.create(driver.getCurrentUrl());
+            Map<String, String> storage = new HashMap<>();
+            Object state = ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+            if (state instanceof Map) {
+                ((Map<String, Object>) state).forEach((key, value) -> storage.put(key, String.valueOf(value)));
+            }
+            List<Cookie> cookies = new ArrayList<>(driver.manage().getCookies());
+
+            snapshots.put(user, new Snapshot(originOf(current), current.getRawPath(), cookies, storage, Instant.now()));
+            logger.info("Captured login session for '{}' ({} cookies, {} storage keys)",
+                user, cookies.size(), storage.size());
+        } catch (Exception e) {
+            logger.warn("Could not capture login session for '{}': {}", user, e.getMessage());
+        }
+    }
+
+    /**
+     * Restores a user's session and opens the logged-in landing page
+     * The driver must already be on the snapshot's origin so cookies can be set
+     *
+     * @param driver Fresh driver on the application's origin
+     * @param user User name
+     * @return true if the browser is now logged in, false if a UI login is needed
+     */
+    public static boolean restore(WebDriver driver, String user) {
+        Snapshot snapshot = snapshots.get(user);
+        if (snapshot == null) {
+            return false;
+        }
+        if (snapshot.isExpired(maxAge())) {
+            invalidate(user, "snapshot expired");
+            return false;
+        }
+        String origin = originOf(URI.create(driver.getCurrentUrl()));
+        if (!snapshot.origin.equals(origin)) {
+            logger.debug("Snapshot for '{}' belongs to {}, browser is on {}", user, snapshot.origin, origin);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            driver.manage().deleteAllCookies();
+            snapshot.cookies.forEach(cookie -> driver.manage().addCookie(cookie));
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, snapshot.localStorage);
+            driver.get(origin + snapshot.landingPath);
+
+            if (!isLoggedIn(driver, snapshot)) {
+                invalidate(user, "restored session was rejected, landed on " + driver.getCurrentUrl());
+                driver.get(origin);
+                return false;
+            }
+        } catch (Exception e) {
+            invalidate(user, "restore failed: " + e.getMessage());
+            return false;
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        timings.recordRestored(elapsed);
+        logger.info("Restored login session for '{}' in {}ms", user, elapsed);
+        return true;
+    }
+
+    /**
+     * Drops a user's snapshot, e.g. after the application rejected it
+     *
+     * @param user User name
+     * @param reason Why the snapshot is no longer valid
+     */
+    public static void invalidate(String user, String reason) {
+        if (snapshots.remove(user) != null) {
+            timings.recordInvalidation();
+            logger.warn("Invalidated login session for '{}': {}", user, reason);
+        }
+    }
+
+    /**
+     * Records the duration of a login performed through the UI
+     *
+     * @param millis Login duration
+     */
+    public static void recordUiLogin(long millis) {
+        timings.recordPerformed(millis);
+    }
+
+    public static LoginTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * The landing page counts as logged in when the URL kept its path and the
+     * login form is not rendered (the app redirects client-side on a bad session)
+     */
+    private static boolean isLoggedIn(WebDriver driver, Snapshot snapshot) {
+        String selector = ConfigurationManager.getInstance()
+            .getProperty("session.logged.out.selector", "#login-button");
+        boolean loginFormShown = Boolean.TRUE.equals(
+            ((JavascriptExecutor) driver).executeScript(LOGGED_OUT_SCRIPT, selector));
+        return driver.getCurrentUrl().contains(snapshot.landingPath) && !loginFormShown;
+    }
+
+    private static Duration maxAge() {
+        return Duration.ofMinutes(ConfigurationManager.getInstance().getIntProperty("session.cache.max.age.minutes", 9));
+    }
+
+    private static String originOf(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+}
@@ -0,0 +1,68 @@
+package com.selenium.session;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoginTimings - Time spent on UI logins versus restored sessions
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class LoginTimings {
+
+    private final AtomicLong performedCount = new AtomicLong();
+    private final AtomicLong performedMillis = new AtomicLong();
+    private final AtomicLong restoredCount = new AtomicLong();
+    private final AtomicLong restoredMillis = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    void recordPerformed(long millis) {
+        performedCount.incrementAndGet();
+        performedMillis.addAndGet(millis);
+    }
+
+    void recordRestored(long millis) {
+        restoredCount.incrementAndGet();
+        restoredMillis.addAndGet(millis);
+    }
+
+    void recordInvalidation() {
+        invalidations.incrementAndGet();
+    }
+
+    public long getPerformedCount() {
+        return performedCount.get();
+    }
+
+    public long getRestoredCount() {
+        return restoredCount.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public long getAveragePerformedMillis() {
+        return performedCount.get() == 0 ? 0 : performedMillis.get() / performedCount.get();
+    }
+
+    public long getAverageRestoredMillis() {
+        return restoredCount.get() == 0 ? 0 : restoredMillis.get() / restoredCount.get();
+    }
+
+    /**
+     * Estimated time saved by restoring instead of logging in through the UI
+     *
+     * @return Saved milliseconds
+     */
+    public long getEstimatedSavedMillis() {
+        return Math.max(0, getRestoredCount() * (getAveragePerformedMillis() - getAverageRestoredMillis()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UI logins %d (avg %dms), restored sessions %d (avg %dms), invalidations %d, ~%dms saved",
+            getPerformedCount(), getAveragePerformedMillis(), getRestoredCount(), getAverageRestoredMillis(),
+            getInvalidations(), getEstimatedSavedMillis());
+    }
+}
@@ -0,0 +1,25 @@
+package com.selenium.session;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ReuseLoginSession - Opts a test into starting already logged in
+ * When a session snapshot for the user exists, BaseTest restores its cookies and
+ * localStorage and opens the landing page directly; {@code login(...)} then becomes a no-op.
+ * Without a snapshot the test logs in through the UI and the session is captured
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ReuseLoginSession {
+
+    /**
+     * User whose session is reused; empty means the suite's "username" parameter
+     */
+    String user() default "";
+}
@@ -0,0 +1,226 @@
+package com.selenium.shard;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ResultMerger - Combines the result fragments of the forks
+ * TestNG results: the &lt;suite&gt; elements of every fork's testng-results.xml go under
+ * one root whose counters are the sums. NDJSON files (*.jsonl, e.g. traces) with the
+ * same name are concatenated; every line is a complete record, so order does not matter
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ResultMerger {
+
+    static final String TESTNG_RESULTS = "testng-results.xml";
+    private static final String[] COUNTERS = {"ignored", "total", "passed", "failed", "skipped"};
+
+    /**
+     * Totals of one testng-results.xml
+     */
+    public static final class Totals {
+        private final Map<String, Long> counters;
+        private final long busyMillis;
+
+        Totals(Map<String, Long> counters, long busyMillis) {
+            this.counters = counters;
+            this.busyMillis = busyMillis;
+        }
+
+        public long get(String counter) {
+            return counters.getOrDefault(counter, 0L);
+        }
+
+        /**
+         * @return Sum of the durations of all test and configuration methods
+         */
+        public long getBusyMillis() {
+            return busyMillis;
+        }
+    }
+
+    private ResultMerger() {
+        // Private constructor to prevent instantiation
+    }
+
+    // ==================== TESTNG RESULTS ====================
+
+    /**
+     * Reads the counters and busy time of one fork
+     *
+     * @param resultsFile testng-results.xml of the fork
+     * @return Totals, all zero if the fork wrote no results
+     * @throws IOException if the file is not readable XML
+     */
+    public static Totals readTotals(Path resultsFile) throws IOException {
+        Map<String, Long> counters = new TreeMap<>();
+        if (!Files.isRegularFile(resultsFile)) {
+            return new Totals(counters, 0);
+        }
+        Element root = parse(resultsFile).getDocumentElement();
+        for (String counter : COUNTERS) {
+            counters.put(counter, parseLong(root.getAttribute(counter)));
+        }
+        long busy = 0;
+        NodeList methods = root.getElementsByTagName("test-method");
+        for (int index = 0; index < methods.getLength(); index++) {
+            busy += parseLong(((Element) methods.item(index)).getAttribute("duration-ms"));
+        }
+        return new Totals(counters, busy);
+    }
+
+    /**
+     * Merges the TestNG results of all forks into one file
+     *
+     * @param resultFiles testng-results.xml of each fork (missing files are skipped)
+     * @param output Merged file
+     * @return Totals of the merged file
+     * @throws IOException if a fragment cannot be read or the output written
+     */
+    public static Totals mergeTestNgResults(List<Path> resultFiles, Path output) throws IOException {
+        Document merged = newDocumentBuilder().newDocument();
+        Element root = merged.createElement("testng-results");
+        merged.appendChild(root);
+        root.appendChild(merged.createElement("reporter-output"));
+
+        Map<String, Long> counters = new TreeMap<>();
+        long busy = 0;
+        for (Path resultFile : resultFiles) {
+            if (!Files.isRegularFile(resultFile)) {
+                continue;
+            }
+            Totals totals = readTotals(resultFile);
+            for (String counter : COUNTERS) {
+                counters.merge(counter, totals.get(counter), Long::sum);
+            }
+            busy += totals.getBusyMillis();
+
+            NodeList suites = parse(resultFile).getDocumentElement().getChildNodes();
+            for (int index = 0; index < suites.getLength(); index++) {
+                Node node = suites.item(index);
+                if (node.getNodeType() == Node.ELEMENT_NODE && "suite".equals(node.getNodeName())) {
+                    root.appendChild(merged.importNode(node, true));
+                }
+            }
+        }
+        for (String counter : COUNTERS) {
+            root.setAttribute(counter, String.valueOf(counters.getOrDefault(counter, 0L)));
+        }
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(output)) {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+            transformer.transform(new DOMSource(merged), new StreamResult(out));
+        } catch (TransformerException e) {
+            throw new IOException("Failed to write " + output, e);
+        }
+        return new Totals(counters, busy);
+    }
+
+    // ==================== NDJSON ====================
+
+    /**
+     * Concatenates the *.jsonl files of the fork report directories by file name
+     *
+     * @param shardDirectories Report directory of each fork
+     * @param outputDirectory Merged report directory
+     * @return Lines written per file name
+     * @throws IOException if a fragment cannot be read or the output written
+     */
+    public static Map<String, Long> mergeNdjson(List<Path> shardDirectories, Path outputDirectory) throws IOException {
+        Map<String, Long> lines = new TreeMap<>();
+        Files.createDirectories(outputDirectory);
+        for (Path shardDirectory : shardDirectories) {
+            if (!Files.isDirectory(shardDirectory)) {
+                continue;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(shardDirectory, "*.jsonl")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    Path target = outputDirectory.resolve(name);
+                    if (!lines.containsKey(name)) {
+                        // Start from an empty file, a previous merged run may have left one
+                        Files.deleteIfExists(target);
+                        lines.put(name, 0L);
+                    }
+                    lines.merge(name, appendLines(file, target), Long::sum);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static long appendLines(Path source, Path target) throws IOException {
+        long count = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String line : Files.readAllLines(source, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    writer.write(line);
+                    writer.newLine();
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // ==================== XML HELPERS ====================
+
+    private static Document parse(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return newDocumentBuilder().parse(in);
+        } catch (SAXException e) {
+            throw new IOException("Invalid TestNG results " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IOException("XML parser unavailable", e);
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value == null || value.isEmpty() ? 0 : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.selenium.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardPlan - Splits a suite into balanced shards for forked JVMs
+ * The suite is cut into units: a test method, or a group of methods of one class that
+ * depend on each other (they must run in the same JVM). Units are dealt in XML order to
+ * the shard with the fewest methods so far, so every shard keeps the original order
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ShardPlan {
+
+    /**
+     * Methods of one class that run together, with the &lt;test&gt; they came from
+     */
+    public static final class Unit {
+        private final String testName;
+        private final Map<String, String> parameters;
+        private final String className;
+        private final List<String> methods;
+
+        public Unit(String testName, Map<String, String> parameters, String className, List<String> methods) {
+            this.testName = testName;
+            this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+            this.className = className;
+            this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+        }
+
+        public String getTestName() {
+            return testName;
+        }
+
+        public Map<String, String> getParameters() {
+            return parameters;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return Methods in run order, empty for the whole class
+         */
+        public List<String> getMethods() {
+            return methods;
+        }
+    }
+
+    private ShardPlan() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Deals units to shards, fewest methods first
+     *
+     * @param units Units in suite order
+     * @param shardCount Number of forks
+     * @return Units per shard (no empty shards), each in suite order
+     */
+    public static List<List<Unit>> partition(List<Unit> units, int shardCount) {
+        int count = Math.max(1, Math.min(shardCount, units.size()));
+        List<List<Unit>> shards = new ArrayList<>();
+        int[] load = new int[count];
+        for (int index = 0; index < count; index++) {
+            shards.add(new ArrayList<>());
+        }
+        for (Unit unit : units) {
+            int target = 0;
+            for (int index = 1; index < count; index++) {
+                if (load[index] < load[target]) {
+                    target = index;
+                }
+            }
+            shards.get(target).add(unit);
+            load[target] += Math.max(1, unit.getMethods().size());
+        }
+        shards.removeIf(List::isEmpty);
+        return shards;
+    }
+
+    /**
+     * Groups the methods of a class so that dependent methods stay together
+     *
+     * @param methods Methods in suite order
+     * @param dependencies Methods each method depends on (dependsOnMethods)
+     * @return Groups in order of their first method
+     */
+    public static List<List<String>> groupDependent(List<String> methods, Map<String, List<String>> dependencies) {
+        // Union-find over method names
+        Map<String, String> parent = new LinkedHashMap<>();
+        methods.forEach(method -> parent.put(method, method));
+        dependencies.forEach((method, required) -> {
+            for (String dependency : required) {
+                if (parent.containsKey(method) && parent.containsKey(dependency)) {
+                    parent.put(root(parent, method), root(parent, dependency));
+                }
+            }
+        });
+
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String method : methods) {
+            groups.computeIfAbsent(root(parent, method), key -> new ArrayList<>()).add(method);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static String root(Map<String, String> parent, String method) {
+        String current = method;
+        while (!parent.get(current).equals(current)) {
+            current = parent.get(current);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,272 @@
+package com.selenium.shard;
+
+import com.selenium.results.ResultArchive;
+import com.selenium.utils.ConfigurationManager;
+import com.selenium.utils.ReportManager;
+import com.selenium.utils.TestMethods;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShardRunner - Runs a TestNG suite split across forked JVMs and merges the results
+ * Usage: ShardRunner &lt;suite.xml&gt; [forks]. The suite is split by {@link ShardPlan};
+ * every fork runs its shard with its own drivers, report directory
+ * (reports/shards/shard-N), JSON report archive and metrics port. Afterwards the
+ * ExtentReports archives, NDJSON files and TestNG results are merged into the reports
+ * directory, and the utilization of every fork and the merge time are logged and added
+ * to the merged report
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ShardRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRunner.class);
+    private static final List<String> FORK_JVM_OPTIONS = List.of(
+        "--add-opens", "java.base/java.lang=ALL-UNNAMED",
+        "--add-opens", "java.base/java.util=ALL-UNNAMED",
+        "--add-opens", "java.base/java.time=ALL-UNNAMED");
+
+    /**
+     * One finished fork
+     */
+    static final class Fork {
+        private final int index;
+        private final Path directory;
+        private final Process process;
+        private final long startMillis;
+        private long endMillis;
+        private int exitCode;
+        private ResultMerger.Totals totals;
+
+        Fork(int index, Path directory, Process process, long startMillis) {
+            this.index = index;
+            this.directory = directory;
+            this.process = process;
+            this.startMillis = startMillis;
+        }
+
+        long getWallMillis() {
+            return endMillis - startMillis;
+        }
+    }
+
+    private ShardRunner() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ShardRunner <suite.xml> [forks]");
+            System.exit(64);
+        }
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int forks = args.length > 1 ? Integer.parseInt(args[1]) : config.getIntProperty("shard.forks", 2);
+        System.exit(run(Paths.get(args[0]), forks, Paths.get(config.getReportsDirectory())));
+    }
+
+    /**
+     * Splits, runs and merges a suite
+     *
+     * @param suiteFile TestNG suite XML
+     * @param forkCount Number of JVMs
+     * @param reportsDirectory Merged report directory
+     * @return TestNG exit code of the whole run (0 when every fork passed)
+     */
+    public static int run(Path suiteFile, int forkCount, Path reportsDirectory) throws IOException, InterruptedException {
+        XmlSuite suite = new Parser(suiteFile.toString()).parseToList().get(0);
+        List<List<ShardPlan.Unit>> shards = ShardPlan.partition(collectUnits(suite), forkCount);
+        logger.info("Running suite {} in {} forks", suite.getName(), shards.size());
+
+        Path shardsDirectory = reportsDirectory.resolve("shards");
+        List<Fork> forks = new ArrayList<>();
+        for (int index = 0; index < shards.size(); index++) {
+            forks.add(startFork(index, suite, shards.get(index), shardsDirectory.resolve("shard-" + (index + 1))));
+        }
+        int exitCode = 0;
+        for (Fork fork : forks) {
+            fork.exitCode = fork.process.waitFor();
+            fork.endMillis = System.currentTimeMillis();
+            fork.totals = ResultMerger.readTotals(fork.directory.resolve("testng").resolve(ResultMerger.TESTNG_RESULTS));
+            exitCode |= fork.exitCode;
+            logger.info("Shard {} finished with exit code {} after {} s (log: {})", fork.index + 1, fork.exitCode,
+                seconds(fork.getWallMillis()), fork.directory.resolve("fork.log"));
+        }
+
+        long mergeStart = System.nanoTime();
+        merge(forks, reportsDirectory);
+        long mergeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mergeStart);
+        reportUtilization(forks, mergeMillis);
+        ReportManager.flushReports();
+        return exitCode;
+    }
+
+    // ==================== SPLITTING ====================
+
+    /**
+     * Cuts every &lt;class&gt; into units of dependent methods, keeping its &lt;test&gt; parameters
+     */
+    private static List<ShardPlan.Unit> collectUnits(XmlSuite suite) {
+        List<ShardPlan.Unit> units = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                Map<String, String> parameters = new LinkedHashMap<>(test.getLocalParameters());
+                parameters.putAll(xmlClass.getLocalParameters());
+                List<String> methods = new ArrayList<>();
+                xmlClass.getIncludedMethods().forEach(include -> methods.add(include.getName()));
+                Map<String, List<String>> dependencies = TestMethods.dependencies(xmlClass.getName(), methods);
+                if (methods.isEmpty()) {
+                    methods.addAll(dependencies.keySet());
+                }
+                if (methods.isEmpty()) {
+                    // Unknown class: no includes means the whole class
+                    units.add(new ShardPlan.Unit(test.getName(), parameters, xmlClass.getName(), methods));
+                    continue;
+                }
+                for (List<String> group : ShardPlan.groupDependent(methods, dependencies)) {
+                    units.add(new ShardPlan.Unit(test.getName(), parameters, xmlClass.getName(), group));
+                }
+            }
+        }
+        return units;
+    }
+
+    private static XmlSuite toShardSuite(XmlSuite original, int index, List<ShardPlan.Unit> units) {
+        XmlSuite shard = new XmlSuite();
+        shard.setName(original.getName() + " - Shard " + (index + 1));
+        shard.setParameters(new LinkedHashMap<>(original.getParameters()));
+        shard.setListeners(new ArrayList<>(original.getListeners()));
+        shard.setVerbose(original.getVerbose());
+
+        Map<String, XmlTest> tests = new LinkedHashMap<>();
+        for (ShardPlan.Unit unit : units) {
+            XmlTest test = tests.computeIfAbsent(unit.getTestName(), name -> {
+                XmlTest created = new XmlTest(shard);
+                created.setName(name);
+                created.setPreserveOrder(true);
+                return created;
+            });
+            XmlClass xmlClass = new XmlClass(unit.getClassName(), false);
+            xmlClass.setParameters(new LinkedHashMap<>(unit.getParameters()));
+            List<XmlInclude> includes = new ArrayList<>();
+            unit.getMethods().forEach(method -> includes.add(new XmlInclude(method)));
+            xmlClass.setIncludedMethods(includes);
+            List<XmlClass> classes = new ArrayList<>(test.getXmlClasses());
+            classes.add(xmlClass);
+            test.setXmlClasses(classes);
+        }
+        return shard;
+    }
+
+    // ==================== FORKS ====================
+
+    private static Fork startFork(int index, XmlSuite suite, List<ShardPlan.Unit> units, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path shardSuite = directory.resolve("suite.xml");
+        Files.write(shardSuite, toShardSuite(suite, index, units).toXml().getBytes(StandardCharsets.UTF_8));
+
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(FORK_JVM_OPTIONS);
+        // Settings given to this JVM apply to every fork
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-D")) {
+                command.add(argument);
+            }
+        }
+        command.add("-Dreporting.output.directory=" + directory);
+        command.add("-Dreporting.json.enabled=true");
+        command.add("-Dmetrics.server.port=" + (config.getIntProperty("metrics.server.port", 9464) + index));
+        // Forks archive their results under the run id of this runner
+        command.add("-Dresults.run.id=" + ResultArchive.getRunId());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("org.testng.TestNG");
+        command.add("-d");
+        command.add(directory.resolve("testng").toString());
+        command.add(shardSuite.toString());
+
+        int methods = units.stream().mapToInt(unit -> unit.getMethods().size()).sum();
+        logger.info("Starting shard {}: {} methods in {} units", index + 1, methods, units.size());
+        File log = directory.resolve("fork.log").toFile();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        return new Fork(index, directory, process, System.currentTimeMillis());
+    }
+
+    // ==================== MERGING ====================
+
+    private static void merge(List<Fork> forks, Path reportsDirectory) throws IOException {
+        List<Path> directories = new ArrayList<>();
+        List<Path> results = new ArrayList<>();
+        for (Fork fork : forks) {
+            directories.add(fork.directory);
+            results.add(fork.directory.resolve("testng").resolve(ResultMerger.TESTNG_RESULTS));
+        }
+
+        ResultMerger.Totals totals = ResultMerger.mergeTestNgResults(results, reportsDirectory.resolve(ResultMerger.TESTNG_RESULTS));
+        logger.info("Merged TestNG results: {} total, {} passed, {} failed, {} skipped", totals.get("total"),
+            totals.get("passed"), totals.get("failed"), totals.get("skipped"));
+
+        ResultMerger.mergeNdjson(directories, reportsDirectory)
+            .forEach((name, lines) -> logger.info("Merged {}: {} lines", name, lines));
+
+        ReportManager.initializeReports();
+        int imported = 0;
+        for (Path directory : directories) {
+            File archive = directory.resolve(ReportManager.getJsonArchiveName()).toFile();
+            if (archive.isFile() && ReportManager.importJsonArchive(archive)) {
+                imported++;
+            }
+        }
+        logger.info("Merged {} of {} report archives", imported, forks.size());
+    }
+
+    private static void reportUtilization(List<Fork> forks, long mergeMillis) {
+        long runStart = forks.stream().mapToLong(fork -> fork.startMillis).min().orElse(0);
+        long makespan = forks.stream().mapToLong(fork -> fork.endMillis).max().orElse(0) - runStart;
+
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"Shard", "Tests", "Exit Code", "Wall s", "Busy s", "Utilization", "Share of Run"});
+        for (Fork fork : forks) {
+            long wall = Math.max(1, fork.getWallMillis());
+            String[] row = {String.valueOf(fork.index + 1), String.valueOf(fork.totals.get("total")),
+                String.valueOf(fork.exitCode), seconds(fork.getWallMillis()), seconds(fork.totals.getBusyMillis()),
+                percent(fork.totals.getBusyMillis(), wall), percent(fork.getWallMillis(), Math.max(1, makespan))};
+            rows.add(row);
+            logger.info("Shard {}: {} tests, wall {} s, busy {} s, utilization {}, share of run {}",
+                row[0], row[1], row[3], row[4], row[5], row[6]);
+        }
+        rows.add(new String[] {"Run", "", "", seconds(makespan), "", "", ""});
+        rows.add(new String[] {"Merge", "", "", seconds(mergeMillis), "", "", ""});
+        logger.info("Sharded run took {} s, merging {} ms", seconds(makespan), mergeMillis);
+        ReportManager.addSummaryTable("Shard Utilization", rows.toArray(new String[0][]));
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.1f", millis / 1000.0);
+    }
+
+    private static String percent(long part, long whole) {
+        return String.format(Locale.ROOT, "%.0f%%", 100.0 * part / whole);
+    }
+}
@@ -0,0 +1,210 @@
+package com.selenium.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SauceDemoApplication - Login and inventory pages of www.saucedemo.com for the stub server
+ * Covers the elements LoginPage and InventoryPage locate, the login rules for the
+ * standard SauceDemo users and the redirect of logged-out visitors to the login page.
+ * The login state lives in the session-username cookie, as on the real site, so
+ * captured login sessions restore the same way
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class SauceDemoApplication implements StubApplication {
+
+    private static final String TITLE = "Swag Labs";
+    private static final String INVENTORY_PATH = "/inventory.html";
+    private static final String SESSION_COOKIE = "session-username";
+    private static final String PASSWORD = "secret_sauce";
+    private static final Set<String> USERS = Set.of("standard_user", "locked_out_user", "problem_user",
+        "performance_glitch_user", "error_user", "visual_user");
+
+    private static final String ERROR_STATE = "saucedemo.error";
+
+    private enum Screen { LOGIN, INVENTORY }
+
+    private static final class Element {
+        private final String id;
+        private final Screen screen;
+        private final String tag;
+        private final String text;
+        private final Set<String> locators;
+
+        private Element(String id, Screen screen, String tag, String text, String... locators) {
+            this.id = id;
+            this.screen = screen;
+            this.tag = tag;
+            this.text = text;
+            this.locators = Set.of(locators);
+        }
+    }
+
+    private static final List<Element> ELEMENTS = List.of(
+        new Element("user-name", Screen.LOGIN, "input", "",
+            "css selector:#user-name", "css selector:*[name='user-name']", "xpath://input[@id='user-name']"),
+        new Element("password", Screen.LOGIN, "input", "",
+            "css selector:#password", "css selector:*[name='password']", "xpath://input[@id='password']"),
+        new Element("login-button", Screen.LOGIN, "input", "",
+            "css selector:#login-button", "css selector:*[name='login-button']", "xpath://input[@id='login-button']"),
+        new Element("login_logo", Screen.LOGIN, "div", "",
+            "css selector:.login_logo"),
+        new Element("error", Screen.LOGIN, "h3", "",
+            "xpath://h3[@data-test='error']", "css selector:h3[data-test='error']", "css selector:[data-test=\"error\"]"),
+        new Element("title", Screen.INVENTORY, "span", "Products",
+            "css selector:.title", "css selector:span.title"),
+        new Element("app_logo", Screen.INVENTORY, "div", TITLE,
+            "css selector:.app_logo"),
+        new Element("shopping_cart_container", Screen.INVENTORY, "div", "",
+            "css selector:#shopping_cart_container"),
+        new Element("inventory_list", Screen.INVENTORY, "div", "",
+            "css selector:.inventory_list"),
+        new Element("react-burger-menu-btn", Screen.INVENTORY, "button", "Open Menu",
+            "css selector:#react-burger-menu-btn"));
+
+    // ==================== NAVIGATION ====================
+
+    @Override
+    public void navigate(StubSession session, String url) {
+        session.clearValues();
+        session.setState(ERROR_STATE, null);
+        URI uri = URI.create(url);
+        if (INVENTORY_PATH.equals(uri.getPath()) && session.getCookie(SESSION_COOKIE) == null) {
+            // Logged-out visitors are sent back to the login form with an explanation
+            session.setState(ERROR_STATE,
+                "Epic sadface: You can only access '" + INVENTORY_PATH + "' when you are logged in.");
+            session.setCurrentUrl(origin(uri) + "/");
+            return;
+        }
+        session.setCurrentUrl(url);
+    }
+
+    @Override
+    public String getTitle(StubSession session) {
+        return session.getCurrentUrl().startsWith("about:") ? "" : TITLE;
+    }
+
+    @Override
+    public String getPageSource(StubSession session) {
+        StringBuilder source = new StringBuilder("<html><head><title>")
+            .append(getTitle(session)).append("</title></head><body>");
+        for (Element element : ELEMENTS) {
+            if (isAttached(session, element.id)) {
+                source.append('<').append(element.tag).append(" id=\"").append(element.id).append("\">")
+                    .append(getText(session, element.id))
+                    .append("</").append(element.tag).append('>');
+            }
+        }
+        return source.append("</body></html>").toString();
+    }
+
+    // ==================== ELEMENTS ====================
+
+    @Override
+    public List<String> findElements(StubSession session, String using, String value) {
+        String locator = using + ":" + value;
+        List<String> found = new ArrayList<>();
+        for (Element element : ELEMENTS) {
+            if (element.locators.contains(locator) && isAttached(session, element.id)) {
+                found.add(element.id);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public boolean isAttached(StubSession session, String elementId) {
+        Element element = element(elementId);
+        if (element == null || element.screen != screen(session)) {
+            return false;
+        }
+        return !"error".equals(elementId) || session.getState(ERROR_STATE) != null;
+    }
+
+    @Override
+    public String getText(StubSession session, String elementId) {
+        if ("error".equals(elementId)) {
+            return session.getState(ERROR_STATE);
+        }
+        Element element = element(elementId);
+        return element == null ? "" : element.text;
+    }
+
+    @Override
+    public String getTagName(StubSession session, String elementId) {
+        Element element = element(elementId);
+        return element == null ? "div" : element.tag;
+    }
+
+    @Override
+    public void click(StubSession session, String elementId) {
+        if ("login-button".equals(elementId)) {
+            login(session, session.getValue("user-name"), session.getValue("password"));
+        }
+    }
+
+    @Override
+    public Object executeScript(StubSession session, String script, JsonNode args) {
+        if (script.contains("document.querySelector(arguments[0])")) {
+            return !findElements(session, "css selector", args.path(0).asText()).isEmpty();
+        }
+        if (script.contains("document.readyState")) {
+            return "complete";
+        }
+        if (script.contains("localStorage") && script.contains("return")) {
+            // The site keeps nothing in localStorage that the tests rely on
+            return JsonNodeFactory.instance.objectNode();
+        }
+        return null;
+    }
+
+    // ==================== LOGIN RULES ====================
+
+    private void login(StubSession session, String username, String password) {
+        String error = null;
+        if (username.isEmpty()) {
+            error = "Epic sadface: Username is required";
+        } else if (password.isEmpty()) {
+            error = "Epic sadface: Password is required";
+        } else if (!USERS.contains(username) || !PASSWORD.equals(password)) {
+            error = "Epic sadface: Username and password do not match any user in this service";
+        } else if ("locked_out_user".equals(username)) {
+            error = "Epic sadface: Sorry, this user has been locked out.";
+        }
+
+        if (error != null) {
+            session.setState(ERROR_STATE, error);
+            return;
+        }
+        session.setCookie(SESSION_COOKIE, username);
+        navigate(session, origin(URI.create(session.getCurrentUrl())) + INVENTORY_PATH);
+    }
+
+    private Screen screen(StubSession session) {
+        String url = session.getCurrentUrl();
+        if (url.startsWith("about:")) {
+            return null;
+        }
+        return INVENTORY_PATH.equals(URI.create(url).getPath()) ? Screen.INVENTORY : Screen.LOGIN;
+    }
+
+    private static Element element(String elementId) {
+        for (Element element : ELEMENTS) {
+            if (element.id.equals(elementId)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+}
@@ -0,0 +1,87 @@
+package com.selenium.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * StubApplication - Simulated web application behind the stub WebDriver server
+ * Element ids returned by {@link #findElements} are used verbatim as W3C element
+ * references, so they must be URL-safe
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public interface StubApplication {
+
+    /**
+     * Opens a URL in the session (including redirects the application would do)
+     *
+     * @param session Session
+     * @param url Requested URL
+     */
+    void navigate(StubSession session, String url);
+
+    String getTitle(StubSession session);
+
+    String getPageSource(StubSession session);
+
+    /**
+     * Finds elements on the current page
+     *
+     * @param session Session
+     * @param using W3C locator strategy (css selector, xpath, ...)
+     * @param value Locator value
+     * @return Ids of matching elements, empty if none
+     */
+    List<String> findElements(StubSession session, String using, String value);
+
+    /**
+     * Checks whether an element is still on the current page
+     *
+     * @param session Session
+     * @param elementId Element id
+     * @return false makes the server answer "stale element reference"
+     */
+    boolean isAttached(StubSession session, String elementId);
+
+    String getText(StubSession session, String elementId);
+
+    void click(StubSession session, String elementId);
+
+    default void sendKeys(StubSession session, String elementId, String text) {
+        session.setValue(elementId, session.getValue(elementId) + text);
+    }
+
+    default void clear(StubSession session, String elementId) {
+        session.setValue(elementId, "");
+    }
+
+    default boolean isDisplayed(StubSession session, String elementId) {
+        return true;
+    }
+
+    default boolean isEnabled(StubSession session, String elementId) {
+        return true;
+    }
+
+    default String getTagName(StubSession session, String elementId) {
+        return "div";
+    }
+
+    default String getAttribute(StubSession session, String elementId, String name) {
+        return "value".equals(name) ? session.getValue(elementId) : null;
+    }
+
+    /**
+     * Runs a script the framework sends (anything but Selenium's own atoms)
+     *
+     * @param session Session
+     * @param script Script source
+     * @param args Script arguments
+     * @return String, Boolean, Number, JsonNode or null
+     */
+    default Object executeScript(StubSession session, String script, JsonNode args) {
+        return null;
+    }
+}
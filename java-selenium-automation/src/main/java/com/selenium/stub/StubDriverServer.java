@@ -0,0 +1,551 @@
+package com.selenium.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selenium.utils.ConfigurationManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StubDriverServer - In-process W3C WebDriver endpoint backed by a simulated application
+ * Implements the commands the page objects use (sessions, navigation, find, click,
+ * sendKeys, getText, element state, screenshots, page source, scripts, cookies,
+ * windows and timeouts) with configurable per-command latency, so framework overhead
+ * can be measured and profiled without a browser. Element lookups never wait: a
+ * locator that does not match answers "no such element" immediately
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class StubDriverServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubDriverServer.class);
+    private static volatile StubDriverServer instance;
+
+    static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    // Selenium sends isDisplayed and getAttribute as large inlined atoms; framework scripts are short
+    private static final int ATOM_MIN_LENGTH = 1000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final StubApplication application;
+    private final StubLatency latency;
+    private final Map<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final String screenshot;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final URL url;
+
+    StubDriverServer(StubApplication application, StubLatency latency, int port) throws IOException {
+        this.application = application;
+        this.latency = latency;
+        this.screenshot = Base64.getEncoder().encodeToString(renderScreenshot());
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-driver-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.url = new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        logger.info("Stub WebDriver server listening on {} (latency: {})", url, latency);
+    }
+
+    /**
+     * Checks whether drivers should target the stub server (stub.server.enabled)
+     *
+     * @return true if the stub server replaces real browsers
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("stub.server.enabled", false);
+    }
+
+    /**
+     * Gets the shared server, starting it on first use
+     *
+     * @return Running stub server
+     */
+    public static StubDriverServer getInstance() {
+        if (instance == null) {
+            synchronized (StubDriverServer.class) {
+                if (instance == null) {
+                    try {
+                        instance = new StubDriverServer(new SauceDemoApplication(), StubLatency.fromConfiguration(),
+                            ConfigurationManager.getInstance().getIntProperty("stub.server.port", 0));
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to start stub WebDriver server", e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the shared server if it was started
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.stop();
+            instance = null;
+        }
+    }
+
+    public URL getUrl() {
+        return url;
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    public long getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops the server and drops all sessions
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Stub WebDriver server stopped: {} sessions, {} commands", sessionsCreated.get(), commands.get());
+        sessions.clear();
+    }
+
+    // ==================== REQUEST HANDLING ====================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        ObjectNode response = mapper.createObjectNode();
+        int status = 200;
+        try {
+            JsonNode body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = mapper.readTree(in.readAllBytes());
+            }
+            putValue(response, "value", route(exchange.getRequestMethod(), segments(exchange), body));
+            commands.incrementAndGet();
+        } catch (WebDriverError e) {
+            status = e.status;
+            ObjectNode value = response.putObject("value");
+            value.put("error", e.error);
+            value.put("message", e.getMessage());
+            value.put("stacktrace", "");
+        } catch (RuntimeException e) {
+            logger.warn("Stub server failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            status = 500;
+            ObjectNode value = response.putObject("value");
+            value.put("error", "unknown error");
+            value.put("message", String.valueOf(e.getMessage()));
+            value.put("stacktrace", "");
+        }
+
+        byte[] bytes = mapper.writeValueAsBytes(response);
+        try {
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Object route(String method, String[] path, JsonNode body) {
+        if (path.length == 1 && "status".equals(path[0])) {
+            ObjectNode status = mapper.createObjectNode();
+            status.put("ready", true);
+            status.put("message", "Stub WebDriver server ready");
+            return status;
+        }
+        if (path.length == 0 || !"session".equals(path[0])) {
+            throw WebDriverError.unknownCommand(method, path);
+        }
+        if (path.length == 1 && "POST".equals(method)) {
+            return newSession(body);
+        }
+
+        StubSession session = path.length > 1 ? sessions.get(path[1]) : null;
+        if (session == null) {
+            throw new WebDriverError(404, "invalid session id", "No active session with that id");
+        }
+        if (path.length == 2) {
+            if (!"DELETE".equals(method)) {
+                throw WebDriverError.unknownCommand(method, path);
+            }
+            latency.apply("deleteSession");
+            sessions.remove(session.getId());
+            return null;
+        }
+        return sessionCommand(method, session, path, body);
+    }
+
+    private Object newSession(JsonNode body) {
+        latency.apply("newSession");
+        JsonNode requested = body.path("capabilities");
+        ObjectNode capabilities = mapper.createObjectNode();
+        merge(capabilities, requested.path("alwaysMatch"));
+        merge(capabilities, requested.path("firstMatch").path(0));
+        if (!capabilities.has("browserName")) {
+            capabilities.put("browserName", "chrome");
+        }
+        capabilities.put("browserVersion", "stub");
+        capabilities.put("platformName", "linux");
+        capabilities.put("setWindowRect", true);
+
+        StubSession session = new StubSession(UUID.randomUUID().toString().replace("-", ""), capabilities);
+        sessions.put(session.getId(), session);
+        sessionsCreated.incrementAndGet();
+
+        ObjectNode created = mapper.createObjectNode();
+        created.put("sessionId", session.getId());
+        created.set("capabilities", capabilities);
+        return created;
+    }
+
+    private Object sessionCommand(String method, StubSession session, String[] path, JsonNode body) {
+        String command = path[2];
+        switch (command) {
+            case "url":
+                if ("GET".equals(method)) {
+                    return session.getCurrentUrl();
+                }
+                latency.apply("navigate");
+                application.navigate(session, body.path("url").asText());
+                return null;
+            case "title":
+                return application.getTitle(session);
+            case "source":
+                latency.apply("pageSource");
+                return application.getPageSource(session);
+            case "screenshot":
+                latency.apply("screenshot");
+                return screenshot;
+            case "refresh":
+                latency.apply("navigate");
+                application.navigate(session, session.getCurrentUrl());
+                return null;
+            case "back":
+            case "forward":
+            case "actions":
+            case "frame":
+                return null;
+            case "timeouts":
+                return "GET".equals(method) ? timeouts() : null;
+            case "window":
+                return window(method, path);
+            case "cookie":
+                return cookie(method, session, path, body);
+            case "element":
+            case "elements":
+                if (path.length == 3) {
+                    return find(session, "elements".equals(command), body);
+                }
+                return elementCommand(method, session, path, body);
+            case "execute":
+                return executeScript(session, body.path("script").asText(), body.path("args"));
+            case "alert":
+                throw new WebDriverError(404, "no such alert", "No alert is open");
+            default:
+                throw WebDriverError.unknownCommand(method, path);
+        }
+    }
+
+    // ==================== ELEMENTS ====================
+
+    private Object find(StubSession session, boolean multiple, JsonNode body) {
+        latency.apply("findElement");
+        String using = body.path("using").asText();
+        String value = body.path("value").asText();
+        // By.id escapes the id in the CSS selector it sends (#user\-name)
+        String locator = "css selector".equals(using) ? value.replaceAll("\\\\(.)", "$1") : value;
+        List<String> found = application.findElements(session, using, locator);
+        if (multiple) {
+            ArrayNode elements = mapper.createArrayNode();
+            found.forEach(id -> elements.add(reference(id)));
+            return elements;
+        }
+        if (found.isEmpty()) {
+            throw new WebDriverError(404, "no such element", "Unable to locate element: " + using + "=" + value);
+        }
+        return reference(found.get(0));
+    }
+
+    private Object elementCommand(String method, StubSession session, String[] path, JsonNode body) {
+        String elementId = path[3];
+        if ("active".equals(elementId)) {
+            throw new WebDriverError(404, "no such element", "No element has focus");
+        }
+        attached(session, elementId);
+        String command = path.length > 4 ? path[4] : "";
+        switch (command) {
+            case "element":
+            case "elements":
+                // The simulated pages are flat, so nested lookups search the whole page
+                return find(session, "elements".equals(command), body);
+            case "click":
+                latency.apply("click");
+                application.click(session, elementId);
+                return null;
+            case "clear":
+                latency.apply("sendKeys");
+                application.clear(session, elementId);
+                return null;
+            case "value":
+                latency.apply("sendKeys");
+                application.sendKeys(session, elementId, keys(body));
+                return null;
+            case "text":
+                latency.apply("getText");
+                return application.getText(session, elementId);
+            case "displayed":
+                latency.apply("elementState");
+                return application.isDisplayed(session, elementId);
+            case "enabled":
+                latency.apply("elementState");
+                return application.isEnabled(session, elementId);
+            case "selected":
+                latency.apply("elementState");
+                return false;
+            case "name":
+                return application.getTagName(session, elementId);
+            case "attribute":
+            case "property":
+                latency.apply("elementState");
+                return application.getAttribute(session, elementId, path.length > 5 ? path[5] : "");
+            case "css":
+                return "";
+            case "rect":
+                return rect(0, 0, 100, 20);
+            case "screenshot":
+                latency.apply("screenshot");
+                return screenshot;
+            default:
+                throw WebDriverError.unknownCommand(method, path);
+        }
+    }
+
+    private Object executeScript(StubSession session, String script, JsonNode args) {
+        JsonNode first = args.path(0);
+        if (first.has(ELEMENT_KEY) && script.length() > ATOM_MIN_LENGTH) {
+            String elementId = first.get(ELEMENT_KEY).asText();
+            attached(session, elementId);
+            latency.apply("elementState");
+            return args.size() == 1
+                ? application.isDisplayed(session, elementId)
+                : application.getAttribute(session, elementId, args.path(1).asText());
+        }
+        latency.apply("executeScript");
+        return application.executeScript(session, script, args);
+    }
+
+    private void attached(StubSession session, String elementId) {
+        if (!application.isAttached(session, elementId)) {
+            throw new WebDriverError(404, "stale element reference",
+                "Element " + elementId + " is not attached to the page document");
+        }
+    }
+
+    private ObjectNode reference(String elementId) {
+        ObjectNode reference = mapper.createObjectNode();
+        reference.put(ELEMENT_KEY, elementId);
+        return reference;
+    }
+
+    /**
+     * W3C sends "text"; older clients only send the "value" character array
+     */
+    private static String keys(JsonNode body) {
+        if (body.has("text")) {
+            return body.get("text").asText();
+        }
+        StringBuilder text = new StringBuilder();
+        for (JsonNode key : body.path("value")) {
+            text.append(key.asText());
+        }
+        return text.toString();
+    }
+
+    // ==================== BROWSER STATE ====================
+
+    private Object cookie(String method, StubSession session, String[] path, JsonNode body) {
+        String name = path.length > 3 ? path[3] : null;
+        switch (method) {
+            case "GET":
+                if (name == null) {
+                    ArrayNode cookies = mapper.createArrayNode();
+                    session.getCookies().forEach(cookies::add);
+                    return cookies;
+                }
+                ObjectNode cookie = session.getCookie(name);
+                if (cookie == null) {
+                    throw new WebDriverError(404, "no such cookie", "No cookie named " + name);
+                }
+                return cookie;
+            case "POST":
+                JsonNode added = body.path("cookie");
+                if (added.isObject()) {
+                    session.addCookie((ObjectNode) added);
+                }
+                return null;
+            default:
+                if (name == null) {
+                    session.deleteAllCookies();
+                } else {
+                    session.deleteCookie(name);
+                }
+                return null;
+        }
+    }
+
+    private Object window(String method, String[] path) {
+        String command = path.length > 3 ? path[3] : "";
+        switch (command) {
+            case "":
+                return "GET".equals(method) ? "stub-window" : null;
+            case "handles":
+                ArrayNode handles = mapper.createArrayNode();
+                handles.add("stub-window");
+                return handles;
+            case "rect":
+            case "maximize":
+            case "minimize":
+            case "fullscreen":
+                return rect(0, 0, 1920, 1080);
+            default:
+                throw WebDriverError.unknownCommand(method, path);
+        }
+    }
+
+    private ObjectNode timeouts() {
+        ObjectNode timeouts = mapper.createObjectNode();
+        timeouts.put("implicit", 0);
+        timeouts.put("pageLoad", 300000);
+        timeouts.put("script", 30000);
+        return timeouts;
+    }
+
+    private ObjectNode rect(int x, int y, int width, int height) {
+        ObjectNode rect = mapper.createObjectNode();
+        rect.put("x", x);
+        rect.put("y", y);
+        rect.put("width", width);
+        rect.put("height", height);
+        return rect;
+    }
+
+    // ==================== HELPERS ====================
+
+    private static String[] segments(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        // Clients may be configured with a base path such as /wd/hub
+        int session = path.indexOf("/session");
+        int status = path.indexOf("/status");
+        int start = session >= 0 ? session : Math.max(status, 0);
+        String trimmed = path.substring(start).replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+
+    private static void merge(ObjectNode target, JsonNode source) {
+        if (source.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = ((ObjectNode) source).fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                target.set(field.getKey(), field.getValue());
+            }
+        }
+    }
+
+    private static void putValue(ObjectNode target, String field, Object value) {
+        if (value == null) {
+            target.putNull(field);
+        } else if (value instanceof JsonNode) {
+            target.set(field, (JsonNode) value);
+        } else if (value instanceof Boolean) {
+            target.put(field, (Boolean) value);
+        } else if (value instanceof Long || value instanceof Integer) {
+            target.put(field, ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            target.put(field, ((Number) value).doubleValue());
+        } else {
+            target.put(field, value.toString());
+        }
+    }
+
+    /**
+     * Renders a plain 1280x720 page so screenshot consumers get a decodable PNG
+     */
+    private static byte[] renderScreenshot() {
+        BufferedImage image = new BufferedImage(1280, 720, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 1280, 720);
+            graphics.setColor(new Color(0x13, 0x22, 0x41));
+            graphics.fillRect(0, 0, 1280, 60);
+        } finally {
+            graphics.dispose();
+        }
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * W3C error response
+     */
+    static final class WebDriverError extends RuntimeException {
+        private final int status;
+        private final String error;
+
+        WebDriverError(int status, String error, String message) {
+            super(message);
+            this.status = status;
+            this.error = error;
+        }
+
+        static WebDriverError unknownCommand(String method, String[] path) {
+            return new WebDriverError(404, "unknown command",
+                "Stub server does not implement " + method + " /" + String.join("/", path));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.selenium.stub;
+
+import com.selenium.utils.ConfigurationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StubLatency - Artificial per-command latency for the stub WebDriver server
+ * Configured with stub.server.latency.ms (all commands), stub.server.latency.jitter.ms
+ * and per-command overrides such as stub.server.latency.screenshot.ms
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class StubLatency {
+
+    /** Command names that accept a latency override */
+    public static final List<String> COMMANDS = List.of("newSession", "deleteSession", "navigate", "findElement",
+        "click", "sendKeys", "getText", "elementState", "screenshot", "pageSource", "executeScript");
+
+    private final long defaultMillis;
+    private final long jitterMillis;
+    private final Map<String, Long> commandMillis;
+
+    StubLatency(long defaultMillis, long jitterMillis, Map<String, Long> commandMillis) {
+        this.defaultMillis = defaultMillis;
+        this.jitterMillis = jitterMillis;
+        this.commandMillis = Map.copyOf(commandMillis);
+    }
+
+    /**
+     * Reads latencies from application.properties
+     *
+     * @return Configured latency
+     */
+    public static StubLatency fromConfiguration() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        Map<String, Long> overrides = new HashMap<>();
+        for (String command : COMMANDS) {
+            String value = config.getProperty("stub.server.latency." + command + ".ms");
+            if (value != null && !value.trim().isEmpty()) {
+                overrides.put(command, Long.parseLong(value.trim()));
+            }
+        }
+        return new StubLatency(config.getIntProperty("stub.server.latency.ms", 0),
+            config.getIntProperty("stub.server.latency.jitter.ms", 0), overrides);
+    }
+
+    /**
+     * @return Latency that never sleeps
+     */
+    public static StubLatency none() {
+        return new StubLatency(0, 0, Map.of());
+    }
+
+    /**
+     * Gets the configured delay for a command, without jitter
+     *
+     * @param command Command name
+     * @return Delay in milliseconds
+     */
+    public long getMillis(String command) {
+        return commandMillis.getOrDefault(command, defaultMillis);
+    }
+
+    /**
+     * Sleeps for the command's configured delay plus random jitter
+     *
+     * @param command Command name
+     */
+    void apply(String command) {
+        long delay = getMillis(command);
+        if (jitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(jitterMillis + 1);
+        }
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "default " + defaultMillis + "ms, jitter " + jitterMillis + "ms, overrides " + commandMillis;
+    }
+}
@@ -0,0 +1,115 @@
+package com.selenium.stub;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StubSession - State of one session on the stub WebDriver server
+ * Holds what a browser would: the current URL, cookies, typed input values
+ * and a free-form state map for the simulated application
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class StubSession {
+
+    private final String id;
+    private final ObjectNode capabilities;
+    private final Map<String, ObjectNode> cookies = new ConcurrentHashMap<>();
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<String, Object> state = new ConcurrentHashMap<>();
+    private volatile String currentUrl = "about:blank";
+
+    StubSession(String id, ObjectNode capabilities) {
+        this.id = id;
+        this.capabilities = capabilities;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ObjectNode getCapabilities() {
+        return capabilities;
+    }
+
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    public void setCurrentUrl(String currentUrl) {
+        this.currentUrl = currentUrl;
+    }
+
+    // ==================== INPUT VALUES ====================
+
+    public String getValue(String elementId) {
+        return values.getOrDefault(elementId, "");
+    }
+
+    public void setValue(String elementId, String value) {
+        values.put(elementId, value);
+    }
+
+    public void clearValues() {
+        values.clear();
+    }
+
+    // ==================== COOKIES ====================
+
+    public Collection<ObjectNode> getCookies() {
+        return new ArrayList<>(cookies.values());
+    }
+
+    public ObjectNode getCookie(String name) {
+        return cookies.get(name);
+    }
+
+    public void addCookie(ObjectNode cookie) {
+        cookies.put(cookie.path("name").asText(), cookie);
+    }
+
+    /**
+     * Sets a simple cookie the way the application would from a response
+     *
+     * @param name Cookie name
+     * @param value Cookie value
+     */
+    public void setCookie(String name, String value) {
+        ObjectNode cookie = JsonNodeFactory.instance.objectNode();
+        cookie.put("name", name);
+        cookie.put("value", value);
+        cookie.put("path", "/");
+        cookie.put("secure", false);
+        cookie.put("httpOnly", false);
+        addCookie(cookie);
+    }
+
+    public void deleteCookie(String name) {
+        cookies.remove(name);
+    }
+
+    public void deleteAllCookies() {
+        cookies.clear();
+    }
+
+    // ==================== APPLICATION STATE ====================
+
+    @SuppressWarnings("unchecked")
+    public <T> T getState(String key) {
+        return (T) state.get(key);
+    }
+
+    public void setState(String key, Object value) {
+        if (value == null) {
+            state.remove(key);
+        } else {
+            state.put(key, value);
+        }
+    }
+}
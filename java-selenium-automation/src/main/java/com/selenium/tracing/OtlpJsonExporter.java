@@ -0,0 +1,157 @@
+package com.selenium.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OtlpJsonExporter - Writes ended spans as OTLP/JSON ExportTraceServiceRequest lines
+ * Spans are queued lock-free and written in batches, one request object per line,
+ * the format of the OpenTelemetry Collector's file exporter
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+final class OtlpJsonExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpJsonExporter.class);
+    private static final int STATUS_OK = 1;
+    private static final int STATUS_ERROR = 2;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path file;
+    private final String serviceName;
+    private final int batchSize;
+    private final ConcurrentLinkedQueue<Span> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong exportedCount = new AtomicLong();
+
+    /**
+     * Creates the exporter, truncating the file
+     *
+     * @param file Target file
+     * @param serviceName service.name resource attribute
+     * @param batchSize Spans per written line
+     * @throws IOException if the file cannot be created
+     */
+    OtlpJsonExporter(Path file, String serviceName, int batchSize) throws IOException {
+        this.file = file;
+        this.serviceName = serviceName;
+        this.batchSize = Math.max(1, batchSize);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, new byte[0]);
+    }
+
+    void export(Span span) {
+        pending.add(span);
+        if (pendingCount.incrementAndGet() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all queued spans as one line
+     */
+    synchronized void flush() {
+        List<Span> batch = new ArrayList<>();
+        Span span;
+        while ((span = pending.poll()) != null) {
+            batch.add(span);
+            pendingCount.decrementAndGet();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            byte[] line = (mapper.writeValueAsString(toRequest(batch)) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(file, line, StandardOpenOption.APPEND);
+            exportedCount.addAndGet(batch.size());
+        } catch (IOException e) {
+            logger.warn("Dropped {} spans, cannot write {}: {}", batch.size(), file, e.getMessage());
+        }
+    }
+
+    void close() {
+        flush();
+    }
+
+    long getExportedCount() {
+        return exportedCount.get();
+    }
+
+    // ==================== OTLP JSON ====================
+
+    private ObjectNode toRequest(List<Span> spans) {
+        ObjectNode request = mapper.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        addAttribute(resourceAttributes, "service.name", serviceName);
+        addAttribute(resourceAttributes, "process.pid", ProcessHandle.current().pid());
+
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", Tracer.class.getPackageName());
+        ArrayNode spanArray = scopeSpans.putArray("spans");
+        for (Span span : spans) {
+            writeSpan(spanArray.addObject(), span);
+        }
+        return request;
+    }
+
+    private static void writeSpan(ObjectNode node, Span span) {
+        node.put("traceId", span.getTraceId());
+        node.put("spanId", span.getSpanId());
+        if (span.getParentSpanId() != null) {
+            node.put("parentSpanId", span.getParentSpanId());
+        }
+        node.put("name", span.getName());
+        node.put("kind", span.getKind());
+        node.put("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+        node.put("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+        ArrayNode attributes = node.putArray("attributes");
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            addAttribute(attributes, attribute.getKey(), attribute.getValue());
+        }
+        ObjectNode status = node.putObject("status");
+        if (span.isError()) {
+            status.put("code", STATUS_ERROR);
+            if (span.getErrorMessage() != null) {
+                status.put("message", span.getErrorMessage());
+            }
+        } else {
+            status.put("code", STATUS_OK);
+        }
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode anyValue = attribute.putObject("value");
+        if (value instanceof Boolean) {
+            anyValue.put("boolValue", (Boolean) value);
+        } else if (value instanceof Long || value instanceof Integer) {
+            // int64 values are strings in OTLP/JSON
+            anyValue.put("intValue", value.toString());
+        } else if (value instanceof Number) {
+            anyValue.put("doubleValue", ((Number) value).doubleValue());
+        } else {
+            anyValue.put("stringValue", String.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.selenium.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Span - One timed operation of the test run (suite, test, setup/teardown, wait, command)
+ * Spans are created through {@link Tracer} and are exported once ended. Closing a span
+ * ends it, so phases can be traced with try-with-resources
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class Span implements AutoCloseable {
+
+    // OTLP span kinds
+    public static final int KIND_INTERNAL = 1;
+    public static final int KIND_CLIENT = 3;
+
+    // Handed out while tracing is inactive; ignores everything
+    static final Span NOOP = new Span(null, null, null, "noop", KIND_INTERNAL, 0);
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final int kind;
+    private final long startEpochNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private volatile String name;
+    private volatile long endEpochNanos;
+    private volatile String errorMessage;
+    private volatile boolean error;
+
+    Span(String traceId, String spanId, String parentSpanId, String name, int kind, long startEpochNanos) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+    }
+
+    /**
+     * Adds an attribute (String, Long/Integer, Double or Boolean; anything else is stored as text)
+     *
+     * @param key Attribute key
+     * @param value Attribute value, ignored if null
+     * @return This span
+     */
+    public Span setAttribute(String key, Object value) {
+        if (this != NOOP && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Renames the span, e.g. once the test method of a setup phase is known
+     *
+     * @param name New name
+     * @return This span
+     */
+    public Span rename(String name) {
+        if (this != NOOP) {
+            this.name = name;
+        }
+        return this;
+    }
+
+    /**
+     * Marks the span as failed
+     *
+     * @param throwable Failure cause, may be null
+     * @return This span
+     */
+    public Span recordError(Throwable throwable) {
+        if (this != NOOP) {
+            error = true;
+            if (throwable != null) {
+                errorMessage = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+                setAttribute("exception.type", throwable.getClass().getName());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Sets the end time without exporting the span; {@link Tracer#end(Span)} keeps this time
+     */
+    public void markEnd() {
+        if (this != NOOP) {
+            endEpochNanos = Tracer.nowEpochNanos();
+        }
+    }
+
+    @Override
+    public void close() {
+        Tracer.end(this);
+    }
+
+    // ==================== ACCESSORS ====================
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public boolean isEnded() {
+        return endEpochNanos != 0;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * @return Copy of the attributes in insertion order
+     */
+    public Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    boolean isNoop() {
+        return this == NOOP;
+    }
+
+    void setEndEpochNanos(long endEpochNanos) {
+        this.endEpochNanos = endEpochNanos;
+    }
+}
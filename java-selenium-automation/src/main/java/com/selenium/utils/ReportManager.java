@@ -3,14 +3,19 @@ package com.selenium.utils;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * ReportManager - Manages ExtentReports for comprehensive test reporting
@@ -24,9 +29,12 @@ public class ReportManager {
     private static final Logger logger = LoggerFactory.getLogger(ReportManager.class);
     private static ExtentReports extentReports;
     private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
+    // Tests created since the last flush, i.e. still held in memory only
+    private static final AtomicInteger pendingTests = new AtomicInteger();
     
     private static final String REPORT_NAME = "Selenium_Web_Automation_Report";
     private static final String DATE_FORMAT = "yyyy-MM-dd_HH-mm-ss";
+    private static final String JSON_ARCHIVE = "extent.json";
     
     private ReportManager() {
         // Private constructor to prevent instantiation
@@ -55,6 +63,11 @@ public class ReportManager {
             // Initialize ExtentReports
             extentReports = new ExtentReports();
             extentReports.attachReporter(sparkReporter);
+            
+            // JSON archive of the run, merged by the shard runner
+            if (config.getBooleanProperty("reporting.json.enabled", false)) {
+                extentReports.attachReporter(new JsonFormatter(reportsDirectory + File.separator + JSON_ARCHIVE));
+            }
             setSystemInformation();
             
             logger.info("ExtentReports initialized successfully: {}", reportPath);
@@ -120,6 +133,7 @@ public class ReportManager {
         
         ExtentTest test = extentReports.createTest(testName, description);
         extentTest.set(test);
+        pendingTests.incrementAndGet();
         logger.debug("Created test in report: {}", testName);
     }
     
@@ -147,6 +161,20 @@ public class ReportManager {
         }
     }
     
+    /**
+     * Logs an info message built only when there is a test to log it to
+     * 
+     * @param message Supplier of the info message
+     */
+    public static void logInfo(Supplier<String> message) {
+        ExtentTest test = getCurrentTest();
+        if (test != null) {
+            String text = message.get();
+            test.log(Status.INFO, text);
+            logger.debug("Logged info: {}", text);
+        }
+    }
+    
     /**
      * Logs a pass message
      * 
@@ -260,6 +288,46 @@ public class ReportManager {
         }
     }
     
+    /**
+     * Adds a suite-level table (e.g. command latency) as its own entry in the report
+     * 
+     * @param title Entry title
+     * @param table Rows of cells, the first row being the header
+     */
+    public static synchronized void addSummaryTable(String title, String[][] table) {
+        if (extentReports == null) {
+            logger.warn("Reports not initialized, dropping summary table: {}", title);
+            return;
+        }
+        extentReports.createTest(title).info(MarkupHelper.createTable(table));
+    }
+    
+    /**
+     * Adds the tests of another run's JSON archive (reporting.json.enabled) to this report
+     * 
+     * @param jsonArchive extent.json written by another run
+     * @return true if the archive was imported
+     */
+    public static synchronized boolean importJsonArchive(File jsonArchive) {
+        if (extentReports == null) {
+            initializeReports();
+        }
+        try {
+            extentReports.createDomainFromJsonArchive(jsonArchive);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to import report archive {}: {}", jsonArchive, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * @return File name of the JSON archive inside the reports directory
+     */
+    public static String getJsonArchiveName() {
+        return JSON_ARCHIVE;
+    }
+    
     // ==================== REPORT FINALIZATION ====================
     
     /**
@@ -268,10 +336,20 @@ public class ReportManager {
     public static synchronized void flushReports() {
         if (extentReports != null) {
             extentReports.flush();
+            pendingTests.set(0);
             logger.info("ExtentReports flushed successfully");
         }
     }
     
+    /**
+     * Gets the number of report entries waiting for the next flush
+     * 
+     * @return Tests created since the last flush
+     */
+    public static int getPendingTestCount() {
+        return pendingTests.get();
+    }
+    
     /**
      * Cleans up thread local test reference
      */
@@ -1,6 +1,7 @@
 package com.selenium.utils;
 
 import com.selenium.core.DriverManager;
+import com.selenium.metrics.SuiteMetrics;
 import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
@@ -212,6 +213,7 @@ public class ScreenshotUtils {
             File destinationFile = new File(fullPath);
             
             FileUtils.copyFile(screenshotFile, destinationFile);
+            SuiteMetrics.recordScreenshot(destinationFile.length());
             
             logger.info("Screenshot captured successfully: {}", fullPath);
             return fullPath;
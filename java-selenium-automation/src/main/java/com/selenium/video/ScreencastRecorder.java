@@ -0,0 +1,265 @@
+package com.selenium.video;
+
+import com.selenium.utils.ConfigurationManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScreencastRecorder - Failure video for Chromium browsers over CDP
+ * Page.startScreencast streams JPEG frames of the page. The DevTools thread only acknowledges
+ * a frame and hands it to the video encoder thread, which decodes it and appends it to the
+ * current segment; closed segments go into a {@link SegmentRing} holding the last
+ * reporting.video.retention.seconds. Only a failing test writes the segments before its
+ * failure to reports/videos, as a Motion JPEG (.mjpeg) file that VLC and ffmpeg play.
+ * Passing tests drop their buffer without touching the disk
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class ScreencastRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreencastRecorder.class);
+
+    private static final String VIDEO_SUBDIRECTORY = "videos";
+    private static final String DATE_FORMAT = "yyyy-MM-dd_HH-mm-ss-SSS";
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    private static final Event<Map<String, Object>> SCREENCAST_FRAME =
+        new Event<>("Page.screencastFrame", input -> input.read(Json.MAP_TYPE));
+
+    // One encoder for all test threads keeps the frames of each recorder in order
+    private static final ExecutorService encoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "video-encoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ThreadLocal<ScreencastRecorder> current = new ThreadLocal<>();
+
+    private final DevTools devTools;
+    private final SegmentRing ring;
+    private final long segmentMillis;
+    private final long retentionMillis;
+    private volatile boolean running = true;
+    private volatile boolean discarded;
+
+    // Segment being filled, only touched on the encoder thread
+    private ByteArrayOutputStream segment;
+    private long segmentStart;
+    private long lastFrame;
+
+    ScreencastRecorder(DevTools devTools, long segmentMillis, long retentionMillis, long maxBytes) {
+        this.devTools = devTools;
+        this.segmentMillis = segmentMillis;
+        this.retentionMillis = retentionMillis;
+        this.ring = new SegmentRing(retentionMillis, maxBytes);
+    }
+
+    /**
+     * Checks if failure videos are enabled (reporting.video.recording)
+     *
+     * @return true if recording is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().getBooleanProperty("reporting.video.recording", false);
+    }
+
+    /**
+     * Starts recording the driver's page for the current thread's test
+     * Does nothing if recording is disabled or the browser has no DevTools
+     *
+     * @param driver Freshly created driver
+     */
+    public static void start(WebDriver driver) {
+        if (!isEnabled() || !(driver instanceof HasDevTools)) {
+            return;
+        }
+        discard();
+
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int retentionSeconds = config.getIntProperty("reporting.video.retention.seconds", 30);
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            // Network shaping may have attached to the page already
+            if (devTools.getCdpSession() == null) {
+                devTools.createSession(driver.getWindowHandle());
+            }
+            ScreencastRecorder recorder = new ScreencastRecorder(devTools,
+                TimeUnit.SECONDS.toMillis(config.getIntProperty("reporting.video.segment.seconds", 5)),
+                TimeUnit.SECONDS.toMillis(retentionSeconds),
+                config.getIntProperty("reporting.video.buffer.mb", 64) * 1024L * 1024L);
+            devTools.addListener(SCREENCAST_FRAME, recorder::onFrame);
+
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("format", "jpeg");
+            parameters.put("quality", config.getIntProperty("reporting.video.screencast.quality", 60));
+            parameters.put("maxWidth", config.getIntProperty("reporting.video.screencast.max.width", 1280));
+            parameters.put("maxHeight", config.getIntProperty("reporting.video.screencast.max.height", 720));
+            parameters.put("everyNthFrame", 1);
+            devTools.send(command("Page.startScreencast", parameters));
+
+            current.set(recorder);
+            logger.info("Screencast recording started, keeping the last {}s", retentionSeconds);
+        } catch (Exception e) {
+            logger.warn("Screencast recording could not be started, continuing without it: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording and writes the video before a failure
+     *
+     * @param name Base name of the video file
+     * @param failureMillis Time of the failure
+     * @return Path of the video, or null if nothing was recorded
+     */
+    public static Path persist(String name, long failureMillis) {
+        ScreencastRecorder recorder = current.get();
+        current.remove();
+        if (recorder == null) {
+            return null;
+        }
+
+        try {
+            recorder.stopScreencast();
+            // Frames already handed over are encoded before the open segment is closed
+            encoder.submit(recorder::seal).get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            List<SegmentRing.Segment> segments =
+                recorder.ring.covering(failureMillis - recorder.retentionMillis, failureMillis);
+            if (segments.isEmpty()) {
+                return null;
+            }
+            String fileName = name.replaceAll("[^a-zA-Z0-9._-]", "_") + "_"
+                + new SimpleDateFormat(DATE_FORMAT).format(new Date()) + ".mjpeg";
+            Path file = Paths.get(ConfigurationManager.getInstance().getReportsDirectory(),
+                VIDEO_SUBDIRECTORY, fileName);
+            writeMjpeg(segments, file);
+            logger.info("Failure video written: {} ({} segments)", file, segments.size());
+            return file;
+        } catch (Exception e) {
+            logger.warn("Failed to write failure video: {}", e.getMessage());
+            return null;
+        } finally {
+            recorder.ring.clear();
+        }
+    }
+
+    /**
+     * Stops recording and drops the buffered video, for tests that did not fail
+     */
+    public static void discard() {
+        ScreencastRecorder recorder = current.get();
+        current.remove();
+        if (recorder != null) {
+            recorder.discarded = true;
+            recorder.stopScreencast();
+            recorder.ring.clear();
+        }
+    }
+
+    // ==================== FRAME HANDLING ====================
+
+    /**
+     * Runs on the DevTools thread: acknowledges the frame so Chrome sends the next one
+     */
+    @SuppressWarnings("unchecked")
+    private void onFrame(Map<String, Object> frame) {
+        if (!running) {
+            return;
+        }
+        try {
+            devTools.send(command("Page.screencastFrameAck", Map.of("sessionId", frame.get("sessionId"))));
+        } catch (Exception e) {
+            logger.debug("Screencast frame not acknowledged: {}", e.getMessage());
+        }
+
+        long frameMillis = System.currentTimeMillis();
+        Object metadata = frame.get("metadata");
+        if (metadata instanceof Map && ((Map<String, Object>) metadata).get("timestamp") instanceof Number) {
+            // Seconds since the epoch
+            Number seconds = (Number) ((Map<String, Object>) metadata).get("timestamp");
+            frameMillis = (long) (seconds.doubleValue() * 1000);
+        }
+        String data = (String) frame.get("data");
+        long timestamp = frameMillis;
+        encoder.execute(() -> append(Base64.getDecoder().decode(data), timestamp));
+    }
+
+    /**
+     * Runs on the encoder thread: appends a frame, closing the segment once it is long enough
+     */
+    void append(byte[] jpeg, long frameMillis) {
+        if (discarded) {
+            return;
+        }
+        if (segment == null) {
+            segment = new ByteArrayOutputStream(jpeg.length * 16);
+            segmentStart = frameMillis;
+        }
+        segment.write(jpeg, 0, jpeg.length);
+        lastFrame = frameMillis;
+        if (frameMillis - segmentStart >= segmentMillis) {
+            seal();
+        }
+    }
+
+    /**
+     * Moves the open segment into the ring
+     */
+    void seal() {
+        if (segment != null && !discarded) {
+            ring.add(new SegmentRing.Segment(segmentStart, lastFrame, segment.toByteArray()));
+        }
+        segment = null;
+    }
+
+    SegmentRing getRing() {
+        return ring;
+    }
+
+    private void stopScreencast() {
+        running = false;
+        try {
+            devTools.send(command("Page.stopScreencast", new HashMap<>()));
+        } catch (Exception e) {
+            logger.debug("Screencast already gone: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Concatenates the JPEG frames of the segments into one Motion JPEG stream
+     */
+    static void writeMjpeg(List<SegmentRing.Segment> segments, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (SegmentRing.Segment segment : segments) {
+                out.write(segment.getData());
+            }
+        }
+    }
+
+    private static Command<Void> command(String method, Map<String, Object> parameters) {
+        return new Command<>(method, parameters);
+    }
+}
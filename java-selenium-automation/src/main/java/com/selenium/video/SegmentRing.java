@@ -0,0 +1,119 @@
+package com.selenium.video;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SegmentRing - Rolling buffer of the most recent video segments of a test
+ * Holds whole segments covering at least the retention window; older segments are evicted
+ * as new ones arrive, and the oldest are also evicted while the buffer exceeds its byte
+ * budget. The newest segment is always kept. Thread-safe
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public final class SegmentRing {
+
+    /**
+     * Encoded video between two points in time
+     */
+    public static final class Segment {
+        private final long startMillis;
+        private final long endMillis;
+        private final byte[] data;
+
+        public Segment(long startMillis, long endMillis, byte[] data) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.data = data;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final long retentionMillis;
+    private final long maxBytes;
+    private long bytes;
+    private long evicted;
+
+    /**
+     * @param retentionMillis Time before the newest segment's end that must stay covered
+     * @param maxBytes Byte budget of the buffered segments
+     */
+    public SegmentRing(long retentionMillis, long maxBytes) {
+        this.retentionMillis = retentionMillis;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds the newest segment and evicts what falls out of the window or budget
+     *
+     * @param segment Segment ending after all buffered ones
+     */
+    public synchronized void add(Segment segment) {
+        segments.addLast(segment);
+        bytes += segment.getData().length;
+        long windowStart = segment.getEndMillis() - retentionMillis;
+        while (segments.size() > 1) {
+            Segment oldest = segments.peekFirst();
+            if (oldest.getEndMillis() > windowStart && bytes <= maxBytes) {
+                break;
+            }
+            segments.removeFirst();
+            bytes -= oldest.getData().length;
+            evicted++;
+        }
+    }
+
+    /**
+     * Gets the buffered segments overlapping a time range, oldest first
+     *
+     * @param fromMillis Range start
+     * @param toMillis Range end
+     * @return Overlapping segments
+     */
+    public synchronized List<Segment> covering(long fromMillis, long toMillis) {
+        List<Segment> overlapping = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.getEndMillis() >= fromMillis && segment.getStartMillis() <= toMillis) {
+                overlapping.add(segment);
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Drops all buffered segments
+     */
+    public synchronized void clear() {
+        segments.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return segments.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return Segments evicted so far
+     */
+    public synchronized long getEvicted() {
+        return evicted;
+    }
+}
@@ -0,0 +1,143 @@
+package com.selenium.core;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver Shutdown Test Suite
+ * Verifies per-session deadlines, the hard kill of hung sessions, the interrupt of the
+ * hung quit and the outcome reported for every session
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class DriverShutdownTests {
+
+    private static final Duration DEADLINE = Duration.ofMillis(300);
+    private static final Duration KILL_DEADLINE = Duration.ofMillis(300);
+
+    /**
+     * Stand-in for a driver whose quit() and kill either return, fail or block until interrupted
+     */
+    private static final class FakeDriver {
+        private final String quitBehaviour;
+        private final String killBehaviour;
+        private final CountDownLatch quitInterrupted = new CountDownLatch(1);
+        private final CountDownLatch killInterrupted = new CountDownLatch(1);
+        private volatile boolean killed;
+
+        FakeDriver(String quitBehaviour, String killBehaviour) {
+            this.quitBehaviour = quitBehaviour;
+            this.killBehaviour = killBehaviour;
+        }
+
+        void quit() {
+            act(quitBehaviour, quitInterrupted);
+        }
+
+        void kill() {
+            killed = true;
+            act(killBehaviour, killInterrupted);
+        }
+
+        private static void act(String behaviour, CountDownLatch interrupted) {
+            if ("fail".equals(behaviour)) {
+                throw new IllegalStateException("session not found");
+            }
+            if ("hang".equals(behaviour)) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        }
+    }
+
+    @Test(description = "Every session ends with the outcome of its quit and kill")
+    public void testOutcomes() {
+        Map<String, FakeDriver> sessions = new LinkedHashMap<>();
+        sessions.put("graceful", new FakeDriver("return", "return"));
+        sessions.put("failed", new FakeDriver("fail", "return"));
+        sessions.put("killed", new FakeDriver("hang", "return"));
+        sessions.put("kill-failed", new FakeDriver("hang", "fail"));
+        sessions.put("kill-hung", new FakeDriver("hang", "hang"));
+
+        List<DriverShutdownExecutor.SessionShutdown> results = shutdown(sessions);
+
+        Assert.assertEquals(results.size(), sessions.size());
+        Map<DriverShutdownExecutor.Outcome, Integer> counts = new EnumMap<>(DriverShutdownExecutor.Outcome.class);
+        Map<String, DriverShutdownExecutor.Outcome> outcomes = new LinkedHashMap<>();
+        for (DriverShutdownExecutor.SessionShutdown result : results) {
+            counts.merge(result.getOutcome(), 1, Integer::sum);
+            outcomes.put(result.getSessionKey(), result.getOutcome());
+        }
+        Assert.assertEquals(outcomes.get("graceful"), DriverShutdownExecutor.Outcome.GRACEFUL);
+        Assert.assertEquals(outcomes.get("failed"), DriverShutdownExecutor.Outcome.FAILED);
+        Assert.assertEquals(outcomes.get("killed"), DriverShutdownExecutor.Outcome.KILLED);
+        Assert.assertEquals(outcomes.get("kill-failed"), DriverShutdownExecutor.Outcome.KILL_FAILED);
+        Assert.assertEquals(outcomes.get("kill-hung"), DriverShutdownExecutor.Outcome.KILL_FAILED);
+        Assert.assertEquals(counts.get(DriverShutdownExecutor.Outcome.KILL_FAILED), Integer.valueOf(2));
+
+        Assert.assertFalse(sessions.get("graceful").killed);
+        Assert.assertFalse(sessions.get("failed").killed, "A quit that fails fast is not killed");
+        Assert.assertTrue(sessions.get("killed").killed);
+    }
+
+    @Test(description = "A hung quit is interrupted at the deadline and the session is hard-killed")
+    public void testHungQuitInterrupted() throws InterruptedException {
+        FakeDriver driver = new FakeDriver("hang", "return");
+
+        long start = System.nanoTime();
+        DriverShutdownExecutor.SessionShutdown result = shutdown(Map.of("hung", driver)).get(0);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assert.assertEquals(result.getOutcome(), DriverShutdownExecutor.Outcome.KILLED);
+        Assert.assertEquals(result.getDetail(), "quit timed out");
+        Assert.assertTrue(elapsed >= DEADLINE.toMillis(), "Killed only after the deadline, took " + elapsed + "ms");
+        Assert.assertTrue(elapsed < DEADLINE.toMillis() + 2000, "Killed right after the deadline, took " + elapsed + "ms");
+        Assert.assertTrue(driver.quitInterrupted.await(2, TimeUnit.SECONDS), "The hung quit() was not interrupted");
+    }
+
+    @Test(description = "A hung kill is interrupted at the kill deadline")
+    public void testHungKillInterrupted() throws InterruptedException {
+        FakeDriver driver = new FakeDriver("hang", "hang");
+
+        DriverShutdownExecutor.SessionShutdown result = shutdown(Map.of("hung", driver)).get(0);
+
+        Assert.assertEquals(result.getOutcome(), DriverShutdownExecutor.Outcome.KILL_FAILED);
+        Assert.assertEquals(result.getDetail(), "kill timed out");
+        Assert.assertTrue(driver.quitInterrupted.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue(driver.killInterrupted.await(2, TimeUnit.SECONDS), "The hung kill was not interrupted");
+    }
+
+    @Test(description = "Sessions shut down concurrently, each against its own deadline")
+    public void testDeadlinesArePerSession() {
+        Map<String, FakeDriver> sessions = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            sessions.put("hung-" + i, new FakeDriver("hang", "return"));
+        }
+
+        long start = System.nanoTime();
+        List<DriverShutdownExecutor.SessionShutdown> results = shutdown(sessions);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        results.forEach(result -> Assert.assertEquals(result.getOutcome(), DriverShutdownExecutor.Outcome.KILLED));
+        Assert.assertTrue(elapsed < 4 * DEADLINE.toMillis(), "Deadlines ran one after another: " + elapsed + "ms");
+    }
+
+    private static List<DriverShutdownExecutor.SessionShutdown> shutdown(Map<String, FakeDriver> sessions) {
+        return DriverShutdownExecutor.shutdownAll(sessions, DEADLINE, KILL_DEADLINE,
+                (key, driver) -> driver.quit(),
+                (key, driver) -> driver.kill())
+            .join();
+    }
+}
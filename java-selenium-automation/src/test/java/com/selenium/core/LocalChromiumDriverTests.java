@@ -0,0 +1,91 @@
+package com.selenium.core;
+
+import com.selenium.http.SharedHttpClientFactory;
+import com.selenium.stub.StubDriverServer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.service.DriverService;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local Chromium Driver Test Suite
+ * Runs a local driver service session through the shared HTTP client, with the stub
+ * WebDriver server standing in for chromedriver
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class LocalChromiumDriverTests {
+
+    @AfterMethod(alwaysRun = true)
+    public void closeClients() {
+        SharedHttpClientFactory.closeAll();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        StubDriverServer.shutdown();
+    }
+
+    @Test(description = "Sessions start the service, share its client and stop the service on quit")
+    public void testSessionsShareServiceClient() throws IOException {
+        StubService service = new StubService(StubDriverServer.getInstance().getUrl().getPort());
+        String server = service.getUrl().toString();
+
+        for (int session = 0; session < 2; session++) {
+            LocalChromiumDriver driver = LocalChromiumDriver.chrome(service, new ChromeOptions(),
+                SharedHttpClientFactory.getInstance());
+            Assert.assertTrue(service.isRunning(), "New session starts the service");
+            driver.get("https://www.saucedemo.com");
+            Assert.assertTrue(driver.findElement(By.id("login-button")).isDisplayed());
+            driver.quit();
+            Assert.assertFalse(service.isRunning(), "Quit stops the service");
+        }
+
+        SharedHttpClientFactory.Stats stats = SharedHttpClientFactory.getStats().stream()
+            .filter(client -> server.startsWith(client.getServer()))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No shared client for " + server));
+        Assert.assertEquals(stats.getSessions(), 2L);
+        // newSession, get, findElement, isDisplayed and quit per session
+        Assert.assertTrue(stats.getRequests() >= 10, "Commands went through the shared client");
+        Assert.assertEquals(service.starts, 2);
+    }
+
+    /**
+     * Driver service on the stub server's port, "started" without a process
+     */
+    private static final class StubService extends DriverService {
+        private boolean running;
+        private int starts;
+
+        StubService(int port) throws IOException {
+            super(new File("stub-driver"), port, Duration.ofSeconds(5), List.of(), Map.of());
+        }
+
+        @Override
+        public void start() {
+            running = true;
+            starts++;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.selenium.grid;
+
+import com.selenium.metrics.SuiteMetrics;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selenium Grid Test Suite
+ * Verifies slot counting from the Grid /status response and throttling of new sessions
+ * against a fake hub
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class SeleniumGridTests {
+
+    private final AtomicInteger busyChromeSlots = new AtomicInteger();
+    private HttpServer hub;
+
+    @BeforeMethod(alwaysRun = true)
+    public void startHub() throws IOException {
+        busyChromeSlots.set(0);
+        SuiteMetrics.reset();
+        hub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hub.createContext("/status", exchange -> {
+            byte[] body = status(busyChromeSlots.get()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        hub.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopHub() {
+        hub.stop(0);
+        GridThrottle.reset();
+    }
+
+    @Test(description = "Free slots count UP nodes only and are capped by the sessions a node has left")
+    public void testStatusSlots() throws IOException {
+        GridStatus status = GridStatus.parse(status(1));
+
+        Assert.assertTrue(status.isReady());
+        Assert.assertEquals(status.getTotalSlots("chrome"), 2);
+        Assert.assertEquals(status.getFreeSlots("chrome"), 1);
+        // The node runs one session already and has maxSessions 2
+        Assert.assertEquals(status.getFreeSlots("firefox"), 1);
+        Assert.assertEquals(status.getTotalSlots("MicrosoftEdge"), 0);
+        Assert.assertEquals(GridStatus.parse(status(2)).getFreeSlots("firefox"), 0);
+    }
+
+    @Test(description = "A session waits for a free slot instead of queueing in the Grid")
+    public void testWaitForFreeSlot() throws Exception {
+        GridThrottle throttle = new GridThrottle(hubUrl(), 0, 50, 10000);
+        GridThrottle.Permit first = throttle.acquire("chrome");
+        GridThrottle.Permit second = throttle.acquire("chrome");
+
+        // Both chrome slots are being started, a third session has to wait
+        CompletableFuture<GridThrottle.Permit> third = CompletableFuture.supplyAsync(() -> acquire(throttle));
+        busyChromeSlots.set(2);
+        throttle.release(first);
+        throttle.release(second);
+        TimeUnit.MILLISECONDS.sleep(300);
+        Assert.assertFalse(third.isDone(), "session started while the Grid was full");
+
+        busyChromeSlots.set(1);
+        GridThrottle.Permit granted = third.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(granted.getWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(300));
+        Assert.assertEquals(throttle.getQueuedSessions(), 1);
+        Assert.assertTrue(SuiteMetrics.toPrometheusText().contains("automation_session_queue_wait_seconds_count 3"));
+    }
+
+    @Test(description = "Waiting gives up after the slot wait timeout")
+    public void testSlotWaitTimeout() {
+        busyChromeSlots.set(2);
+        GridThrottle throttle = new GridThrottle(hubUrl(), 0, 20, 200);
+
+        IllegalStateException error = Assert.expectThrows(IllegalStateException.class, () -> throttle.acquire("chrome"));
+        Assert.assertTrue(error.getMessage().contains("No free chrome slot"), error.getMessage());
+    }
+
+    @Test(description = "A browser the Grid has no slots for fails at once")
+    public void testUnknownBrowser() {
+        GridThrottle throttle = new GridThrottle(hubUrl(), 0, 20, 10000);
+
+        IllegalStateException error = Assert.expectThrows(IllegalStateException.class, () -> throttle.acquire("MicrosoftEdge"));
+        Assert.assertTrue(error.getMessage().contains("no MicrosoftEdge slots"), error.getMessage());
+    }
+
+    @Test(description = "Without a readable /status sessions are not held back")
+    public void testStatusUnavailable() throws Exception {
+        URL unreachable = hubUrl();
+        hub.stop(0);
+        GridThrottle throttle = new GridThrottle(unreachable, 0, 20, 10000);
+
+        Assert.assertNotNull(throttle.acquire("chrome"));
+        Assert.assertNotNull(throttle.acquire("chrome"));
+        Assert.assertEquals(throttle.getQueuedSessions(), 0);
+    }
+
+    private URL hubUrl() {
+        try {
+            return new URL("http://127.0.0.1:" + hub.getAddress().getPort() + "/");
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static GridThrottle.Permit acquire(GridThrottle throttle) {
+        try {
+            return throttle.acquire("chrome");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Grid 4 /status with a chrome node (2 slots) and a firefox node (maxSessions 2 over
+     * 4 slots, one busy); a third node is DOWN
+     */
+    private static String status(int busyChrome) {
+        StringBuilder chromeSlots = new StringBuilder();
+        for (int slot = 0; slot < 2; slot++) {
+            chromeSlots.append(slot > 0 ? "," : "").append(slot(slot < busyChrome, "chrome"));
+        }
+        return "{\"value\":{\"ready\":true,\"message\":\"Selenium Grid ready.\",\"nodes\":["
+            + "{\"availability\":\"UP\",\"maxSessions\":2,\"slots\":[" + chromeSlots + "]},"
+            + "{\"availability\":\"UP\",\"maxSessions\":2,\"slots\":[" + slot(true, "firefox") + ","
+            + slot(busyChrome > 1, "firefox") + "," + slot(false, "firefox") + "," + slot(false, "firefox") + "]},"
+            + "{\"availability\":\"DOWN\",\"maxSessions\":1,\"slots\":[" + slot(false, "MicrosoftEdge") + "]}]}}";
+    }
+
+    private static String slot(boolean busy, String browserName) {
+        return "{\"id\":{\"hostId\":\"h\",\"id\":\"s\"},\"lastStarted\":\"1970-01-01T00:00:00Z\",\"session\":"
+            + (busy ? "{\"sessionId\":\"abc\",\"capabilities\":{}}" : "null")
+            + ",\"stereotype\":{\"browserName\":\"" + browserName + "\",\"platformName\":\"linux\"}}";
+    }
+}
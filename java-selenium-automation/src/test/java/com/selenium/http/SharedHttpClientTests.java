@@ -0,0 +1,177 @@
+package com.selenium.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared HTTP Client Test Suite
+ * Verifies that sessions of one server share a client and its connections, that quitting
+ * a session keeps the client open, that every server gets a client of its own and that
+ * the connections opened are counted
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class SharedHttpClientTests {
+
+    private HttpServer server;
+    private URI base;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeMethod(alwaysRun = true)
+    public void startServer() throws IOException {
+        clientPorts.clear();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/status", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            if (exchange.getRequestURI().getQuery() != null) {
+                // ?slow: keeps the connection busy so parallel requests need their own
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "{\"value\":{\"ready\":true}}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        base = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        SharedHttpClientFactory.closeAll();
+        server.stop(0);
+    }
+
+    @Test(description = "Sessions of one server send their requests over the same connection")
+    public void testSessionsShareClient() {
+        HttpClient first = SharedHttpClientFactory.getInstance().createClient(config(base));
+        HttpClient second = SharedHttpClientFactory.getInstance().createClient(config(base));
+
+        Assert.assertEquals(status(first), "{\"value\":{\"ready\":true}}");
+        Assert.assertEquals(status(second), "{\"value\":{\"ready\":true}}");
+        Assert.assertEquals(clientPorts.size(), 1, "The second session reused the kept-alive connection");
+
+        SharedHttpClientFactory.Stats stats = stats(base);
+        Assert.assertEquals(stats.getSessions(), 2L);
+        Assert.assertEquals(stats.getRequests(), 2L);
+        if (stats.getConnections() >= 0) {
+            Assert.assertEquals(stats.getConnections(), 1);
+            Assert.assertEquals(stats.getRequestsPerConnection(), 2.0);
+        }
+    }
+
+    @Test(description = "Connections opened are counted against the requests sent")
+    public void testConnectionsCounted() throws Exception {
+        HttpClient client = SharedHttpClientFactory.getInstance().createClient(config(base));
+        if (stats(base).getConnections() < 0) {
+            throw new SkipException("Connections are not counted on this system");
+        }
+        ExecutorService parallel = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                responses.add(parallel.submit(() -> status(client, "/status?slow")));
+            }
+            for (Future<String> response : responses) {
+                response.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            parallel.shutdownNow();
+        }
+        for (int i = 0; i < 3; i++) {
+            status(client);
+        }
+
+        SharedHttpClientFactory.Stats stats = stats(base);
+        Assert.assertEquals(stats.getRequests(), 6L);
+        Assert.assertTrue(clientPorts.size() > 1, "Parallel requests opened connections of their own");
+        Assert.assertEquals(stats.getConnections(), clientPorts.size(), "One connection per client port");
+        Assert.assertEquals(stats.getRequestsPerConnection(), 6.0 / clientPorts.size());
+    }
+
+    @Test(description = "Quitting a session leaves the shared client open for the next one")
+    public void testCloseKeepsClient() {
+        HttpClient first = SharedHttpClientFactory.getInstance().createClient(config(base));
+        status(first);
+        first.close();
+
+        HttpClient next = SharedHttpClientFactory.getInstance().createClient(config(base));
+        Assert.assertEquals(status(next), "{\"value\":{\"ready\":true}}");
+        Assert.assertEquals(clientPorts.size(), 1);
+        Assert.assertEquals(stats(base).getSessions(), 2L);
+    }
+
+    @Test(description = "Every server gets a client of its own")
+    public void testClientPerServer() throws IOException {
+        HttpServer other = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        other.createContext("/status", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        other.start();
+        try {
+            URI otherBase = URI.create("http://127.0.0.1:" + other.getAddress().getPort());
+            status(SharedHttpClientFactory.getInstance().createClient(config(base)));
+            status(SharedHttpClientFactory.getInstance().createClient(config(otherBase)));
+
+            Assert.assertEquals(SharedHttpClientFactory.getStats().size(), 2);
+            Assert.assertEquals(stats(base).getRequests(), 1L);
+            Assert.assertEquals(stats(otherBase).getRequests(), 1L);
+        } finally {
+            other.stop(0);
+        }
+    }
+
+    private static ClientConfig config(URI base) {
+        return ClientConfig.defaultConfig().baseUri(base);
+    }
+
+    private static String status(HttpClient client) {
+        return status(client, "/status");
+    }
+
+    private static String status(HttpClient client, String path) {
+        HttpResponse response = client.execute(new HttpRequest(HttpMethod.GET, path));
+        Assert.assertEquals(response.getStatus(), 200);
+        return Contents.string(response);
+    }
+
+    private static SharedHttpClientFactory.Stats stats(URI base) {
+        List<SharedHttpClientFactory.Stats> stats = SharedHttpClientFactory.getStats();
+        return stats.stream()
+            .filter(client -> client.getServer().equals(base.toString()))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No shared client for " + base));
+    }
+}
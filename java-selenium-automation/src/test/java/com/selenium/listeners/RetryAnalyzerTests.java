@@ -0,0 +1,94 @@
+package com.selenium.listeners;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+import java.util.List;
+
+/**
+ * Retry Analyzer Test Suite
+ * Verifies failure classification and that only infrastructure failures are retried
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class RetryAnalyzerTests {
+
+    @BeforeMethod(alwaysRun = true)
+    @AfterMethod(alwaysRun = true)
+    public void resetRetries() {
+        RetryAnalyzer.reset();
+    }
+
+    @Test(description = "Failures are classified by the whole cause chain")
+    public void testClassification() {
+        Assert.assertEquals(FailureClassifier.classify(new NoSuchSessionException("Session ID is null")),
+            FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(FailureClassifier.classify(new WebDriverException("unknown error: chrome not reachable")),
+            FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalStateException("wrapped",
+            new TimeoutException("command", new ConnectException("Connection refused")))),
+            FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("Expected condition failed")),
+            FailureClassifier.Category.TIMEOUT);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("Expected condition failed",
+            new NoSuchElementException("#login-button"))), FailureClassifier.Category.ELEMENT_NOT_FOUND);
+        Assert.assertEquals(FailureClassifier.classify(new AssertionError("expected [Products] but found [Swag Labs]")),
+            FailureClassifier.Category.ASSERTION);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalArgumentException("bad data")),
+            FailureClassifier.Category.OTHER);
+        Assert.assertEquals(FailureClassifier.classify(null), FailureClassifier.Category.OTHER);
+    }
+
+    @Test(description = "Infrastructure failures are retried up to the retry count, product failures never")
+    public void testRetriesInfrastructureFailuresOnly() {
+        RetryAnalyzer analyzer = new RetryAnalyzer(2, true);
+
+        Assert.assertFalse(analyzer.retry("SauceDemoTests.loginWithValidCredentials",
+            FailureClassifier.Category.ASSERTION, new AssertionError("wrong title")));
+        Assert.assertTrue(analyzer.retry("SauceDemoTests.loginWithValidCredentials",
+            FailureClassifier.Category.DRIVER_CRASH, new NoSuchSessionException("invalid session id")));
+        Assert.assertTrue(analyzer.retry("SauceDemoTests.loginWithValidCredentials",
+            FailureClassifier.Category.TIMEOUT, new TimeoutException("page load")));
+        Assert.assertFalse(analyzer.retry("SauceDemoTests.loginWithValidCredentials",
+            FailureClassifier.Category.TIMEOUT, new TimeoutException("page load")));
+
+        List<RetryAnalyzer.Retry> retries = RetryAnalyzer.getRetries();
+        Assert.assertEquals(retries.size(), 2);
+        Assert.assertEquals(retries.get(0).getAttempt(), 1);
+        Assert.assertEquals(retries.get(0).getCategory(), FailureClassifier.Category.DRIVER_CRASH);
+        Assert.assertEquals(retries.get(1).getMessage(), "TimeoutException: page load");
+        Assert.assertEquals(RetryAnalyzer.getRetryCount("SauceDemoTests.loginWithValidCredentials"), 2);
+    }
+
+    @Test(description = "With execution.retry.failed.only=false every failure is retried")
+    public void testRetryAllFailures() {
+        RetryAnalyzer analyzer = new RetryAnalyzer(1, false);
+
+        Assert.assertTrue(analyzer.retry("SauceDemoTests.verifyWebsiteTitle",
+            FailureClassifier.Category.ASSERTION, new AssertionError("wrong title")));
+        Assert.assertFalse(analyzer.retry("SauceDemoTests.verifyWebsiteTitle",
+            FailureClassifier.Category.ASSERTION, new AssertionError("wrong title")));
+        Assert.assertFalse(new RetryAnalyzer(0, false).retry("SauceDemoTests.logout",
+            FailureClassifier.Category.DRIVER_CRASH, null));
+    }
+
+    @Test(description = "Final results are kept only for tests that were retried")
+    public void testFinalResults() {
+        new RetryAnalyzer(1, true).retry("SauceDemoTests.logout", FailureClassifier.Category.DRIVER_CRASH, null);
+
+        RetryAnalyzer.recordFinalResult("SauceDemoTests.logout", "PASSED");
+        RetryAnalyzer.recordFinalResult("SauceDemoTests.verifyWebsiteTitle", "FAILED");
+
+        Assert.assertEquals(RetryAnalyzer.getRetryCount("SauceDemoTests.logout"), 1);
+        Assert.assertEquals(RetryAnalyzer.getRetryCount("SauceDemoTests.verifyWebsiteTitle"), 0);
+        RetryAnalyzer.publish();
+    }
+}
@@ -0,0 +1,215 @@
+package com.selenium.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Async Logging Test Suite
+ * Verifies the ring buffer, the log volume budget, shedding and dropping in the
+ * asynchronous appender and the JSON lines format
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class AsyncLoggingTests {
+
+    /**
+     * Sink that holds the log writer until released
+     */
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+        }
+    }
+
+    @Test(description = "The ring buffer is FIFO, bounded and safe for concurrent producers")
+    public void testRingBuffer() throws InterruptedException {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(5);
+        Assert.assertEquals(buffer.capacity(), 8);
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(buffer.offer(i));
+        }
+        Assert.assertFalse(buffer.offer(8), "Full buffer accepted an element");
+        Assert.assertEquals(buffer.size(), 8);
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(buffer.poll(), Integer.valueOf(i));
+        }
+        Assert.assertNull(buffer.poll());
+
+        // Four producers against one consumer
+        LogRingBuffer<Integer> shared = new LogRingBuffer<>(64);
+        int perProducer = 10000;
+        List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < 4; producer++) {
+            int base = producer * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!shared.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        boolean[] seen = new boolean[4 * perProducer];
+        int[] lastOfProducer = {-1, -1, -1, -1};
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (received < seen.length && System.nanoTime() < deadline) {
+            Integer value = shared.poll();
+            if (value == null) {
+                continue;
+            }
+            Assert.assertFalse(seen[value], "Duplicate " + value);
+            seen[value] = true;
+            // Each producer's elements arrive in order
+            Assert.assertTrue(value % perProducer > lastOfProducer[value / perProducer]);
+            lastOfProducer[value / perProducer] = value % perProducer;
+            received++;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        Assert.assertEquals(received, seen.length);
+    }
+
+    @Test(description = "The budget allows a number of events per one-second window")
+    public void testBudget() {
+        AtomicLong now = new AtomicLong(0);
+        LogBudget budget = new LogBudget(3, now::get);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(budget.tryAcquire());
+        }
+        Assert.assertFalse(budget.tryAcquire());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        Assert.assertFalse(budget.tryAcquire());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        Assert.assertTrue(budget.tryAcquire(), "Budget not renewed in the next window");
+
+        LogBudget unlimited = new LogBudget(0, now::get);
+        for (int i = 0; i < 10000; i++) {
+            Assert.assertTrue(unlimited.tryAcquire());
+        }
+    }
+
+    @Test(description = "A full buffer sheds DEBUG and drops INFO, WARN waits briefly, nothing blocks on the writer")
+    public void testAppenderUnderLoad() throws InterruptedException {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        Logger logger = context.getLogger("com.selenium.pages.LoginPage");
+        BlockingAppender sink = new BlockingAppender();
+        sink.setContext(context);
+        sink.start();
+        AsyncLogAppender appender = new AsyncLogAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setBufferSize(4);
+        appender.setEventsPerSecond(0);
+        appender.setMaxBlockMillis(50);
+        appender.addAppender(sink);
+        appender.start();
+        Assert.assertTrue(appender.isStarted());
+
+        // The writer takes the first event and hangs in the sink
+        appender.doAppend(event(logger, Level.INFO, "first"));
+        Assert.assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            appender.doAppend(event(logger, Level.INFO, "queued " + i));
+        }
+        long start = System.nanoTime();
+        appender.doAppend(event(logger, Level.DEBUG, "shed"));
+        appender.doAppend(event(logger, Level.INFO, "dropped"));
+        appender.doAppend(event(logger, Level.WARN, "waited"));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "Logging blocked on the writer");
+
+        AsyncLogAppender.Stats stats = appender.getStats();
+        Assert.assertEquals(stats.getDegraded(), 1L);
+        Assert.assertEquals(stats.getOverflows(), 2L);
+        Assert.assertEquals(stats.getDropped(), 2L);
+        Assert.assertEquals(stats.getQueued(), 4);
+
+        sink.release.countDown();
+        appender.stop();
+        Assert.assertEquals(sink.messages, List.of("first", "queued 0", "queued 1", "queued 2", "queued 3"));
+        Assert.assertFalse(sink.isStarted(), "Attached appenders were not stopped");
+    }
+
+    @Test(description = "Events that cannot be prepared are counted instead of failing the logging call")
+    public void testUnpreparedEventsCounted() {
+        // No MDC adapter: capturing the MDC throws
+        LoggerContext context = new LoggerContext();
+        Logger logger = context.getLogger("com.selenium.core.BaseTest");
+        ListAppender<ILoggingEvent> sink = new ListAppender<>();
+        sink.setContext(context);
+        sink.start();
+        AsyncLogAppender appender = new AsyncLogAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setEventsPerSecond(0);
+        appender.addAppender(sink);
+        appender.start();
+        Assert.assertTrue(appender.isStarted());
+
+        appender.doAppend(event(logger, Level.INFO, "unprepared"));
+
+        Assert.assertEquals(appender.getStats().getUnprepared(), 1L);
+        appender.stop();
+        Assert.assertTrue(sink.list.isEmpty(), "Unprepared event was written");
+    }
+
+    @Test(description = "Events are encoded as one JSON object per line with the test context")
+    public void testJsonLines() {
+        LoggerContext context = new LoggerContext();
+        LoggingEvent event = event(context.getLogger("com.selenium.pages.LoginPage"), Level.INFO,
+            "Clicked \"Login\"\n\tin {}");
+        event.setMDCPropertyMap(Map.of(LogContext.TEST, "SauceDemoTests.testValidLogin",
+            LogContext.DEVICE, "chrome", LogContext.THREAD, "TestNG-1"));
+
+        JsonLinesEncoder encoder = new JsonLinesEncoder();
+        encoder.setContext(context);
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        Assert.assertTrue(line.startsWith("{\"ts\":\""), line);
+        Assert.assertTrue(line.endsWith("}\n"), line);
+        Assert.assertEquals(line.indexOf('\n'), line.length() - 1, "Event spans lines: " + line);
+        Assert.assertTrue(line.contains("\"level\":\"INFO\""), line);
+        Assert.assertTrue(line.contains("\"logger\":\"com.selenium.pages.LoginPage\""), line);
+        Assert.assertTrue(line.contains("\"message\":\"Clicked \\\"Login\\\"\\n\\tin 1\""), line);
+        Assert.assertTrue(line.contains("\"test\":\"SauceDemoTests.testValidLogin\""), line);
+        Assert.assertTrue(line.contains("\"device\":\"chrome\""), line);
+        Assert.assertEquals(line.split("\"thread\"").length, 2, "Thread written twice: " + line);
+    }
+
+    private static LoggingEvent event(Logger logger, Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, new Object[] {1});
+    }
+}
@@ -0,0 +1,83 @@
+package com.selenium.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.selenium.utils.ReportManager;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.How;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy Logging Test Suite
+ * Verifies that log arguments are only built for enabled levels and that page elements
+ * are described from their locators without calling the element
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class LazyLoggingTests {
+
+    /**
+     * Page with elements that fail on any call, as an unresolvable PageFactory proxy would
+     */
+    private static final class Page {
+        @FindBy(id = "login-button")
+        private final WebElement loginButton = untouchable();
+
+        @FindBy(how = How.XPATH, using = "//h3[@data-test='error']")
+        private final WebElement errorMessage = untouchable();
+
+        private final WebElement undecorated = untouchable();
+    }
+
+    @Test(description = "Elements are described by their locator annotation, without calling them")
+    public void testElementDescriptors() {
+        Page page = new Page();
+        Map<Object, String> descriptions = ElementDescriptors.of(page);
+
+        Assert.assertEquals(descriptions.size(), 2);
+        Assert.assertEquals(descriptions.get(page.loginButton), "loginButton [id=login-button]");
+        Assert.assertEquals(descriptions.get(page.errorMessage),
+            "errorMessage [how=XPATH, using=//h3[@data-test='error']]");
+        Assert.assertNull(descriptions.get(page.undecorated), "Field without locator described");
+    }
+
+    @Test(description = "Supplied arguments are only evaluated when the level is enabled")
+    public void testLazyArguments() {
+        Logger logger = new LoggerContext().getLogger("com.selenium.pages.LoginPage");
+        AtomicInteger evaluations = new AtomicInteger();
+
+        logger.setLevel(Level.INFO);
+        LazyLog.debug(logger, "Clicked element: {}", evaluations::incrementAndGet);
+        LazyLog.debug(logger, "Entered text '{}' into element: {}", "secret_sauce", evaluations::incrementAndGet);
+        Assert.assertEquals(evaluations.get(), 0, "Argument built for a disabled level");
+        LazyLog.info(logger, "Login attempt: {}", evaluations::incrementAndGet);
+        Assert.assertEquals(evaluations.get(), 1);
+
+        logger.setLevel(Level.DEBUG);
+        LazyLog.debug(logger, "Clicked element: {}", evaluations::incrementAndGet);
+        Assert.assertEquals(evaluations.get(), 2);
+    }
+
+    @Test(description = "Report messages are not built for a thread without a test")
+    public void testReportMessageWithoutTest() {
+        ReportManager.removeTest();
+        AtomicInteger evaluations = new AtomicInteger();
+        ReportManager.logInfo(() -> "Thread: " + evaluations.incrementAndGet());
+        Assert.assertEquals(evaluations.get(), 0);
+    }
+
+    private static WebElement untouchable() {
+        return (WebElement) Proxy.newProxyInstance(WebElement.class.getClassLoader(),
+            new Class<?>[] {WebElement.class}, (proxy, method, args) -> {
+                throw new AssertionError("Element called: " + method.getName());
+            });
+    }
+}
@@ -0,0 +1,91 @@
+package com.selenium.metrics;
+
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics Server Test Suite
+ * Verifies the Prometheus exposition of suite metrics and the embedded endpoint
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class MetricsServerTests {
+
+    @AfterMethod(alwaysRun = true)
+    public void resetMetrics() {
+        MetricsServer.stop();
+        System.clearProperty("metrics.server.port");
+        SuiteMetrics.reset();
+    }
+
+    @Test(description = "Test results and screenshots are counted")
+    public void testCounters() {
+        SuiteMetrics.recordTestResult(ITestResult.SUCCESS);
+        SuiteMetrics.recordTestResult(ITestResult.SUCCESS);
+        SuiteMetrics.recordTestResult(ITestResult.FAILURE);
+        SuiteMetrics.recordTestResult(ITestResult.SKIP);
+        SuiteMetrics.recordScreenshot(2048);
+        SuiteMetrics.recordScreenshot(1024);
+
+        String text = SuiteMetrics.toPrometheusText();
+        Assert.assertTrue(text.contains("automation_tests_total{status=\"passed\"} 2\n"), text);
+        Assert.assertTrue(text.contains("automation_tests_total{status=\"failed\"} 1\n"), text);
+        Assert.assertTrue(text.contains("automation_tests_total{status=\"skipped\"} 1\n"), text);
+        Assert.assertTrue(text.contains("automation_screenshot_bytes_total 3072\n"), text);
+        Assert.assertTrue(text.contains("automation_screenshots_total 2\n"), text);
+        Assert.assertTrue(text.contains("# TYPE automation_tests_total counter\n"), text);
+        Assert.assertTrue(SuiteMetrics.getTestsPerMinute() > 0);
+    }
+
+    @Test(description = "Session creation buckets are cumulative")
+    public void testSessionHistogram() {
+        SuiteMetrics.recordSessionCreation(TimeUnit.MILLISECONDS.toNanos(300), true);
+        SuiteMetrics.recordSessionCreation(TimeUnit.MILLISECONDS.toNanos(1500), true);
+        SuiteMetrics.recordSessionCreation(TimeUnit.SECONDS.toNanos(200), true);
+        SuiteMetrics.recordSessionCreation(TimeUnit.SECONDS.toNanos(3), false);
+
+        String text = SuiteMetrics.toPrometheusText();
+        Assert.assertTrue(text.contains("automation_session_creation_seconds_bucket{le=\"0.25\"} 0\n"), text);
+        Assert.assertTrue(text.contains("automation_session_creation_seconds_bucket{le=\"0.5\"} 1\n"), text);
+        Assert.assertTrue(text.contains("automation_session_creation_seconds_bucket{le=\"2.0\"} 2\n"), text);
+        Assert.assertTrue(text.contains("automation_session_creation_seconds_bucket{le=\"120.0\"} 2\n"), text);
+        Assert.assertTrue(text.contains("automation_session_creation_seconds_bucket{le=\"+Inf\"} 3\n"), text);
+        Assert.assertTrue(text.contains("automation_session_creation_seconds_sum 201.8\n"), text);
+        Assert.assertTrue(text.contains("automation_session_creation_seconds_count 3\n"), text);
+        Assert.assertTrue(text.contains("automation_session_creation_failures_total 1\n"), text);
+    }
+
+    @Test(description = "The endpoint serves the exposition with the active driver gauge")
+    public void testEndpoint() throws IOException {
+        System.setProperty("metrics.server.port", "0");
+        MetricsServer.start(() -> 3);
+        SuiteMetrics.recordTestResult(ITestResult.SUCCESS);
+        Assert.assertTrue(MetricsServer.getPort() > 0);
+
+        HttpURLConnection connection = (HttpURLConnection)
+            new URL("http://127.0.0.1:" + MetricsServer.getPort() + "/metrics").openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            Assert.assertEquals(connection.getResponseCode(), 200);
+            Assert.assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            Assert.assertTrue(body.contains("automation_active_drivers 3\n"), body);
+            Assert.assertTrue(body.contains("automation_tests_total{status=\"passed\"} 1\n"), body);
+            Assert.assertTrue(body.contains("automation_report_queue_depth "), body);
+        } finally {
+            connection.disconnect();
+        }
+
+        MetricsServer.stop();
+        Assert.assertEquals(MetricsServer.getPort(), -1);
+    }
+}
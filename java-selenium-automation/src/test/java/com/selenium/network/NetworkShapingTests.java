@@ -0,0 +1,105 @@
+package com.selenium.network;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Network Shaping Test Suite
+ * Verifies suite-level rule resolution and the fixture cache without a browser
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class NetworkShapingTests {
+
+    private Path cacheDirectory;
+
+    @BeforeClass(alwaysRun = true)
+    public void createCacheDirectory() throws IOException {
+        cacheDirectory = Files.createTempDirectory("network-cache");
+        Path fixture = cacheDirectory.resolve("www.saucedemo.com/static/js/main.js");
+        Files.createDirectories(fixture.getParent());
+        Files.write(fixture, "console.log('fixture');".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteCacheDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(description = "Verify suite parameters override application.properties")
+    public void testSuiteParametersOverrideConfiguration() {
+        NetworkProfile profile = NetworkProfile.resolve(Map.of(
+            "network.shaping.enabled", "true",
+            "network.block.resource.types", "Image, Font",
+            "network.block.url.patterns", "*ads*"));
+
+        Assert.assertTrue(profile.isEnabled());
+        Assert.assertTrue(profile.isBlockedType("Image"));
+        Assert.assertTrue(profile.isBlockedType("font"));
+        Assert.assertFalse(profile.isBlockedType("Script"));
+        Assert.assertEquals(profile.getBlockedUrlPatterns(), List.of("*ads*"));
+    }
+
+    @Test(description = "Verify wildcard cache patterns match like CDP url patterns")
+    public void testCachePatternMatching() {
+        NetworkProfile profile = NetworkProfile.resolve(Map.of(
+            "network.cache.url.patterns", "*saucedemo.com/static/*"));
+
+        Assert.assertTrue(profile.isCacheable("https://www.saucedemo.com/static/js/main.js"));
+        Assert.assertFalse(profile.isCacheable("https://www.saucedemo.com/inventory.html"));
+        Assert.assertFalse(profile.isCacheable("https://cdn.example.com/static/js/main.js"));
+    }
+
+    @Test(description = "Verify fixtures are found by host and path, ignoring the query")
+    public void testFixtureLookup() {
+        FixtureCache cache = FixtureCache.forDirectory(cacheDirectory.toString());
+
+        FixtureCache.Fixture fixture = cache.lookup("https://www.saucedemo.com/static/js/main.js?v=2");
+        Assert.assertNotNull(fixture, "Fixture should be found");
+        Assert.assertEquals(fixture.getContentType(), "application/javascript");
+        Assert.assertNull(cache.lookup("https://www.saucedemo.com/static/js/other.js"));
+        Assert.assertNull(cache.lookup("https://www.saucedemo.com/../../etc/passwd"));
+    }
+
+    @Test(description = "Verify recorded responses are served on the next lookup")
+    public void testRecordedFixtureIsServed() {
+        FixtureCache cache = FixtureCache.forDirectory(cacheDirectory.toString());
+        String url = "https://www.saucedemo.com/static/css/main.css";
+
+        Assert.assertNull(cache.lookup(url));
+        cache.store(url, "body{}".getBytes(StandardCharsets.UTF_8), "text/css");
+
+        Assert.assertEquals(new String(cache.lookup(url).getBody(), StandardCharsets.UTF_8), "body{}");
+        Assert.assertTrue(Files.exists(cacheDirectory.resolve("www.saucedemo.com/static/css/main.css")));
+    }
+
+    @Test(description = "Verify saved requests and bytes are aggregated")
+    public void testStatsAggregation() {
+        NetworkStats test = new NetworkStats();
+        test.recordBlocked();
+        test.recordCacheHit(1200);
+        test.recordLoaded(500);
+
+        NetworkStats totals = new NetworkStats();
+        totals.add(test);
+        totals.add(test);
+
+        Assert.assertEquals(totals.getRequestsSaved(), 4L);
+        Assert.assertEquals(totals.getBytesSaved(), 2400L);
+        Assert.assertEquals(totals.getBytesLoaded(), 1000L);
+    }
+}
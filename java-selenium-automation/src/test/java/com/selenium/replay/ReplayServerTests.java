@@ -0,0 +1,164 @@
+package com.selenium.replay;
+
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Replay Server Test Suite
+ * Records a local stand-in origin, takes it offline and replays it from the HAR store
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class ReplayServerTests {
+
+    private HttpServer originServer;
+    private String origin;
+    private Path storeDirectory;
+    private final AtomicInteger originRequests = new AtomicInteger();
+
+    @BeforeClass(alwaysRun = true)
+    public void startOrigin() throws IOException {
+        originServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        origin = "http://127.0.0.1:" + originServer.getAddress().getPort();
+        originServer.createContext("/", exchange -> {
+            originRequests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            byte[] body;
+            if (path.equals("/")) {
+                body = ("<html><title>Swag Labs</title><script src=\"" + origin + "/static/app.js\"></script></html>")
+                    .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/html");
+            } else if (path.equals("/static/app.js")) {
+                body = "console.log('app');".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/javascript");
+            } else {
+                body = "missing".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(404, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        originServer.start();
+        storeDirectory = Files.createTempDirectory("replay-store");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void cleanUp() throws IOException {
+        originServer.stop(0);
+        try (Stream<Path> files = Files.walk(storeDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(description = "Verify recorded responses are replayed with the origin offline")
+    public void testRecordThenReplayOffline() throws IOException {
+        ReplayPolicy policy = new ReplayPolicy(Duration.ofHours(1), List.of(), Set.of("v"));
+
+        ReplayServer recorder = new ReplayServer(origin, ReplayMode.RECORD, policy,
+            new ReplayStore(storeDirectory, origin, policy), 0);
+        Assert.assertEquals(get(recorder, "/").status, 200);
+        Assert.assertEquals(get(recorder, "/static/app.js?v=1").status, 200);
+        Assert.assertEquals(get(recorder, "/does-not-exist").status, 404);
+        recorder.stop();
+        Assert.assertEquals(recorder.getStats().getRecorded(), 2L, "404 responses must not be recorded");
+        Assert.assertTrue(Files.exists(storeDirectory.resolve("127.0.0.1.har")), "HAR store should be written");
+
+        int liveRequests = originRequests.get();
+        ReplayServer replayer = new ReplayServer(origin, ReplayMode.REPLAY, policy,
+            new ReplayStore(storeDirectory, origin, policy), 0);
+        try {
+            Response page = get(replayer, "/");
+            Assert.assertEquals(page.status, 200);
+            Assert.assertTrue(page.body.contains(replayer.getLocalBase() + "/static/app.js"),
+                "Absolute origin URLs should point at the replay server: " + page.body);
+            Assert.assertEquals(get(replayer, "/static/app.js?v=2").body, "console.log('app');",
+                "Ignored query parameters should not cause a miss");
+            Assert.assertEquals(get(replayer, "/inventory.html").status, 404);
+        } finally {
+            replayer.stop();
+        }
+
+        Assert.assertEquals(originRequests.get(), liveRequests, "Replay must not touch the origin");
+        Assert.assertEquals(replayer.getStats().getHits(), 2L);
+        Assert.assertEquals(replayer.getStats().getMisses(), 1L);
+    }
+
+    @Test(description = "Verify cache keys drop ignored query parameters only")
+    public void testCacheKeys() {
+        ReplayPolicy policy = new ReplayPolicy(Duration.ZERO, List.of(), Set.of("_", "cb"));
+
+        Assert.assertEquals(policy.key("GET", "/static/app.js", "cb=123"), "GET /static/app.js");
+        Assert.assertEquals(policy.key("GET", "/search", "q=bag&_=99"), "GET /search?q=bag");
+        Assert.assertEquals(policy.key("POST", "/", null), "POST /");
+    }
+
+    @Test(description = "Verify staleness, bypass and recordability rules")
+    public void testInvalidationRules() {
+        ReplayPolicy policy = new ReplayPolicy(Duration.ofHours(24), List.of("/api/*"), Set.of());
+
+        Assert.assertTrue(policy.isStale(Instant.now().minus(Duration.ofHours(25))));
+        Assert.assertFalse(policy.isStale(Instant.now().minus(Duration.ofHours(1))));
+        Assert.assertFalse(new ReplayPolicy(Duration.ZERO, List.of(), Set.of())
+            .isStale(Instant.EPOCH), "Zero max age never expires");
+
+        Assert.assertTrue(policy.isBypassed("/api/session"));
+        Assert.assertFalse(policy.isBypassed("/inventory.html"));
+
+        Assert.assertTrue(policy.isRecordable("GET", 200));
+        Assert.assertTrue(policy.isRecordable("GET", 301));
+        Assert.assertFalse(policy.isRecordable("GET", 500));
+        Assert.assertFalse(policy.isRecordable("POST", 200));
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Calls the replay server on 127.0.0.1 (plain Java does not resolve *.localhost)
+     */
+    private static Response get(ReplayServer server, String path) throws IOException {
+        int port = URI.create(server.getLocalBase()).getPort();
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new Response(status, in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.selenium.results;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Columnar Results Test Suite
+ * Verifies that run results round-trip through the columnar file and that the query
+ * computes percentiles, failure rates and trends across runs
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class ColumnarResultTests {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Test(description = "Rows are read back in order with their dictionary-encoded test names")
+    public void testRoundTrip() throws IOException {
+        ColumnarResultWriter writer = new ColumnarResultWriter(42);
+        writer.add("LoginTests.testLogin", 1000, 250, ColumnarResultFile.PASS);
+        writer.add("CartTests.testCheckout", 2000, 900, ColumnarResultFile.RETRY);
+        writer.add("LoginTests.testLogin", 3000, 300, ColumnarResultFile.FAIL);
+        writer.add("CartTests.testCheckout", 4000, -5, ColumnarResultFile.SKIP);
+
+        Path path = Files.createTempDirectory("results").resolve("run-42-1" + ColumnarResultFile.EXTENSION);
+        writer.write(path);
+        // 17 bytes per row, names stored once
+        long expectedSize = ColumnarResultFile.HEADER_BYTES + 4 * 17
+            + 2 + "LoginTests.testLogin".length() + 2 + "CartTests.testCheckout".length();
+        Assert.assertEquals(Files.size(path), expectedSize);
+
+        ColumnarResultFile file = ColumnarResultFile.open(path);
+        Assert.assertEquals(file.getRunId(), 42L);
+        Assert.assertEquals(file.getRowCount(), 4);
+        Assert.assertEquals(file.getDictionarySize(), 2);
+        Assert.assertEquals(file.getTestName(file.getTestCode(2)), "LoginTests.testLogin");
+        Assert.assertEquals(file.getTestName(file.getTestCode(3)), "CartTests.testCheckout");
+        Assert.assertEquals(file.getStartMillis(1), 2000L);
+        Assert.assertEquals(file.getDurationMillis(2), 300);
+        Assert.assertEquals(file.getDurationMillis(3), 0, "Negative durations are clamped");
+        Assert.assertEquals(ColumnarResultFile.statusName(file.getStatus(1)), "RETRY");
+        Assert.assertEquals(file.getStatus(3), ColumnarResultFile.SKIP);
+    }
+
+    @Test(description = "Other files are rejected")
+    public void testRejectsOtherFiles() throws IOException {
+        Path path = Files.createTempFile("results", ColumnarResultFile.EXTENSION);
+        Files.write(path, new byte[ColumnarResultFile.HEADER_BYTES]);
+        Assert.expectThrows(IOException.class, () -> ColumnarResultFile.open(path));
+    }
+
+    @Test(description = "Files of one run are grouped and tests aggregate across runs")
+    public void testQuery() throws IOException {
+        Path directory = Files.createTempDirectory("results");
+        // Two forks of run 1 on day 0, one file of run 2 on day 10
+        ColumnarResultWriter fork1 = new ColumnarResultWriter(1);
+        ColumnarResultWriter fork2 = new ColumnarResultWriter(1);
+        ColumnarResultWriter run2 = new ColumnarResultWriter(2);
+        for (int i = 1; i <= 10; i++) {
+            byte status = i == 10 ? ColumnarResultFile.FAIL : ColumnarResultFile.PASS;
+            fork1.add("SlowTests.testReport", i, i * 100, status);
+            run2.add("SlowTests.testReport", 10 * DAY + i, i * 100 + 1000, ColumnarResultFile.PASS);
+        }
+        fork2.add("FastTests.testPing", 5, 10, ColumnarResultFile.PASS);
+        fork2.add("FastTests.testPing", 6, 99999, ColumnarResultFile.SKIP);
+        fork1.write(directory.resolve("run-1-100" + ColumnarResultFile.EXTENSION));
+        fork2.write(directory.resolve("run-1-101" + ColumnarResultFile.EXTENSION));
+        run2.write(directory.resolve("run-2-100" + ColumnarResultFile.EXTENSION));
+
+        ResultQuery.Result result = ResultQuery.scan(
+            ResultQuery.resolveFiles(Collections.singletonList(directory)), null, Long.MIN_VALUE);
+        Assert.assertEquals(result.getFiles(), 3);
+        Assert.assertEquals(result.getRows(), 22L);
+        Assert.assertEquals(result.getRuns().size(), 2);
+        Assert.assertEquals(result.getRuns().get(1L).getAttempts(), 11);
+        Assert.assertEquals(result.getRuns().get(1L).getSkipped(), 1);
+
+        ResultQuery.Stats slow = result.getTests().get("SlowTests.testReport");
+        Assert.assertEquals(slow.getAttempts(), 20);
+        Assert.assertEquals(slow.percentile(50), 1000);
+        Assert.assertEquals(slow.percentile(90), 1800);
+        Assert.assertEquals(slow.percentile(100), 2000);
+        Assert.assertEquals(slow.getFailureRate(), 0.05, 1e-9);
+        // 1000 ms slower after 10 days
+        Assert.assertEquals(slow.getTrendMillisPerDay(), 100, 1);
+
+        ResultQuery.Stats fast = result.getTests().get("FastTests.testPing");
+        Assert.assertEquals(fast.percentile(99), 10, "Skipped attempts do not count as durations");
+        Assert.assertTrue(Double.isNaN(fast.getTrendMillisPerDay()));
+
+        ResultQuery.Result filtered = ResultQuery.scan(
+            ResultQuery.resolveFiles(Collections.singletonList(directory)), "Slow", 5 * DAY);
+        Assert.assertEquals(filtered.getRows(), 10L);
+        Assert.assertEquals(filtered.getRuns().keySet(), Collections.singleton(2L));
+    }
+}
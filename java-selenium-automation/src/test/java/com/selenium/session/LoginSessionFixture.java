@@ -0,0 +1,47 @@
+package com.selenium.session;
+
+import com.selenium.core.BaseTest;
+import com.selenium.core.DriverManager;
+import com.selenium.logging.LogContext;
+import com.selenium.metrics.CommandLatency;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestContext;
+
+/**
+ * LoginSessionFixture - A BaseTest subclass that LoginSessionTests drives by hand
+ * It is in no suite; its methods only carry the annotations BaseTest reads during setup
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class LoginSessionFixture extends BaseTest {
+
+    static final String BASE_URL = "https://www.saucedemo.com";
+
+    @ReuseLoginSession(user = "standard_user")
+    public void reusingTest() {
+        // Opts into session reuse
+    }
+
+    public void plainTest() {
+        // Always logs in through the UI
+    }
+
+    void setUp(String testMethod, ITestContext context) throws NoSuchMethodException {
+        testSetup("chrome", "true", BASE_URL, getClass().getMethod(testMethod), context);
+    }
+
+    void loginThroughUi(String username, String password) {
+        login(username, password);
+    }
+
+    WebDriver currentDriver() {
+        return getDriver();
+    }
+
+    void tearDown() {
+        DriverManager.quitDriver();
+        CommandLatency.endTest();
+        LogContext.endTest();
+    }
+}
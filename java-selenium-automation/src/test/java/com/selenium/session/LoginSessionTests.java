@@ -0,0 +1,109 @@
+package com.selenium.session;
+
+import com.selenium.stub.StubDriverServer;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Login Session Test Suite
+ * Runs BaseTest setup and login against the stub SauceDemo to verify that sessions are
+ * captured after a UI login, restored for @ReuseLoginSession tests, dropped when the
+ * application rejects them and replaced by a fresh UI login
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class LoginSessionTests {
+
+    private static final String USER = "standard_user";
+    private static final String PASSWORD = "secret_sauce";
+    private static final String INVENTORY_URL = LoginSessionFixture.BASE_URL + "/inventory.html";
+
+    private final LoginSessionFixture fixture = new LoginSessionFixture();
+
+    @BeforeClass(alwaysRun = true)
+    public void useStubServer() {
+        System.setProperty("stub.server.enabled", "true");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void dropSession() {
+        fixture.tearDown();
+        LoginSessionCache.invalidate(USER, "test finished");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStubServer() {
+        System.clearProperty("stub.server.enabled");
+        StubDriverServer.shutdown();
+    }
+
+    @Test(description = "A UI login is captured and the next test starts logged in without the form")
+    public void testCaptureAndRestore(ITestContext context) throws NoSuchMethodException {
+        LoginTimings timings = LoginSessionCache.getTimings();
+        long performed = timings.getPerformedCount();
+        long restored = timings.getRestoredCount();
+
+        fixture.setUp("reusingTest", context);
+        Assert.assertFalse(LoginSessionCache.hasSnapshot(USER));
+        fixture.loginThroughUi(USER, PASSWORD);
+        Assert.assertTrue(LoginSessionCache.hasSnapshot(USER), "Session captured after the UI login");
+        fixture.tearDown();
+
+        fixture.setUp("reusingTest", context);
+        WebDriver driver = fixture.currentDriver();
+        Assert.assertEquals(driver.getCurrentUrl(), INVENTORY_URL);
+        Assert.assertEquals(driver.manage().getCookieNamed("session-username").getValue(), USER);
+        fixture.loginThroughUi(USER, PASSWORD);
+
+        Assert.assertEquals(timings.getPerformedCount(), performed + 1, "login() is a no-op on a restored session");
+        Assert.assertEquals(timings.getRestoredCount(), restored + 1);
+    }
+
+    @Test(description = "A rejected session is invalidated and the test logs in through the UI instead")
+    public void testRejectedSessionFallsBackToUiLogin(ITestContext context) throws NoSuchMethodException {
+        fixture.setUp("plainTest", context);
+        fixture.loginThroughUi(USER, PASSWORD);
+        // The application has since dropped the session: capture the page without its cookie
+        WebDriver driver = fixture.currentDriver();
+        LoginSessionCache.invalidate(USER, "replaced by a revoked session");
+        driver.manage().deleteAllCookies();
+        LoginSessionCache.capture(driver, USER);
+        fixture.tearDown();
+
+        LoginTimings timings = LoginSessionCache.getTimings();
+        long performed = timings.getPerformedCount();
+        long invalidations = timings.getInvalidations();
+
+        fixture.setUp("reusingTest", context);
+        driver = fixture.currentDriver();
+        Assert.assertEquals(driver.getCurrentUrl(), LoginSessionFixture.BASE_URL,
+            "Restore gave up and went back to the login page");
+        Assert.assertFalse(LoginSessionCache.hasSnapshot(USER), "Rejected session should be dropped");
+        Assert.assertEquals(timings.getInvalidations(), invalidations + 1);
+
+        fixture.loginThroughUi(USER, PASSWORD);
+        Assert.assertEquals(driver.getCurrentUrl(), INVENTORY_URL);
+        Assert.assertEquals(timings.getPerformedCount(), performed + 1);
+        Assert.assertTrue(LoginSessionCache.hasSnapshot(USER), "The fresh UI login is captured again");
+    }
+
+    @Test(description = "Tests without @ReuseLoginSession log in through the UI even with a session captured")
+    public void testPlainTestLogsIn(ITestContext context) throws NoSuchMethodException {
+        fixture.setUp("plainTest", context);
+        fixture.loginThroughUi(USER, PASSWORD);
+        Assert.assertTrue(LoginSessionCache.hasSnapshot(USER));
+        fixture.tearDown();
+
+        long performed = LoginSessionCache.getTimings().getPerformedCount();
+        fixture.setUp("plainTest", context);
+        Assert.assertEquals(fixture.currentDriver().getCurrentUrl(), LoginSessionFixture.BASE_URL);
+        fixture.loginThroughUi(USER, PASSWORD);
+        Assert.assertEquals(LoginSessionCache.getTimings().getPerformedCount(), performed + 1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.selenium.shard;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Sharding Test Suite
+ * Verifies splitting a suite into shards and merging the result fragments of the forks
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class ShardingTests {
+
+    private Path workDirectory;
+
+    @BeforeMethod(alwaysRun = true)
+    public void createWorkDirectory() throws IOException {
+        workDirectory = Files.createTempDirectory("shards");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteWorkDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(workDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test(description = "Units are dealt to the shard with the fewest methods, keeping suite order")
+    public void testPartition() {
+        List<ShardPlan.Unit> units = List.of(
+            unit("verifyWebsiteTitle"), unit("loginWithValidCredentials", "logout"),
+            unit("loginWithInvalidCredentials"), unit("verifyPositiveCaseNavigationAndTitle"),
+            unit("verifyNegativeCaseNavigationAndTitle"));
+
+        List<List<ShardPlan.Unit>> shards = ShardPlan.partition(units, 2);
+
+        Assert.assertEquals(shards.size(), 2);
+        Assert.assertEquals(methods(shards.get(0)), List.of("verifyWebsiteTitle", "loginWithInvalidCredentials",
+            "verifyPositiveCaseNavigationAndTitle"));
+        Assert.assertEquals(methods(shards.get(1)), List.of("loginWithValidCredentials", "logout",
+            "verifyNegativeCaseNavigationAndTitle"));
+        Assert.assertEquals(ShardPlan.partition(units.subList(0, 1), 4).size(), 1);
+    }
+
+    @Test(description = "Methods linked by dependsOnMethods stay in one unit")
+    public void testDependentGroups() {
+        List<List<String>> groups = ShardPlan.groupDependent(
+            List.of("testLogin", "testCart", "testCheckout", "testTitle"),
+            Map.of("testCart", List.of("testLogin"), "testCheckout", List.of("testCart")));
+
+        Assert.assertEquals(groups, List.of(List.of("testLogin", "testCart", "testCheckout"), List.of("testTitle")));
+    }
+
+    @Test(description = "TestNG results of the forks merge into one file with summed counters")
+    public void testMergeTestNgResults() throws IOException {
+        Path first = writeResults("shard-1", 3, 2, 1, 1200);
+        Path second = writeResults("shard-2", 2, 2, 0, 800);
+        Path merged = workDirectory.resolve("testng-results.xml");
+
+        ResultMerger.Totals totals = ResultMerger.mergeTestNgResults(
+            List.of(first, second, workDirectory.resolve("missing.xml")), merged);
+
+        Assert.assertEquals(totals.get("total"), 5L);
+        Assert.assertEquals(totals.get("passed"), 4L);
+        Assert.assertEquals(totals.get("failed"), 1L);
+        Assert.assertEquals(totals.getBusyMillis(), 2000L);
+        ResultMerger.Totals reread = ResultMerger.readTotals(merged);
+        Assert.assertEquals(reread.get("total"), 5L);
+        Assert.assertEquals(reread.getBusyMillis(), 2000L);
+        String xml = new String(Files.readAllBytes(merged), StandardCharsets.UTF_8);
+        Assert.assertTrue(xml.contains("Suite shard-1") && xml.contains("Suite shard-2"), xml);
+    }
+
+    @Test(description = "NDJSON files with the same name are concatenated")
+    public void testMergeNdjson() throws IOException {
+        Path shard1 = Files.createDirectories(workDirectory.resolve("shard-1"));
+        Path shard2 = Files.createDirectories(workDirectory.resolve("shard-2"));
+        Files.write(shard1.resolve("traces.jsonl"), List.of("{\"a\":1}", "{\"a\":2}"));
+        Files.write(shard2.resolve("traces.jsonl"), List.of("{\"b\":1}", ""));
+        Files.write(shard2.resolve("command-latency.json"), List.of("{}"));
+        Path output = workDirectory.resolve("merged");
+
+        Map<String, Long> lines = ResultMerger.mergeNdjson(List.of(shard1, shard2), output);
+
+        Assert.assertEquals(lines, Map.of("traces.jsonl", 3L));
+        Assert.assertEquals(Files.readAllLines(output.resolve("traces.jsonl")).size(), 3);
+        Assert.assertFalse(Files.exists(output.resolve("command-latency.json")));
+    }
+
+    private Path writeResults(String shard, int total, int passed, int failed, long busyMillis) throws IOException {
+        Path file = Files.createDirectories(workDirectory.resolve(shard)).resolve("testng-results.xml");
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<testng-results ignored=\"0\" total=\"" + total + "\" passed=\"" + passed + "\" failed=\"" + failed
+            + "\" skipped=\"0\">\n  <reporter-output/>\n  <suite name=\"Suite " + shard + "\" duration-ms=\"" + busyMillis + "\">\n"
+            + "    <test name=\"SauceDemo\"><class name=\"com.selenium.tests.SauceDemoTests\">\n"
+            + "      <test-method status=\"PASS\" name=\"setUp\" is-config=\"true\" duration-ms=\"" + (busyMillis / 4) + "\"/>\n"
+            + "      <test-method status=\"PASS\" name=\"verifyWebsiteTitle\" duration-ms=\"" + (busyMillis - busyMillis / 4) + "\"/>\n"
+            + "    </class></test>\n  </suite>\n</testng-results>\n";
+        Files.write(file, xml.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static ShardPlan.Unit unit(String... methods) {
+        return new ShardPlan.Unit("Complete SauceDemo Tests", Map.of("browser", "chrome"),
+            "com.selenium.tests.SauceDemoTests", List.of(methods));
+    }
+
+    private static List<String> methods(List<ShardPlan.Unit> shard) {
+        List<String> methods = new ArrayList<>();
+        shard.forEach(unit -> methods.addAll(unit.getMethods()));
+        return methods;
+    }
+}
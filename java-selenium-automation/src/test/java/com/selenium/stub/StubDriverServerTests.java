@@ -0,0 +1,257 @@
+package com.selenium.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.selenium.core.DriverManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Stub Driver Server Test Suite
+ * Drives the simulated SauceDemo over the W3C wire protocol the way RemoteWebDriver does
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class StubDriverServerTests {
+
+    private static final String BASE_URL = "https://www.saucedemo.com";
+    private static final String ATOM = "return (function(){" + "/* inlined atom */".repeat(100) + "})";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private StubDriverServer server;
+
+    private static final class Response {
+        private final int status;
+        private final JsonNode value;
+
+        private Response(int status, JsonNode value) {
+            this.status = status;
+            this.value = value;
+        }
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void startServer() throws IOException {
+        server = new StubDriverServer(new SauceDemoApplication(),
+            new StubLatency(0, 0, Map.of("screenshot", 150L)), 0);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test(description = "Valid login moves the session to the inventory page")
+    public void testValidLogin() throws IOException {
+        String session = newSession();
+        navigate(session, BASE_URL);
+        Assert.assertEquals(call("GET", "/session/" + session + "/title", null).value.asText(), "Swag Labs");
+
+        login(session, "standard_user", "secret_sauce");
+
+        Assert.assertEquals(call("GET", "/session/" + session + "/url", null).value.asText(),
+            BASE_URL + "/inventory.html");
+        String title = find(session, "css selector", ".title").value.get(StubDriverServer.ELEMENT_KEY).asText();
+        Assert.assertEquals(call("GET", "/session/" + session + "/element/" + title + "/text", null).value.asText(),
+            "Products");
+        Assert.assertEquals(call("GET", "/session/" + session + "/cookie/session-username", null)
+            .value.path("value").asText(), "standard_user");
+    }
+
+    @Test(description = "Invalid credentials show the error and stay on the login page")
+    public void testInvalidLogin() throws IOException {
+        String session = newSession();
+        navigate(session, BASE_URL);
+        Assert.assertEquals(find(session, "xpath", "//h3[@data-test='error']").status, 404);
+
+        login(session, "invalid_user", "invalid_password");
+
+        Assert.assertEquals(call("GET", "/session/" + session + "/url", null).value.asText(), BASE_URL);
+        String error = find(session, "xpath", "//h3[@data-test='error']").value.get(StubDriverServer.ELEMENT_KEY).asText();
+        Assert.assertTrue(call("GET", "/session/" + session + "/element/" + error + "/text", null)
+            .value.asText().contains("Username and password do not match"));
+    }
+
+    @Test(description = "Inventory without the session cookie redirects to the login page")
+    public void testLoggedOutRedirect() throws IOException {
+        String session = newSession();
+        navigate(session, BASE_URL + "/inventory.html");
+
+        Assert.assertEquals(call("GET", "/session/" + session + "/url", null).value.asText(), BASE_URL + "/");
+        Assert.assertEquals(find(session, "css selector", "#login-button").status, 200);
+    }
+
+    @Test(description = "RemoteWebDriver finds elements by id and logs in")
+    public void testRemoteWebDriverLogin() {
+        WebDriver driver = new RemoteWebDriver(server.getUrl(), new ImmutableCapabilities("browserName", "chrome"));
+        try {
+            driver.get(BASE_URL);
+            // By.id sends an escaped CSS selector (#user\-name)
+            driver.findElement(By.id("user-name")).sendKeys("standard_user");
+            driver.findElement(By.id("password")).sendKeys("secret_sauce");
+            driver.findElement(By.id("login-button")).click();
+
+            Assert.assertEquals(driver.getCurrentUrl(), BASE_URL + "/inventory.html");
+            Assert.assertEquals(driver.findElement(By.className("title")).getText(), "Products");
+        } finally {
+            driver.quit();
+        }
+    }
+
+    @Test(description = "Decorated drivers unwrap to their RemoteWebDriver session")
+    public void testUnwrapDecoratedDriver() {
+        RemoteWebDriver driver = new RemoteWebDriver(server.getUrl(), new ImmutableCapabilities("browserName", "chrome"));
+        try {
+            WebDriver decorated = new EventFiringDecorator<>(new WebDriverListener() { }).decorate(driver);
+            Assert.assertFalse(decorated instanceof RemoteWebDriver, "Decorator should hide the driver class");
+            Assert.assertSame(DriverManager.unwrap(decorated), driver);
+            Assert.assertSame(DriverManager.unwrap(driver), driver);
+            Assert.assertEquals(((RemoteWebDriver) DriverManager.unwrap(decorated)).getSessionId(), driver.getSessionId());
+        } finally {
+            driver.quit();
+        }
+    }
+
+    @Test(description = "Elements of the previous page are reported stale")
+    public void testStaleElement() throws IOException {
+        String session = newSession();
+        navigate(session, BASE_URL);
+        String button = find(session, "css selector", "#login-button").value.get(StubDriverServer.ELEMENT_KEY).asText();
+        login(session, "standard_user", "secret_sauce");
+
+        Response click = call("POST", "/session/" + session + "/element/" + button + "/click", mapper.createObjectNode());
+        Assert.assertEquals(click.status, 404);
+        Assert.assertEquals(click.value.path("error").asText(), "stale element reference");
+    }
+
+    @Test(description = "Selenium's isDisplayed and getAttribute atoms are answered")
+    public void testAtoms() throws IOException {
+        String session = newSession();
+        navigate(session, BASE_URL);
+        String user = find(session, "css selector", "#user-name").value.get(StubDriverServer.ELEMENT_KEY).asText();
+        sendKeys(session, user, "standard_user");
+
+        Assert.assertTrue(execute(session, user, null).value.asBoolean());
+        Assert.assertEquals(execute(session, user, "value").value.asText(), "standard_user");
+    }
+
+    @Test(description = "Unknown sessions and commands answer with W3C errors")
+    public void testErrors() throws IOException {
+        Assert.assertEquals(call("GET", "/session/missing/url", null).value.path("error").asText(), "invalid session id");
+
+        String session = newSession();
+        Response unknown = call("GET", "/session/" + session + "/print", null);
+        Assert.assertEquals(unknown.status, 404);
+        Assert.assertEquals(unknown.value.path("error").asText(), "unknown command");
+    }
+
+    @Test(description = "Configured latency is applied per command")
+    public void testLatencyInjection() throws IOException {
+        String session = newSession();
+
+        long start = System.nanoTime();
+        Response screenshot = call("GET", "/session/" + session + "/screenshot", null);
+        long screenshotMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        call("GET", "/session/" + session + "/url", null);
+        long urlMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assert.assertTrue(screenshot.value.asText().startsWith("iVBORw0KGgo"), "Screenshot is not a PNG");
+        Assert.assertTrue(screenshotMillis >= 150, "Screenshot latency not applied: " + screenshotMillis + "ms");
+        Assert.assertTrue(urlMillis < 150, "Latency leaked into other commands: " + urlMillis + "ms");
+    }
+
+    @Test(description = "Deleted sessions are removed")
+    public void testDeleteSession() throws IOException {
+        String session = newSession();
+        int active = server.getActiveSessionCount();
+
+        Assert.assertEquals(call("DELETE", "/session/" + session, null).status, 200);
+        Assert.assertEquals(server.getActiveSessionCount(), active - 1);
+    }
+
+    // ==================== HELPERS ====================
+
+    private String newSession() throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.putObject("capabilities").putObject("alwaysMatch").put("browserName", "chrome");
+        Response response = call("POST", "/session", body);
+        Assert.assertEquals(response.status, 200);
+        return response.value.path("sessionId").asText();
+    }
+
+    private void navigate(String session, String url) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("url", url);
+        Assert.assertEquals(call("POST", "/session/" + session + "/url", body).status, 200);
+    }
+
+    private Response find(String session, String using, String value) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("using", using);
+        body.put("value", value);
+        return call("POST", "/session/" + session + "/element", body);
+    }
+
+    private void sendKeys(String session, String element, String text) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("text", text);
+        Assert.assertEquals(call("POST", "/session/" + session + "/element/" + element + "/value", body).status, 200);
+    }
+
+    private void login(String session, String username, String password) throws IOException {
+        sendKeys(session, find(session, "css selector", "#user-name").value.get(StubDriverServer.ELEMENT_KEY).asText(), username);
+        sendKeys(session, find(session, "css selector", "#password").value.get(StubDriverServer.ELEMENT_KEY).asText(), password);
+        String button = find(session, "css selector", "#login-button").value.get(StubDriverServer.ELEMENT_KEY).asText();
+        Assert.assertEquals(call("POST", "/session/" + session + "/element/" + button + "/click",
+            mapper.createObjectNode()).status, 200);
+    }
+
+    private Response execute(String session, String element, String attribute) throws IOException {
+        ObjectNode body = mapper.createObjectNode();
+        body.put("script", ATOM);
+        ArrayNode args = body.putArray("args");
+        args.addObject().put(StubDriverServer.ELEMENT_KEY, element);
+        if (attribute != null) {
+            args.add(attribute);
+        }
+        return call("POST", "/session/" + session + "/execute/sync", body);
+    }
+
+    private Response call(String method, String path, JsonNode body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(server.getUrl() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(mapper.writeValueAsBytes(body));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new Response(status, mapper.readTree(in.readAllBytes()).path("value"));
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.selenium.tests;
+
+import com.selenium.core.DriverManager;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Test class for the shared-browser context isolation mode
+ * Verifies that per-test browser contexts do not leak cookies or storage and
+ * compares context-per-test against browser-per-test launch cost
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class BrowserContextIsolationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContextIsolationTests.class);
+    private static final String PAGE = "<html><head><title>Isolation</title></head><body>isolation</body></html>";
+
+    private HttpServer server;
+    private String pageUrl;
+
+    @BeforeClass(alwaysRun = true)
+    public void startLocalSite() throws Exception {
+        // Local origin so cookies and localStorage can be set without network access
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        pageUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        System.setProperty("browser.isolation.mode", "context");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeContext() {
+        if (DriverManager.isDriverInitialized()) {
+            DriverManager.quitDriver();
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopLocalSite() {
+        DriverManager.quitAllDrivers();
+        System.clearProperty("browser.isolation.mode");
+        server.stop(0);
+    }
+
+    @Test(description = "Cookies set in one browser context are not visible in the next")
+    public void cookiesDoNotLeakBetweenContexts() {
+        WebDriver first = DriverManager.createDriver("chrome", true);
+        first.get(pageUrl);
+        first.manage().addCookie(new Cookie("session-username", "standard_user"));
+        Assert.assertNotNull(first.manage().getCookieNamed("session-username"), "Cookie should be set");
+        String firstSession = ((RemoteWebDriver) DriverManager.unwrap(first)).getSessionId().toString();
+        DriverManager.quitDriver();
+
+        WebDriver second = DriverManager.createDriver("chrome", true);
+        second.get(pageUrl);
+        Assert.assertEquals(((RemoteWebDriver) DriverManager.unwrap(second)).getSessionId().toString(), firstSession,
+            "Both contexts should live in the same browser session");
+        Assert.assertNull(second.manage().getCookieNamed("session-username"), "Cookie leaked into new context");
+    }
+
+    @Test(description = "localStorage and sessionStorage are not visible in the next context")
+    public void storageDoesNotLeakBetweenContexts() {
+        WebDriver first = DriverManager.createDriver("chrome", true);
+        first.get(pageUrl);
+        ((JavascriptExecutor) first).executeScript(
+            "localStorage.setItem('cart-contents', '[4]'); sessionStorage.setItem('tab', 'inventory');");
+        DriverManager.quitDriver();
+
+        WebDriver second = DriverManager.createDriver("chrome", true);
+        second.get(pageUrl);
+        Object local = ((JavascriptExecutor) second).executeScript("return localStorage.getItem('cart-contents');");
+        Object session = ((JavascriptExecutor) second).executeScript("return sessionStorage.getItem('tab');");
+        Assert.assertNull(local, "localStorage leaked into new context");
+        Assert.assertNull(session, "sessionStorage leaked into new context");
+    }
+
+    @Test(groups = "benchmark", description = "Compare context-per-test with browser-per-test setup cost")
+    public void benchmarkContextVersusFullBrowser() {
+        int iterations = Integer.getInteger("isolation.benchmark.iterations", 5);
+
+        DriverManager.quitAllDrivers();
+        System.setProperty("browser.isolation.mode", "browser");
+        long browserPerTest = measure(iterations);
+
+        System.setProperty("browser.isolation.mode", "context");
+        long contextPerTest = measure(iterations);
+
+        logger.info("Isolation benchmark ({} iterations): browser-per-test avg {}ms, context-per-test avg {}ms",
+            iterations, browserPerTest / iterations, contextPerTest / iterations);
+        Assert.assertTrue(contextPerTest < browserPerTest,
+            "Context-per-test should be cheaper than launching a browser per test");
+    }
+
+    /**
+     * Runs create/navigate/teardown cycles and returns the total wall time in ms
+     */
+    private long measure(int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            WebDriver driver = DriverManager.createDriver("chrome", true);
+            driver.get(pageUrl);
+            Assert.assertEquals(driver.getTitle(), "Isolation");
+            DriverManager.quitDriver();
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
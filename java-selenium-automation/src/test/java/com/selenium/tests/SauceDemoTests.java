@@ -3,6 +3,7 @@ package com.selenium.tests;
 import com.selenium.core.BaseTest;
 import com.selenium.pages.InventoryPage;
 import com.selenium.pages.LoginPage;
+import com.selenium.session.ReuseLoginSession;
 import com.selenium.utils.DataReader;
 import org.testng.Assert;
 import org.testng.ITestContext;
@@ -58,8 +59,8 @@ public class SauceDemoTests extends BaseTest {
 
             logger.info("Using credentials - Username: {}", username);
 
-            // Perform login
-            loginPage.login(username, password);
+            // Perform login (captures the session for tests that reuse it)
+            login(username, password);
             logger.info("Login attempted with valid credentials");
 
             // Verify login success
@@ -126,6 +127,7 @@ public class SauceDemoTests extends BaseTest {
         }
     }
 
+    @ReuseLoginSession
     @Test(priority = 4, description = "5. Verify positive case navigation and title using TestNG assertions")
     public void verifyPositiveCaseNavigationAndTitle(ITestContext context) {
         logger.info("Test 4: Verify positive case navigation and title");
@@ -138,8 +140,8 @@ public class SauceDemoTests extends BaseTest {
             String username = DataReader.getUsername(context);
             String password = DataReader.getPassword(context);
 
-            // Perform login
-            loginPage.login(username, password);
+            // Perform login (skipped when the captured session was restored)
+            login(username, password);
             logger.info("Login performed with valid credentials");
 
             // Verify navigation to correct page
@@ -0,0 +1,140 @@
+package com.selenium.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selenium.utils.ConfigurationManager;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracer Test Suite
+ * Verifies span nesting and the OTLP/JSON lines written at suite end
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class TracerTests {
+
+    @AfterMethod(alwaysRun = true)
+    public void closeSuite() {
+        Tracer.endSuite();
+    }
+
+    @Test(description = "Spans are no-ops while no suite is traced")
+    public void testInactiveTracer() {
+        Assert.assertFalse(Tracer.isActive());
+
+        Span span = Tracer.start("wait").setAttribute("wait.condition", "visible");
+        Tracer.end(span);
+
+        Assert.assertSame(span, Tracer.current());
+        Assert.assertFalse(span.isEnded());
+    }
+
+    @Test(description = "Spans nest under the open span of their thread")
+    public void testNesting() throws IOException {
+        Tracer.startSuite("Unit");
+        Span test = Tracer.start("test LoginTests.testLogin");
+        Span wait = Tracer.start("wait");
+        long start = System.nanoTime();
+        Tracer.record("command findElement", Span.KIND_CLIENT, start, start + 1_000_000, Map.of("page", "LoginPage"));
+        Tracer.end(wait);
+        Span body = Tracer.start("body LoginTests.testLogin");
+        Assert.assertEquals(body.getParentSpanId(), test.getSpanId());
+        Tracer.end(body);
+        Tracer.end(test);
+        Tracer.endSuite();
+
+        Map<String, JsonNode> spans = readSpans();
+        Assert.assertEquals(spans.size(), 5);
+        String suiteId = spans.get("suite Unit").path("spanId").asText();
+        Assert.assertFalse(spans.get("suite Unit").has("parentSpanId"));
+        Assert.assertEquals(spans.get("test LoginTests.testLogin").path("parentSpanId").asText(), suiteId);
+        Assert.assertEquals(spans.get("wait").path("parentSpanId").asText(), test.getSpanId());
+        Assert.assertEquals(spans.get("command findElement").path("parentSpanId").asText(), wait.getSpanId());
+        Assert.assertEquals(spans.get("command findElement").path("kind").asInt(), 3);
+
+        JsonNode command = spans.get("command findElement");
+        long duration = Long.parseLong(command.path("endTimeUnixNano").asText())
+            - Long.parseLong(command.path("startTimeUnixNano").asText());
+        Assert.assertEquals(duration, 1_000_000L);
+        Assert.assertEquals(attribute(command, "page").path("stringValue").asText(), "LoginPage");
+        Assert.assertEquals(attribute(command, "thread.name").path("stringValue").asText(), Thread.currentThread().getName());
+    }
+
+    @Test(description = "Failures set the error status, marked end times are kept")
+    public void testStatusAndMarkedEnd() throws IOException, InterruptedException {
+        Tracer.startSuite("Unit");
+        Span setup = Tracer.start("setup BaseTest.setUp");
+        setup.recordError(new IllegalStateException("driver failed"));
+        setup.markEnd();
+        long markedEnd = setup.getEndEpochNanos();
+        Thread.sleep(5);
+        Tracer.end(setup);
+        Tracer.endSuite();
+
+        JsonNode span = readSpans().get("setup BaseTest.setUp");
+        Assert.assertEquals(span.path("status").path("code").asInt(), 2);
+        Assert.assertEquals(span.path("status").path("message").asText(), "IllegalStateException: driver failed");
+        Assert.assertEquals(Long.parseLong(span.path("endTimeUnixNano").asText()), markedEnd);
+    }
+
+    @Test(description = "Each line is a complete OTLP request carrying the resource")
+    public void testRequestFormat() throws IOException {
+        Tracer.startSuite("Unit");
+        Tracer.end(Tracer.start("test A").setAttribute("retries", 2).setAttribute("headless", true));
+        Tracer.endSuite();
+
+        List<String> lines = Files.readAllLines(traceFile());
+        Assert.assertFalse(lines.isEmpty());
+        JsonNode resourceSpans = new ObjectMapper().readTree(lines.get(0)).path("resourceSpans").path(0);
+        Assert.assertEquals(attribute(resourceSpans.path("resource"), "service.name").path("stringValue").asText(),
+            "java-selenium-automation");
+        Assert.assertEquals(resourceSpans.path("scopeSpans").path(0).path("scope").path("name").asText(),
+            "com.selenium.tracing");
+
+        JsonNode test = readSpans().get("test A");
+        Assert.assertEquals(attribute(test, "retries").path("intValue").asText(), "2");
+        Assert.assertTrue(attribute(test, "headless").path("boolValue").asBoolean());
+        Assert.assertEquals(test.path("status").path("code").asInt(), 1);
+    }
+
+    private static Map<String, JsonNode> readSpans() throws IOException {
+        Map<String, JsonNode> spans = new HashMap<>();
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : Files.readAllLines(traceFile())) {
+            JsonNode request = mapper.readTree(line);
+            for (JsonNode resourceSpans : request.path("resourceSpans")) {
+                for (JsonNode scopeSpans : resourceSpans.path("scopeSpans")) {
+                    for (JsonNode span : scopeSpans.path("spans")) {
+                        spans.put(span.path("name").asText(), span);
+                    }
+                }
+            }
+        }
+        return spans;
+    }
+
+    private static JsonNode attribute(JsonNode owner, String key) {
+        for (JsonNode attribute : owner.path("attributes")) {
+            if (key.equals(attribute.path("key").asText())) {
+                return attribute.path("value");
+            }
+        }
+        return owner.path("missing");
+    }
+
+    private static Path traceFile() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        return Paths.get(config.getReportsDirectory(), config.getProperty("tracing.file", "traces.jsonl"));
+    }
+}
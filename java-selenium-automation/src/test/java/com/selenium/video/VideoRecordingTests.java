@@ -0,0 +1,65 @@
+package com.selenium.video;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Video Recording Test Suite
+ * Verifies the rolling segment buffer and that screencast frames are cut into segments
+ * and written as one Motion JPEG stream
+ *
+ * @author Asim Kumar Singh
+ * @version 1.0.0
+ */
+public class VideoRecordingTests {
+
+    @Test(description = "The ring keeps the retention window and its byte budget")
+    public void testSegmentRing() {
+        SegmentRing ring = new SegmentRing(10000, 1000);
+        for (int second = 0; second < 30; second += 5) {
+            ring.add(new SegmentRing.Segment(second * 1000L, (second + 5) * 1000L, new byte[100]));
+        }
+        // Segments ending after 30s - 10s are kept
+        Assert.assertEquals(ring.size(), 2);
+        Assert.assertEquals(ring.getEvicted(), 4L);
+        Assert.assertEquals(ring.covering(0, 40000).get(0).getStartMillis(), 20000L);
+
+        // Over budget, the oldest go even inside the window
+        ring.add(new SegmentRing.Segment(35000, 36000, new byte[950]));
+        Assert.assertEquals(ring.size(), 1);
+        Assert.assertEquals(ring.getBytes(), 950L);
+
+        // The newest segment stays even when it alone exceeds the budget
+        ring.add(new SegmentRing.Segment(36000, 37000, new byte[2000]));
+        Assert.assertEquals(ring.size(), 1);
+        Assert.assertTrue(ring.covering(0, 35999).isEmpty());
+    }
+
+    @Test(description = "Frames are cut into segments and only the ones before the failure are written")
+    public void testFailureVideo() throws IOException {
+        ScreencastRecorder recorder = new ScreencastRecorder(null, 1000, 2000, 1 << 20);
+        for (int frame = 0; frame <= 50; frame++) {
+            recorder.append(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) frame, (byte) 0xFF, (byte) 0xD9},
+                frame * 100L);
+        }
+        recorder.seal();
+
+        // Segments of 0-1s, 1.1-2.1s, 2.2-3.2s, 3.3-4.3s and 4.4-5s; the first two fell out
+        List<SegmentRing.Segment> segments = recorder.getRing().covering(5000 - 2000, 5000);
+        Assert.assertEquals(segments.size(), 3);
+        Assert.assertEquals(segments.get(0).getStartMillis(), 2200L);
+        Assert.assertEquals(segments.get(2).getEndMillis(), 5000L);
+
+        Path file = Files.createTempDirectory("video").resolve("videos").resolve("failure.mjpeg");
+        ScreencastRecorder.writeMjpeg(segments, file);
+        byte[] video = Files.readAllBytes(file);
+        Assert.assertEquals(video.length, (50 - 22 + 1) * 5);
+        Assert.assertEquals(video[2], (byte) 22, "Video does not start with the first retained frame");
+        Assert.assertEquals(video[video.length - 3], (byte) 50);
+    }
+}